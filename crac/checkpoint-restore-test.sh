@@ -0,0 +1,105 @@
+#!/bin/sh
+# Checkpoint/restore harness for the CRaC image (crac/Dockerfile):
+#   1. starts the app normally and records its responses and time-to-first-response
+#   2. checkpoints the app and commits the checkpoint into an image
+#   3. restores that image, then asserts the restored app returns the same responses
+#      and answers within MAX_RESTORE_MS (default 1000)
+#
+# Needs Docker and a database with the catalog loaded, passed through as e.g.
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://host.docker.internal:5432/mydatabase
+#   SPRING_DATASOURCE_USERNAME=myuser SPRING_DATASOURCE_PASSWORD=secret
+#
+# Usage: ./gradlew cracCheckpointRestoreTest
+set -eu
+
+IMAGE=${IMAGE:-rc-recommender-crac}
+PORT=${PORT:-18080}
+MAX_RESTORE_MS=${MAX_RESTORE_MS:-1000}
+PATHS="/coasters?limit=20 /countries /actuator/health/readiness"
+CRAC_CAPS="--cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE"
+work=$(mktemp -d)
+containers=""
+trap 'docker rm -f ${containers} >/dev/null 2>&1 || true; rm -rf "${work}"' EXIT
+
+now_ms() {
+    date +%s%3N
+}
+
+run() {
+    docker run -d -p "${PORT}:8080" \
+        --add-host=host.docker.internal:host-gateway \
+        -e SPRING_DATASOURCE_URL -e SPRING_DATASOURCE_USERNAME -e SPRING_DATASOURCE_PASSWORD \
+        -e RECOMMENDER_API_URL "$@"
+}
+
+# wait_ready <container>; waits for the first successful response
+wait_ready() {
+    tries=0
+    until curl -sf -o /dev/null "http://localhost:${PORT}/coasters?limit=20"; do
+        tries=$((tries + 1))
+        if [ "${tries}" -gt 1200 ]; then
+            echo "No response; container log:" >&2
+            docker logs "$1" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+}
+
+# capture <dir>; saves each path's response body
+capture() {
+    mkdir -p "$1"
+    i=0
+    for path in ${PATHS}; do
+        curl -sf "http://localhost:${PORT}${path}" > "$1/${i}.json"
+        i=$((i + 1))
+    done
+}
+
+docker build -q -f crac/Dockerfile -t "${IMAGE}" . >/dev/null
+
+echo "Starting without a checkpoint..."
+start=$(now_ms)
+cid=$(run --entrypoint java "${IMAGE}" --add-modules jdk.incubator.vector -jar /app/app.jar)
+containers="${containers} ${cid}"
+wait_ready "${cid}"
+baseline_ms=$(( $(now_ms) - start ))
+capture "${work}/baseline"
+docker rm -f "${cid}" >/dev/null
+
+echo "Checkpointing..."
+cid=$(run ${CRAC_CAPS} "${IMAGE}")
+containers="${containers} ${cid}"
+docker wait "${cid}" >/dev/null
+if ! docker diff "${cid}" | grep -q '/crac/.*\.img$'; then
+    echo "Checkpoint failed; container log:" >&2
+    docker logs "${cid}" >&2
+    exit 1
+fi
+docker commit "${cid}" "${IMAGE}:checkpoint" >/dev/null
+docker rm -f "${cid}" >/dev/null
+
+echo "Restoring..."
+start=$(now_ms)
+cid=$(run ${CRAC_CAPS} "${IMAGE}:checkpoint")
+containers="${containers} ${cid}"
+wait_ready "${cid}"
+restore_ms=$(( $(now_ms) - start ))
+capture "${work}/restored"
+
+failed=0
+i=0
+for path in ${PATHS}; do
+    if ! cmp -s "${work}/baseline/${i}.json" "${work}/restored/${i}.json"; then
+        echo "FAIL: ${path} differs after restore" >&2
+        failed=1
+    fi
+    i=$((i + 1))
+done
+
+echo "Time to first response: ${baseline_ms} ms without checkpoint, ${restore_ms} ms restored"
+if [ "${restore_ms}" -gt "${MAX_RESTORE_MS}" ]; then
+    echo "FAIL: restore took longer than ${MAX_RESTORE_MS} ms" >&2
+    failed=1
+fi
+exit "${failed}"
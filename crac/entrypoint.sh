@@ -0,0 +1,17 @@
+#!/bin/sh
+# Restores the checkpoint in $CRAC_DIR when there is one. Otherwise starts the app and
+# checkpoints it right after the context refreshes (spring.context.checkpoint=onRefresh),
+# before the web server starts; `docker commit` the stopped container to keep it.
+#
+# The checkpoint holds the whole heap, including the configuration (and database
+# credentials) resolved at checkpoint time: keep checkpointed images private.
+set -e
+CRAC_DIR=${CRAC_DIR:-/crac}
+
+if ls "${CRAC_DIR}"/*.img >/dev/null 2>&1; then
+    exec java -XX:CRaCRestoreFrom="${CRAC_DIR}"
+fi
+
+mkdir -p "${CRAC_DIR}"
+exec java -XX:CRaCCheckpointTo="${CRAC_DIR}" -Dspring.context.checkpoint=onRefresh \
+    --add-modules jdk.incubator.vector ${JAVA_OPTS:-} -jar /app/app.jar
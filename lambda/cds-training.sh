@@ -0,0 +1,44 @@
+#!/bin/sh
+# Trains the AppCDS archive shipped as /var/task/app.jsa (see template.yaml).
+#
+# The archive is dumped by the real Lambda runtime serving real requests, so it
+# holds the classes loaded through the runtime's class loader for our jar and
+# matches the runtime's own classpath. It is only valid for the JDK build it was
+# trained on: retrain whenever the base image or the jar changes. A stale archive
+# is ignored (-Xshare:auto), costing the speed-up but not correctness.
+#
+# Usage: ./gradlew lambdaCdsArchive   (runs lambdaLayout first)
+set -eu
+. "$(dirname "$0")/common.sh"
+
+events_dir="$(dirname "$0")/events"
+cds_dir=$(mktemp -d)
+chmod 777 "${cds_dir}"
+
+cid=$(start_function "-XX:ArchiveClassesAtExit=/cds/app.jsa -Xlog:cds=warning" -v "${cds_dir}:/cds")
+trap 'docker rm -f "${cid}" >/dev/null 2>&1 || true; rm -rf "${cds_dir}"' EXIT
+
+for event in get-health get-coasters get-coasters; do
+    invoke "${events_dir}/${event}.json" >/dev/null
+done
+
+# the archive is written when the JVM exits normally, so stop it with SIGTERM
+# rather than stopping the container (the emulator would kill it)
+docker exec "${cid}" /bin/sh -c '
+    for p in /proc/[0-9]*; do
+        if grep -q AWSLambda "$p/cmdline" 2>/dev/null; then kill -TERM "${p#/proc/}"; fi
+    done'
+
+tries=0
+until [ -s "${cds_dir}/app.jsa" ] && ! docker exec "${cid}" /bin/sh -c 'grep -qs AWSLambda /proc/[0-9]*/cmdline'; do
+    tries=$((tries + 1))
+    if [ "${tries}" -gt 600 ]; then
+        echo "No CDS archive was written; container log:" >&2
+        docker logs "${cid}" >&2
+        exit 1
+    fi
+    sleep 0.1
+done
+
+cp "${cds_dir}/app.jsa" "${LAMBDA_TASK_DIR}/app.jsa"
+echo "Wrote ${LAMBDA_TASK_DIR}/app.jsa ($(du -h "${LAMBDA_TASK_DIR}/app.jsa" | cut -f1))"
@@ -0,0 +1,39 @@
+#!/bin/sh
+# Shared helpers for running build/lambda in the Lambda java21 base image, whose
+# runtime interface emulator serves the Lambda invoke API on port 8080.
+#
+# Database settings are passed through from the environment, e.g.
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://host.docker.internal:5432/mydatabase
+#   SPRING_DATASOURCE_USERNAME=myuser SPRING_DATASOURCE_PASSWORD=secret
+
+LAMBDA_IMAGE=${LAMBDA_IMAGE:-public.ecr.aws/lambda/java:21}
+LAMBDA_HANDLER=app.molby.rcrecommender.StreamLambdaHandler::handleRequest
+LAMBDA_PORT=${LAMBDA_PORT:-9000}
+LAMBDA_TASK_DIR=${LAMBDA_TASK_DIR:-build/lambda}
+INVOKE_URL="http://localhost:${LAMBDA_PORT}/2015-03-31/functions/function/invocations"
+
+# start_function <java tool options> [extra docker run args...]; prints the container id
+start_function() {
+    tool_options=$1
+    shift
+    docker run -d --rm -p "${LAMBDA_PORT}:8080" \
+        --add-host=host.docker.internal:host-gateway \
+        -v "$(pwd)/${LAMBDA_TASK_DIR}:/var/task:ro" \
+        -e JAVA_TOOL_OPTIONS="${tool_options}" \
+        -e SPRING_DATASOURCE_URL -e SPRING_DATASOURCE_USERNAME -e SPRING_DATASOURCE_PASSWORD \
+        -e RECOMMENDER_API_URL \
+        "$@" "${LAMBDA_IMAGE}" "${LAMBDA_HANDLER}"
+}
+
+# invoke <event file>; prints the HTTP status code the function responded with,
+# retrying until the emulator accepts connections
+invoke() {
+    until response=$(curl -s -XPOST "${INVOKE_URL}" -d @"$1"); do
+        sleep 0.05
+    done
+    echo "${response}" | grep -o '"statusCode": *[0-9]*' | grep -o '[0-9]*$' || echo "error"
+}
+
+now_ms() {
+    date +%s%3N
+}
@@ -0,0 +1,43 @@
+#!/bin/sh
+# Measures Lambda cold starts locally: for each variant a fresh function is
+# started and invoked once, reporting the wall time until the first response
+# along with the context-ready and first-request times StreamLambdaHandler logs
+# (both measured from JVM start).
+#
+# Variants:
+#   default  no Spring profile, i.e. the full application context
+#   lambda   the "lambda" profile (application-lambda.properties)
+#   cds      the "lambda" profile plus the trained app.jsa (lambda/cds-training.sh)
+#
+# Usage: ./gradlew lambdaStartupBenchmark   (RUNS=n to change the runs per variant)
+set -eu
+. "$(dirname "$0")/common.sh"
+
+event="$(dirname "$0")/events/get-coasters.json"
+runs=${RUNS:-5}
+
+run_variant() {
+    name=$1
+    tool_options=$2
+    profiles=$3
+    i=1
+    while [ "${i}" -le "${runs}" ]; do
+        start=$(now_ms)
+        cid=$(start_function "${tool_options}" -e LAMBDA_SPRING_PROFILES="${profiles}")
+        status=$(invoke "${event}")
+        elapsed=$(( $(now_ms) - start ))
+        timings=$(docker logs "${cid}" 2>&1 | grep -o '[A-Za-z -]* in [0-9]* ms since JVM start' | tr '\n' ';' || true)
+        docker rm -f "${cid}" >/dev/null
+        printf '%-8s run %d: status %s, first response after %5d ms (%s)\n' \
+            "${name}" "${i}" "${status}" "${elapsed}" "${timings}"
+        i=$((i + 1))
+    done
+}
+
+run_variant default "" ""
+run_variant lambda "" "lambda"
+if [ -f "${LAMBDA_TASK_DIR}/app.jsa" ]; then
+    run_variant cds "-XX:SharedArchiveFile=/var/task/app.jsa -Xshare:auto" "lambda"
+else
+    echo "Skipping the cds variant: run ./gradlew lambdaCdsArchive first"
+fi
@@ -0,0 +1,43 @@
+#!/bin/sh
+# Starts the native binary, reports its startup time and resident memory, and runs
+# the HTTP smoke tests (src/smokeTest) against it.
+#
+# Needs a database with the catalog loaded, passed through as e.g.
+#   SPRING_DATASOURCE_URL=jdbc:postgresql://localhost:5432/mydatabase
+#   SPRING_DATASOURCE_USERNAME=myuser SPRING_DATASOURCE_PASSWORD=secret
+#
+# Usage: ./gradlew nativeSmokeTest -Pnative   (fails over MAX_STARTUP_MS, default 1000)
+set -eu
+
+BINARY=${BINARY:-build/native/nativeCompile/rc-recommender}
+PORT=${PORT:-18080}
+MAX_STARTUP_MS=${MAX_STARTUP_MS:-1000}
+log=$(mktemp)
+
+start=$(date +%s%3N)
+"${BINARY}" --spring.profiles.active=native --server.port="${PORT}" > "${log}" 2>&1 &
+pid=$!
+trap 'kill "${pid}" 2>/dev/null || true; rm -f "${log}"' EXIT
+
+tries=0
+until curl -sf -o /dev/null "http://localhost:${PORT}/actuator/health/readiness"; do
+    tries=$((tries + 1))
+    if ! kill -0 "${pid}" 2>/dev/null || [ "${tries}" -gt 600 ]; then
+        echo "Native binary did not become ready; log:" >&2
+        cat "${log}" >&2
+        exit 1
+    fi
+    sleep 0.01
+done
+ready_ms=$(( $(date +%s%3N) - start ))
+
+echo "Ready after ${ready_ms} ms ($(grep -o 'Started .* in [0-9.]* seconds' "${log}" || echo 'no startup line'))"
+echo "Resident memory at ready: $(grep VmRSS "/proc/${pid}/status" | tr -s ' ' | cut -d' ' -f2-)"
+
+./gradlew smokeTest -PsmokeTest.baseUrl="http://localhost:${PORT}"
+echo "Resident memory after smoke tests: $(grep VmRSS "/proc/${pid}/status" | tr -s ' ' | cut -d' ' -f2-)"
+
+if [ "${ready_ms}" -gt "${MAX_STARTUP_MS}" ]; then
+    echo "FAIL: ready after ${ready_ms} ms, over ${MAX_STARTUP_MS} ms" >&2
+    exit 1
+fi
@@ -0,0 +1,152 @@
+package app.molby.rcrecommender.api;
+
+import app.molby.rcrecommender.api.coaster.RollerCoasterDto;
+import app.molby.rcrecommender.api.coaster.RollerCoasterMapper;
+import app.molby.rcrecommender.api.coaster.RollerCoasterMapperImpl;
+import app.molby.rcrecommender.api.rating.CoasterRatingDto;
+import app.molby.rcrecommender.api.rating.CoasterRatingMapper;
+import app.molby.rcrecommender.api.rating.CoasterRatingMapperImpl;
+import app.molby.rcrecommender.api.user.UserDto;
+import app.molby.rcrecommender.api.user.UserMapper;
+import app.molby.rcrecommender.api.user.UserMapperImpl;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRow;
+import app.molby.rcrecommender.domain.user.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the MapStruct mappers on the shapes the API serves: single coasters and
+ * ratings, a page of coasters, and users with their ratings.
+ * @author Bob Molby
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    /** Coasters per page, and ratings per user. */
+    @Param({"20", "1000"})
+    int size;
+
+    private final RollerCoasterMapper coasterMapper = new RollerCoasterMapperImpl();
+    private final CoasterRatingMapper ratingMapper = new CoasterRatingMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private RollerCoasterEntity coaster;
+    private RollerCoasterDto coasterDto;
+    private List<RollerCoasterEntity> coasters;
+    private CoasterRatingEntity rating;
+    private CoasterRatingRow ratingRow;
+    private UserEntity user;
+    private UserDto userDto;
+
+    @Setup
+    public void setUp() {
+        coaster = coaster(1);
+        coasterDto = coasterMapper.toRollerCoasterDto(coaster);
+        coasters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            coasters.add(coaster(i));
+        }
+
+        rating = rating("user-1", 1);
+        ratingRow = new CoasterRatingRow(1L, "user-1", 1L, new BigDecimal("4.5"));
+
+        user = new UserEntity();
+        user.setId("user-1");
+        user.setEmailAddress("user-1@example.com");
+        user.setFirstName("Jean-Luc");
+        user.setLastName("Picard");
+        user.setCountry("United States");
+        Set<CoasterRatingEntity> ratings = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            ratings.add(rating("user-1", i));
+        }
+        user.setCoasterRatings(ratings);
+        userDto = userMapper.toUserDto(user);
+    }
+
+    @Benchmark
+    public RollerCoasterDto coasterToDto() {
+        return coasterMapper.toRollerCoasterDto(coaster);
+    }
+
+    @Benchmark
+    public RollerCoasterEntity coasterDtoToEntity() {
+        return coasterMapper.toRollerCoasterEntity(coasterDto);
+    }
+
+    @Benchmark
+    public List<RollerCoasterDto> coasterPageToDtos() {
+        return coasterMapper.toRollerCoasterDtoList(coasters);
+    }
+
+    @Benchmark
+    public CoasterRatingDto ratingToDto() {
+        return ratingMapper.toDto(rating);
+    }
+
+    @Benchmark
+    public CoasterRatingDto ratingRowToDto() {
+        return ratingMapper.toDto(ratingRow);
+    }
+
+    @Benchmark
+    public UserDto userWithRatingsToDto() {
+        return userMapper.toUserDto(user);
+    }
+
+    @Benchmark
+    public UserEntity userDtoWithRatingsToEntity() {
+        return userMapper.toUserEntity(userDto);
+    }
+
+    private static RollerCoasterEntity coaster(long id) {
+        RollerCoasterEntity coaster = new RollerCoasterEntity();
+        coaster.setId(id);
+        coaster.setName("Millennium Force " + id);
+        coaster.setAmusementPark("Cedar Point");
+        coaster.setType("Steel");
+        coaster.setDesign("Sit Down");
+        coaster.setStatus("Operating");
+        coaster.setManufacturer("Intamin");
+        coaster.setModel("Giga Coaster");
+        coaster.setLength(new BigDecimal("6595"));
+        coaster.setHeight(new BigDecimal("310"));
+        coaster.setDrop(new BigDecimal("300"));
+        coaster.setInversionCount(BigDecimal.ZERO);
+        coaster.setSpeed(new BigDecimal("93"));
+        coaster.setVerticalAngle(new BigDecimal("80"));
+        coaster.setRestraints("Lap Bar");
+        coaster.setGForce(new BigDecimal("4.5"));
+        coaster.setIntensity("Thrill");
+        coaster.setDuration(new BigDecimal("150"));
+        coaster.setCountry("United States");
+        coaster.setAverageRating(new BigDecimal("4.8"));
+        return coaster;
+    }
+
+    private static CoasterRatingEntity rating(String userId, long coasterId) {
+        CoasterRatingEntity rating = new CoasterRatingEntity();
+        rating.setId(coasterId);
+        rating.setUserId(userId);
+        rating.setCoasterId(coasterId);
+        rating.setRating(BigDecimal.valueOf(coasterId % 10, 1).add(BigDecimal.valueOf(4)));
+        return rating;
+    }
+}
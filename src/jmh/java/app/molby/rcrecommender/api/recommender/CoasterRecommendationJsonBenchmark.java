@@ -0,0 +1,72 @@
+package app.molby.rcrecommender.api.recommender;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks Jackson (de)serialization of an engine response: a list of
+ * {@link CoasterRecommendation}s whose extra fields go through the
+ * {@code @JsonAnySetter} / {@code @JsonAnyGetter} {@code additionalProperties} map.
+ *
+ * <p>The mapper is built like Spring Boot's, with {@link Jackson2ObjectMapperBuilder}.</p>
+ * @author Bob Molby
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CoasterRecommendationJsonBenchmark {
+
+    private static final TypeReference<List<CoasterRecommendation>> RECOMMENDATIONS = new TypeReference<>() {};
+
+    /** Recommendations per response (the engine's top-k). */
+    @Param({"10", "100"})
+    int recommendations;
+
+    /** Dynamic fields per recommendation, besides {@code coaster_id}. */
+    @Param({"0", "5", "20"})
+    int additionalProperties;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private byte[] json;
+    private List<CoasterRecommendation> parsed;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<CoasterRecommendation> response = new ArrayList<>(recommendations);
+        for (int i = 0; i < recommendations; i++) {
+            CoasterRecommendation recommendation = new CoasterRecommendation();
+            recommendation.setCoasterId(i);
+            for (int p = 0; p < additionalProperties; p++) {
+                recommendation.addAdditionalProperty("field_" + p, p % 2 == 0 ? "value " + p : 1.0 - i / 1000.0);
+            }
+            response.add(recommendation);
+        }
+        json = objectMapper.writeValueAsBytes(response);
+        parsed = objectMapper.readValue(json, RECOMMENDATIONS);
+    }
+
+    @Benchmark
+    public List<CoasterRecommendation> deserialize() throws IOException {
+        return objectMapper.readValue(json, RECOMMENDATIONS);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(parsed);
+    }
+}
@@ -0,0 +1,56 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
+import app.molby.rcrecommender.domain.user.UserCountryAccessRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link RecommendationService#buildUserRecommendRequest} for users holding
+ * 10, 100 and 1000 ratings. The method only reads its arguments, so the service is built
+ * without collaborators.
+ * @author Bob Molby
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RecommendRequestBenchmark {
+
+    private static final List<String> ACCESSIBLE_COUNTRIES = List.of("Canada", "Mexico", "United Kingdom");
+
+    @Param({"10", "100", "1000"})
+    int ratings;
+
+    private final RecommendationService service = new RecommendationService(null, null, null, null, null, null);
+
+    private List<UserCountryAccessRow> countryAccess;
+    private List<CoasterRatingValue> ratingValues;
+
+    @Setup
+    public void setUp() {
+        countryAccess = new ArrayList<>();
+        for (String accessible : ACCESSIBLE_COUNTRIES) {
+            countryAccess.add(new UserCountryAccessRow("user-1", "United States", accessible));
+        }
+        ratingValues = new ArrayList<>(ratings);
+        for (int i = 0; i < ratings; i++) {
+            ratingValues.add(new CoasterRatingValue("user-1", (long) i, BigDecimal.valueOf(35 + i % 15, 1)));
+        }
+    }
+
+    @Benchmark
+    public UserRecommendRequest buildUserRecommendRequest() {
+        return service.buildUserRecommendRequest(countryAccess, ratingValues);
+    }
+}
@@ -1,9 +1,12 @@
 package app.molby.rcrecommender;
 
+import app.molby.rcrecommender.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 /**
  * Application with restful services to allow a user to set their own ratings on roller coasters and
  * then retrieve information about other coasters they might like based on those ratings.
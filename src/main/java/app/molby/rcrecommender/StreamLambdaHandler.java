@@ -6,65 +6,187 @@ import com.amazonaws.serverless.proxy.model.HttpApiV2ProxyRequest;
 import com.amazonaws.serverless.proxy.spring.SpringBootLambdaContainerHandler;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import app.molby.rcrecommender.lambda.DbSecretContextInitializer;
+import app.molby.rcrecommender.lambda.DbSecretLoader;
+import app.molby.rcrecommender.lambda.DbSecretPropertySource;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.model.GetSecretValueRequest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * AWS Lambda entry point proxying HTTP API (v2) events into the Spring Boot application.
+ *
+ * <p>The application runs with the profiles named by {@code LAMBDA_SPRING_PROFILES}, by
+ * default {@code lambda} (application-lambda.properties), which trims the context to what a
+ * short-lived function needs. Context-ready and first-request times, measured from JVM
+ * start, are logged for cold-start tracking (see lambda/startup-benchmark.sh).</p>
+ *
+ * <p>The DB secret is fetched while the context is being built and cached in {@code /tmp}
+ * for {@code DB_SECRET_CACHE_TTL_SECONDS} (default 300, 0 disables the cache), so a
+ * sandbox re-initialized within that window skips the Secrets Manager call.</p>
+ *
+ * <p>With SnapStart the initialized handler is snapshotted and restored; see
+ * {@link CheckpointHooks}.</p>
+ * @author Bob Molby
+ */
 public class StreamLambdaHandler implements RequestStreamHandler {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    /** Served through the handler before a SnapStart snapshot, so the snapshot holds a warmed-up request path. */
+    private static final String PRIMING_EVENT = """
+            {"version": "2.0", "routeKey": "$default", "rawPath": "/coasters", "rawQueryString": "limit=20",
+             "headers": {"accept": "application/json", "host": "localhost"},
+             "requestContext": {"http": {"method": "GET", "path": "/coasters", "protocol": "HTTP/1.1",
+                                         "sourceIp": "127.0.0.1", "userAgent": "snapstart-priming"},
+                                "requestId": "snapstart-priming", "routeKey": "$default", "stage": "$default",
+                                "timeEpoch": 0},
+             "isBase64Encoded": false}
+            """;
+
     private static final SpringBootLambdaContainerHandler<HttpApiV2ProxyRequest, AwsProxyResponse> handler;
+    private static final Resource checkpointHooks = new CheckpointHooks();
+    private static volatile boolean firstRequestServed;
+    private static volatile Instant restoredAt;
 
     static {
+        DbSecretPropertySource secret = startSecretFetch();
         try {
-            loadSecretsIntoSystemProperties();
-
             handler = SpringBootLambdaContainerHandler
-                    .getHttpApiV2ProxyHandler(RollerCoasterRecommenderApplication.class);
+                    .getHttpApiV2ProxyHandler(RollerCoasterRecommenderApplication.class, springProfiles());
 
+            if (secret != null) {
+                // fail the init on a broken secret even if nothing resolved it yet
+                Map<String, String> props = secret.await();
+                // Don’t print secrets; just confirm presence of key config
+                System.out.println("Secrets loaded. spring.datasource.url present = " +
+                        props.containsKey("spring.datasource.url"));
+            }
+            System.out.println("Spring context ready in " + millisSinceJvmStart() + " ms since JVM start");
+            // registered after the context, so it runs before Spring stops its lifecycle beans
+            Core.getGlobalContext().register(checkpointHooks);
         } catch (ContainerInitializationException e) {
             throw new RuntimeException("Could not initialize Spring Boot application", e);
         }
     }
 
-    private static void loadSecretsIntoSystemProperties() {
+    private static String[] springProfiles() {
+        String profiles = System.getenv("LAMBDA_SPRING_PROFILES");
+        if (profiles == null) {
+            return new String[] {"lambda"};
+        }
+        return profiles.isBlank() ? new String[0] : profiles.trim().split("\\s*,\\s*");
+    }
+
+    private static long millisSinceJvmStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+    }
+
+    private static String sinceStart() {
+        Instant restored = restoredAt;
+        return restored == null
+                ? millisSinceJvmStart() + " ms since JVM start"
+                : Duration.between(restored, Instant.now()).toMillis() + " ms since restore";
+    }
+
+    /**
+     * Starts fetching the DB secret named by {@code DB_SECRET_ARN} on a background thread and
+     * registers it with the application context about to start, which only waits for it
+     * when it first resolves a {@code spring.datasource.*} property.
+     *
+     * @return the pending secret, or {@code null} if no secret is configured
+     */
+    private static DbSecretPropertySource startSecretFetch() {
         String secretArn = System.getenv("DB_SECRET_ARN");
         if (secretArn == null || secretArn.isBlank()) {
             System.err.println("DB_SECRET_ARN is not set; datasource properties will be missing.");
-            return;
+            return null;
         }
 
+        DbSecretLoader loader = new DbSecretLoader(secretArn, Path.of(System.getProperty("java.io.tmpdir")),
+                secretCacheTtl(), StreamLambdaHandler::fetchSecret, Clock.systemUTC());
+        CompletableFuture<Map<String, String>> secret = CompletableFuture.supplyAsync(loader::load, task -> {
+            Thread thread = new Thread(task, "db-secret-loader");
+            thread.setDaemon(true);
+            thread.start();
+        });
+        DbSecretPropertySource propertySource = new DbSecretPropertySource(secret);
+        DbSecretContextInitializer.register(propertySource);
+        return propertySource;
+    }
+
+    private static Duration secretCacheTtl() {
+        String seconds = System.getenv("DB_SECRET_CACHE_TTL_SECONDS");
+        return Duration.ofSeconds(seconds == null || seconds.isBlank() ? 300 : Long.parseLong(seconds.trim()));
+    }
+
+    private static String fetchSecret(String secretArn) {
         String regionEnv = System.getenv("AWS_REGION");
         Region region = (regionEnv == null || regionEnv.isBlank()) ? Region.US_EAST_2 : Region.of(regionEnv);
 
-        try (SecretsManagerClient client = SecretsManagerClient.builder().region(region).build()) {
-            String json = client.getSecretValue(GetSecretValueRequest.builder()
+        // the URL connection client and environment credentials avoid loading the
+        // Apache client and probing the full credentials chain on a cold start
+        try (SecretsManagerClient client = SecretsManagerClient.builder()
+                .region(region)
+                .httpClient(UrlConnectionHttpClient.create())
+                .credentialsProvider(EnvironmentVariableCredentialsProvider.create())
+                .build()) {
+            return client.getSecretValue(GetSecretValueRequest.builder()
                     .secretId(secretArn)
                     .build()).secretString();
-
-            Map<String, String> props = MAPPER.readValue(json, new TypeReference<>() {});
-            props.forEach((k, v) -> {
-                if (k != null && v != null) System.setProperty(k, v);
-            });
-
-            // Don’t print secrets; just confirm presence of key config
-            System.out.println("Secrets loaded. spring.datasource.url present = " +
-                    (System.getProperty("spring.datasource.url") != null));
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load secret from Secrets Manager: " + secretArn, e);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Failed to load secret from Secrets Manager: " + secretArn, e);
         }
     }
 
     @Override
     public void handleRequest(InputStream input, OutputStream output, Context context) throws IOException {
         handler.proxyStream(input, output, context);
+        if (!firstRequestServed) {
+            firstRequestServed = true;
+            System.out.println("First request served in " + sinceStart());
+        }
+    }
+
+    /**
+     * SnapStart (CRaC) hooks. Before the snapshot one request is primed through the whole
+     * stack; Spring then stops its lifecycle beans, which closes pooled database and
+     * recommender connections and, after the restore, reloads the catalog
+     * ({@code RestoreRefreshLifecycle}). The DB secret client is already closed by then.
+     */
+    private static final class CheckpointHooks implements Resource {
+
+        @Override
+        public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+            try (InputStream event = new ByteArrayInputStream(PRIMING_EVENT.getBytes(StandardCharsets.UTF_8))) {
+                handler.proxyStream(event, OutputStream.nullOutputStream(), null);
+            } catch (Exception e) {
+                // priming only warms up; never fail the snapshot over it
+                System.err.println("Priming request before checkpoint failed: " + e);
+            }
+        }
+
+        @Override
+        public void afterRestore(org.crac.Context<? extends Resource> context) {
+            restoredAt = Instant.now();
+            firstRequestServed = false;
+            System.out.println("Restored from snapshot");
+        }
     }
 }
@@ -0,0 +1,472 @@
+package app.molby.rcrecommender.api.coaster;
+
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterCursorRepository;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, in-memory copy of the {@code roller_coasters} table.
+ *
+ * <p>Coasters are never updated in place ({@code name} and {@code averageRating}
+ * are not updatable and there is no update endpoint), so lookups are served
+ * from an immutable {@link Snapshot} instead of the database. The snapshot stores
+ * one array per column sorted by ID, numeric columns as primitive {@code double}s
+ * plus the scale of each value, and categorical columns as interned strings, so
+ * a catalog of thousands of coasters costs a few hundred kilobytes and no
+ * per-row objects. Decimals come back with the scale they were loaded with, so
+ * {@code 6595.00} is still {@code 6595.00} in responses and ETags.</p>
+ *
+ * <p>The snapshot is loaded at startup, replaced copy-on-write on
+ * {@link RollerCoasterCreatedEvent} and {@link RollerCoasterDeletedEvent}, and
+ * reloaded every {@code coaster.catalog.refresh-interval-ms} to pick up changes
+ * made by other instances. Readers always see one consistent snapshot. A reload
+ * that overlaps a create or delete event is discarded and retried, so it cannot
+ * put back a snapshot that misses the event. Every event, and every reload that
+ * finds different rows, publishes a {@link CatalogChangedEvent} for cached
+ * responses; such a reload also publishes a {@link CoasterCatalogReloadedEvent}
+ * for the other in-memory views of the catalog.</p>
+ * @author Bob Molby
+ */
+@Component
+@RequiredArgsConstructor
+public class CoasterCatalog {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(CoasterCatalog.class);
+
+    /** Loads attempted by one {@link #reload()} before it gives up on a busy catalog. */
+    static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    private final RollerCoasterCursorRepository rollerCoasterCursorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    /** Bumped by every create and delete event, before the snapshot is updated. */
+    private final AtomicLong modifications = new AtomicLong();
+    private final ReentrantLock initLock = new ReentrantLock();
+
+    /**
+     * Loads the catalog from the database and swaps it in.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${coaster.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${coaster.catalog.refresh-interval-ms:300000}")
+    public void reload() {
+        for (int attempt = 1; attempt <= MAX_RELOAD_ATTEMPTS; attempt++) {
+            long start = System.nanoTime();
+            Snapshot before = snapshot.get();
+            long stamp = modifications.get();
+            Snapshot.Builder builder = new Snapshot.Builder();
+            rollerCoasterCursorRepository.forEachAfter(null, builder::add);
+            Snapshot loaded = builder.build();
+            // An event during the load may be missing from it; only swap if none arrived
+            boolean unchanged = modifications.get() == stamp;
+            boolean lastAttempt = attempt == MAX_RELOAD_ATTEMPTS && before == null;
+            if ((unchanged || lastAttempt) && snapshot.compareAndSet(before, loaded)) {
+                if (before == null || !before.sameRows(loaded)) {
+                    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COASTERS));
+                    eventPublisher.publishEvent(new CoasterCatalogReloadedEvent());
+                }
+                LOGGER.info("Loaded {} coasters into the catalog in {} ms.",
+                        loaded.size(), (System.nanoTime() - start) / 1_000_000);
+                return;
+            }
+        }
+        LOGGER.warn("Catalog kept changing during {} reload attempts; keeping the current snapshot.",
+                MAX_RELOAD_ATTEMPTS);
+    }
+
+    /**
+     * Finds a coaster by ID.
+     *
+     * @param id the coaster ID
+     * @return a new detached entity holding the coaster's columns, if the coaster exists
+     */
+    public Optional<RollerCoasterEntity> findById(long id) {
+        Snapshot current = current();
+        int index = Arrays.binarySearch(current.ids, id);
+        return index < 0 ? Optional.empty() : Optional.of(current.toEntity(index));
+    }
+
+    /**
+     * Tells whether a coaster exists, without building an entity for it.
+     *
+     * @param id the coaster ID
+     * @return whether the catalog holds the coaster
+     */
+    public boolean contains(long id) {
+        return Arrays.binarySearch(current().ids, id) >= 0;
+    }
+
+    /**
+     * Returns the coasters following an ID in ID order.
+     *
+     * @param afterId the ID after which to start; {@code null} starts at the beginning
+     * @param limit   maximum number of coasters to return
+     * @return new detached entities, ascending by ID
+     */
+    public List<RollerCoasterEntity> findAfter(Long afterId, int limit) {
+        Snapshot current = current();
+        int from = current.indexAfter(afterId);
+        int to = (int) Math.min((long) from + Math.max(limit, 0), current.size());
+        List<RollerCoasterEntity> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(current.toEntity(i));
+        }
+        return result;
+    }
+
+    /**
+     * Passes every coaster following an ID to the consumer, one at a time and in
+     * ID order, without materializing a list.
+     *
+     * @param afterId  the ID after which to start; {@code null} starts at the beginning
+     * @param consumer receives a new detached entity per coaster
+     */
+    public void forEachAfter(Long afterId, Consumer<RollerCoasterEntity> consumer) {
+        Snapshot current = current();
+        for (int i = current.indexAfter(afterId); i < current.size(); i++) {
+            consumer.accept(current.toEntity(i));
+        }
+    }
+
+    /**
+     * Returns the number of coasters in the catalog.
+     *
+     * @return the catalog size
+     */
+    public int size() {
+        return current().size();
+    }
+
+    /**
+     * Adds a newly created coaster to the catalog.
+     *
+     * @param event the creation event
+     */
+    @EventListener
+    public void onCreated(RollerCoasterCreatedEvent event) {
+        RollerCoasterEntity coaster = event.coaster();
+        if (coaster.getId() == null) {
+            return;
+        }
+        modifications.incrementAndGet();
+        snapshot.updateAndGet(s -> s == null ? null : s.with(coaster));
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COASTERS));
+    }
+
+    /**
+     * Removes a deleted coaster from the catalog.
+     *
+     * @param event the deletion event
+     */
+    @EventListener
+    public void onDeleted(RollerCoasterDeletedEvent event) {
+        modifications.incrementAndGet();
+        snapshot.updateAndGet(s -> s == null ? null : s.without(event.coasterId()));
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COASTERS));
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            // Used before ApplicationReadyEvent, e.g. from a runner. A lock rather
+            // than synchronized, so a virtual thread waiting on the JDBC load does
+            // not pin its carrier
+            initLock.lock();
+            try {
+                if (snapshot.get() == null) {
+                    reload();
+                }
+            } finally {
+                initLock.unlock();
+            }
+            current = snapshot.get();
+        }
+        return current;
+    }
+
+    /**
+     * Immutable column-oriented copy of the catalog, sorted by ID. Missing
+     * numeric values are stored as {@link Double#NaN}; each present value's
+     * {@link BigDecimal#scale() scale} is kept in {@link #scales}.
+     */
+    static final class Snapshot {
+
+        /** Number of numeric columns, i.e. scales stored per row. */
+        private static final int NUMERIC_COLUMNS = 9;
+        private static final int LENGTH = 0;
+        private static final int HEIGHT = 1;
+        private static final int DROP = 2;
+        private static final int INVERSION_COUNT = 3;
+        private static final int SPEED = 4;
+        private static final int VERTICAL_ANGLE = 5;
+        private static final int G_FORCE = 6;
+        private static final int DURATION = 7;
+        private static final int AVERAGE_RATING = 8;
+
+        private final long[] ids;
+        private final String[] names;
+        private final String[] amusementParks;
+        private final String[] types;
+        private final String[] designs;
+        private final String[] statuses;
+        private final String[] manufacturers;
+        private final String[] models;
+        private final double[] lengths;
+        private final double[] heights;
+        private final double[] drops;
+        private final double[] inversionCounts;
+        private final double[] speeds;
+        private final double[] verticalAngles;
+        private final String[] restraints;
+        private final double[] gForces;
+        private final String[] intensities;
+        private final double[] durations;
+        private final String[] countries;
+        private final double[] averageRatings;
+        /** Scale of every numeric value, {@link #NUMERIC_COLUMNS} per row. */
+        private final short[] scales;
+
+        private Snapshot(int size) {
+            ids = new long[size];
+            names = new String[size];
+            amusementParks = new String[size];
+            types = new String[size];
+            designs = new String[size];
+            statuses = new String[size];
+            manufacturers = new String[size];
+            models = new String[size];
+            lengths = new double[size];
+            heights = new double[size];
+            drops = new double[size];
+            inversionCounts = new double[size];
+            speeds = new double[size];
+            verticalAngles = new double[size];
+            restraints = new String[size];
+            gForces = new double[size];
+            intensities = new String[size];
+            durations = new double[size];
+            countries = new String[size];
+            averageRatings = new double[size];
+            scales = new short[size * NUMERIC_COLUMNS];
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        /**
+         * Returns the position of the first coaster with an ID greater than {@code afterId}.
+         */
+        int indexAfter(Long afterId) {
+            if (afterId == null) {
+                return 0;
+            }
+            int index = Arrays.binarySearch(ids, afterId);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        /**
+         * Tells whether {@code other} holds exactly the same coasters, down to
+         * the scale of every decimal.
+         */
+        boolean sameRows(Snapshot other) {
+            return Arrays.equals(ids, other.ids)
+                    && Arrays.equals(names, other.names)
+                    && Arrays.equals(amusementParks, other.amusementParks)
+                    && Arrays.equals(types, other.types)
+                    && Arrays.equals(designs, other.designs)
+                    && Arrays.equals(statuses, other.statuses)
+                    && Arrays.equals(manufacturers, other.manufacturers)
+                    && Arrays.equals(models, other.models)
+                    && Arrays.equals(lengths, other.lengths)
+                    && Arrays.equals(heights, other.heights)
+                    && Arrays.equals(drops, other.drops)
+                    && Arrays.equals(inversionCounts, other.inversionCounts)
+                    && Arrays.equals(speeds, other.speeds)
+                    && Arrays.equals(verticalAngles, other.verticalAngles)
+                    && Arrays.equals(restraints, other.restraints)
+                    && Arrays.equals(gForces, other.gForces)
+                    && Arrays.equals(intensities, other.intensities)
+                    && Arrays.equals(durations, other.durations)
+                    && Arrays.equals(countries, other.countries)
+                    && Arrays.equals(averageRatings, other.averageRatings)
+                    && Arrays.equals(scales, other.scales);
+        }
+
+        RollerCoasterEntity toEntity(int i) {
+            RollerCoasterEntity coaster = new RollerCoasterEntity();
+            coaster.setId(ids[i]);
+            coaster.setName(names[i]);
+            coaster.setAmusementPark(amusementParks[i]);
+            coaster.setType(types[i]);
+            coaster.setDesign(designs[i]);
+            coaster.setStatus(statuses[i]);
+            coaster.setManufacturer(manufacturers[i]);
+            coaster.setModel(models[i]);
+            coaster.setLength(decimal(lengths[i], i, LENGTH));
+            coaster.setHeight(decimal(heights[i], i, HEIGHT));
+            coaster.setDrop(decimal(drops[i], i, DROP));
+            coaster.setInversionCount(decimal(inversionCounts[i], i, INVERSION_COUNT));
+            coaster.setSpeed(decimal(speeds[i], i, SPEED));
+            coaster.setVerticalAngle(decimal(verticalAngles[i], i, VERTICAL_ANGLE));
+            coaster.setRestraints(restraints[i]);
+            coaster.setGForce(decimal(gForces[i], i, G_FORCE));
+            coaster.setIntensity(intensities[i]);
+            coaster.setDuration(decimal(durations[i], i, DURATION));
+            coaster.setCountry(countries[i]);
+            coaster.setAverageRating(decimal(averageRatings[i], i, AVERAGE_RATING));
+            return coaster;
+        }
+
+        /**
+         * Returns a copy of this snapshot with the coaster added, or replaced if
+         * its ID is already present.
+         */
+        Snapshot with(RollerCoasterEntity coaster) {
+            int index = Arrays.binarySearch(ids, coaster.getId());
+            if (index >= 0) {
+                Snapshot copy = copy(size(), -1, 0);
+                copy.set(index, coaster);
+                return copy;
+            }
+            int insertAt = -index - 1;
+            Snapshot copy = copy(size() + 1, insertAt, 1);
+            copy.set(insertAt, coaster);
+            return copy;
+        }
+
+        /**
+         * Returns a copy of this snapshot without the coaster, or this snapshot
+         * if the coaster is not present.
+         */
+        Snapshot without(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index < 0 ? this : copy(size() - 1, index, -1);
+        }
+
+        /**
+         * Copies the columns into a snapshot of {@code size} rows, truncating if
+         * it is smaller. Rows from {@code at} on are shifted by {@code shift}:
+         * {@code 1} leaves a gap at {@code at}, {@code -1} drops row {@code at}.
+         */
+        private Snapshot copy(int size, int at, int shift) {
+            Snapshot copy = new Snapshot(size);
+            for (int i = 0; i < size(); i++) {
+                if (shift < 0 && i == at) {
+                    continue;
+                }
+                int target = at < 0 || i < at ? i : i + shift;
+                if (target >= size) {
+                    break;
+                }
+                copy.ids[target] = ids[i];
+                copy.names[target] = names[i];
+                copy.amusementParks[target] = amusementParks[i];
+                copy.types[target] = types[i];
+                copy.designs[target] = designs[i];
+                copy.statuses[target] = statuses[i];
+                copy.manufacturers[target] = manufacturers[i];
+                copy.models[target] = models[i];
+                copy.lengths[target] = lengths[i];
+                copy.heights[target] = heights[i];
+                copy.drops[target] = drops[i];
+                copy.inversionCounts[target] = inversionCounts[i];
+                copy.speeds[target] = speeds[i];
+                copy.verticalAngles[target] = verticalAngles[i];
+                copy.restraints[target] = restraints[i];
+                copy.gForces[target] = gForces[i];
+                copy.intensities[target] = intensities[i];
+                copy.durations[target] = durations[i];
+                copy.countries[target] = countries[i];
+                copy.averageRatings[target] = averageRatings[i];
+                System.arraycopy(scales, i * NUMERIC_COLUMNS, copy.scales, target * NUMERIC_COLUMNS, NUMERIC_COLUMNS);
+            }
+            return copy;
+        }
+
+        private void set(int i, RollerCoasterEntity coaster) {
+            ids[i] = coaster.getId();
+            names[i] = coaster.getName();
+            amusementParks[i] = intern(coaster.getAmusementPark());
+            types[i] = intern(coaster.getType());
+            designs[i] = intern(coaster.getDesign());
+            statuses[i] = intern(coaster.getStatus());
+            manufacturers[i] = intern(coaster.getManufacturer());
+            models[i] = intern(coaster.getModel());
+            lengths[i] = primitive(coaster.getLength(), i, LENGTH);
+            heights[i] = primitive(coaster.getHeight(), i, HEIGHT);
+            drops[i] = primitive(coaster.getDrop(), i, DROP);
+            inversionCounts[i] = primitive(coaster.getInversionCount(), i, INVERSION_COUNT);
+            speeds[i] = primitive(coaster.getSpeed(), i, SPEED);
+            verticalAngles[i] = primitive(coaster.getVerticalAngle(), i, VERTICAL_ANGLE);
+            restraints[i] = intern(coaster.getRestraints());
+            gForces[i] = primitive(coaster.getGForce(), i, G_FORCE);
+            intensities[i] = intern(coaster.getIntensity());
+            durations[i] = primitive(coaster.getDuration(), i, DURATION);
+            countries[i] = intern(coaster.getCountry());
+            averageRatings[i] = primitive(coaster.getAverageRating(), i, AVERAGE_RATING);
+        }
+
+        private static String intern(String value) {
+            return value == null ? null : value.intern();
+        }
+
+        private double primitive(BigDecimal value, int row, int column) {
+            if (value == null) {
+                return Double.NaN;
+            }
+            scales[row * NUMERIC_COLUMNS + column] = (short) value.scale();
+            return value.doubleValue();
+        }
+
+        /**
+         * Rebuilds a decimal at its original scale. Exact for the column
+         * precisions in use, which stay well inside a double's 15 significant digits.
+         */
+        private BigDecimal decimal(double value, int row, int column) {
+            return Double.isNaN(value)
+                    ? null
+                    : BigDecimal.valueOf(value).setScale(scales[row * NUMERIC_COLUMNS + column], RoundingMode.HALF_UP);
+        }
+
+        /**
+         * Collects coasters streamed in ascending ID order straight into
+         * columns, growing them by doubling.
+         */
+        static final class Builder {
+
+            private Snapshot columns = new Snapshot(1024);
+            private int count;
+
+            void add(RollerCoasterEntity coaster) {
+                if (count == columns.size()) {
+                    columns = columns.copy(count * 2, -1, 0);
+                }
+                columns.set(count++, coaster);
+            }
+
+            Snapshot build() {
+                return count == columns.size() ? columns : columns.copy(count, -1, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package app.molby.rcrecommender.api.coaster;
+
+/**
+ * Published by {@link CoasterCatalog} when a reload finds {@code roller_coasters}
+ * different from the snapshot it replaces, e.g. after a catalog import or a write
+ * on another instance, so in-memory views of the catalog that are not kept up to
+ * date by {@link RollerCoasterCreatedEvent} and {@link RollerCoasterDeletedEvent}
+ * can be rebuilt.
+ */
+public record CoasterCatalogReloadedEvent() {
+}
@@ -0,0 +1,201 @@
+package app.molby.rcrecommender.api.coaster;
+
+import app.molby.rcrecommender.api.recommender.CoasterFeatureEncoder;
+import app.molby.rcrecommender.api.recommender.RecommendedCoasterDto;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory approximate nearest-neighbour index answering "coasters similar to X".
+ *
+ * <p>Coasters are encoded with a {@link CoasterFeatureEncoder} fitted on the
+ * catalog and stored in an {@link HnswIndex}. The index is built from
+ * {@code roller_coasters} on first use and then maintained incrementally from
+ * {@link RollerCoasterCreatedEvent} and {@link RollerCoasterDeletedEvent}.
+ * Changes those events do not cover, such as a catalog import, are picked up
+ * when {@link CoasterCatalog} reloads and publishes a
+ * {@link CoasterCatalogReloadedEvent}, which discards the graph. Once deleted nodes exceed {@code coaster.similarity.rebuild-deleted-ratio}
+ * of the graph, it is discarded and rebuilt on the next query, which also
+ * refits the encoder to the current catalog.</p>
+ * @author Bob Molby
+ */
+@Component
+@RequiredArgsConstructor
+public class CoasterSimilarityIndex {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(CoasterSimilarityIndex.class);
+
+    /**
+     * Links per node on the upper layers of the graph.
+     */
+    static final int M = 16;
+
+    /**
+     * Beam width used while inserting nodes.
+     */
+    static final int EF_CONSTRUCTION = 100;
+
+    private final RollerCoasterRepository rollerCoasterRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Value("${coaster.similarity.ef-search:64}")
+    private int efSearch;
+
+    @Value("${coaster.similarity.rebuild-deleted-ratio:0.25}")
+    private double rebuildDeletedRatio;
+
+    private CoasterFeatureEncoder encoder;
+    private HnswIndex index;
+    private final Map<Long, String> countryByCoasterId = new HashMap<>();
+
+    /**
+     * Finds the coasters most similar to {@code coaster}, excluding the coaster itself.
+     *
+     * @param coaster the coaster to compare against
+     * @param k       maximum number of results
+     * @param country when non-null, only coasters in this country are returned
+     * @return similar coasters ordered by descending cosine similarity
+     */
+    public List<RecommendedCoasterDto> findSimilar(RollerCoasterEntity coaster, int k, String country) {
+        while (true) {
+            ensureBuilt();
+            lock.readLock().lock();
+            try {
+                // A concurrent deletion may have scheduled a rebuild since ensureBuilt returned.
+                if (index == null) {
+                    continue;
+                }
+                float[] query = index.vector(coaster.getId());
+                if (query == null) {
+                    query = encoder.encode(coaster);
+                }
+                long self = coaster.getId();
+                LongPredicate accept = country == null
+                        ? id -> id != self
+                        : id -> id != self && country.equalsIgnoreCase(countryByCoasterId.get(id));
+                return index.search(query, k, efSearch, accept).stream()
+                        .map(match -> new RecommendedCoasterDto(match.label(), (double) match.similarity()))
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds a newly created coaster to the graph if it has already been built.
+     *
+     * @param event the creation event
+     */
+    @EventListener
+    public void onCreated(RollerCoasterCreatedEvent event) {
+        RollerCoasterEntity coaster = event.coaster();
+        if (coaster.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                index.insert(coaster.getId(), encoder.encode(coaster));
+                countryByCoasterId.put(coaster.getId(), coaster.getCountry());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a deleted coaster from the graph, scheduling a rebuild when too
+     * many deleted nodes have accumulated.
+     *
+     * @param event the deletion event
+     */
+    @EventListener
+    public void onDeleted(RollerCoasterDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (index != null && index.remove(event.coasterId())) {
+                countryByCoasterId.remove(event.coasterId());
+                int total = index.size() + index.deletedCount();
+                if (index.deletedCount() > rebuildDeletedRatio * total) {
+                    index = null;
+                    encoder = null;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Discards the graph after the catalog changed outside this instance.
+     *
+     * @param event the reload event
+     */
+    @EventListener
+    public void onCatalogReloaded(CoasterCatalogReloadedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Discards the graph so the next query rebuilds it from the database.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            index = null;
+            encoder = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureBuilt() {
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            if (index == null) {
+                build(rollerCoasterRepository.findAll());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void build(List<RollerCoasterEntity> coasters) {
+        long start = System.nanoTime();
+        List<RollerCoasterEntity> usable = coasters.stream()
+                .filter(c -> c.getId() != null)
+                .toList();
+        CoasterFeatureEncoder fitted = CoasterFeatureEncoder.fit(usable);
+        HnswIndex graph = new HnswIndex(fitted.dimension(), M, EF_CONSTRUCTION, 42L);
+        countryByCoasterId.clear();
+        for (RollerCoasterEntity coaster : usable) {
+            graph.insert(coaster.getId(), fitted.encode(coaster));
+            countryByCoasterId.put(coaster.getId(), coaster.getCountry());
+        }
+        encoder = fitted;
+        index = graph;
+        LOGGER.info("Built coaster similarity index with {} nodes in {} ms.",
+                graph.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
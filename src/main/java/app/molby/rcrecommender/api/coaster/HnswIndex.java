@@ -0,0 +1,338 @@
+package app.molby.rcrecommender.api.coaster;
+
+import app.molby.rcrecommender.api.recommender.FeatureKernel;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.function.LongPredicate;
+
+/**
+ * Hierarchical Navigable Small World graph for approximate nearest-neighbour
+ * search over unit-length {@code float} vectors.
+ *
+ * <p>Follows Malkov &amp; Yashunin: every node is assigned a random top layer,
+ * inserted by greedy descent through the upper layers followed by a beam search
+ * of width {@code efConstruction} on each of its own layers, and linked to
+ * neighbours chosen with the diversity heuristic. Distance is
+ * {@code 1 - dot(a, b)}, i.e. cosine distance for normalized vectors.</p>
+ *
+ * <p>Removal marks a node as deleted; it keeps routing searches but is never
+ * returned. Callers should rebuild once {@link #deletedCount()} grows large.</p>
+ *
+ * <p>Instances are not thread-safe for writes; concurrent searches are safe
+ * as long as no insert or removal runs at the same time.</p>
+ * @author Bob Molby
+ */
+final class HnswIndex {
+
+    /**
+     * A search hit: the label of a node and its cosine similarity to the query.
+     */
+    record Match(long label, float similarity) {
+    }
+
+    private static final class Node {
+        final long label;
+        final float[] vector;
+        final int[][] neighbors;
+        final int[] degree;
+        boolean deleted;
+
+        Node(long label, float[] vector, int level, int m) {
+            this.label = label;
+            this.vector = vector;
+            this.neighbors = new int[level + 1][];
+            this.degree = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                neighbors[layer] = new int[layer == 0 ? 2 * m : m];
+            }
+        }
+
+        int level() {
+            return neighbors.length - 1;
+        }
+    }
+
+    /**
+     * Node index paired with its distance to the current query.
+     */
+    private record Candidate(int node, float distance) {
+    }
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(Candidate::distance);
+    private static final Comparator<Candidate> FURTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    private final FeatureKernel kernel;
+    private final int dimension;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> nodeByLabel = new HashMap<>();
+    private int entryPoint = -1;
+    private int deletedCount;
+
+    /**
+     * @param dimension      length of every vector in the index
+     * @param m              links per node on upper layers ({@code 2 * m} on layer 0)
+     * @param efConstruction beam width used while inserting
+     * @param seed           seed for level assignment, so builds are reproducible
+     */
+    HnswIndex(int dimension, int m, int efConstruction, long seed) {
+        this.kernel = FeatureKernel.preferred();
+        this.dimension = dimension;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * @return number of live (non-deleted) nodes
+     */
+    int size() {
+        return nodes.size() - deletedCount;
+    }
+
+    int deletedCount() {
+        return deletedCount;
+    }
+
+    /**
+     * @return the stored vector for {@code label}, or {@code null} if absent or deleted
+     */
+    float[] vector(long label) {
+        Integer node = nodeByLabel.get(label);
+        return node == null ? null : nodes.get(node).vector;
+    }
+
+    /**
+     * Inserts a vector. A label that is already present is replaced.
+     *
+     * @param label  caller-defined identifier returned in {@link Match#label()}
+     * @param vector unit-length vector of {@link #dimension()} floats; not copied
+     */
+    void insert(long label, float[] vector) {
+        remove(label);
+
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        Node node = new Node(label, vector, level, m);
+        int id = nodes.size();
+        nodes.add(node);
+        nodeByLabel.put(label, id);
+
+        if (entryPoint < 0) {
+            entryPoint = id;
+            return;
+        }
+
+        int current = entryPoint;
+        int topLevel = nodes.get(entryPoint).level();
+        for (int layer = topLevel; layer > level; layer--) {
+            current = greedyClosest(vector, current, layer);
+        }
+        for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+            List<Candidate> found = searchLayer(vector, current, efConstruction, layer, null);
+            List<Candidate> selected = selectNeighbors(found, m);
+            for (Candidate neighbor : selected) {
+                link(id, neighbor.node(), layer);
+                link(neighbor.node(), id, layer);
+            }
+            current = found.getFirst().node();
+        }
+        if (level > topLevel) {
+            entryPoint = id;
+        }
+    }
+
+    /**
+     * Marks the node for {@code label} as deleted.
+     *
+     * @return {@code true} if a live node was removed
+     */
+    boolean remove(long label) {
+        Integer id = nodeByLabel.remove(label);
+        if (id == null) {
+            return false;
+        }
+        nodes.get(id).deleted = true;
+        deletedCount++;
+        return true;
+    }
+
+    /**
+     * Finds the approximate {@code k} nearest live nodes to {@code query}.
+     *
+     * @param query  unit-length query vector
+     * @param k      maximum number of results
+     * @param ef     beam width on layer 0; raised to {@code k} if smaller
+     * @param filter optional predicate on labels; rejected nodes are traversed but not returned
+     * @return matches ordered by descending similarity
+     */
+    List<Match> search(float[] query, int k, int ef, LongPredicate filter) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int layer = nodes.get(entryPoint).level(); layer > 0; layer--) {
+            current = greedyClosest(query, current, layer);
+        }
+        LongPredicate accept = filter == null ? label -> true : filter;
+        List<Candidate> found = searchLayer(query, current, Math.max(ef, k), 0, accept);
+        List<Match> matches = new ArrayList<>(Math.min(k, found.size()));
+        for (Candidate candidate : found) {
+            if (matches.size() == k) {
+                break;
+            }
+            matches.add(new Match(nodes.get(candidate.node()).label, 1f - candidate.distance()));
+        }
+        return matches;
+    }
+
+    private float distance(float[] a, float[] b) {
+        return 1f - kernel.dot(a, 0, b, 0, dimension);
+    }
+
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float best = distance(query, nodes.get(current).vector);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.degree[layer]; i++) {
+                int neighbor = node.neighbors[layer][i];
+                float d = distance(query, nodes.get(neighbor).vector);
+                if (d < best) {
+                    best = d;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Beam search on a single layer.
+     *
+     * @param accept when non-null, only live nodes whose label passes are collected as results;
+     *               when null (during construction) every node is a valid result
+     * @return up to {@code ef} nodes ordered nearest first
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int layer, LongPredicate accept) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(FURTHEST_FIRST);
+
+        Candidate first = new Candidate(start, distance(query, nodes.get(start).vector));
+        visited.set(start);
+        candidates.add(first);
+        if (isResult(start, accept)) {
+            results.add(first);
+        }
+
+        while (!candidates.isEmpty()) {
+            Candidate nearest = candidates.poll();
+            if (results.size() >= ef && nearest.distance() > results.peek().distance()) {
+                break;
+            }
+            Node node = nodes.get(nearest.node());
+            for (int i = 0; i < node.degree[layer]; i++) {
+                int neighbor = node.neighbors[layer][i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float d = distance(query, nodes.get(neighbor).vector);
+                if (results.size() < ef || d < results.peek().distance()) {
+                    Candidate candidate = new Candidate(neighbor, d);
+                    candidates.add(candidate);
+                    if (isResult(neighbor, accept)) {
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Candidate> ordered = new ArrayList<>(results);
+        ordered.sort(NEAREST_FIRST);
+        return ordered;
+    }
+
+    private boolean isResult(int node, LongPredicate accept) {
+        if (accept == null) {
+            return true;
+        }
+        Node n = nodes.get(node);
+        return !n.deleted && accept.test(n.label);
+    }
+
+    /**
+     * Neighbour selection heuristic: keep a candidate only if it is closer to the
+     * base than to any neighbour already kept, then top up with the nearest
+     * pruned candidates so well-clustered regions stay connected.
+     */
+    private List<Candidate> selectNeighbors(List<Candidate> nearestFirst, int max) {
+        List<Candidate> selected = new ArrayList<>(max);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : nearestFirst) {
+            if (selected.size() == max) {
+                break;
+            }
+            float[] vector = nodes.get(candidate.node()).vector;
+            boolean diverse = true;
+            for (Candidate kept : selected) {
+                if (distance(vector, nodes.get(kept.node()).vector) < candidate.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private void link(int from, int to, int layer) {
+        Node node = nodes.get(from);
+        int[] links = node.neighbors[layer];
+        if (node.degree[layer] < links.length) {
+            links[node.degree[layer]++] = to;
+            return;
+        }
+        // Full: re-select among existing links plus the new one.
+        List<Candidate> candidates = new ArrayList<>(links.length + 1);
+        for (int neighbor : links) {
+            candidates.add(new Candidate(neighbor, distance(node.vector, nodes.get(neighbor).vector)));
+        }
+        candidates.add(new Candidate(to, distance(node.vector, nodes.get(to).vector)));
+        candidates.sort(NEAREST_FIRST);
+        List<Candidate> kept = selectNeighbors(candidates, links.length);
+        for (int i = 0; i < kept.size(); i++) {
+            links[i] = kept.get(i).node();
+        }
+        node.degree[layer] = kept.size();
+    }
+}
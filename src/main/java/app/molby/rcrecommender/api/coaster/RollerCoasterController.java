@@ -1,20 +1,34 @@
 package app.molby.rcrecommender.api.coaster;
 
+import app.molby.rcrecommender.api.recommender.RecommendedCoasterDto;
+import app.molby.rcrecommender.api.shared.CachedJsonResponses;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
 import app.molby.rcrecommender.api.shared.ErrorResponse;
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
+import app.molby.rcrecommender.api.shared.NdjsonStreams;
 import app.molby.rcrecommender.api.shared.ValidationErrorResponse;
 import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
 
@@ -23,7 +37,7 @@ import java.util.List;
 @RequiredArgsConstructor
 @Tag(
         name = "Roller Coasters",
-        description = "CRUD operations for roller coasters."
+        description = "CRUD and similarity operations for roller coasters."
 )
 /**
  * REST controller providing CRUD endpoints for managing roller coasters.
@@ -36,6 +50,12 @@ public class RollerCoasterController {
     /** Mapper converting between RollerCoasterEntity and RollerCoasterDto. */
     private final RollerCoasterMapper coasterMapper;
 
+    /** Serializes rows of the NDJSON stream. */
+    private final ObjectMapper objectMapper;
+
+    /** Serialized, compressed {@code GET /coasters} pages. */
+    private final CachedJsonResponses cachedJsonResponses;
+
     /**
      * Creates a new roller coaster.
      *
@@ -262,84 +282,289 @@ public class RollerCoasterController {
     }
 
     /**
-     * Returns all roller coasters.
+     * Returns every roller coaster in ID order.
      *
-     * @return a list of all roller coasters as DTOs
+     * @param request the current request, for conditional and compressed responses
+     * @return all roller coasters as cached JSON bytes
      */
     @GetMapping
     @Operation(
             summary = "List all roller coasters",
-            description = "Returns all roller coasters currently stored."
+            description = """
+                    Returns every roller coaster ordered by ID. The response carries an ETag; send it back in
+                    If-None-Match to get 304 Not Modified while the catalog is unchanged. Pass limit to page
+                    through the catalog instead, or send Accept: application/x-ndjson to stream it.
+                    """
     )
     @ApiResponse(
             responseCode = "200",
-            description = "List of roller coasters.",
+            description = "All roller coasters.",
             content = @Content(
                     mediaType = "application/json",
-                    schema = @Schema(
-                            implementation = RollerCoasterDto.class,
-                            name = "RollerCoasterList",
-                            description = "List of roller coaster resources."
-                    ),
-                    examples = @ExampleObject(
-                            name = "CoasterListExample",
-                            summary = "List of roller coasters example",
-                            description = "Example response body containing multiple roller coasters.",
-                            value = """
-                                [
-                                  {
-                                    "id": 101,
-                                    "name": "Millennium Force",
-                                    "amusementPark": "Cedar Point",
-                                    "type": "Steel",
-                                    "design": "Sitdown",
-                                    "status": "Operating",
-                                    "manufacturer": "Intamin",
-                                    "model": "Giga Coaster",
-                                    "length": 6595,
-                                    "height": 310,
-                                    "drop": 300,
-                                    "inversionCount": 0,
-                                    "speed": 93,
-                                    "verticalAngle": 80,
-                                    "restraints": "Lap Bar",
-                                    "gForce": 4.5,
-                                    "intensity": "Thrill",
-                                    "duration": 150,
-                                    "country": "United States",
-                                    "averageRating": 4.8
-                                  },
-                                  {
-                                    "id": 102,
-                                    "name": "GateKeeper",
-                                    "amusementPark": "Cedar Point",
-                                    "type": "Steel",
-                                    "design": "Wing",
-                                    "status": "Operating",
-                                    "manufacturer": "Bolliger & Mabillard",
-                                    "model": "Wing Coaster",
-                                    "length": 4164,
-                                    "height": 170,
-                                    "drop": 164,
-                                    "inversionCount": 6,
-                                    "speed": 67,
-                                    "verticalAngle": 65,
-                                    "restraints": "Over-the-Shoulder Harness",
-                                    "gForce": 4.0,
-                                    "intensity": "Thrill",
-                                    "duration": 160,
-                                    "country": "United States",
-                                    "averageRating": 4.2
-                                  }
-                                ]
-                                """
+                    array = @ArraySchema(schema = @Schema(implementation = RollerCoasterDto.class))
+            )
+    )
+    public ResponseEntity<byte[]> findAll(HttpServletRequest request) {
+        return cachedJsonResponses.respond(CatalogChangedEvent.COASTERS, null, () -> ResponseEntity.ok(
+                coasterService.findAll().stream()
+                        .map(coasterMapper::toRollerCoasterDto)
+                        .toList()), request);
+    }
+
+    /**
+     * Returns one page of roller coasters in ID order.
+     *
+     * <p>Selected over {@link #findAll(HttpServletRequest)} by the presence of the
+     * <code>limit</code> parameter.</p>
+     *
+     * @param after cursor from the previous page's {@code Link} header, or absent for the first page
+     * @param limit maximum number of coasters to return
+     * @param request the current request, for conditional and compressed responses
+     * @return the page of roller coasters as cached JSON bytes, with a {@code Link: rel="next"}
+     *         header when more coasters follow
+     */
+    @GetMapping(params = "limit")
+    @Operation(
+            summary = "List roller coasters (keyset paginated)",
+            description = """
+                    Returns up to limit roller coasters ordered by ID. When more coasters follow, the response
+                    carries a Link header with rel="next" whose URL includes the cursor for the next page;
+                    follow it until the header is absent. Pages carry an ETag; send it back in If-None-Match
+                    to get 304 Not Modified while the page is unchanged.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of roller coasters.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = RollerCoasterDto.class,
+                                    name = "RollerCoasterList",
+                                    description = "List of roller coaster resources."
+                            ),
+                            examples = @ExampleObject(
+                                    name = "CoasterListExample",
+                                    summary = "List of roller coasters example",
+                                    description = "Example response body containing multiple roller coasters.",
+                                    value = """
+                                        [
+                                          {
+                                            "id": 101,
+                                            "name": "Millennium Force",
+                                            "amusementPark": "Cedar Point",
+                                            "type": "Steel",
+                                            "design": "Sitdown",
+                                            "status": "Operating",
+                                            "manufacturer": "Intamin",
+                                            "model": "Giga Coaster",
+                                            "length": 6595,
+                                            "height": 310,
+                                            "drop": 300,
+                                            "inversionCount": 0,
+                                            "speed": 93,
+                                            "verticalAngle": 80,
+                                            "restraints": "Lap Bar",
+                                            "gForce": 4.5,
+                                            "intensity": "Thrill",
+                                            "duration": 150,
+                                            "country": "United States",
+                                            "averageRating": 4.8
+                                          },
+                                          {
+                                            "id": 102,
+                                            "name": "GateKeeper",
+                                            "amusementPark": "Cedar Point",
+                                            "type": "Steel",
+                                            "design": "Wing",
+                                            "status": "Operating",
+                                            "manufacturer": "Bolliger & Mabillard",
+                                            "model": "Wing Coaster",
+                                            "length": 4164,
+                                            "height": 170,
+                                            "drop": 164,
+                                            "inversionCount": 6,
+                                            "speed": 67,
+                                            "verticalAngle": 65,
+                                            "restraints": "Over-the-Shoulder Harness",
+                                            "gForce": 4.0,
+                                            "intensity": "Thrill",
+                                            "duration": 160,
+                                            "country": "United States",
+                                            "averageRating": 4.2
+                                          }
+                                        ]
+                                        """
+                            )
                     )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "The cursor could not be decoded.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<byte[]> findPage(
+            @Parameter(
+                    name = "after",
+                    description = "Cursor taken from the previous page's Link header.",
+                    example = "MTAy"
             )
+            @RequestParam(required = false) String after,
+            @Parameter(
+                    name = "limit",
+                    description = "Maximum number of coasters to return (1 to 1000).",
+                    example = "100",
+                    required = true
+            )
+            @RequestParam int limit,
+            HttpServletRequest request
+    ) {
+        return cachedJsonResponses.respond(CatalogChangedEvent.COASTERS, after + "|" + limit, () -> {
+            KeysetPage<RollerCoasterDto> page = coasterService.findPage(after, limit)
+                    .map(coasterMapper::toRollerCoasterDto);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext()) {
+                // The header is cached with the page, so nothing request-specific
+                // (host, forwarded headers, other parameters) may go into it
+                String next = UriComponentsBuilder.fromPath(request.getContextPath())
+                        .path("/coasters")
+                        .queryParam("after", page.nextCursor())
+                        .queryParam("limit", limit)
+                        .toUriString();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.body(page.items());
+        }, request);
+    }
+
+    /**
+     * Streams every roller coaster as newline-delimited JSON.
+     *
+     * <p>Rows are read from the {@link CoasterCatalog} snapshot and written to the
+     * response one at a time, so no list of the whole catalog is built.</p>
+     *
+     * @param after optional cursor to resume from
+     * @return a body that writes one JSON object per line
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Stream all roller coasters",
+            description = "Streams every roller coaster ordered by ID as newline-delimited JSON, one coaster per line."
     )
-    public List<RollerCoasterDto> findAll() {
-        return coasterService.findAll().stream()
-                .map(coasterMapper::toRollerCoasterDto)
-                .toList();
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Roller coasters, one JSON object per line.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = RollerCoasterDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "The cursor could not be decoded.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    public StreamingResponseBody streamAll(
+            @Parameter(
+                    name = "after",
+                    description = "Cursor to resume from; coasters after it are streamed.",
+                    example = "MTAy"
+            )
+            @RequestParam(required = false) String after
+    ) {
+        // Decode before the response is committed so a bad cursor still gets a 400
+        Long afterId = KeysetCursor.decodeLong(after);
+        return NdjsonStreams.of(objectMapper, RollerCoasterDto.class, line ->
+                coasterService.streamAll(afterId, coaster -> line.accept(coasterMapper.toRollerCoasterDto(coaster))));
+    }
+
+    /**
+     * Returns the coasters most similar to the given coaster.
+     *
+     * @param id      the ID of the roller coaster to compare against
+     * @param k       maximum number of results
+     * @param country optional country restricting the results
+     * @return similar coasters with their similarity scores, most similar first
+     */
+    @GetMapping("/{id}/similar")
+    @Operation(
+            summary = "Find similar roller coasters",
+            description = """
+                    Returns the roller coasters closest to the given coaster based on type, design,
+                    manufacturer, restraints, intensity and imputed statistics (height, length, speed, etc.).
+                    Results are served from an approximate nearest-neighbour index and ordered by
+                    descending cosine similarity.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Similar roller coasters.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = RecommendedCoasterDto.class,
+                                    name = "SimilarRollerCoasterList",
+                                    description = "Similar coasters with their similarity scores."
+                            ),
+                            examples = @ExampleObject(
+                                    name = "SimilarCoastersExample",
+                                    summary = "Similar roller coasters example",
+                                    description = "Example response body for coasters similar to coaster 101.",
+                                    value = """
+                                        [
+                                          { "coasterId": 102, "score": 0.9731 },
+                                          { "coasterId": 240, "score": 0.9415 }
+                                        ]
+                                        """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Roller coaster not found.",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponse.class,
+                                    name = "SimilarRollerCoasterNotFoundError",
+                                    description = "Error payload returned when the reference roller coaster is not found."
+                            )
+                    )
+            )
+    })
+    public List<RecommendedCoasterDto> findSimilar(
+            @Parameter(
+                    name = "id",
+                    description = "ID of the roller coaster to find similar coasters for.",
+                    example = "101",
+                    required = true
+            )
+            @PathVariable Long id,
+            @Parameter(
+                    name = "k",
+                    description = "Maximum number of similar coasters to return (1-100).",
+                    example = "10"
+            )
+            @RequestParam(defaultValue = "10") int k,
+            @Parameter(
+                    name = "country",
+                    description = "Only return coasters located in this country.",
+                    example = "United States"
+            )
+            @RequestParam(required = false) String country
+    ) {
+        return coasterService.findSimilar(id, k, country);
     }
 
     /**
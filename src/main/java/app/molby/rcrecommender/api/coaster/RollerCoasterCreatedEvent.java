@@ -0,0 +1,12 @@
+package app.molby.rcrecommender.api.coaster;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+
+/**
+ * Published by {@link RollerCoasterService} after a roller coaster has been saved,
+ * so in-memory views of the catalog can be updated incrementally.
+ *
+ * @param coaster the saved coaster, including its assigned ID
+ */
+public record RollerCoasterCreatedEvent(RollerCoasterEntity coaster) {
+}
@@ -0,0 +1,10 @@
+package app.molby.rcrecommender.api.coaster;
+
+/**
+ * Published by {@link RollerCoasterService} after a roller coaster has been deleted,
+ * so in-memory views of the catalog can drop it.
+ *
+ * @param coasterId the ID of the deleted coaster
+ */
+public record RollerCoasterDeletedEvent(Long coasterId) {
+}
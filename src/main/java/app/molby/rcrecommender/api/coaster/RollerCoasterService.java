@@ -1,21 +1,38 @@
 package app.molby.rcrecommender.api.coaster;
 
+import app.molby.rcrecommender.api.recommender.RecommendedCoasterDto;
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
 import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
 import app.molby.rcrecommender.domain.coaster.RollerCoasterRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service layer for managing {@link RollerCoasterEntity} objects.
  * Provides CRUD operations used by controllers in the roller coaster recommender application.
+ *
+ * <p>Creations and deletions are announced with {@link RollerCoasterCreatedEvent} and
+ * {@link RollerCoasterDeletedEvent} so in-memory views of the catalog stay current.</p>
  */
 @Service
 @RequiredArgsConstructor
 public class RollerCoasterService {
 
+    /** Maximum number of results returned by {@link #findSimilar}. */
+    static final int MAX_SIMILAR = 100;
+
+    /** Maximum number of coasters returned by {@link #findPage}. */
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final RollerCoasterRepository rollerCoasterRepository;
+    private final CoasterCatalog coasterCatalog;
+    private final CoasterSimilarityIndex similarityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new roller coaster record.
@@ -24,28 +41,80 @@ public class RollerCoasterService {
      * @return the saved {@link RollerCoasterEntity} with an assigned ID
      */
     public RollerCoasterEntity create(RollerCoasterEntity coaster) {
-        return rollerCoasterRepository.save(coaster);
+        RollerCoasterEntity saved = rollerCoasterRepository.save(coaster);
+        eventPublisher.publishEvent(new RollerCoasterCreatedEvent(saved));
+        return saved;
     }
 
     /**
-     * Retrieve a roller coaster by its unique ID.
+     * Retrieve a roller coaster by its unique ID from the {@link CoasterCatalog}.
      *
      * @param id the primary key of the coaster
      * @return the matching {@link RollerCoasterEntity}
      * @throws RollerCoasterNotFoundException if the coaster does not exist
      */
     public RollerCoasterEntity findById(Long id) {
-        return rollerCoasterRepository.findById(id)
+        return coasterCatalog.findById(id)
                 .orElseThrow(() -> new RollerCoasterNotFoundException(id));
     }
 
     /**
-     * Retrieve all roller coaster records.
+     * Retrieve all roller coasters in ID order from the {@link CoasterCatalog}.
      *
      * @return a list of all {@link RollerCoasterEntity} objects
      */
     public List<RollerCoasterEntity> findAll() {
-        return rollerCoasterRepository.findAll();
+        return coasterCatalog.findAfter(null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieve one page of roller coasters in ID order from the {@link CoasterCatalog}.
+     *
+     * <p>Pages start with a binary search for the cursor, so each page costs the
+     * same regardless of how far into the catalog it is.</p>
+     *
+     * @param cursor cursor returned with the previous page, or {@code null} for the first page
+     * @param limit  maximum number of coasters; clamped to {@code [1, 1000]}
+     * @return the page, with a cursor for the next page if more coasters follow
+     * @throws app.molby.rcrecommender.api.shared.InvalidCursorException if the cursor cannot be decoded
+     */
+    public KeysetPage<RollerCoasterEntity> findPage(String cursor, int limit) {
+        Long afterId = KeysetCursor.decodeLong(cursor);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Read one extra row to learn whether another page follows
+        List<RollerCoasterEntity> rows = coasterCatalog.findAfter(afterId, size + 1);
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<RollerCoasterEntity> page = rows.subList(0, size);
+        return new KeysetPage<>(page, KeysetCursor.encode(page.getLast().getId()));
+    }
+
+    /**
+     * Read every roller coaster after an ID in ID order from the
+     * {@link CoasterCatalog}, one at a time, without building a list.
+     *
+     * @param afterId  the ID after which to start, or {@code null} to start at the beginning
+     * @param consumer receives each coaster in turn
+     */
+    public void streamAll(Long afterId, Consumer<RollerCoasterEntity> consumer) {
+        coasterCatalog.forEachAfter(afterId, consumer);
+    }
+
+    /**
+     * Find the coasters most similar to the given coaster by type, intensity,
+     * manufacturer and imputed statistics.
+     *
+     * @param id      the ID of the coaster to compare against
+     * @param k       maximum number of results; clamped to {@code [1, 100]}
+     * @param country optional country name restricting the results
+     * @return similar coasters ordered by descending similarity score
+     * @throws RollerCoasterNotFoundException if the coaster does not exist
+     */
+    public List<RecommendedCoasterDto> findSimilar(Long id, int k, String country) {
+        RollerCoasterEntity coaster = findById(id);
+        int limit = Math.max(1, Math.min(k, MAX_SIMILAR));
+        return similarityIndex.findSimilar(coaster, limit, country);
     }
 
     /**
@@ -59,5 +128,6 @@ public class RollerCoasterService {
             throw new RollerCoasterNotFoundException(id);
         }
         rollerCoasterRepository.deleteById(id);
+        eventPublisher.publishEvent(new RollerCoasterDeletedEvent(id));
     }
 }
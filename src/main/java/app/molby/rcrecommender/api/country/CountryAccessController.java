@@ -1,5 +1,7 @@
 package app.molby.rcrecommender.api.country;
 
+import app.molby.rcrecommender.api.shared.CachedJsonResponses;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
 import app.molby.rcrecommender.domain.country.CountryAccessEntity;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,9 +11,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -36,6 +40,7 @@ public class CountryAccessController {
 
     private final CountryAccessService service;
     private final CountryAccessMapper mapper;
+    private final CachedJsonResponses cachedJsonResponses;
 
     /**
      * Create a new country access mapping.
@@ -203,12 +208,14 @@ public class CountryAccessController {
     /**
      * Retrieve all country access mappings.
      *
-     * @return list of all {@link CountryAccessDto} mappings
+     * @param request the current request, for conditional and compressed responses
+     * @return list of all {@link CountryAccessDto} mappings as cached JSON bytes
      */
     @GetMapping
     @Operation(
             summary = "List all country access mappings",
-            description = "Returns all configured country access mappings used for trip planning.",
+            description = "Returns all configured country access mappings used for trip planning. The response " +
+                    "carries an ETag; send it back in If-None-Match to get 304 Not Modified while the list is unchanged.",
             tags = {"Country Access"}
     )
     @ApiResponse(
@@ -251,10 +258,12 @@ public class CountryAccessController {
                     )
             )
     )
-    public List<CountryAccessDto> findAll() {
-        return service.getAll().stream()
-                .map(mapper::toCountryAccessDto)
-                .toList();
+    public ResponseEntity<byte[]> findAll(HttpServletRequest request) {
+        return cachedJsonResponses.respond(CatalogChangedEvent.COUNTRY_ACCESS, null,
+                () -> ResponseEntity.ok(service.getAll().stream()
+                        .map(mapper::toCountryAccessDto)
+                        .toList()),
+                request);
     }
 
     /**
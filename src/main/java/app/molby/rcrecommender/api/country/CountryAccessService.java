@@ -1,8 +1,11 @@
 package app.molby.rcrecommender.api.country;
 
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
 import app.molby.rcrecommender.domain.country.CountryAccessEntity;
 import app.molby.rcrecommender.domain.country.CountryAccessRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,10 +14,15 @@ import java.util.List;
 @RequiredArgsConstructor
 /**
  * CountryAccessService service component in the roller coaster recommender application.
+ *
+ * <p>Access rules decide which countries every user can be recommended coasters
+ * in, so each write publishes a {@link RecommendationInputsChangedEvent} for all users,
+ * plus a {@link CatalogChangedEvent} for cached {@code GET /country-access} responses.</p>
  */
 public class CountryAccessService {
 
     private final CountryAccessRepository countryAccessRepository;
+    private final ApplicationEventPublisher eventPublisher;
 /**
  * create TODO: describe purpose.
  *
@@ -29,7 +37,10 @@ public class CountryAccessService {
  */
 
     public CountryAccessEntity create(CountryAccessEntity mapping) {
-        return countryAccessRepository.save(mapping);
+        CountryAccessEntity saved = countryAccessRepository.save(mapping);
+        eventPublisher.publishEvent(RecommendationInputsChangedEvent.allUsers());
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COUNTRY_ACCESS));
+        return saved;
     }
 /**
  * getById TODO: describe purpose.
@@ -82,7 +93,10 @@ public class CountryAccessService {
             throw new CountryAccessNotFoundException(id);
         }
         updated.setId(id);
-        return countryAccessRepository.save(updated);
+        CountryAccessEntity saved = countryAccessRepository.save(updated);
+        eventPublisher.publishEvent(RecommendationInputsChangedEvent.allUsers());
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COUNTRY_ACCESS));
+        return saved;
     }
 /**
  * delete TODO: describe purpose.
@@ -100,5 +114,7 @@ public class CountryAccessService {
             throw new CountryAccessNotFoundException(id);
         }
         countryAccessRepository.deleteById(id);
+        eventPublisher.publishEvent(RecommendationInputsChangedEvent.allUsers());
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COUNTRY_ACCESS));
     }
 }
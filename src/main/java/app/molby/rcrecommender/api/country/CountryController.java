@@ -1,5 +1,7 @@
 package app.molby.rcrecommender.api.country;
 
+import app.molby.rcrecommender.api.shared.CachedJsonResponses;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
 import app.molby.rcrecommender.domain.country.CountryEntity;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,9 +11,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -30,6 +34,7 @@ public class CountryController {
 
     private final CountryService service;
     private final CountryMapper mapper;
+    private final CachedJsonResponses cachedJsonResponses;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -142,11 +147,12 @@ public class CountryController {
     @GetMapping
     @Operation(
             summary = "List all countries",
-            description = "Returns all countries currently stored."
+            description = "Returns all countries currently stored. The response carries an ETag; " +
+                    "send it back in If-None-Match to get 304 Not Modified while the list is unchanged."
     )
     @ApiResponse(
             responseCode = "200",
-            description = "List of countries",
+            description = "List of countries (304 with no body when If-None-Match matches)",
             content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = CountryDto.class),
@@ -168,10 +174,12 @@ public class CountryController {
                     )
             )
     )
-    public List<CountryDto> getAll() {
-        return service.getAll().stream()
-                .map(mapper::toCountryDto)
-                .toList();
+    public ResponseEntity<byte[]> getAll(HttpServletRequest request) {
+        return cachedJsonResponses.respond(CatalogChangedEvent.COUNTRIES, null,
+                () -> ResponseEntity.ok(service.getAll().stream()
+                        .map(mapper::toCountryDto)
+                        .toList()),
+                request);
     }
 
     @PutMapping("/{id}")
@@ -1,8 +1,11 @@
 package app.molby.rcrecommender.api.country;
 
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
 import app.molby.rcrecommender.domain.country.CountryEntity;
 import app.molby.rcrecommender.domain.country.CountryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,10 +18,17 @@ import java.util.List;
  * <p>This service acts as the business-layer abstraction for country management
  * within the roller coaster recommender application, handling persistence and
  * existence checks while delegating data operations to the underlying repository.</p>
+ *
+ * <p>Writes publish {@link CatalogChangedEvent}s for the countries and, since
+ * access rules embed country names, the country access catalogs. Renaming or
+ * deleting a country also changes the country names recommendations are
+ * filtered by, so updates and deletes publish a
+ * {@link RecommendationInputsChangedEvent} for all users as well.</p>
  */
 public class CountryService {
 
     private final CountryRepository countryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new country record.
@@ -27,7 +37,9 @@ public class CountryService {
      * @return the saved entity with an assigned ID
      */
     public CountryEntity create(CountryEntity country) {
-        return countryRepository.save(country);
+        CountryEntity saved = countryRepository.save(country);
+        publishChanged();
+        return saved;
     }
 
     /**
@@ -64,7 +76,10 @@ public class CountryService {
             throw new CountryNotFoundException(id);
         }
         updated.setId(id);
-        return countryRepository.save(updated);
+        CountryEntity saved = countryRepository.save(updated);
+        publishChanged();
+        eventPublisher.publishEvent(RecommendationInputsChangedEvent.allUsers());
+        return saved;
     }
 
     /**
@@ -78,5 +93,12 @@ public class CountryService {
             throw new CountryNotFoundException(id);
         }
         countryRepository.deleteById(id);
+        publishChanged();
+        eventPublisher.publishEvent(RecommendationInputsChangedEvent.allUsers());
+    }
+
+    private void publishChanged() {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COUNTRIES));
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COUNTRY_ACCESS));
     }
 }
@@ -0,0 +1,124 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+import app.molby.rcrecommender.api.shared.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/leaderboards")
+@RequiredArgsConstructor
+@Tag(
+        name = "Leaderboards",
+        description = "Top roller coasters per country, refreshed periodically."
+)
+/**
+ * LeaderboardController REST controller in the roller coaster recommender application.
+ *
+ * <p>Serves the per-country leaderboards held in memory by the
+ * {@link LeaderboardService}. Responses may lag rating changes by up to the
+ * configured refresh interval.</p>
+ * @author Bob Molby
+ */
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+    private final LeaderboardMapper leaderboardMapper;
+
+    /**
+     * Retrieve the top coasters of a country.
+     *
+     * @param country the country name
+     * @param by      the metric the leaderboard is ordered by
+     * @param limit   maximum number of entries to return
+     * @return the ranked coasters, best first
+     */
+    @GetMapping("/{country}")
+    @Operation(
+            summary = "Get a country leaderboard",
+            description = "Returns the top roller coasters in a country ordered by average rating or by number of " +
+                    "ratings. Leaderboards are precomputed and refreshed periodically."
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Leaderboard found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = LeaderboardEntryDto.class)),
+                            examples = @ExampleObject(
+                                    name = "Leaderboard",
+                                    summary = "Top rated coasters example",
+                                    value = """
+                                        [
+                                          {
+                                            "rank": 1,
+                                            "coasterId": 101,
+                                            "name": "Millennium Force",
+                                            "amusementPark": "Cedar Point",
+                                            "country": "United States",
+                                            "averageRating": 4.80,
+                                            "ratingCount": 1250
+                                          },
+                                          {
+                                            "rank": 2,
+                                            "coasterId": 102,
+                                            "name": "Fury 325",
+                                            "amusementPark": "Carowinds",
+                                            "country": "United States",
+                                            "averageRating": 4.75,
+                                            "ratingCount": 980
+                                          }
+                                        ]
+                                        """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "No coasters known in the country",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponse.class
+                            )
+                    )
+            )
+    })
+    public List<LeaderboardEntryDto> findByCountry(
+            @Parameter(
+                    description = "Name of the country",
+                    example = "United States",
+                    required = true
+            )
+            @PathVariable String country,
+            @Parameter(
+                    description = "Metric to rank by",
+                    example = "RATING"
+            )
+            @RequestParam(defaultValue = "RATING") LeaderboardMetric by,
+            @Parameter(
+                    description = "Maximum number of coasters to return (1 to leaderboard.size)",
+                    example = "10"
+            )
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<LeaderboardEntry> entries = leaderboardService.top(country, by, limit);
+        List<LeaderboardEntryDto> result = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            result.add(leaderboardMapper.toLeaderboardEntryDto(entries.get(i), i + 1));
+        }
+        return result;
+    }
+}
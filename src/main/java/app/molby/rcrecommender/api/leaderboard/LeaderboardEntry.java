@@ -0,0 +1,18 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable leaderboard row held in the {@link LeaderboardService} snapshot.
+ *
+ * @param coasterId     the coaster ID
+ * @param name          the coaster name
+ * @param amusementPark the park the coaster is located in
+ * @param country       the country the coaster is located in
+ * @param averageRating the average user rating, or {@code null} if unrated
+ * @param ratingCount   the number of ratings the coaster has received
+ * @author Bob Molby
+ */
+public record LeaderboardEntry(long coasterId, String name, String amusementPark, String country,
+                               BigDecimal averageRating, long ratingCount) {
+}
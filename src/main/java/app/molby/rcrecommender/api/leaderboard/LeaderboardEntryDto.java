@@ -0,0 +1,46 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * LeaderboardEntryDto part of the roller coaster recommender application.
+ *
+ * <p>One ranked coaster on a country leaderboard.</p>
+ * @author Bob Molby
+ */
+@Schema(
+        name = "LeaderboardEntryDto",
+        title = "Leaderboard Entry",
+        description = "A roller coaster ranked on a country leaderboard."
+)
+public class LeaderboardEntryDto {
+
+    @Schema(description = "1-based position on the leaderboard", example = "1")
+    private Integer rank;
+
+    @Schema(description = "Unique identifier of the roller coaster", example = "101")
+    private Long coasterId;
+
+    @Schema(description = "Name of the roller coaster", example = "Millennium Force")
+    private String name;
+
+    @Schema(description = "Amusement park the coaster is located in", example = "Cedar Point")
+    private String amusementPark;
+
+    @Schema(description = "Country the coaster is located in", example = "United States")
+    private String country;
+
+    @Schema(description = "Average user rating, or null if unrated", example = "4.80")
+    private BigDecimal averageRating;
+
+    @Schema(description = "Number of user ratings", example = "1250")
+    private Long ratingCount;
+}
@@ -0,0 +1,25 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Maps {@link LeaderboardEntry} snapshot rows to {@link LeaderboardEntryDto}
+ * objects used by the API layer.
+ *
+ * <p>This mapper is implemented by MapStruct at build time and exposed as a Spring
+ * bean so it can be injected into services and controllers.</p>
+ */
+@Mapper(componentModel = "spring")
+public interface LeaderboardMapper {
+
+    /**
+     * Converts a leaderboard row to its API representation.
+     *
+     * @param entry the row to convert
+     * @param rank  the row's 1-based position on the leaderboard
+     * @return the corresponding {@link LeaderboardEntryDto}
+     */
+    @Mapping(target = "rank", source = "rank")
+    LeaderboardEntryDto toLeaderboardEntryDto(LeaderboardEntry entry, Integer rank);
+}
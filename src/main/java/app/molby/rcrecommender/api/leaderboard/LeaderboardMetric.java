@@ -0,0 +1,18 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+/**
+ * Ordering of a country leaderboard.
+ * @author Bob Molby
+ */
+public enum LeaderboardMetric {
+
+    /**
+     * Highest average rating first; unrated coasters are not listed.
+     */
+    RATING,
+
+    /**
+     * Most ratings first.
+     */
+    COUNT
+}
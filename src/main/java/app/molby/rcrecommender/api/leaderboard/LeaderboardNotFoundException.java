@@ -0,0 +1,19 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+import app.molby.rcrecommender.api.shared.ResourceNotFoundException;
+
+/**
+ * Exception thrown when no coasters are known for a requested leaderboard country.
+ * @author Bob Molby
+ */
+public class LeaderboardNotFoundException extends ResourceNotFoundException {
+
+    /**
+     * Creates a new {@code LeaderboardNotFoundException} for the given country.
+     *
+     * @param country the country that has no leaderboard
+     */
+    public LeaderboardNotFoundException(String country) {
+        super("Leaderboard", country);
+    }
+}
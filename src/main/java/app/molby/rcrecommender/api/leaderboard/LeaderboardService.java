@@ -0,0 +1,171 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterRepository;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterSummary;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory per-country leaderboards of roller coasters.
+ *
+ * <p>Every {@code leaderboard.refresh-interval-ms} the service reads a summary of
+ * every coaster plus the running {@link CoasterRatingStats} of every rated coaster
+ * (two queries, no entity loading and no aggregation over the ratings table) and
+ * keeps the top {@code leaderboard.size} coasters of each country by average
+ * rating and by number of ratings. The live mean replaces the offline
+ * {@code average_rating} of any coaster with ratings. Reads are served from an immutable snapshot
+ * that is swapped atomically, so lookups never touch the database.</p>
+ *
+ * <p>Besides the leaderboard endpoint, the snapshot backs the popularity-based
+ * cold-start and fallback recommendations.</p>
+ * @author Bob Molby
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final Comparator<LeaderboardEntry> BY_RATING = Comparator
+            .comparing(LeaderboardEntry::averageRating, Comparator.reverseOrder())
+            .thenComparing(LeaderboardEntry::ratingCount, Comparator.reverseOrder())
+            .thenComparingLong(LeaderboardEntry::coasterId);
+
+    private static final Comparator<LeaderboardEntry> BY_COUNT = Comparator
+            .comparingLong(LeaderboardEntry::ratingCount).reversed()
+            .thenComparingLong(LeaderboardEntry::coasterId);
+
+    private final RollerCoasterRepository rollerCoasterRepository;
+    private final CoasterRatingStatsRepository ratingStatsRepository;
+
+    @Value("${leaderboard.size:50}")
+    private int size;
+
+    private volatile Map<String, CountryLeaderboard> leaderboards;
+
+    /** Serializes rebuilds; a lock rather than {@code synchronized}, which would pin virtual threads on JDBC I/O. */
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    /**
+     * Rebuilds every leaderboard from the database and swaps in the new snapshot.
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.refresh-interval-ms:600000}",
+            initialDelayString = "${leaderboard.initial-delay-ms:0}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            rebuild();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        Map<Long, CoasterRatingStats> ratingStats = new HashMap<>();
+        for (CoasterRatingStats stats : ratingStatsRepository.findAll()) {
+            ratingStats.put(stats.coasterId(), stats);
+        }
+
+        Map<String, List<LeaderboardEntry>> byCountry = new HashMap<>();
+        for (RollerCoasterSummary coaster : rollerCoasterRepository.findAllSummaries()) {
+            if (coaster.country() == null) {
+                continue;
+            }
+            CoasterRatingStats stats = ratingStats.get(coaster.id());
+            long ratingCount = stats == null ? 0L : stats.ratingCount();
+            BigDecimal averageRating = ratingCount > 0 ? stats.mean() : coaster.averageRating();
+            byCountry.computeIfAbsent(key(coaster.country()), k -> new ArrayList<>()).add(new LeaderboardEntry(
+                    coaster.id(), coaster.name(), coaster.amusementPark(), coaster.country(),
+                    averageRating, ratingCount));
+        }
+
+        Map<String, CountryLeaderboard> snapshot = new HashMap<>(byCountry.size());
+        byCountry.forEach((country, entries) -> snapshot.put(country, new CountryLeaderboard(
+                top(entries.stream().filter(e -> e.averageRating() != null).toList(), BY_RATING),
+                top(entries, BY_COUNT))));
+        leaderboards = Map.copyOf(snapshot);
+
+        LOGGER.info("Refreshed leaderboards for {} countries in {} ms",
+                snapshot.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Returns the top coasters of one country.
+     *
+     * @param country the country name, matched case-insensitively
+     * @param metric  how the leaderboard is ordered
+     * @param limit   maximum number of entries, clamped to {@code 1..leaderboard.size}
+     * @return the leaderboard, best first
+     * @throws LeaderboardNotFoundException if no coasters are known in the country
+     */
+    public List<LeaderboardEntry> top(String country, LeaderboardMetric metric, int limit) {
+        CountryLeaderboard leaderboard = snapshot().get(key(country));
+        if (leaderboard == null) {
+            throw new LeaderboardNotFoundException(country);
+        }
+        List<LeaderboardEntry> entries = leaderboard.entries(metric);
+        return entries.subList(0, Math.min(Math.max(limit, 1), entries.size()));
+    }
+
+    /**
+     * Merges the top rated coasters of several countries.
+     *
+     * @param countries  the country names, matched case-insensitively; unknown countries are skipped
+     * @param excludedIds coaster IDs to leave out
+     * @param limit      maximum number of entries
+     * @return the highest rated coasters across the countries, best first
+     */
+    public List<LeaderboardEntry> topRatedIn(Collection<String> countries, Set<Long> excludedIds, int limit) {
+        Map<String, CountryLeaderboard> current = snapshot();
+        Set<String> seen = new HashSet<>();
+        List<LeaderboardEntry> merged = new ArrayList<>();
+        for (String country : countries) {
+            CountryLeaderboard leaderboard = country == null ? null : current.get(key(country));
+            if (leaderboard != null && seen.add(key(country))) {
+                for (LeaderboardEntry entry : leaderboard.byRating()) {
+                    if (!excludedIds.contains(entry.coasterId())) {
+                        merged.add(entry);
+                    }
+                }
+            }
+        }
+        merged.sort(BY_RATING);
+        return merged.subList(0, Math.min(Math.max(limit, 0), merged.size()));
+    }
+
+    private Map<String, CountryLeaderboard> snapshot() {
+        Map<String, CountryLeaderboard> current = leaderboards;
+        if (current == null) {
+            // First request raced the initial scheduled refresh
+            refresh();
+            current = leaderboards;
+        }
+        return current;
+    }
+
+    private List<LeaderboardEntry> top(List<LeaderboardEntry> entries, Comparator<LeaderboardEntry> order) {
+        return entries.stream().sorted(order).limit(size).toList();
+    }
+
+    private static String key(String country) {
+        return country.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record CountryLeaderboard(List<LeaderboardEntry> byRating, List<LeaderboardEntry> byCount) {
+
+        List<LeaderboardEntry> entries(LeaderboardMetric metric) {
+            return metric == LeaderboardMetric.COUNT ? byCount : byRating;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package app.molby.rcrecommender.api.rating;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "BulkRatingError",
+        description = "A rating of a bulk upload that was rejected."
+)
+/**
+ * BulkRatingError part of the roller coaster recommender application.
+ * @author Bob Molby
+ */
+public class BulkRatingError {
+
+    /**
+     * Position of the rejected rating in the request.
+     */
+    @Schema(description = "0-based position of the rating in the request", example = "2")
+    private int index;
+
+    /**
+     * Why the rating was rejected.
+     */
+    @Schema(description = "Why the rating was rejected", example = "Unknown roller coaster 999.")
+    private String message;
+}
@@ -0,0 +1,21 @@
+package app.molby.rcrecommender.api.rating;
+
+/**
+ * Exception thrown when a bulk rating upload holds more ratings than
+ * {@code ratings.bulk.max-size}.
+ *
+ * <p>Mapped to a 413 response by the global exception handler.</p>
+ * @author Bob Molby
+ */
+public class BulkRatingLimitExceededException extends RuntimeException {
+
+    /**
+     * Creates a new {@code BulkRatingLimitExceededException}.
+     *
+     * @param size    the number of ratings received
+     * @param maxSize the maximum number of ratings per request
+     */
+    public BulkRatingLimitExceededException(int size, int maxSize) {
+        super("Bulk upload holds " + size + " ratings; at most " + maxSize + " are accepted per request");
+    }
+}
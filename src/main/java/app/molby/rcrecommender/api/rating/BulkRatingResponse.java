@@ -0,0 +1,47 @@
+package app.molby.rcrecommender.api.rating;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "BulkRatingResponse",
+        description = "Outcome of a bulk rating upload: how many ratings were written and which were rejected."
+)
+/**
+ * BulkRatingResponse part of the roller coaster recommender application.
+ * @author Bob Molby
+ */
+public class BulkRatingResponse {
+
+    /**
+     * Number of ratings in the request.
+     */
+    @Schema(description = "Number of ratings in the request", example = "3")
+    private int received;
+
+    /**
+     * Ratings stored for a {@code (user, coaster)} pair that had no rating yet.
+     */
+    @Schema(description = "Number of new ratings stored", example = "1")
+    private int inserted;
+
+    /**
+     * Ratings that replaced an existing rating of the same user and coaster,
+     * including duplicates within the request, where the last one wins.
+     */
+    @Schema(description = "Number of existing ratings replaced, including duplicates within the request", example = "1")
+    private int updated;
+
+    /**
+     * Ratings that failed validation and were not written.
+     */
+    @Schema(description = "Ratings that failed validation and were not written")
+    private List<BulkRatingError> rejected;
+}
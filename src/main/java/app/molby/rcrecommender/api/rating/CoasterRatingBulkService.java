@@ -0,0 +1,169 @@
+package app.molby.rcrecommender.api.rating;
+
+import app.molby.rcrecommender.api.coaster.CoasterCatalog;
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
+import app.molby.rcrecommender.domain.rating.CoasterRatingBatchRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStatsRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Service layer for bulk rating uploads.
+ *
+ * <p>A request is validated in a single pass: user existence is checked with one
+ * query and coaster existence against the in-memory {@link CoasterCatalog}.
+ * Invalid ratings are reported back rather than failing the upload. Valid
+ * ratings are written in one transaction as JDBC batches of upserts, so a rating
+ * for an already rated {@code (user, coaster)} pair replaces it. The repository
+ * reports which pairs it inserted and the previous values of those it replaced,
+ * decided by the database per row, so the {@link CoasterRatingStats} deltas
+ * stay exact even when concurrent uploads share new pairs.</p>
+ * @author Bob Molby
+ */
+@Service
+public class CoasterRatingBulkService {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(CoasterRatingBulkService.class);
+
+    private static final BigDecimal MAX_RATING = BigDecimal.valueOf(5);
+
+    private final CoasterRatingBatchRepository batchRepository;
+    private final CoasterRatingStatsRepository ratingStatsRepository;
+    private final CoasterCatalog coasterCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxSize;
+
+    public CoasterRatingBulkService(CoasterRatingBatchRepository batchRepository,
+                                    CoasterRatingStatsRepository ratingStatsRepository,
+                                    CoasterCatalog coasterCatalog,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${ratings.bulk.max-size:50000}") int maxSize) {
+        this.batchRepository = batchRepository;
+        this.ratingStatsRepository = ratingStatsRepository;
+        this.coasterCatalog = coasterCatalog;
+        this.eventPublisher = eventPublisher;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Validates and upserts many ratings at once. Rating IDs are ignored; ratings
+     * are matched on user and coaster, and for duplicates within the request the
+     * last one wins.
+     *
+     * @param ratings the ratings to write
+     * @return counts of inserted and replaced ratings, plus the rejected ones
+     * @throws BulkRatingLimitExceededException if more than {@code ratings.bulk.max-size} ratings are given
+     */
+    @Transactional
+    public BulkRatingResponse upsertAll(List<CoasterRatingEntity> ratings) {
+        if (ratings.size() > maxSize) {
+            throw new BulkRatingLimitExceededException(ratings.size(), maxSize);
+        }
+        long start = System.nanoTime();
+
+        Set<String> userIds = new HashSet<>();
+        for (CoasterRatingEntity rating : ratings) {
+            if (rating != null && rating.getUserId() != null && !rating.getUserId().isBlank()) {
+                userIds.add(rating.getUserId());
+            }
+        }
+        Set<String> knownUserIds = batchRepository.findExistingUserIds(userIds);
+
+        Map<RatingKey, CoasterRatingValue> accepted = new LinkedHashMap<>();
+        List<BulkRatingError> rejected = new ArrayList<>();
+        for (int i = 0; i < ratings.size(); i++) {
+            CoasterRatingEntity rating = ratings.get(i);
+            String error = validate(rating, knownUserIds);
+            if (error != null) {
+                rejected.add(new BulkRatingError(i, error));
+            } else {
+                accepted.put(new RatingKey(rating.getUserId(), rating.getCoasterId()),
+                        new CoasterRatingValue(rating.getUserId(), rating.getCoasterId(), stored(rating)));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return new BulkRatingResponse(ratings.size(), 0, 0, rejected);
+        }
+
+        Map<RatingKey, BigDecimal> previous = new HashMap<>();
+        for (CoasterRatingValue replaced : batchRepository.upsertAll(accepted.values())) {
+            previous.put(new RatingKey(replaced.userId(), replaced.coasterId()), replaced.rating());
+        }
+
+        Map<Long, CoasterRatingStats> deltas = new HashMap<>();
+        accepted.forEach((key, value) -> {
+            BigDecimal old = previous.get(key);
+            CoasterRatingStats delta = old == null
+                    ? CoasterRatingStats.of(key.coasterId(), value.rating())
+                    : CoasterRatingStats.change(key.coasterId(), old, value.rating());
+            deltas.merge(key.coasterId(), delta, CoasterRatingStats::plus);
+        });
+        ratingStatsRepository.apply(deltas.values());
+
+        publishChanged(accepted.keySet());
+
+        int inserted = accepted.size() - previous.size();
+        LOGGER.info("Bulk upserted {} ratings ({} new, {} rejected) in {} ms", accepted.size(), inserted,
+                rejected.size(), (System.nanoTime() - start) / 1_000_000);
+        return new BulkRatingResponse(ratings.size(), inserted,
+                ratings.size() - rejected.size() - inserted, rejected);
+    }
+
+    private String validate(CoasterRatingEntity rating, Set<String> knownUserIds) {
+        if (rating == null) {
+            return "Rating cannot be null.";
+        }
+        if (rating.getUserId() == null || rating.getUserId().isBlank()) {
+            return "User ID cannot be blank.";
+        }
+        if (rating.getCoasterId() == null) {
+            return "Coaster ID cannot be null.";
+        }
+        // range-checked after rounding, so 0.004 is not accepted and then stored as 0.00
+        BigDecimal value = stored(rating);
+        if (value == null || value.signum() <= 0 || value.compareTo(MAX_RATING) > 0) {
+            return "Rating must be > 0 and less than or equal to 5.";
+        }
+        if (!knownUserIds.contains(rating.getUserId())) {
+            return "Unknown user " + rating.getUserId() + ".";
+        }
+        if (!coasterCatalog.contains(rating.getCoasterId())) {
+            return "Unknown roller coaster " + rating.getCoasterId() + ".";
+        }
+        return null;
+    }
+
+    /**
+     * Rounds a rating like the {@code NUMERIC(3, 2)} column, so validation and
+     * stats deltas see the value that is actually stored.
+     */
+    private static BigDecimal stored(CoasterRatingEntity rating) {
+        return rating.getRating() == null ? null : rating.getRating().setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Publishes one event naming exactly the touched users, so their
+     * precomputed rows are invalidated in one statement and nobody else's are.
+     */
+    private void publishChanged(Set<RatingKey> keys) {
+        Set<String> users = new HashSet<>();
+        for (RatingKey key : keys) {
+            users.add(key.userId());
+        }
+        eventPublisher.publishEvent(RecommendationInputsChangedEvent.forUsers(users));
+    }
+
+    private record RatingKey(String userId, long coasterId) {
+    }
+}
@@ -1,5 +1,6 @@
 package app.molby.rcrecommender.api.rating;
 
+import app.molby.rcrecommender.api.shared.KeysetPage;
 import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
@@ -16,9 +18,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -40,6 +46,7 @@ import java.util.List;
 public class CoasterRatingController {
 
     private final CoasterRatingService ratingService;
+    private final CoasterRatingBulkService bulkService;
     private final CoasterRatingMapper mapper;
 
     // ---- CREATE ----
@@ -55,7 +62,8 @@ public class CoasterRatingController {
     @Operation(
             summary = "Create a new coaster rating",
             description = "Creates a new numeric rating for a specific roller coaster. " +
-                    "Each user may rate a given coaster at most once.",
+                    "Each user has at most one rating per coaster; posting a rating for a coaster " +
+                    "the user has already rated replaces that rating and returns it with its existing ID.",
             tags = {"Coaster Ratings"}
     )
     @ApiResponses({
@@ -133,6 +141,83 @@ public class CoasterRatingController {
         return mapper.toDto(coasterRatingEntity);
     }
 
+    /**
+     * Create or replace many roller coaster ratings in one request.
+     *
+     * @param ratings the ratings submitted by the client
+     * @return how many ratings were inserted and replaced, and which were rejected
+     */
+    @PostMapping("/bulk")
+    @Operation(
+            summary = "Create or replace coaster ratings in bulk",
+            description = "Upserts up to ratings.bulk.max-size ratings in one transaction. Ratings are matched " +
+                    "on user and coaster: an existing rating is replaced, and for duplicates within the request " +
+                    "the last one wins. Rating IDs are ignored. Invalid ratings are listed in the response and " +
+                    "not written; the valid ones are.",
+            tags = {"Coaster Ratings"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Valid ratings written",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BulkRatingResponse.class),
+                            examples = @ExampleObject(
+                                    name = "BulkRatingResponse",
+                                    summary = "Bulk upload result example",
+                                    value = """
+                                        {
+                                          "received": 3,
+                                          "inserted": 1,
+                                          "updated": 1,
+                                          "rejected": [
+                                            { "index": 2, "message": "Unknown roller coaster 999." }
+                                          ]
+                                        }
+                                        """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "413",
+                    description = "More ratings than ratings.bulk.max-size",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = app.molby.rcrecommender.api.shared.ErrorResponse.class
+                            )
+                    )
+            )
+    })
+    public BulkRatingResponse createBulk(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Ratings to create or replace. IDs are ignored.",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "BulkRatingRequest",
+                                    summary = "Bulk rating request example",
+                                    value = """
+                                        [
+                                          { "userId": "superman", "coasterId": 102, "rating": 4.5 },
+                                          { "userId": "superman", "coasterId": 240, "rating": 3.0 },
+                                          { "userId": "batman", "coasterId": 999, "rating": 5.0 }
+                                        ]
+                                        """
+                            )
+                    )
+            )
+            @RequestBody List<CoasterRatingDto> ratings
+    ) {
+        List<CoasterRatingEntity> entities = new ArrayList<>(ratings.size());
+        for (CoasterRatingDto rating : ratings) {
+            entities.add(mapper.toEntity(rating));
+        }
+        return bulkService.upsertAll(entities);
+    }
+
     /**
      * Retrieve a single coaster rating by its ID.
      *
@@ -305,6 +390,100 @@ public class CoasterRatingController {
         return ratingService.findAll(pageable).map(mapper::toDto);
     }
 
+    /**
+     * Retrieves coaster ratings in ID order using keyset (cursor) pagination.
+     *
+     * <p>Selected over {@link #findAll(Pageable)} by the presence of the
+     * <code>limit</code> parameter. No count query is issued and each page seeks
+     * directly past the previous one, so walking the whole table costs the same
+     * per page at the end as at the start.</p>
+     *
+     * @param after     cursor from the previous page's {@code Link} header, or absent for the first page
+     * @param limit     maximum number of ratings to return
+     * @param userId    optional user to filter by
+     * @param coasterId optional coaster to filter by
+     * @param request   the current request, used to build the next-page link
+     * @return the page of ratings, with a {@code Link: rel="next"} header when more ratings follow
+     */
+    @GetMapping(params = "limit")
+    @Operation(
+            summary = "List coaster ratings (keyset paginated)",
+            description = """
+                Returns up to limit ratings in ascending ID order, optionally filtered by userId and/or coasterId.
+                No total count is computed. When more ratings follow, the response carries a Link header with
+                rel="next" whose URL includes the cursor for the next page; follow it until the header is absent.
+                """,
+            tags = {"Coaster Ratings"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of coaster ratings",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "RatingKeysetPage",
+                                    summary = "Keyset page of ratings example",
+                                    value = """
+                                        [
+                                          { "id": 2001, "userId": "dr_seuss", "coasterId": 102, "rating": 4.5 },
+                                          { "id": 2002, "userId": "john_glenn", "coasterId": 102, "rating": 3.5 }
+                                        ]
+                                        """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed cursor",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = app.molby.rcrecommender.api.shared.ErrorResponse.class
+                            )
+                    )
+            )
+    })
+    public ResponseEntity<List<CoasterRatingDto>> findPage(
+            @Parameter(
+                    name = "after",
+                    description = "Cursor taken from the previous page's Link header.",
+                    example = "MjAwMg"
+            )
+            @RequestParam(required = false) String after,
+            @Parameter(
+                    name = "limit",
+                    description = "Maximum number of ratings to return (1 to 1000).",
+                    example = "1000",
+                    required = true
+            )
+            @RequestParam int limit,
+            @Parameter(
+                    name = "userId",
+                    description = "Only return ratings by this user.",
+                    example = "superman"
+            )
+            @RequestParam(required = false) String userId,
+            @Parameter(
+                    name = "coasterId",
+                    description = "Only return ratings of this coaster.",
+                    example = "102"
+            )
+            @RequestParam(required = false) Long coasterId,
+            HttpServletRequest request
+    ) {
+        KeysetPage<CoasterRatingDto> page = ratingService.findPage(after, limit, userId, coasterId)
+                .map(mapper::toDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromRequest(request)
+                    .replaceQueryParam("after", page.nextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+
     /**
      * Update an existing coaster rating.
      *
@@ -0,0 +1,284 @@
+package app.molby.rcrecommender.api.rating;
+
+import app.molby.rcrecommender.api.shared.ErrorResponse;
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
+import app.molby.rcrecommender.api.shared.NdjsonStreams;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(
+        name = "Coaster Ratings",
+        description = "CRUD operations for roller coaster ratings used to build user preference profiles " +
+                "for personalized coaster recommendations."
+)
+/**
+ * CoasterRatingLookupController REST controller in the roller coaster recommender application.
+ *
+ * <p>Serves the ratings of one user or of one coaster, either as keyset pages
+ * with a {@code Link: rel="next"} header or, for {@code Accept: application/x-ndjson},
+ * as a stream of one rating per line. Ratings are read as projections, so the
+ * user aggregate is never loaded.</p>
+ * @author Bob Molby
+ */
+public class CoasterRatingLookupController {
+
+    private final CoasterRatingService ratingService;
+    private final CoasterRatingMapper mapper;
+
+    /** Serializes rows of the NDJSON streams. */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Retrieve a page of a user's ratings.
+     *
+     * @param id      the user ID
+     * @param after   cursor from the previous page's {@code Link} header, or absent for the first page
+     * @param limit   maximum number of ratings to return
+     * @param request the current request, used to build the next-page link
+     * @return the page of ratings, with a {@code Link: rel="next"} header when more ratings follow
+     */
+    @GetMapping("/users/{id}/ratings")
+    @Operation(
+            summary = "List a user's ratings",
+            description = """
+                Returns up to limit ratings of the user in ascending ID order. When more ratings follow,
+                the response carries a Link header with rel="next" whose URL includes the cursor for the
+                next page. Send Accept: application/x-ndjson to stream all of the user's ratings instead.
+                """,
+            tags = {"Coaster Ratings"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of the user's ratings",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "UserRatings",
+                                    summary = "User ratings example",
+                                    value = """
+                                        [
+                                          { "id": 2001, "userId": "superman", "coasterId": 102, "rating": 4.5 },
+                                          { "id": 2417, "userId": "superman", "coasterId": 240, "rating": 3.0 }
+                                        ]
+                                        """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed cursor",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<List<CoasterRatingDto>> findByUser(
+            @Parameter(description = "ID of the user", example = "superman", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Cursor taken from the previous page's Link header.", example = "MjQxNw")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of ratings to return (1 to 1000).", example = "100")
+            @RequestParam(defaultValue = "100") int limit,
+            HttpServletRequest request
+    ) {
+        return toResponse(ratingService.findPageByUser(id, after, limit), request);
+    }
+
+    /**
+     * Stream all of a user's ratings as newline-delimited JSON.
+     *
+     * @param id    the user ID
+     * @param after optional cursor to resume from
+     * @return a body that writes one JSON object per line
+     */
+    @GetMapping(value = "/users/{id}/ratings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Stream a user's ratings",
+            description = "Streams every rating of the user ordered by ID as newline-delimited JSON, one rating per line.",
+            tags = {"Coaster Ratings"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "The user's ratings, one JSON object per line",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = CoasterRatingDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "User not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    public StreamingResponseBody streamByUser(
+            @Parameter(description = "ID of the user", example = "superman", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Cursor to resume from; ratings after it are streamed.", example = "MjQxNw")
+            @RequestParam(required = false) String after
+    ) {
+        // Validate before the response is committed so errors still get a status code
+        Long afterId = KeysetCursor.decodeLong(after);
+        ratingService.requireUser(id);
+        return NdjsonStreams.of(objectMapper, CoasterRatingDto.class, line ->
+                ratingService.streamByUser(id, afterId, row -> line.accept(mapper.toDto(row))));
+    }
+
+    /**
+     * Retrieve a page of a coaster's ratings.
+     *
+     * @param id      the coaster ID
+     * @param after   cursor from the previous page's {@code Link} header, or absent for the first page
+     * @param limit   maximum number of ratings to return
+     * @param request the current request, used to build the next-page link
+     * @return the page of ratings, with a {@code Link: rel="next"} header when more ratings follow
+     */
+    @GetMapping("/coasters/{id}/ratings")
+    @Operation(
+            summary = "List a coaster's ratings",
+            description = """
+                Returns up to limit ratings of the roller coaster in ascending ID order. When more ratings
+                follow, the response carries a Link header with rel="next" whose URL includes the cursor for
+                the next page. Send Accept: application/x-ndjson to stream all of the coaster's ratings instead.
+                """,
+            tags = {"Coaster Ratings"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of the coaster's ratings",
+                    content = @Content(
+                            mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "CoasterRatings",
+                                    summary = "Coaster ratings example",
+                                    value = """
+                                        [
+                                          { "id": 2001, "userId": "superman", "coasterId": 102, "rating": 4.5 },
+                                          { "id": 2002, "userId": "batman", "coasterId": 102, "rating": 3.5 }
+                                        ]
+                                        """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed cursor",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Roller coaster not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<List<CoasterRatingDto>> findByCoaster(
+            @Parameter(description = "Unique identifier of the roller coaster", example = "102", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Cursor taken from the previous page's Link header.", example = "MjAwMg")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of ratings to return (1 to 1000).", example = "100")
+            @RequestParam(defaultValue = "100") int limit,
+            HttpServletRequest request
+    ) {
+        return toResponse(ratingService.findPageByCoaster(id, after, limit), request);
+    }
+
+    /**
+     * Stream all of a coaster's ratings as newline-delimited JSON.
+     *
+     * @param id    the coaster ID
+     * @param after optional cursor to resume from
+     * @return a body that writes one JSON object per line
+     */
+    @GetMapping(value = "/coasters/{id}/ratings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Stream a coaster's ratings",
+            description = "Streams every rating of the roller coaster ordered by ID as newline-delimited JSON, " +
+                    "one rating per line.",
+            tags = {"Coaster Ratings"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "The coaster's ratings, one JSON object per line",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = CoasterRatingDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Roller coaster not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class)
+                    )
+            )
+    })
+    public StreamingResponseBody streamByCoaster(
+            @Parameter(description = "Unique identifier of the roller coaster", example = "102", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Cursor to resume from; ratings after it are streamed.", example = "MjAwMg")
+            @RequestParam(required = false) String after
+    ) {
+        Long afterId = KeysetCursor.decodeLong(after);
+        ratingService.requireCoaster(id);
+        return NdjsonStreams.of(objectMapper, CoasterRatingDto.class, line ->
+                ratingService.streamByCoaster(id, afterId, row -> line.accept(mapper.toDto(row))));
+    }
+
+    private ResponseEntity<List<CoasterRatingDto>> toResponse(KeysetPage<CoasterRatingRow> rows,
+                                                              HttpServletRequest request) {
+        KeysetPage<CoasterRatingDto> page = rows.map(mapper::toDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromRequest(request)
+                    .replaceQueryParam("after", page.nextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+}
@@ -1,7 +1,10 @@
 package app.molby.rcrecommender.api.rating;
 
 import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRow;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.List;
 
@@ -25,6 +28,15 @@ public interface CoasterRatingMapper {
      */
     CoasterRatingDto toDto(CoasterRatingEntity entity);
 
+    /**
+     * Converts a {@link CoasterRatingRow} projection to its API representation.
+     *
+     * @param row the projection to convert; may be {@code null}
+     * @return the corresponding {@link CoasterRatingDto}, or {@code null}
+     *         if the input is {@code null}
+     */
+    CoasterRatingDto toDto(CoasterRatingRow row);
+
     /**
      * Converts a list of {@link CoasterRatingEntity} instances to a list of
      * {@link CoasterRatingDto} objects.
@@ -43,4 +55,17 @@ public interface CoasterRatingMapper {
      *         if the input is {@code null}
      */
     CoasterRatingEntity toEntity(CoasterRatingDto dto);
+
+    /**
+     * Converts running {@link CoasterRatingStats} totals to their API
+     * representation, deriving the mean, variance and standard deviation.
+     *
+     * @param stats the statistics to convert
+     * @return the corresponding {@link CoasterRatingStatsDto}
+     */
+    @Mapping(target = "averageRating", expression = "java(stats.mean())")
+    @Mapping(target = "variance", expression = "java(stats.variance())")
+    @Mapping(target = "standardDeviation",
+            expression = "java(stats.variance() == null ? null : Math.sqrt(stats.variance()))")
+    CoasterRatingStatsDto toStatsDto(CoasterRatingStats stats);
 }
@@ -1,13 +1,34 @@
 package app.molby.rcrecommender.api.rating;
 
+import app.molby.rcrecommender.api.coaster.CoasterCatalog;
+import app.molby.rcrecommender.api.coaster.RollerCoasterNotFoundException;
+import app.molby.rcrecommender.domain.rating.CoasterRatingBatchRepository;
 import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
 import app.molby.rcrecommender.domain.rating.CoasterRatingRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRow;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStatsRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
+import app.molby.rcrecommender.domain.user.UserRepository;
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
+import app.molby.rcrecommender.api.user.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
@@ -16,21 +37,64 @@ import java.util.List;
  *
  * <p>Provides basic CRUD operations for user-submitted coaster ratings.
  * Validation and resource-existence checks are handled here before delegating
- * persistence operations to the repository.</p>
+ * persistence operations to the repository. Every write publishes a
+ * {@link RecommendationInputsChangedEvent} for the rating's user and, in the
+ * same transaction, applies its delta to the coaster's
+ * {@link CoasterRatingStats}, so rating means and variances stay current
+ * without aggregating the ratings table. Updates and deletes lock the rating's
+ * row before reading the value they replace.</p>
  * @author Bob Molby
  */
 public class CoasterRatingService {
 
+    /** Maximum number of ratings returned by one keyset page. */
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final CoasterRatingRepository coasterRatingRepository;
+    private final CoasterRatingBatchRepository batchRepository;
+    private final UserRepository userRepository;
+    private final CoasterRatingStatsRepository ratingStatsRepository;
+    private final CoasterCatalog coasterCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Rows read per query by {@link #streamByUser} and {@link #streamByCoaster}. */
+    @Value("${ratings.stream.page-size:1000}")
+    private int streamPageSize = 1000;
 
     /**
-     * Creates a new coaster rating.
+     * Creates a coaster rating, or replaces the user's existing rating of the
+     * coaster.
+     *
+     * <p>Goes through the same upsert as {@link CoasterRatingBulkService}, so a
+     * re-rating updates the existing row instead of hitting the unique
+     * {@code (user_id, roller_coaster_id)} index, and the stats delta is derived
+     * from the value the database actually replaced.</p>
      *
-     * @param rating the rating entity to persist
-     * @return the saved rating entity
+     * @param rating the rating entity to persist; its ID is ignored
+     * @return the stored rating entity
      */
+    @Transactional
     public CoasterRatingEntity create(CoasterRatingEntity rating) {
-        return coasterRatingRepository.save(rating);
+        if (rating.getUserId() == null || rating.getCoasterId() == null) {
+            // No pair to match on, so nothing to replace
+            CoasterRatingEntity saved = coasterRatingRepository.save(rating);
+            if (saved.getCoasterId() != null) {
+                ratingStatsRepository.apply(CoasterRatingStats.of(saved.getCoasterId(), saved.getRating()));
+            }
+            eventPublisher.publishEvent(new RecommendationInputsChangedEvent(saved.getUserId()));
+            return saved;
+        }
+        List<CoasterRatingValue> replaced = batchRepository.upsertAll(List.of(
+                new CoasterRatingValue(rating.getUserId(), rating.getCoasterId(), rating.getRating())));
+        CoasterRatingEntity saved = coasterRatingRepository
+                .findByUserIdAndCoasterId(rating.getUserId(), rating.getCoasterId())
+                .orElseThrow(() -> new IllegalStateException("Rating of coaster " + rating.getCoasterId()
+                        + " by " + rating.getUserId() + " missing after upsert"));
+        ratingStatsRepository.apply(replaced.isEmpty()
+                ? CoasterRatingStats.of(saved.getCoasterId(), saved.getRating())
+                : CoasterRatingStats.change(saved.getCoasterId(), replaced.getFirst().rating(), saved.getRating()));
+        eventPublisher.publishEvent(new RecommendationInputsChangedEvent(saved.getUserId()));
+        return saved;
     }
 
     /**
@@ -59,6 +123,145 @@ public class CoasterRatingService {
         return coasterRatingRepository.findAll(pageable);
     }
 
+    /**
+     * Retrieves ratings in ID order by seeking past a cursor, optionally filtered
+     * by user and coaster.
+     *
+     * <p>Unlike {@link #findAll(Pageable)} this issues no count query and its cost
+     * does not grow with the page's position, so it is suited to walking the whole
+     * table.</p>
+     *
+     * @param cursor    cursor of the previous page, or {@code null} for the first page
+     * @param limit     maximum number of ratings, clamped to {@code 1..1000}
+     * @param userId    optional user filter
+     * @param coasterId optional coaster filter
+     * @return the page and, if more ratings follow, the cursor of the next page
+     * @throws app.molby.rcrecommender.api.shared.InvalidCursorException if the cursor cannot be decoded
+     */
+    public KeysetPage<CoasterRatingEntity> findPage(String cursor, int limit, String userId, Long coasterId) {
+        Long afterId = decodeAfter(cursor);
+        Pageable pageable = firstPage(limit);
+
+        Slice<CoasterRatingEntity> slice;
+        if (userId != null && coasterId != null) {
+            slice = coasterRatingRepository.findByUserIdAndCoasterIdAndIdGreaterThan(userId, coasterId, afterId, pageable);
+        } else if (userId != null) {
+            slice = coasterRatingRepository.findByUserIdAndIdGreaterThan(userId, afterId, pageable);
+        } else if (coasterId != null) {
+            slice = coasterRatingRepository.findByCoasterIdAndIdGreaterThan(coasterId, afterId, pageable);
+        } else {
+            slice = coasterRatingRepository.findByIdGreaterThan(afterId, pageable);
+        }
+
+        List<CoasterRatingEntity> rows = slice.getContent();
+        String next = slice.hasNext() ? KeysetCursor.encode(rows.getLast().getId()) : null;
+        return new KeysetPage<>(rows, next);
+    }
+
+    /**
+     * Retrieves the running rating statistics of a coaster. This is a primary-key
+     * lookup on {@code coaster_rating_stats}; the ratings themselves are not read.
+     *
+     * @param coasterId the coaster whose statistics are requested
+     * @return the statistics, with a zero count if the coaster was never rated
+     * @throws RollerCoasterNotFoundException if the coaster does not exist
+     */
+    public CoasterRatingStats findStats(Long coasterId) {
+        requireCoaster(coasterId);
+        return ratingStatsRepository.findByCoasterId(coasterId)
+                .orElseGet(() -> CoasterRatingStats.empty(coasterId));
+    }
+
+    /**
+     * Retrieves a page of a user's ratings in ID order without loading the user.
+     *
+     * @param userId the user whose ratings are requested
+     * @param cursor cursor of the previous page, or {@code null} for the first page
+     * @param limit  maximum number of ratings, clamped to {@code 1..1000}
+     * @return the page and, if more ratings follow, the cursor of the next page
+     * @throws UserNotFoundException if the user does not exist
+     * @throws app.molby.rcrecommender.api.shared.InvalidCursorException if the cursor cannot be decoded
+     */
+    public KeysetPage<CoasterRatingRow> findPageByUser(String userId, String cursor, int limit) {
+        Long afterId = decodeAfter(cursor);
+        requireUser(userId);
+        return toPage(coasterRatingRepository.findRowsByUserIdAndIdGreaterThan(userId, afterId, firstPage(limit)));
+    }
+
+    /**
+     * Retrieves a page of a coaster's ratings in ID order.
+     *
+     * @param coasterId the coaster whose ratings are requested
+     * @param cursor    cursor of the previous page, or {@code null} for the first page
+     * @param limit     maximum number of ratings, clamped to {@code 1..1000}
+     * @return the page and, if more ratings follow, the cursor of the next page
+     * @throws RollerCoasterNotFoundException if the coaster does not exist
+     * @throws app.molby.rcrecommender.api.shared.InvalidCursorException if the cursor cannot be decoded
+     */
+    public KeysetPage<CoasterRatingRow> findPageByCoaster(Long coasterId, String cursor, int limit) {
+        Long afterId = decodeAfter(cursor);
+        requireCoaster(coasterId);
+        return toPage(coasterRatingRepository.findRowsByCoasterIdAndIdGreaterThan(coasterId, afterId, firstPage(limit)));
+    }
+
+    /**
+     * Passes every rating of a user after a key to the consumer, in ID order.
+     *
+     * <p>Rows are read {@code ratings.stream.page-size} at a time, one keyset
+     * query per page, so a slow client never holds a connection between pages.</p>
+     *
+     * <p>Does not check that the user exists; call {@link #requireUser(String)}
+     * first when the caller needs a not-found error.</p>
+     *
+     * @param userId   the user whose ratings are streamed
+     * @param afterId  the ID after which to start; {@code null} starts at the beginning
+     * @param consumer receives each rating as it is read
+     */
+    public void streamByUser(String userId, Long afterId, Consumer<CoasterRatingRow> consumer) {
+        forEachPage(afterId, consumer, (after, pageable) ->
+                coasterRatingRepository.findRowsByUserIdAndIdGreaterThan(userId, after, pageable));
+    }
+
+    /**
+     * Passes every rating of a coaster after a key to the consumer, in ID order.
+     *
+     * <p>Paged like {@link #streamByUser}.</p>
+     *
+     * <p>Does not check that the coaster exists; call {@link #requireCoaster(Long)}
+     * first when the caller needs a not-found error.</p>
+     *
+     * @param coasterId the coaster whose ratings are streamed
+     * @param afterId   the ID after which to start; {@code null} starts at the beginning
+     * @param consumer  receives each rating as it is read
+     */
+    public void streamByCoaster(Long coasterId, Long afterId, Consumer<CoasterRatingRow> consumer) {
+        forEachPage(afterId, consumer, (after, pageable) ->
+                coasterRatingRepository.findRowsByCoasterIdAndIdGreaterThan(coasterId, after, pageable));
+    }
+
+    /**
+     * Checks that a user exists.
+     *
+     * @param userId the user ID
+     * @throws UserNotFoundException if the user does not exist
+     */
+    public void requireUser(String userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+    }
+
+    /**
+     * Checks that a roller coaster exists.
+     *
+     * @param coasterId the coaster ID
+     * @throws RollerCoasterNotFoundException if the coaster does not exist
+     */
+    public void requireCoaster(Long coasterId) {
+        if (!coasterCatalog.contains(coasterId)) {
+            throw new RollerCoasterNotFoundException(coasterId);
+        }
+    }
 
     /**
      * Updates an existing coaster rating.
@@ -68,12 +271,22 @@ public class CoasterRatingService {
      * @return the updated rating entity
      * @throws CoasterRatingNotFoundException if no rating exists with the given id
      */
+    @Transactional
     public CoasterRatingEntity update(Long id, CoasterRatingEntity updated) {
-        if (!coasterRatingRepository.existsById(id)) {
-            throw new CoasterRatingNotFoundException(id);
-        }
+        CoasterRatingEntity existing = findLocked(id);
+        // user_id and roller_coaster_id are not updatable, so the rating stays
+        // with its original owner and coaster. Read them before the save merges
+        // the new state into the managed entity.
+        String userId = existing.getUserId();
+        Long coasterId = existing.getCoasterId();
+        BigDecimal oldRating = existing.getRating();
         updated.setId(id);
-        return coasterRatingRepository.save(updated);
+        CoasterRatingEntity saved = coasterRatingRepository.save(updated);
+        if (coasterId != null) {
+            ratingStatsRepository.apply(CoasterRatingStats.change(coasterId, oldRating, saved.getRating()));
+        }
+        eventPublisher.publishEvent(new RecommendationInputsChangedEvent(userId));
+        return saved;
     }
 
     /**
@@ -82,10 +295,57 @@ public class CoasterRatingService {
      * @param id the identifier of the rating to delete
      * @throws CoasterRatingNotFoundException if no rating exists with the given id
      */
+    @Transactional
     public void delete(Long id) {
-        if (!coasterRatingRepository.existsById(id)) {
-            throw new CoasterRatingNotFoundException(id);
-        }
+        CoasterRatingEntity existing = findLocked(id);
         coasterRatingRepository.deleteById(id);
+        if (existing.getCoasterId() != null) {
+            ratingStatsRepository.apply(CoasterRatingStats.of(existing.getCoasterId(), existing.getRating()).negate());
+        }
+        eventPublisher.publishEvent(new RecommendationInputsChangedEvent(existing.getUserId()));
+    }
+
+    /**
+     * Loads a rating with its row locked, so the stats delta derived from its
+     * old value is not also derived by a concurrent update or delete.
+     */
+    private CoasterRatingEntity findLocked(Long id) {
+        return coasterRatingRepository.findLockedById(id)
+                .orElseThrow(() -> new CoasterRatingNotFoundException(id));
+    }
+
+    /**
+     * Reads keyset pages after {@code afterId} until one reports no successor and
+     * passes their rows to the consumer. Each page is its own query, so the
+     * connection and its limiter permit are released before the rows are written.
+     */
+    private void forEachPage(Long afterId, Consumer<CoasterRatingRow> consumer,
+                             BiFunction<Long, Pageable, Slice<CoasterRatingRow>> nextPage) {
+        Pageable pageable = PageRequest.of(0, streamPageSize, Sort.by("id"));
+        Long after = afterId == null ? Long.MIN_VALUE : afterId;
+        Slice<CoasterRatingRow> slice;
+        do {
+            slice = nextPage.apply(after, pageable);
+            List<CoasterRatingRow> rows = slice.getContent();
+            rows.forEach(consumer);
+            if (!rows.isEmpty()) {
+                after = rows.getLast().id();
+            }
+        } while (slice.hasNext());
+    }
+
+    private static Long decodeAfter(String cursor) {
+        Long afterId = KeysetCursor.decodeLong(cursor);
+        return afterId == null ? Long.MIN_VALUE : afterId;
+    }
+
+    private static Pageable firstPage(int limit) {
+        return PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), Sort.by("id"));
+    }
+
+    private static KeysetPage<CoasterRatingRow> toPage(Slice<CoasterRatingRow> slice) {
+        List<CoasterRatingRow> rows = slice.getContent();
+        String next = slice.hasNext() ? KeysetCursor.encode(rows.getLast().id()) : null;
+        return new KeysetPage<>(rows, next);
     }
 }
@@ -0,0 +1,92 @@
+package app.molby.rcrecommender.api.rating;
+
+import app.molby.rcrecommender.api.shared.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/coasters")
+@RequiredArgsConstructor
+@Tag(
+        name = "Coaster Ratings",
+        description = "CRUD operations for roller coaster ratings used to build user preference profiles " +
+                "for personalized coaster recommendations."
+)
+/**
+ * CoasterRatingStatsController REST controller in the roller coaster recommender application.
+ *
+ * <p>Serves the rating statistics of a single coaster from the running totals
+ * maintained by {@link CoasterRatingService}, so responses reflect every
+ * rating write immediately.</p>
+ * @author Bob Molby
+ */
+public class CoasterRatingStatsController {
+
+    private final CoasterRatingService ratingService;
+    private final CoasterRatingMapper mapper;
+
+    /**
+     * Retrieve the rating statistics of a coaster.
+     *
+     * @param id the coaster ID
+     * @return the coaster's rating count, mean, variance and standard deviation
+     */
+    @GetMapping("/{id}/rating-stats")
+    @Operation(
+            summary = "Get rating statistics of a coaster",
+            description = "Returns the number of ratings of a roller coaster with their mean, population " +
+                    "variance and standard deviation. Values are maintained on every rating write.",
+            tags = {"Coaster Ratings"}
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statistics found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = CoasterRatingStatsDto.class),
+                            examples = @ExampleObject(
+                                    name = "RatingStats",
+                                    summary = "Rating statistics example",
+                                    value = """
+                                        {
+                                          "coasterId": 101,
+                                          "ratingCount": 1250,
+                                          "averageRating": 4.80,
+                                          "variance": 0.1521,
+                                          "standardDeviation": 0.39
+                                        }
+                                        """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Roller coaster not found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(
+                                    implementation = ErrorResponse.class
+                            )
+                    )
+            )
+    })
+    public CoasterRatingStatsDto findStats(
+            @Parameter(
+                    description = "Unique identifier of the roller coaster",
+                    example = "101",
+                    required = true
+            )
+            @PathVariable Long id
+    ) {
+        return mapper.toStatsDto(ratingService.findStats(id));
+    }
+}
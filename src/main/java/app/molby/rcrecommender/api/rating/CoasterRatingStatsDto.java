@@ -0,0 +1,41 @@
+package app.molby.rcrecommender.api.rating;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+/**
+ * CoasterRatingStatsDto part of the roller coaster recommender application.
+ *
+ * <p>Live rating statistics of one roller coaster, derived from the running
+ * totals kept up to date by every rating write.</p>
+ * @author Bob Molby
+ */
+@Schema(
+        name = "CoasterRatingStatsDto",
+        title = "Coaster Rating Statistics",
+        description = "Number, mean and spread of the user ratings of a roller coaster."
+)
+public class CoasterRatingStatsDto {
+
+    @Schema(description = "Unique identifier of the roller coaster", example = "101")
+    private Long coasterId;
+
+    @Schema(description = "Number of user ratings", example = "1250")
+    private Long ratingCount;
+
+    @Schema(description = "Mean user rating, or null if unrated", example = "4.80")
+    private BigDecimal averageRating;
+
+    @Schema(description = "Population variance of the user ratings, or null if unrated", example = "0.1521")
+    private Double variance;
+
+    @Schema(description = "Standard deviation of the user ratings, or null if unrated", example = "0.39")
+    private Double standardDeviation;
+}
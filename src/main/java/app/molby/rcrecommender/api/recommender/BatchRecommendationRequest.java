@@ -0,0 +1,42 @@
+package app.molby.rcrecommender.api.recommender;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "BatchRecommendationRequest",
+        description = "Request body listing the users to compute recommendations for in one call.",
+        example = """
+            {
+              "userIds": ["bob_molby", "jean_luc_picard"]
+            }
+            """
+)
+/**
+ * BatchRecommendationRequest part of the roller coaster recommender application.
+ * @author Bob Molby
+ */
+public class BatchRecommendationRequest {
+
+    /**
+     * Maximum number of users accepted in a single batch.
+     */
+    public static final int MAX_USERS = 1000;
+
+    /**
+     * Users to compute recommendations for. Duplicates are ignored.
+     */
+    @NotEmpty
+    @Size(max = MAX_USERS)
+    @Schema(description = "User identifiers to compute recommendations for", maxLength = MAX_USERS)
+    private List<String> userIds;
+}
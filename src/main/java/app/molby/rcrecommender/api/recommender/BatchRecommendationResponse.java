@@ -0,0 +1,42 @@
+package app.molby.rcrecommender.api.recommender;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "BatchRecommendationResponse",
+        description = "Recommendations for each requested user, plus the users that could not be served."
+)
+/**
+ * BatchRecommendationResponse part of the roller coaster recommender application.
+ * @author Bob Molby
+ */
+public class BatchRecommendationResponse {
+
+    /**
+     * Recommendations keyed by user ID. Users without ratings get the top rated coasters in their countries.
+     */
+    @Schema(description = "Ranked recommendations keyed by user ID")
+    private Map<String, List<CoasterRecommendation>> recommendations;
+
+    /**
+     * Requested user IDs that do not exist.
+     */
+    @Schema(description = "Requested user IDs that do not exist")
+    private List<String> unknownUserIds;
+
+    /**
+     * Users whose recommendations could not be computed, e.g. because the
+     * recommendation engine failed for them. They may be retried.
+     */
+    @Schema(description = "User IDs whose recommendations could not be computed and may be retried")
+    private List<String> failedUserIds;
+}
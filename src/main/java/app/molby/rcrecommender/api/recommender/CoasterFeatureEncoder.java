@@ -0,0 +1,181 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts a {@link RollerCoasterEntity} into a dense, unit-length {@code float}
+ * feature vector.
+ *
+ * <p>The vector starts with the eight imputed numeric statistics, each
+ * standardised with the mean and standard deviation observed when the encoder
+ * was fitted. One-hot blocks for type, design, manufacturer, restraints and
+ * intensity follow; values not seen during fitting (or missing) leave their
+ * block empty. Missing numeric values encode as the column mean.</p>
+ * @author Bob Molby
+ */
+public final class CoasterFeatureEncoder {
+
+    /**
+     * Numeric columns taken from {@link RollerCoasterEntity}, in vector order.
+     */
+    private static final List<Function<RollerCoasterEntity, BigDecimal>> NUMERIC_FEATURES = List.of(
+            RollerCoasterEntity::getLength,
+            RollerCoasterEntity::getHeight,
+            RollerCoasterEntity::getDrop,
+            RollerCoasterEntity::getInversionCount,
+            RollerCoasterEntity::getSpeed,
+            RollerCoasterEntity::getVerticalAngle,
+            RollerCoasterEntity::getGForce,
+            RollerCoasterEntity::getDuration
+    );
+
+    /**
+     * Categorical columns one-hot encoded after the numeric block, in vector order.
+     */
+    private static final List<Function<RollerCoasterEntity, String>> CATEGORICAL_FEATURES = List.of(
+            RollerCoasterEntity::getType,
+            RollerCoasterEntity::getDesign,
+            RollerCoasterEntity::getManufacturer,
+            RollerCoasterEntity::getRestraints,
+            RollerCoasterEntity::getIntensity
+    );
+
+    private final float[] mean;
+    private final float[] std;
+    private final List<Map<String, Integer>> vocabularies;
+    private final int dimension;
+
+    private CoasterFeatureEncoder(float[] mean, float[] std, List<Map<String, Integer>> vocabularies,
+                                  int dimension) {
+        this.mean = mean;
+        this.std = std;
+        this.vocabularies = vocabularies;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Learns standardisation statistics and category vocabularies from a catalog.
+     *
+     * @param coasters the catalog to fit against
+     * @return an encoder producing vectors of {@link #dimension()} floats
+     */
+    public static CoasterFeatureEncoder fit(List<RollerCoasterEntity> coasters) {
+        int numeric = NUMERIC_FEATURES.size();
+        float[] mean = new float[numeric];
+        float[] std = new float[numeric];
+        for (int f = 0; f < numeric; f++) {
+            Function<RollerCoasterEntity, BigDecimal> feature = NUMERIC_FEATURES.get(f);
+            double sum = 0;
+            double sumSq = 0;
+            int count = 0;
+            for (RollerCoasterEntity coaster : coasters) {
+                BigDecimal value = feature.apply(coaster);
+                if (value != null) {
+                    double v = value.doubleValue();
+                    sum += v;
+                    sumSq += v * v;
+                    count++;
+                }
+            }
+            if (count > 0) {
+                double m = sum / count;
+                mean[f] = (float) m;
+                std[f] = (float) Math.sqrt(Math.max(0, sumSq / count - m * m));
+            }
+        }
+
+        int dimension = numeric;
+        List<Map<String, Integer>> vocabularies = new ArrayList<>(CATEGORICAL_FEATURES.size());
+        for (Function<RollerCoasterEntity, String> feature : CATEGORICAL_FEATURES) {
+            Map<String, Integer> vocabulary = new HashMap<>();
+            for (RollerCoasterEntity coaster : coasters) {
+                String key = categoryKey(feature.apply(coaster));
+                if (key != null && !vocabulary.containsKey(key)) {
+                    vocabulary.put(key, dimension + vocabulary.size());
+                }
+            }
+            dimension += vocabulary.size();
+            vocabularies.add(Map.copyOf(vocabulary));
+        }
+        return new CoasterFeatureEncoder(mean, std, List.copyOf(vocabularies), dimension);
+    }
+
+    /**
+     * @return number of floats in an encoded vector
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Encodes a coaster into a newly allocated unit-length vector.
+     *
+     * @param coaster the coaster to encode
+     * @return the encoded vector; all zeros if the coaster has no usable features
+     */
+    public float[] encode(RollerCoasterEntity coaster) {
+        float[] vector = new float[dimension];
+        encode(coaster, vector);
+        return vector;
+    }
+
+    /**
+     * Encodes a coaster into {@code target}, overwriting its contents.
+     *
+     * @param coaster the coaster to encode
+     * @param target  array of at least {@link #dimension()} floats
+     */
+    public void encode(RollerCoasterEntity coaster, float[] target) {
+        Arrays.fill(target, 0, dimension, 0f);
+        for (int f = 0; f < NUMERIC_FEATURES.size(); f++) {
+            BigDecimal value = NUMERIC_FEATURES.get(f).apply(coaster);
+            if (value != null && std[f] != 0f) {
+                target[f] = (value.floatValue() - mean[f]) / std[f];
+            }
+        }
+        for (int c = 0; c < CATEGORICAL_FEATURES.size(); c++) {
+            String key = categoryKey(CATEGORICAL_FEATURES.get(c).apply(coaster));
+            Integer column = key == null ? null : vocabularies.get(c).get(key);
+            if (column != null) {
+                target[column] = 1f;
+            }
+        }
+        normalize(target);
+    }
+
+    /**
+     * Scales {@code vector} in place to unit length.
+     *
+     * @param vector the vector to normalize
+     * @return {@code false} if the vector has zero length and was left unchanged
+     */
+    static boolean normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += (double) v * v;
+        }
+        if (norm == 0) {
+            return false;
+        }
+        float inverse = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= inverse;
+        }
+        return true;
+    }
+
+    private static String categoryKey(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase();
+    }
+}
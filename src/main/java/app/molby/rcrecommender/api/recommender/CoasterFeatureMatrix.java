@@ -0,0 +1,177 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precomputed feature matrix over the roller coaster catalog.
+ *
+ * <p>Every coaster is encoded once with a {@link CoasterFeatureEncoder} into a
+ * unit-length vector, so a dot product with a normalized profile is the cosine
+ * similarity. Values are stored column-major in a single primitive
+ * {@code float[]}: column {@code f} occupies
+ * {@code [f * size(), (f + 1) * size())}. Scoring the whole catalog is then a
+ * sequence of contiguous {@link FeatureKernel#axpy axpy} passes, one per
+ * non-zero profile column, which the SIMD kernel vectorises across coasters
+ * and which skip the mostly-empty one-hot columns entirely.</p>
+ * @author Bob Molby
+ */
+public final class CoasterFeatureMatrix {
+
+    private final CoasterFeatureEncoder encoder;
+    private final FeatureKernel kernel;
+    private final long[] coasterIds;
+    private final String[] names;
+    private final String[] amusementParks;
+    private final String[] countries;
+    private final float[] columns;
+    private final Map<Long, Integer> rowByCoasterId;
+
+    private CoasterFeatureMatrix(CoasterFeatureEncoder encoder, FeatureKernel kernel, long[] coasterIds,
+                                 String[] names, String[] amusementParks, String[] countries,
+                                 float[] columns) {
+        this.encoder = encoder;
+        this.kernel = kernel;
+        this.coasterIds = coasterIds;
+        this.names = names;
+        this.amusementParks = amusementParks;
+        this.countries = countries;
+        this.columns = columns;
+        this.rowByCoasterId = new HashMap<>(coasterIds.length * 2);
+        for (int i = 0; i < coasterIds.length; i++) {
+            rowByCoasterId.put(coasterIds[i], i);
+        }
+    }
+
+    /**
+     * Builds a normalized feature matrix from the supplied coasters using the
+     * JVM's {@linkplain FeatureKernel#preferred() preferred} kernel.
+     *
+     * @param coasters the catalog to encode; entities without an ID are skipped
+     * @return the encoded matrix
+     */
+    public static CoasterFeatureMatrix build(List<RollerCoasterEntity> coasters) {
+        return build(coasters, FeatureKernel.preferred());
+    }
+
+    /**
+     * Builds a normalized feature matrix from the supplied coasters.
+     *
+     * @param coasters the catalog to encode; entities without an ID are skipped
+     * @param kernel   arithmetic kernel used for scoring
+     * @return the encoded matrix
+     */
+    static CoasterFeatureMatrix build(List<RollerCoasterEntity> coasters, FeatureKernel kernel) {
+        List<RollerCoasterEntity> usable = coasters.stream()
+                .filter(c -> c.getId() != null)
+                .toList();
+        CoasterFeatureEncoder encoder = CoasterFeatureEncoder.fit(usable);
+        int n = usable.size();
+        int d = encoder.dimension();
+
+        long[] ids = new long[n];
+        String[] names = new String[n];
+        String[] parks = new String[n];
+        String[] countries = new String[n];
+        float[] columns = new float[n * d];
+        float[] row = new float[d];
+        for (int i = 0; i < n; i++) {
+            RollerCoasterEntity coaster = usable.get(i);
+            ids[i] = coaster.getId();
+            names[i] = coaster.getName();
+            parks[i] = coaster.getAmusementPark();
+            countries[i] = coaster.getCountry();
+            encoder.encode(coaster, row);
+            for (int f = 0; f < d; f++) {
+                columns[f * n + i] = row[f];
+            }
+        }
+        return new CoasterFeatureMatrix(encoder, kernel, ids, names, parks, countries, columns);
+    }
+
+    /**
+     * @return the encoder the matrix was built with, for encoding coasters outside the snapshot
+     */
+    public CoasterFeatureEncoder encoder() {
+        return encoder;
+    }
+
+    /**
+     * @return number of coasters (rows) in the matrix
+     */
+    public int size() {
+        return coasterIds.length;
+    }
+
+    /**
+     * @return number of feature columns per coaster
+     */
+    public int dimension() {
+        return encoder.dimension();
+    }
+
+    /**
+     * Looks up the row index of a coaster.
+     *
+     * @param coasterId the coaster identifier
+     * @return the row index, or {@code -1} if the coaster is not in the matrix
+     */
+    public int rowOf(long coasterId) {
+        Integer row = rowByCoasterId.get(coasterId);
+        return row == null ? -1 : row;
+    }
+
+    public long coasterId(int row) {
+        return coasterIds[row];
+    }
+
+    public String name(int row) {
+        return names[row];
+    }
+
+    public String amusementPark(int row) {
+        return amusementParks[row];
+    }
+
+    public String country(int row) {
+        return countries[row];
+    }
+
+    /**
+     * Adds {@code weight} times the given row to {@code target}.
+     *
+     * @param row    the row to accumulate
+     * @param weight scaling factor applied to the row
+     * @param target accumulator of length {@link #dimension()}
+     */
+    public void accumulate(int row, float weight, float[] target) {
+        int n = coasterIds.length;
+        for (int f = 0, offset = row; f < target.length; f++, offset += n) {
+            target[f] += weight * columns[offset];
+        }
+    }
+
+    /**
+     * Computes the dot product of {@code profile} with every row.
+     *
+     * <p>Because rows are unit length, the result is the cosine similarity when
+     * {@code profile} is itself normalized.</p>
+     *
+     * @param profile vector of length {@link #dimension()}
+     * @param scores  output array of length {@link #size()}
+     */
+    public void score(float[] profile, float[] scores) {
+        int n = coasterIds.length;
+        Arrays.fill(scores, 0, n, 0f);
+        for (int f = 0; f < profile.length; f++) {
+            float weight = profile[f];
+            if (weight != 0f) {
+                kernel.axpy(weight, columns, f * n, scores, n);
+            }
+        }
+    }
+}
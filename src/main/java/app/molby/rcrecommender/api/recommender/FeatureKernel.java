@@ -0,0 +1,78 @@
+package app.molby.rcrecommender.api.recommender;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Primitive {@code float[]} arithmetic used when scoring coaster feature vectors.
+ *
+ * <p>{@link #preferred()} returns a SIMD implementation built on the
+ * {@code jdk.incubator.vector} API when that module has been added to the
+ * JVM ({@code --add-modules jdk.incubator.vector}), and a plain scalar loop
+ * otherwise. Both produce the same results up to floating point rounding.</p>
+ * @author Bob Molby
+ */
+public interface FeatureKernel {
+
+    /**
+     * Computes {@code y[i] += a * x[xOffset + i]} for {@code i} in {@code [0, length)}.
+     *
+     * @param a       scalar multiplier
+     * @param x       source array
+     * @param xOffset first index read from {@code x}
+     * @param y       accumulator, updated in place
+     * @param length  number of elements to process
+     */
+    void axpy(float a, float[] x, int xOffset, float[] y, int length);
+
+    /**
+     * Computes the dot product of two equal-length slices.
+     *
+     * @param a       first array
+     * @param aOffset first index read from {@code a}
+     * @param b       second array
+     * @param bOffset first index read from {@code b}
+     * @param length  number of elements to multiply
+     * @return the sum of the element-wise products
+     */
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * @return the fastest kernel available in the running JVM
+     */
+    static FeatureKernel preferred() {
+        return Holder.PREFERRED;
+    }
+
+    /**
+     * Lazily selects the kernel once per JVM. The SIMD kernel is compiled in a
+     * separate source set and therefore looked up by name.
+     */
+    final class Holder {
+
+        private static final Logger LOGGER = LoggerFactory.getLogger(FeatureKernel.class);
+
+        private static final String VECTOR_KERNEL = "app.molby.rcrecommender.api.recommender.VectorFeatureKernel";
+
+        static final FeatureKernel PREFERRED = select();
+
+        private Holder() {
+        }
+
+        private static FeatureKernel select() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    FeatureKernel kernel = (FeatureKernel) Class.forName(VECTOR_KERNEL)
+                            .getDeclaredConstructor().newInstance();
+                    LOGGER.info("Using {}.", kernel);
+                    return kernel;
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    LOGGER.warn("Vector API present but unusable, falling back to scalar kernel: {}",
+                            e.getMessage());
+                }
+            }
+            LOGGER.info("jdk.incubator.vector not available; using scalar feature kernel.");
+            return new ScalarFeatureKernel();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.api.coaster.CoasterCatalog;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process, content-based {@link RecommendationEngine}.
+ *
+ * <p>Builds a user profile as the rating-weighted sum of the feature vectors of
+ * the coasters the user has rated, then ranks every other coaster in the
+ * user's accessible countries by cosine similarity to that profile. Ratings
+ * above the middle of the 0.5&ndash;5 scale pull the profile towards a coaster,
+ * ratings below push it away.</p>
+ *
+ * <p>The feature matrix is built from the {@link CoasterCatalog} snapshot on
+ * first use and kept in memory until the catalog publishes a
+ * {@link CatalogChangedEvent}. Only one request builds at a time; concurrent
+ * misses wait for it and reuse its matrix. Each refresh bumps a generation,
+ * and a build only publishes its matrix if the generation it started from is
+ * still current, so a slow build cannot put a pre-refresh catalog back.</p>
+ * @author Bob Molby
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "recommender.engine", havingValue = "local")
+public class LocalRecommendationEngine implements RecommendationEngine {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(LocalRecommendationEngine.class);
+
+    /**
+     * Midpoint of the rating scale; ratings are centred on this value to form profile weights.
+     */
+    static final float RATING_MIDPOINT = 2.75f;
+
+    private final CoasterCatalog coasterCatalog;
+
+    private final AtomicReference<MatrixState> state = new AtomicReference<>(new MatrixState(0, null));
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    /**
+     * Ranks the catalog against the user's rating profile.
+     *
+     * @param request the user's ratings, accessible countries and desired result count
+     * @return up to {@code topK} recommendations ordered by descending score
+     */
+    @Override
+    public List<CoasterRecommendation> recommend(UserRecommendRequest request) {
+        CoasterFeatureMatrix features = featureMatrix();
+        List<UserRatingDto> ratings = request.getRatings();
+        if (ratings == null || ratings.isEmpty() || features.size() == 0) {
+            return Collections.emptyList();
+        }
+
+        Set<Integer> ratedRows = new HashSet<>();
+        float[] profile = buildProfile(features, ratings, ratedRows);
+        if (profile == null) {
+            return Collections.emptyList();
+        }
+
+        float[] scores = new float[features.size()];
+        features.score(profile, scores);
+
+        Set<String> countries = request.getCountries() == null || request.getCountries().isEmpty()
+                ? null
+                : new HashSet<>(request.getCountries());
+        int topK = request.getTopK() == null ? 20 : request.getTopK();
+        return topK(features, scores, ratedRows, countries, topK);
+    }
+
+    /**
+     * Discards the cached feature matrix so the next request rebuilds it from the catalog.
+     */
+    public void refresh() {
+        state.updateAndGet(current -> new MatrixState(current.generation() + 1, null));
+    }
+
+    /**
+     * Refreshes the matrix once the coaster catalog has swapped in a new
+     * snapshot, whether after a create, a delete or a reload that found new rows.
+     *
+     * @param event the catalog change event
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (CatalogChangedEvent.COASTERS.equals(event.catalog())) {
+            refresh();
+        }
+    }
+
+    private CoasterFeatureMatrix featureMatrix() {
+        MatrixState current = state.get();
+        if (current.matrix() != null) {
+            return current.matrix();
+        }
+        // A lock rather than synchronized, so a virtual thread waiting on the
+        // build does not pin its carrier
+        buildLock.lock();
+        try {
+            current = state.get();
+            if (current.matrix() != null) {
+                return current.matrix();
+            }
+            long start = System.nanoTime();
+            CoasterFeatureMatrix built = CoasterFeatureMatrix.build(coasterCatalog.findAfter(null, Integer.MAX_VALUE));
+            if (state.compareAndSet(current, new MatrixState(current.generation(), built))) {
+                LOGGER.info("Built coaster feature matrix with {} rows in {} ms.",
+                        built.size(), (System.nanoTime() - start) / 1_000_000);
+            } else {
+                LOGGER.debug("Catalog changed while building the feature matrix; not caching the result.");
+            }
+            return built;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    /**
+     * The cached matrix together with the refresh generation it was built for.
+     */
+    private record MatrixState(long generation, CoasterFeatureMatrix matrix) {
+    }
+
+    /**
+     * Builds the normalized user profile, recording the rows of rated coasters.
+     *
+     * @return the profile, or {@code null} if none of the rated coasters are known
+     */
+    private float[] buildProfile(CoasterFeatureMatrix features, List<UserRatingDto> ratings,
+                                 Set<Integer> ratedRows) {
+        float[] centred = new float[features.dimension()];
+        float[] raw = new float[features.dimension()];
+        for (UserRatingDto rating : ratings) {
+            if (rating.getCoasterId() == null || rating.getRating() == null) {
+                continue;
+            }
+            int row = features.rowOf(rating.getCoasterId());
+            if (row < 0) {
+                continue;
+            }
+            ratedRows.add(row);
+            float value = rating.getRating().floatValue();
+            features.accumulate(row, value - RATING_MIDPOINT, centred);
+            features.accumulate(row, value, raw);
+        }
+        if (ratedRows.isEmpty()) {
+            return null;
+        }
+        // A user whose ratings all sit on the midpoint still gets a profile from the raw weights.
+        if (CoasterFeatureEncoder.normalize(centred)) {
+            return centred;
+        }
+        return CoasterFeatureEncoder.normalize(raw) ? raw : null;
+    }
+
+    private List<CoasterRecommendation> topK(CoasterFeatureMatrix features, float[] scores,
+                                             Set<Integer> ratedRows, Set<String> countries, int k) {
+        if (k <= 0) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<Integer> best = new PriorityQueue<>(k + 1,
+                (a, b) -> Float.compare(scores[a], scores[b]));
+        for (int row = 0; row < scores.length; row++) {
+            if (ratedRows.contains(row)) {
+                continue;
+            }
+            if (countries != null && !countries.contains(features.country(row))) {
+                continue;
+            }
+            if (best.size() < k) {
+                best.add(row);
+            } else if (scores[row] > scores[best.peek()]) {
+                best.poll();
+                best.add(row);
+            }
+        }
+
+        List<CoasterRecommendation> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            results.add(toRecommendation(features, best.poll(), scores));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    private CoasterRecommendation toRecommendation(CoasterFeatureMatrix features, int row, float[] scores) {
+        CoasterRecommendation recommendation = new CoasterRecommendation();
+        recommendation.setCoasterId(Math.toIntExact(features.coasterId(row)));
+        recommendation.addAdditionalProperty("name", features.name(row));
+        recommendation.addAdditionalProperty("amusement_park", features.amusementPark(row));
+        recommendation.addAdditionalProperty("country", features.country(row));
+        recommendation.addAdditionalProperty("score", (double) scores[row]);
+        return recommendation;
+    }
+}
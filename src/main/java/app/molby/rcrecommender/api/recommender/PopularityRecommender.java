@@ -0,0 +1,57 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.api.leaderboard.LeaderboardEntry;
+import app.molby.rcrecommender.api.leaderboard.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Non-personalized recommender that returns the highest rated coasters within
+ * the countries of a {@link UserRecommendRequest}, skipping coasters the user
+ * already rated.
+ *
+ * <p>Used for cold-start users without ratings and when the recommendation
+ * engine is unavailable. Coasters come from the in-memory
+ * {@link LeaderboardService} snapshot, so no query runs per request.</p>
+ * @author Bob Molby
+ */
+@Component
+@RequiredArgsConstructor
+public class PopularityRecommender {
+
+    static final String REASON = "Top rated in your region";
+    static final int DEFAULT_TOP_K = 20;
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Recommends the top rated coasters for a request.
+     *
+     * @param request the request to answer without the engine
+     * @return up to {@code request.topK} coasters ordered by descending average rating
+     */
+    public List<CoasterRecommendation> recommend(UserRecommendRequest request) {
+        Set<Long> rated = new HashSet<>();
+        request.getRatings().forEach(r -> rated.add(r.getCoasterId().longValue()));
+        int topK = request.getTopK() == null ? DEFAULT_TOP_K : Math.max(1, request.getTopK());
+        return leaderboardService.topRatedIn(request.getCountries(), rated, topK)
+                .stream()
+                .map(PopularityRecommender::toRecommendation)
+                .toList();
+    }
+
+    private static CoasterRecommendation toRecommendation(LeaderboardEntry coaster) {
+        CoasterRecommendation recommendation = new CoasterRecommendation();
+        recommendation.setCoasterId(Math.toIntExact(coaster.coasterId()));
+        recommendation.addAdditionalProperty("name", coaster.name());
+        recommendation.addAdditionalProperty("amusement_park", coaster.amusementPark());
+        recommendation.addAdditionalProperty("country", coaster.country());
+        recommendation.addAdditionalProperty("score", coaster.averageRating().doubleValue());
+        recommendation.addAdditionalProperty("reason", REASON);
+        return recommendation;
+    }
+}
@@ -0,0 +1,99 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.domain.recommendation.UserRecommendationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read and write access to recommendations precomputed by the nightly
+ * materialization task.
+ *
+ * <p>A precomputed row is served while it is younger than
+ * {@code recommender.precomputed.max-age} and none of the user's inputs changed
+ * since it was computed. Changes arrive as {@link RecommendationInputsChangedEvent}
+ * and mark the affected rows stale. The listener runs inside the publishing
+ * transaction, so the tombstone commits or rolls back together with the write
+ * that caused it.</p>
+ * @author Bob Molby
+ */
+@Component
+public class PrecomputedRecommendations {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(PrecomputedRecommendations.class);
+
+    private static final TypeReference<List<CoasterRecommendation>> RECOMMENDATION_LIST = new TypeReference<>() {
+    };
+
+    private final UserRecommendationRepository userRecommendationRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration maxAge;
+
+    public PrecomputedRecommendations(UserRecommendationRepository userRecommendationRepository,
+                                      ObjectMapper objectMapper,
+                                      @Value("${recommender.precomputed.max-age:26h}") Duration maxAge) {
+        this.userRecommendationRepository = userRecommendationRepository;
+        this.objectMapper = objectMapper;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Looks up a user's precomputed recommendations.
+     *
+     * @param userId the user to look up
+     * @return the recommendations, if a fresh precomputed row exists
+     */
+    public Optional<List<CoasterRecommendation>> findFresh(String userId) {
+        return userRecommendationRepository.findFresh(userId, Instant.now().minus(maxAge))
+                .flatMap(json -> {
+                    try {
+                        return Optional.of(objectMapper.readValue(json, RECOMMENDATION_LIST));
+                    } catch (JsonProcessingException e) {
+                        LOGGER.warn("Ignoring unreadable precomputed recommendations for user {}", userId, e);
+                        return Optional.empty();
+                    }
+                });
+    }
+
+    /**
+     * Stores precomputed recommendations for many users in one batch.
+     *
+     * @param recommendationsByUser recommendations keyed by user ID
+     * @param computedAt            when the inputs for these results were read; rows
+     *                              invalidated after this instant are not overwritten
+     */
+    public void saveAll(Map<String, List<CoasterRecommendation>> recommendationsByUser, Instant computedAt) {
+        Map<String, String> jsonByUser = new HashMap<>(recommendationsByUser.size());
+        recommendationsByUser.forEach((userId, recommendations) -> {
+            try {
+                jsonByUser.put(userId, objectMapper.writeValueAsString(recommendations));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize recommendations for user " + userId, e);
+            }
+        });
+        userRecommendationRepository.saveAll(jsonByUser, computedAt);
+    }
+
+    @EventListener
+    public void onInputsChanged(RecommendationInputsChangedEvent event) {
+        if (event.affectsAllUsers()) {
+            userRecommendationRepository.invalidateAll(Instant.now());
+        } else if (event.userIds().size() == 1) {
+            userRecommendationRepository.invalidate(event.userIds().iterator().next(), Instant.now());
+        } else {
+            userRecommendationRepository.invalidate(event.userIds(), Instant.now());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package app.molby.rcrecommender.api.recommender;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of per-user recommendation results.
+ *
+ * <p>A user's recommendations only depend on their ratings, their country
+ * access set and the configured top-K, so results are kept until one of those
+ * inputs changes ({@link RecommendationInputsChangedEvent}) or the entry ages
+ * out after {@code recommender.cache.ttl}.</p>
+ *
+ * <p>Entries are keyed by user ID plus a version stamp. Invalidating a user
+ * moves them to a fresh version, so a computation that started before the
+ * change and finishes after it stores its result under the old version, where
+ * it is never read again, instead of overwriting the invalidation.</p>
+ *
+ * <p>Invalidation runs after the publishing transaction commits. Bumping the
+ * version any earlier would let a concurrent miss read the still-uncommitted
+ * old inputs and cache them under the new version for the full TTL.</p>
+ *
+ * <p>Hit, miss and eviction counts are published to Micrometer as
+ * {@code cache.*} meters tagged {@code cache=recommendations}.</p>
+ * @author Bob Molby
+ */
+@Component
+public class RecommendationCache {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(RecommendationCache.class);
+
+    static final String CACHE_NAME = "recommendations";
+
+    private final Cache<Key, List<CoasterRecommendation>> results;
+
+    /**
+     * Current version per user. Entries only expire after going unread for
+     * longer than any result can live, so a result never outlives its version.
+     */
+    private final Cache<String, Long> versions;
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    public RecommendationCache(@Value("${recommender.cache.maximum-size:10000}") long maximumSize,
+                               @Value("${recommender.cache.ttl:10m}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .expireAfterAccess(ttl.multipliedBy(2))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached recommendations for a user, computing them with
+     * {@code loader} on a miss. Concurrent misses for the same user share one
+     * computation; exceptions thrown by the loader propagate and are not cached.
+     *
+     * @param userId the user whose recommendations are requested
+     * @param loader computes the recommendations for a user ID
+     * @return the cached or freshly computed recommendations
+     */
+    public List<CoasterRecommendation> get(String userId,
+                                           Function<String, List<CoasterRecommendation>> loader) {
+        long version = versions.get(userId, id -> versionSequence.incrementAndGet());
+        return results.get(new Key(userId, version), key -> List.copyOf(loader.apply(key.userId())));
+    }
+
+    /**
+     * Bulk variant of {@link #get(String, Function)}: cached users are served
+     * directly and all misses are handed to {@code loader} in a single call.
+     *
+     * @param userIds the users whose recommendations are requested
+     * @param loader  computes recommendations for a set of user IDs; users it
+     *                leaves out of its result are left out of ours and not cached
+     * @return recommendations keyed by user ID
+     */
+    public Map<String, List<CoasterRecommendation>> getAll(
+            Collection<String> userIds,
+            Function<Set<String>, Map<String, List<CoasterRecommendation>>> loader) {
+        Map<Key, String> keys = new HashMap<>();
+        for (String userId : userIds) {
+            keys.put(new Key(userId, versions.get(userId, id -> versionSequence.incrementAndGet())), userId);
+        }
+        Map<Key, List<CoasterRecommendation>> found = results.getAll(keys.keySet(), missing -> {
+            Map<String, Key> keyByUser = new HashMap<>();
+            for (Key key : missing) {
+                keyByUser.put(key.userId(), key);
+            }
+            Map<String, List<CoasterRecommendation>> computed = loader.apply(keyByUser.keySet());
+            Map<Key, List<CoasterRecommendation>> loaded = new HashMap<>();
+            keyByUser.forEach((userId, key) -> {
+                List<CoasterRecommendation> recommendations = computed.get(userId);
+                if (recommendations != null) {
+                    loaded.put(key, List.copyOf(recommendations));
+                }
+            });
+            return loaded;
+        });
+        Map<String, List<CoasterRecommendation>> byUser = new HashMap<>();
+        found.forEach((key, recommendations) -> byUser.put(key.userId(), recommendations));
+        return byUser;
+    }
+
+    /**
+     * Discards the cached recommendations of one user.
+     *
+     * @param userId the user whose inputs changed
+     */
+    public void invalidate(String userId) {
+        Long previous = versions.asMap().put(userId, versionSequence.incrementAndGet());
+        if (previous != null) {
+            results.invalidate(new Key(userId, previous));
+        }
+    }
+
+    /**
+     * Discards every cached recommendation.
+     */
+    public void invalidateAll() {
+        versions.invalidateAll();
+        results.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInputsChanged(RecommendationInputsChangedEvent event) {
+        if (event.affectsAllUsers()) {
+            LOGGER.debug("Recommendation inputs changed for all users, clearing cache");
+            invalidateAll();
+        } else {
+            event.userIds().forEach(this::invalidate);
+        }
+    }
+
+    private record Key(String userId, long version) {
+    }
+}
@@ -1,5 +1,6 @@
 package app.molby.rcrecommender.api.recommender;
 
+import app.molby.rcrecommender.api.shared.ValidationErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -7,6 +8,7 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
@@ -108,4 +110,68 @@ public class RecommendationController {
     ) {
         return recommendationService.getRecommendationsForUser(userId);
     }
+
+    /**
+     * Retrieves recommendations for many users in a single call.
+     *
+     * <p>Intended for bulk consumers such as scheduled email campaigns, which
+     * would otherwise call {@link #findRecommendations(String)} once per user.</p>
+     *
+     * @param request the users to generate recommendations for
+     * @return recommendations keyed by user ID, plus unknown and failed users
+     */
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Get coaster recommendations for many users",
+            description = """
+                    Returns recommendations for up to 1000 users in one call. Ratings and country
+                    access are loaded in bulk and the recommendation engine is called for the users
+                    concurrently. Users that do not exist are listed in unknownUserIds; users whose
+                    recommendations could not be computed are listed in failedUserIds and may be retried.
+                    """
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Recommendations keyed by user ID",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = BatchRecommendationResponse.class),
+                    examples = {
+                            @ExampleObject(
+                                    name = "BatchRecommendationsExample",
+                                    summary = "Typical batch result",
+                                    value = """
+                                        {
+                                          "recommendations": {
+                                            "bob_molby": [
+                                              { "coaster_id": 42, "name": "Thunderbolt", "score": 0.94 },
+                                              { "coaster_id": 37, "name": "Sky Serpent", "score": 0.88 }
+                                            ],
+                                            "jean_luc_picard": []
+                                          },
+                                          "unknownUserIds": ["no_such_user"],
+                                          "failedUserIds": []
+                                        }
+                                        """
+                            )
+                    }
+            )
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "The user ID list is missing, empty or longer than 1000 entries",
+            content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ValidationErrorResponse.class)
+            )
+    )
+    public BatchRecommendationResponse findRecommendationsBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "User identifiers to generate recommendations for",
+                    required = true
+            )
+            @Valid @RequestBody BatchRecommendationRequest request
+    ) {
+        return recommendationService.getRecommendationsForUsers(request.getUserIds());
+    }
 }
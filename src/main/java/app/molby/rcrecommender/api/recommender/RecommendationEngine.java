@@ -0,0 +1,23 @@
+package app.molby.rcrecommender.api.recommender;
+
+import java.util.List;
+
+/**
+ * Strategy for turning a {@link UserRecommendRequest} into a ranked list of
+ * {@link CoasterRecommendation} results.
+ *
+ * <p>The active implementation is selected with the {@code recommender.engine}
+ * property: {@code remote} (the default) delegates to the external Python
+ * service, while {@code local} scores the catalog in-process.</p>
+ * @author Bob Molby
+ */
+public interface RecommendationEngine {
+
+    /**
+     * Produces recommendations for the supplied request.
+     *
+     * @param request the user's ratings, accessible countries and desired result count
+     * @return recommendations ranked by relevance; never {@code null}, but may be empty
+     */
+    List<CoasterRecommendation> recommend(UserRecommendRequest request);
+}
@@ -0,0 +1,115 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.config.RecommenderResilienceProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Guards calls to the configured {@link RecommendationEngine} with a circuit
+ * breaker, a semaphore bulkhead and a time limiter, so a slow or failing
+ * engine cannot tie up request threads.
+ *
+ * <ul>
+ *   <li>The <strong>time limiter</strong> stops waiting after
+ *       {@code recommender.resilience.timeout}.</li>
+ *   <li>The <strong>bulkhead</strong> caps engine calls in flight at
+ *       {@code recommender.resilience.max-concurrent-calls}. A call that timed out
+ *       keeps its permit until the engine actually returns, so a hung engine
+ *       cannot accumulate unbounded background calls.</li>
+ *   <li>The <strong>circuit breaker</strong> opens once too many recent calls
+ *       failed or were slow, and then rejects calls immediately until
+ *       {@code recommender.resilience.wait-in-open-state} has passed.</li>
+ * </ul>
+ *
+ * <p>Any rejection or failure surfaces as a
+ * {@link RecommendationEngineUnavailableException}; callers decide on the fallback.</p>
+ * @author Bob Molby
+ */
+@Component
+@EnableConfigurationProperties(RecommenderResilienceProperties.class)
+public class RecommendationEngineGuard implements DisposableBean {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(RecommendationEngineGuard.class);
+
+    static final String NAME = "recommendationEngine";
+
+    private final RecommendationEngine recommendationEngine;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TimeLimiter timeLimiter;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RecommendationEngineGuard(RecommendationEngine recommendationEngine,
+                                     RecommenderResilienceProperties properties) {
+        this.recommendationEngine = recommendationEngine;
+        this.circuitBreaker = CircuitBreaker.of(NAME, CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(properties.getSlidingWindowSize())
+                .minimumNumberOfCalls(properties.getMinimumNumberOfCalls())
+                .failureRateThreshold(properties.getFailureRateThreshold())
+                .slowCallDurationThreshold(properties.getSlowCallDuration())
+                .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                .waitDurationInOpenState(properties.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(properties.getPermittedCallsInHalfOpenState())
+                // a full bulkhead means we shed load, not that the engine failed
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+        this.bulkhead = Bulkhead.of(NAME, BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.timeLimiter = TimeLimiter.of(NAME, TimeLimiterConfig.custom()
+                .timeoutDuration(properties.getTimeout())
+                .cancelRunningFuture(true)
+                .build());
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                LOGGER.warn("Recommendation engine circuit breaker {}", event.getStateTransition()));
+    }
+
+    /**
+     * Calls the engine under the circuit breaker, bulkhead and time limiter.
+     *
+     * @param request the request to pass to the engine
+     * @return the engine's results
+     * @throws RecommendationEngineUnavailableException if the call was rejected, timed out or failed
+     */
+    public List<CoasterRecommendation> recommend(UserRecommendRequest request) {
+        Supplier<List<CoasterRecommendation>> call =
+                Bulkhead.decorateSupplier(bulkhead, () -> recommendationEngine.recommend(request));
+        try {
+            return circuitBreaker.executeCallable(() ->
+                    timeLimiter.executeFutureSupplier(() -> CompletableFuture.supplyAsync(call, executor)));
+        } catch (Exception e) {
+            throw new RecommendationEngineUnavailableException(request, e);
+        }
+    }
+
+    /**
+     * @return the current circuit breaker state, e.g. {@code CLOSED} or {@code OPEN}
+     */
+    public CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,32 @@
+package app.molby.rcrecommender.api.recommender;
+
+/**
+ * Thrown by {@link RecommendationEngineGuard} when the recommendation engine
+ * could not serve a request: the circuit is open, too many calls are in
+ * flight, the call timed out, or the engine failed.
+ *
+ * <p>Carries the request so callers can serve a fallback for it.</p>
+ * @author Bob Molby
+ */
+public class RecommendationEngineUnavailableException extends RuntimeException {
+
+    private final transient UserRecommendRequest request;
+
+    /**
+     * Creates a new exception for a request the engine could not serve.
+     *
+     * @param request the request that was not served
+     * @param cause   why the engine could not serve it
+     */
+    public RecommendationEngineUnavailableException(UserRecommendRequest request, Throwable cause) {
+        super("Recommendation engine unavailable: " + cause.getMessage(), cause);
+        this.request = request;
+    }
+
+    /**
+     * @return the request that was not served
+     */
+    public UserRecommendRequest getRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,50 @@
+package app.molby.rcrecommender.api.recommender;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Published whenever data that feeds a user's recommendations changes: their
+ * ratings, their home country, or the country access rules.
+ *
+ * <p>{@link RecommendationCache} listens for it to drop stale results.</p>
+ *
+ * @param userIds the affected users, or {@code null} when every user is affected
+ */
+public record RecommendationInputsChangedEvent(Set<String> userIds) {
+
+    /**
+     * Creates an event affecting one user.
+     *
+     * @param userId the affected user, or {@code null} when every user is affected
+     */
+    public RecommendationInputsChangedEvent(String userId) {
+        this(userId == null ? null : Set.of(userId));
+    }
+
+    /**
+     * Creates an event affecting many users, e.g. after a bulk rating upload.
+     *
+     * @param userIds the affected users
+     * @return an event naming exactly those users
+     */
+    public static RecommendationInputsChangedEvent forUsers(Collection<String> userIds) {
+        return new RecommendationInputsChangedEvent(Set.copyOf(userIds));
+    }
+
+    /**
+     * Creates an event affecting every user, e.g. after a country access rule changes.
+     *
+     * @return an event with no user IDs
+     */
+    public static RecommendationInputsChangedEvent allUsers() {
+        return new RecommendationInputsChangedEvent((Set<String>) null);
+    }
+
+    /**
+     * @return whether the change affects every user
+     */
+    public boolean affectsAllUsers() {
+        return userIds == null;
+    }
+}
@@ -1,19 +1,21 @@
 package app.molby.rcrecommender.api.recommender;
 
 import app.molby.rcrecommender.api.user.UserNotFoundException;
-import app.molby.rcrecommender.domain.country.CountryAccessEntity;
-import app.molby.rcrecommender.domain.country.CountryAccessRepository;
-import app.molby.rcrecommender.domain.country.CountryEntity;
-import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
-import app.molby.rcrecommender.domain.user.UserEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
+import app.molby.rcrecommender.domain.user.UserCountryAccessRow;
 import app.molby.rcrecommender.domain.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,90 +23,235 @@ import java.util.stream.Collectors;
 /**
  * Service responsible for orchestrating user-specific coaster recommendations.
  *
- * <p>This service loads user ratings from the database, formats them into the
- * request structure required by the external Python recommendation engine,
- * invokes the engine, and returns the resulting list of recommendations.</p>
+ * <p>This service loads user ratings from the database, formats them into a
+ * {@link UserRecommendRequest}, hands it to the configured
+ * {@link RecommendationEngine}, and returns the resulting list of
+ * recommendations.</p>
+ *
+ * <p>Inputs are read through projection queries rather than entities: one
+ * round trip for the user's country and its accessible countries, one for the
+ * {@code (coaster_id, rating)} pairs.</p>
+ *
+ * <p>Results are served from the {@link RecommendationCache} until the user's
+ * ratings, country or country access rules change. On a cache miss, fresh
+ * {@link PrecomputedRecommendations} written by the nightly materialization
+ * task are used before falling back to the engine.</p>
+ *
+ * <p>Engine calls go through the {@link RecommendationEngineGuard}. When the
+ * engine is unavailable, a single user gets {@link PopularityRecommender}
+ * results, which are not cached; batch callers get the user reported as failed.
+ * Users without any ratings get {@link PopularityRecommender} results as a
+ * cold-start list.</p>
  * @author Bob Molby
  */
 public class RecommendationService {
 
-    private final UserRepository userRepository;
-    private final CountryAccessRepository countryAccessRepository;
-    private final RestTemplate restTemplate;
+    public static Logger LOGGER = LoggerFactory.getLogger(RecommendationService.class);
 
-    @Value("${recommender.api.url}")
-    private String recommenderApiUrl;
+    /**
+     * Upper bound on the number of user IDs bound into one {@code IN (...)} list.
+     */
+    static final int IN_CLAUSE_CHUNK_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final CoasterRatingRepository coasterRatingRepository;
+    private final RecommendationEngineGuard recommendationEngineGuard;
+    private final PopularityRecommender popularityRecommender;
+    private final RecommendationCache recommendationCache;
+    private final PrecomputedRecommendations precomputedRecommendations;
 
     @Value("${recommender.api.default-top-k:20}")
     private int defaultTopK;
 
+    @Value("${recommender.batch.parallelism:8}")
+    private int batchParallelism;
+
     /**
      * Generates a ranked list of roller coaster recommendations for a user.
      *
-     * <p>The process performs the following steps:</p>
+     * <p>Cached results are returned when present, followed by fresh precomputed
+     * results. Otherwise the process performs the following steps:</p>
      * <ol>
-     *   <li>Loads the user's coaster ratings from the database.</li>
-     *   <li>If the user has no ratings, returns an empty list.</li>
-     *   <li>Builds a recommendation request for the Python engine.</li>
-     *   <li>Sends the request to the external recommender API.</li>
-     *   <li>Returns the engine's results or an empty list if the response is empty.</li>
+     *   <li>Loads the user's country access and coaster ratings from the database.</li>
+     *   <li>If the user has no ratings, returns the top rated coasters in the
+     *       user's countries.</li>
+     *   <li>Builds a recommendation request for the engine.</li>
+     *   <li>Passes the request to the configured {@link RecommendationEngine}.</li>
+     *   <li>Returns the engine's results, or popular coasters in the user's
+     *       countries when the engine is unavailable.</li>
      * </ol>
      *
      * @param userId the identifier of the user whose recommendations are requested
      * @return a list of {@link CoasterRecommendation} objects ranked by relevance
      */
     public List<CoasterRecommendation> getRecommendationsForUser(String userId) {
-        // 1) Load user ratings from DB
-        Optional<UserEntity> optUserEntity = userRepository.findById(userId);
-        if (!optUserEntity.isPresent()) {
+        try {
+            return recommendationCache.get(userId, this::computeRecommendations);
+        } catch (RecommendationEngineUnavailableException e) {
+            LOGGER.warn("Serving popular coasters to user {}: {}", userId, e.getMessage());
+            return popularityRecommender.recommend(e.getRequest());
+        }
+    }
+
+    /**
+     * Computes recommendations for a user, bypassing the cache.
+     *
+     * @param userId the identifier of the user whose recommendations are requested
+     * @return a list of {@link CoasterRecommendation} objects ranked by relevance
+     */
+    private List<CoasterRecommendation> computeRecommendations(String userId) {
+        Optional<List<CoasterRecommendation>> precomputed = precomputedRecommendations.findFresh(userId);
+        if (precomputed.isPresent()) {
+            return precomputed.get();
+        }
+
+        // 1) Load the user's country access and ratings from DB
+        List<UserCountryAccessRow> countryAccess = userRepository.findCountryAccessByUserId(userId);
+        if (countryAccess.isEmpty()) {
             throw new UserNotFoundException(userId);
         }
-        UserEntity user = optUserEntity.get();
-        Set<CoasterRatingEntity> ratingEntities = user.getCoasterRatings();
-        if (ratingEntities.isEmpty()) {
-            return Collections.emptyList();
+        List<CoasterRatingValue> ratingValues = coasterRatingRepository.findRatingValuesByUserId(userId);
+
+        // 2) Build request body for the engine
+        UserRecommendRequest request = buildUserRecommendRequest(countryAccess, ratingValues);
+        if (ratingValues.isEmpty()) {
+            // Cold start: nothing to personalize on yet
+            return popularityRecommender.recommend(request);
         }
 
-        // 2) Build request body for Python API
-        UserRecommendRequest request = buildUserRecommendRequest(user, ratingEntities);
+        // 3) Call the configured recommender
+        return recommendationEngineGuard.recommend(request);
+    }
 
-        // 3) Call Python recommender
-        ResponseEntity<CoasterRecommendation[]> response =
-                restTemplate.postForEntity(
-                        recommenderApiUrl,
-                        request,
-                        CoasterRecommendation[].class
-                );
+    /**
+     * Generates recommendations for many users in one call.
+     *
+     * <p>Cached users are served from the {@link RecommendationCache}. For the
+     * rest, country access and ratings are loaded with bulk {@code IN (...)}
+     * queries and the engine is called for each user concurrently, with at most
+     * {@code recommender.batch.parallelism} calls in flight.</p>
+     *
+     * @param userIds the users to generate recommendations for; duplicates are ignored
+     * @return recommendations keyed by user ID, in request order, plus the users
+     *         that do not exist or could not be served
+     */
+    public BatchRecommendationResponse getRecommendationsForUsers(List<String> userIds) {
+        Set<String> requested = new LinkedHashSet<>(userIds);
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+
+        Map<String, List<CoasterRecommendation>> found =
+                recommendationCache.getAll(requested, missing -> computeRecommendations(missing, failed));
+        return toBatchResponse(requested, found, failed);
+    }
+
+    /**
+     * Computes recommendations for many users from their current ratings,
+     * bypassing both the cache and precomputed results. Used by the
+     * materialization task.
+     *
+     * @param userIds the users to generate recommendations for; duplicates are ignored
+     * @return recommendations keyed by user ID, in request order, plus the users
+     *         that do not exist or could not be served
+     */
+    public BatchRecommendationResponse computeRecommendationsForUsers(List<String> userIds) {
+        Set<String> requested = new LinkedHashSet<>(userIds);
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        return toBatchResponse(requested, computeRecommendations(requested, failed), failed);
+    }
 
-        CoasterRecommendation[] body = response.getBody();
-        if (body == null || body.length == 0) {
-            return Collections.emptyList();
+    private BatchRecommendationResponse toBatchResponse(Set<String> requested,
+                                                        Map<String, List<CoasterRecommendation>> found,
+                                                        Set<String> failed) {
+        Map<String, List<CoasterRecommendation>> recommendations = new LinkedHashMap<>();
+        List<String> unknownUserIds = new ArrayList<>();
+        List<String> failedUserIds = new ArrayList<>();
+        for (String userId : requested) {
+            if (found.containsKey(userId)) {
+                recommendations.put(userId, found.get(userId));
+            } else if (failed.contains(userId)) {
+                failedUserIds.add(userId);
+            } else {
+                unknownUserIds.add(userId);
+            }
+        }
+        return new BatchRecommendationResponse(recommendations, unknownUserIds, failedUserIds);
+    }
+
+    /**
+     * Computes recommendations for a set of users, bypassing the cache.
+     *
+     * @param userIds the users whose recommendations are requested
+     * @param failed  collects users for which the engine call failed
+     * @return recommendations keyed by user ID; unknown and failed users are absent
+     */
+    private Map<String, List<CoasterRecommendation>> computeRecommendations(Set<String> userIds, Set<String> failed) {
+        // 1) Bulk load country access and ratings from DB
+        Map<String, List<UserCountryAccessRow>> countryAccessByUser = new HashMap<>();
+        Map<String, List<CoasterRatingValue>> ratingsByUser = new HashMap<>();
+        List<String> ids = List.copyOf(userIds);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            for (UserCountryAccessRow row : userRepository.findCountryAccessByUserIdIn(chunk)) {
+                countryAccessByUser.computeIfAbsent(row.userId(), id -> new ArrayList<>()).add(row);
+            }
+            for (CoasterRatingValue value : coasterRatingRepository.findRatingValuesByUserIdIn(chunk)) {
+                ratingsByUser.computeIfAbsent(value.userId(), id -> new ArrayList<>()).add(value);
+            }
         }
 
-        return Arrays.asList(body);
+        // 2) Fan the engine calls out with bounded parallelism
+        Map<String, List<CoasterRecommendation>> results = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(Math.max(1, batchParallelism));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            countryAccessByUser.forEach((userId, countryAccess) -> {
+                List<CoasterRatingValue> ratingValues = ratingsByUser.getOrDefault(userId, List.of());
+                UserRecommendRequest request = buildUserRecommendRequest(countryAccess, ratingValues);
+                if (ratingValues.isEmpty()) {
+                    results.put(userId, popularityRecommender.recommend(request));
+                    return;
+                }
+                executor.submit(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        results.put(userId, recommendationEngineGuard.recommend(request));
+                    } catch (RuntimeException e) {
+                        LOGGER.warn("Recommendation engine failed for user {}", userId, e);
+                        failed.add(userId);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            });
+        }
+        return results;
     }
 
     /**
-     * Builds a request to be sent to the Python recommendation engine.
+     * Builds a request to be sent to the recommendation engine.
      *
-     * <p>Converts user rating entities into the simplified structure the
-     * external service expects, and includes a placeholder list of allowed
-     * countries associated to the users country.</p>
+     * <p>Converts the user's rating pairs into the simplified structure the
+     * engine expects, and includes the user's country followed by the
+     * countries accessible from it.</p>
      *
-     * @param user User object for country information
-     * @param ratingEntities the set of rating records associated with the user
+     * @param countryAccess the user's country access rows
+     * @param ratingValues  the user's {@code (coaster_id, rating)} pairs
      *
      * @return a fully populated {@link UserRecommendRequest}
      */
-    private UserRecommendRequest buildUserRecommendRequest(UserEntity user, Set<CoasterRatingEntity> ratingEntities) {
-
-        List<String> countries = new ArrayList<>(List.of(user.getCountry()));
-        List<CountryAccessEntity> associatedCountries = countryAccessRepository.findBySourceCountry(user.getCountry());
-        countries.addAll(associatedCountries.stream().map(CountryAccessEntity::getAccessibleCountry).map(CountryEntity::getCountryName).toList());
-        List<UserRatingDto> ratings = ratingEntities.stream()
-                .map(e -> new UserRatingDto(
-                        e.getCoasterId().intValue(),      // coaster_id
-                        e.getRating().doubleValue()       // rating (0–5)
+    UserRecommendRequest buildUserRecommendRequest(List<UserCountryAccessRow> countryAccess,
+                                                   List<CoasterRatingValue> ratingValues) {
+
+        List<String> countries = new ArrayList<>(countryAccess.size() + 1);
+        countries.add(countryAccess.getFirst().country());
+        for (UserCountryAccessRow row : countryAccess) {
+            if (row.accessibleCountry() != null) {
+                countries.add(row.accessibleCountry());
+            }
+        }
+        List<UserRatingDto> ratings = ratingValues.stream()
+                .map(v -> new UserRatingDto(
+                        v.coasterId().intValue(),      // coaster_id
+                        v.rating().doubleValue()       // rating (0–5)
                 ))
                 .collect(Collectors.toList());
 
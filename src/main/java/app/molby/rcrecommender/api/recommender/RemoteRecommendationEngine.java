@@ -0,0 +1,60 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.config.RestClientConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link RecommendationEngine} that delegates to the external Python
+ * recommendation API located at {@code recommender.api.url}.
+ *
+ * <p>This is the default engine and is active unless
+ * {@code recommender.engine} is set to another value. Calls go through the
+ * pooled {@link RestClientConfig#RECOMMENDER_REST_TEMPLATE} client configured
+ * by {@code recommender.http.*}.</p>
+ * @author Bob Molby
+ */
+@Component
+@ConditionalOnProperty(name = "recommender.engine", havingValue = "remote", matchIfMissing = true)
+public class RemoteRecommendationEngine implements RecommendationEngine {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${recommender.api.url}")
+    private String recommenderApiUrl;
+
+    public RemoteRecommendationEngine(@Qualifier(RestClientConfig.RECOMMENDER_REST_TEMPLATE) RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Posts the request to the Python recommender and returns its results.
+     *
+     * @param request the request body expected by the Python API
+     * @return the engine's results, or an empty list if the response body is empty
+     */
+    @Override
+    public List<CoasterRecommendation> recommend(UserRecommendRequest request) {
+        ResponseEntity<CoasterRecommendation[]> response =
+                restTemplate.postForEntity(
+                        recommenderApiUrl,
+                        request,
+                        CoasterRecommendation[].class
+                );
+
+        CoasterRecommendation[] body = response.getBody();
+        if (body == null || body.length == 0) {
+            return Collections.emptyList();
+        }
+
+        return Arrays.asList(body);
+    }
+}
@@ -0,0 +1,25 @@
+package app.molby.rcrecommender.api.recommender;
+
+/**
+ * Portable {@link FeatureKernel} using plain loops. Used whenever the
+ * incubating Vector API is not available.
+ * @author Bob Molby
+ */
+final class ScalarFeatureKernel implements FeatureKernel {
+
+    @Override
+    public void axpy(float a, float[] x, int xOffset, float[] y, int length) {
+        for (int i = 0; i < length; i++) {
+            y[i] += a * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float sum = 0f;
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,179 @@
+package app.molby.rcrecommender.api.shared;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of fully serialized, pre-compressed JSON responses for read-mostly
+ * catalog endpoints.
+ *
+ * <p>A response is rendered once per catalog version: the body is serialized to
+ * JSON, gzip-compressed and hashed, and the bytes are reused until the catalog
+ * changes ({@link CatalogChangedEvent}) or the entry ages out after
+ * {@code http.response-cache.ttl}. The TTL bounds how long changes made through
+ * other instances go unnoticed.</p>
+ *
+ * <p>Responses carry a strong {@code ETag} derived from the JSON content, so it
+ * is the same on every instance, and a request whose {@code If-None-Match}
+ * matches gets {@code 304 Not Modified} without a body. Clients sending
+ * {@code Accept-Encoding: gzip} get the compressed bytes, which carry their own
+ * ETag because they are a different representation.</p>
+ *
+ * <p>Hit, miss and eviction counts are published to Micrometer as
+ * {@code cache.*} meters tagged {@code cache=json-responses}.</p>
+ * @author Bob Molby
+ */
+@Component
+public class CachedJsonResponses {
+
+    static final String CACHE_NAME = "json-responses";
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Rendered> responses;
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    public CachedJsonResponses(ObjectMapper objectMapper,
+                               @Value("${http.response-cache.maximum-size:256}") long maximumSize,
+                               @Value("${http.response-cache.ttl:60s}") Duration ttl,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifUnique(registry -> CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME));
+    }
+
+    /**
+     * Serves a cached rendering of a response, rendering it on a miss.
+     *
+     * @param catalog  the catalog the response is built from
+     * @param key      distinguishes responses of the same catalog, e.g. query parameters;
+     *                 may be {@code null}
+     * @param producer builds the response; its body is serialized as JSON and its
+     *                 headers are kept with the cached bytes
+     * @param request  the current request, for {@code If-None-Match} and {@code Accept-Encoding}
+     * @return the cached bytes, or {@code 304 Not Modified} when the client's copy is current
+     */
+    public ResponseEntity<byte[]> respond(String catalog, Object key,
+                                          Supplier<ResponseEntity<?>> producer,
+                                          HttpServletRequest request) {
+        long version = versions.computeIfAbsent(catalog, c -> versionSequence.incrementAndGet());
+        Rendered rendered = responses.get(new Key(catalog, key, version), k -> render(producer.get()));
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? rendered.gzipEtag() : rendered.etag();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(rendered.etag())
+                || ifNoneMatch.contains(rendered.gzipEtag()) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(rendered.headers())
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .headers(rendered.headers())
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(rendered.gzip().length)
+                    .body(rendered.gzip());
+        }
+        return response.contentLength(rendered.json().length).body(rendered.json());
+    }
+
+    /**
+     * Discards every cached response built from a catalog.
+     *
+     * @param catalog the catalog that changed
+     */
+    public void invalidate(String catalog) {
+        // Bumping the version also orphans renderings that are still in progress
+        versions.put(catalog, versionSequence.incrementAndGet());
+        responses.asMap().keySet().removeIf(key -> key.catalog().equals(catalog));
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidate(event.catalog());
+    }
+
+    private Rendered render(ResponseEntity<?> response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response.getBody());
+            byte[] gzip = gzip(json);
+            String hash = Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MessageDigest.getInstance("SHA-256").digest(json))
+                    .substring(0, 22);
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(response.getHeaders());
+            return new Rendered(json, gzip, "\"" + hash + "\"", "\"" + hash + "-gzip\"",
+                    HttpHeaders.readOnlyHttpHeaders(headers));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cached response", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private record Key(String catalog, Object key, long version) {
+    }
+
+    private record Rendered(byte[] json, byte[] gzip, String etag, String gzipEtag, HttpHeaders headers) {
+    }
+}
@@ -0,0 +1,20 @@
+package app.molby.rcrecommender.api.shared;
+
+/**
+ * Published after a write to one of the read-mostly catalogs, so cached
+ * responses built from it are discarded.
+ *
+ * @param catalog the catalog that changed, one of the constants below
+ * @author Bob Molby
+ */
+public record CatalogChangedEvent(String catalog) {
+
+    /** The roller coaster catalog served by {@code GET /coasters}. */
+    public static final String COASTERS = "coasters";
+
+    /** The countries served by {@code GET /countries}. */
+    public static final String COUNTRIES = "countries";
+
+    /** The country access rules served by {@code GET /country-access}. */
+    public static final String COUNTRY_ACCESS = "country-access";
+}
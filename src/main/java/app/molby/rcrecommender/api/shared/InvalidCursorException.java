@@ -0,0 +1,20 @@
+package app.molby.rcrecommender.api.shared;
+
+/**
+ * Exception indicating that a pagination cursor supplied by a client could not
+ * be decoded.
+ *
+ * <p>Mapped to a 400 response by the global exception handler.</p>
+ * @author Bob Molby
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    /**
+     * Creates a new {@code InvalidCursorException} for the given cursor.
+     *
+     * @param cursor the cursor that could not be decoded
+     */
+    public InvalidCursorException(String cursor) {
+        super("Invalid pagination cursor " + cursor);
+    }
+}
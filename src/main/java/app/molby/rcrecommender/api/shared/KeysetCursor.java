@@ -0,0 +1,79 @@
+package app.molby.rcrecommender.api.shared;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset (seek) paginated endpoints.
+ *
+ * <p>A cursor carries the sort key of the last row a client received; the next
+ * page is read with {@code WHERE key > :cursor ORDER BY key}, which uses the
+ * primary key index no matter how deep the client has paged. Cursors are
+ * URL-safe Base64 so clients treat them as tokens rather than IDs.</p>
+ * @author Bob Molby
+ */
+public final class KeysetCursor {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encodes a numeric sort key.
+     *
+     * @param key the key of the last row returned
+     * @return the opaque cursor
+     */
+    public static String encode(long key) {
+        return encode(Long.toString(key));
+    }
+
+    /**
+     * Encodes a textual sort key.
+     *
+     * @param key the key of the last row returned
+     * @return the opaque cursor
+     */
+    public static String encode(String key) {
+        return ENCODER.encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor holding a numeric sort key.
+     *
+     * @param cursor the cursor received from a client; may be {@code null}
+     * @return the key, or {@code null} when no cursor was given
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encode(long)}
+     */
+    public static Long decodeLong(String cursor) {
+        String key = decode(cursor);
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Decodes a cursor holding a textual sort key.
+     *
+     * @param cursor the cursor received from a client; may be {@code null}
+     * @return the key, or {@code null} when no cursor was given
+     * @throws InvalidCursorException if the cursor is not valid Base64
+     */
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
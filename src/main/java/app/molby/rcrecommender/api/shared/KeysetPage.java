@@ -0,0 +1,35 @@
+package app.molby.rcrecommender.api.shared;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) paginated listing.
+ *
+ * @param items      the rows of this page, in key order
+ * @param nextCursor cursor for the following page, or {@code null} on the last page
+ * @param <T>        the row type
+ * @author Bob Molby
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Converts the rows of this page, keeping the cursor.
+     *
+     * @param mapper the row conversion
+     * @param <R>    the converted row type
+     * @return a page holding the converted rows
+     */
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(items.stream().<R>map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Returns whether another page follows this one.
+     *
+     * @return {@code true} if {@link #nextCursor()} is set
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
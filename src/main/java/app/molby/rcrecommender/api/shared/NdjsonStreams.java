@@ -0,0 +1,54 @@
+package app.molby.rcrecommender.api.shared;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Builds newline-delimited JSON ({@code application/x-ndjson}) response bodies.
+ *
+ * <p>Values are written through one generator without a flush per value, so the
+ * servlet output buffer decides when bytes go out. Each line is terminated
+ * explicitly, so Jackson's default root value separator (a space) is turned off;
+ * otherwise every line after the first would start with it.</p>
+ * @author Bob Molby
+ */
+public final class NdjsonStreams {
+
+    private NdjsonStreams() {
+    }
+
+    /**
+     * Creates a body that writes every value produced by {@code source} as one line.
+     *
+     * @param objectMapper serializes the values
+     * @param type         the type of the values
+     * @param source       called while the response is written, with a consumer that writes one line per value
+     * @param <T>          the value type
+     * @return the streaming body
+     */
+    public static <T> StreamingResponseBody of(ObjectMapper objectMapper, Class<T> type,
+                                               Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        return out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                source.accept(value -> {
+                    try {
+                        writer.writeValue(generator, value);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+    }
+}
@@ -1,13 +1,21 @@
 package app.molby.rcrecommender.api.user;
 
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStatsRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
 import app.molby.rcrecommender.domain.user.UserEntity;
 import app.molby.rcrecommender.domain.user.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -16,6 +24,10 @@ import java.util.Optional;
  * <p>Provides CRUD operations and centralizes user-related business rules,
  * including existence checks and update-merge logic. Controllers should
  * delegate all user persistence behavior to this service.</p>
+ *
+ * <p>Ratings cascade with their user, so creating a user with ratings or
+ * deleting a user also applies the matching deltas to
+ * {@link CoasterRatingStats}.</p>
  * @author Bob Molby
  */
 @Service
@@ -25,6 +37,9 @@ public class UserService {
     public static Logger LOGGER = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
+    private final CoasterRatingRepository coasterRatingRepository;
+    private final CoasterRatingStatsRepository ratingStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates and persists a new user.  This is handled as an "upsert".  If the user identified
@@ -33,6 +48,7 @@ public class UserService {
      * @param user the user entity to create
      * @return the saved {@link UserEntity}, including any generated fields
      */
+    @Transactional
     public UserEntity create(UserEntity user) {
         Optional<UserEntity> optExistingUser = userRepository.findById(user.getId());
         if (optExistingUser.isPresent()) {
@@ -40,7 +56,13 @@ public class UserService {
                     "Will treat this as an update.", user.getId());
             return update(user.getId(), user);
         }
-        return userRepository.save(user);
+        UserEntity saved = userRepository.save(user);
+        List<CoasterRatingValue> ratings = saved.getCoasterRatings() == null ? List.of()
+                : saved.getCoasterRatings().stream()
+                        .map(r -> new CoasterRatingValue(saved.getId(), r.getCoasterId(), r.getRating()))
+                        .toList();
+        ratingStatsRepository.apply(CoasterRatingStats.aggregate(ratings));
+        return saved;
     }
 
     /**
@@ -68,7 +90,9 @@ public class UserService {
      * Updates an existing user with the provided new state.
      *
      * <p>This method performs a full-field update: all updatable fields on the
-     * existing user are replaced by values from {@code updated}.</p>
+     * existing user are replaced by values from {@code updated}. A change of
+     * country publishes a {@link RecommendationInputsChangedEvent}, since it
+     * changes which coasters can be recommended.</p>
      *
      * @param id      the ID of the user to update
      * @param updated the new state for the user
@@ -77,13 +101,18 @@ public class UserService {
      */
     public UserEntity update(String id, UserEntity updated) {
         UserEntity existing = getById(id);
+        boolean countryChanged = !Objects.equals(existing.getCountry(), updated.getCountry());
 
         existing.setEmailAddress(updated.getEmailAddress());
         existing.setFirstName(updated.getFirstName());
         existing.setLastName(updated.getLastName());
         existing.setCountry(updated.getCountry());
 
-        return userRepository.save(existing);
+        UserEntity saved = userRepository.save(existing);
+        if (countryChanged) {
+            eventPublisher.publishEvent(new RecommendationInputsChangedEvent(id));
+        }
+        return saved;
     }
 
     /**
@@ -92,11 +121,16 @@ public class UserService {
      * @param id the ID of the user to delete
      * @throws UserNotFoundException if the user does not exist
      */
+    @Transactional
     public void delete(String id) {
         if (!userRepository.existsById(id)) {
             throw new UserNotFoundException(id);
         }
+        List<CoasterRatingStats> removed = CoasterRatingStats.aggregate(
+                coasterRatingRepository.findRatingValuesByUserId(id));
         userRepository.deleteById(id);
+        ratingStatsRepository.apply(removed.stream().map(CoasterRatingStats::negate).toList());
+        eventPublisher.publishEvent(new RecommendationInputsChangedEvent(id));
     }
 
     /**
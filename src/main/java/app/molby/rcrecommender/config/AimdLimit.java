@@ -0,0 +1,79 @@
+package app.molby.rcrecommender.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit.
+ *
+ * <p>Each sample reports how long a caller waited for the protected resource.
+ * A wait within the latency threshold while the limit is actually in use raises
+ * the limit by one; a slower wait, or a caller that gave up, multiplies it by the
+ * backoff ratio. The limit therefore settles just above the concurrency the
+ * resource can serve without queueing, and drops quickly when it slows down.</p>
+ * @author Bob Molby
+ */
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger limit;
+
+    /**
+     * @param initialLimit          the starting limit
+     * @param minLimit              the limit never drops below this
+     * @param maxLimit              the limit never rises above this
+     * @param backoffRatio          factor applied on a slow or dropped sample, in {@code (0, 1)}
+     * @param latencyThresholdNanos waits longer than this count as congestion
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= max");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return the maximum number of concurrent callers to admit
+     */
+    public int get() {
+        return limit.get();
+    }
+
+    /**
+     * Records a caller that obtained the resource.
+     *
+     * @param waitNanos how long the caller waited
+     * @param inFlight  callers admitted at the time, including this one
+     */
+    public void onSample(long waitNanos, int inFlight) {
+        if (waitNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (inFlight * 2 >= limit.get()) {
+            // Only grow while the limit is being used, or an idle period would
+            // ratchet it up to the maximum
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Records a caller that timed out or failed waiting for the resource.
+     */
+    public void onDropped() {
+        decrease();
+    }
+
+    private void decrease() {
+        limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+    }
+}
@@ -0,0 +1,163 @@
+package app.molby.rcrecommender.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link DataSource} that admits an adaptive number of concurrent callers and
+ * rejects the rest immediately.
+ *
+ * <p>A caller counts as in flight from {@code getConnection} until it closes the
+ * connection, including any time spent queued inside the pool. Once the
+ * {@link AimdLimit} is reached, further callers get a
+ * {@link JdbcConcurrencyLimitExceededException} instead of queueing behind the
+ * pool's connection timeout. How long each admitted caller waited for its
+ * connection feeds the limit, so it shrinks as soon as queries slow down and
+ * the pool backs up, and grows back while connections are handed out promptly.
+ * A permit is returned when the connection is closed.</p>
+ *
+ * <p>The current limit, callers in flight and rejections are published as
+ * {@code jdbc.limiter.limit}, {@code jdbc.limiter.inflight} and
+ * {@code jdbc.limiter.rejected}.</p>
+ * @author Bob Molby
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final AimdLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param target the pooled data source
+     * @param limit  the adaptive limit of concurrent callers
+     */
+    public ConcurrencyLimitingDataSource(DataSource target, AimdLimit limit) {
+        super(target);
+        this.limit = limit;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int admitted = admit();
+        long start = System.nanoTime();
+        try {
+            Connection connection = obtainTargetDataSource().getConnection();
+            limit.onSample(System.nanoTime() - start, admitted);
+            return limited(connection);
+        } catch (SQLException | RuntimeException e) {
+            release(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        int admitted = admit();
+        long start = System.nanoTime();
+        try {
+            Connection connection = obtainTargetDataSource().getConnection(username, password);
+            limit.onSample(System.nanoTime() - start, admitted);
+            return limited(connection);
+        } catch (SQLException | RuntimeException e) {
+            release(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current limit of concurrent callers.
+     *
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * Returns the number of callers holding or waiting for a connection.
+     *
+     * @return callers in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Registers the limiter metrics.
+     *
+     * @param registry the registry to publish to
+     */
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jdbc.limiter.limit", this, ConcurrencyLimitingDataSource::getLimit)
+                .description("Current adaptive limit of concurrent database callers")
+                .register(registry);
+        Gauge.builder("jdbc.limiter.inflight", this, ConcurrencyLimitingDataSource::getInFlight)
+                .description("Callers holding or waiting for a database connection")
+                .register(registry);
+        FunctionCounter.builder("jdbc.limiter.rejected", rejected, LongAdder::sum)
+                .description("Connection requests rejected because the limit was reached")
+                .register(registry);
+    }
+
+    private int admit() throws SQLException {
+        int admitted = inFlight.incrementAndGet();
+        int current = limit.get();
+        if (admitted > current) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            throw new JdbcConcurrencyLimitExceededException(current);
+        }
+        return admitted;
+    }
+
+    private void release(Exception failure) {
+        inFlight.decrementAndGet();
+        if (failure instanceof SQLTransientConnectionException) {
+            // The pool timed out: it is saturated
+            limit.onDropped();
+        }
+    }
+
+    private Connection limited(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTargetConnection":
+                            return target;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            try {
+                                target.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    inFlight.decrementAndGet();
+                                }
+                            }
+                            return null;
+                        default:
+                            try {
+                                return method.invoke(target, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                    }
+                });
+    }
+}
@@ -1,14 +1,24 @@
 package app.molby.rcrecommender.config;
 
+import app.molby.rcrecommender.api.rating.BulkRatingLimitExceededException;
 import app.molby.rcrecommender.api.shared.ErrorResponse;
+import app.molby.rcrecommender.api.shared.InvalidCursorException;
 import app.molby.rcrecommender.api.shared.ResourceNotFoundException;
 import app.molby.rcrecommender.api.shared.ValidationErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 
@@ -26,6 +36,9 @@ public class GlobalExceptionHandler {
 
     public static Logger LOGGER = org.slf4j.LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    @Value("${jdbc.limiter.retry-after:1s}")
+    private Duration retryAfter = Duration.ofSeconds(1);
+
     /**
      * Handles cases where a requested resource cannot be found.
      *
@@ -81,6 +94,99 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Handles pagination cursors that could not be decoded.
+     *
+     * @param ex the exception naming the rejected cursor
+     * @param request the HTTP request carrying the cursor
+     * @return standardized 400 error response object
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidCursor(InvalidCursorException ex,
+                                             HttpServletRequest request) {
+        return new ErrorResponse(
+                Instant.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Bad Request",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
+    /**
+     * Handles bulk uploads with more items than a single request may carry.
+     *
+     * @param ex the exception naming the received and allowed sizes
+     * @param request the HTTP request carrying the upload
+     * @return standardized 413 error response object
+     */
+    @ExceptionHandler(BulkRatingLimitExceededException.class)
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public ErrorResponse handleBulkLimitExceeded(BulkRatingLimitExceededException ex,
+                                                 HttpServletRequest request) {
+        return new ErrorResponse(
+                Instant.now(),
+                HttpStatus.PAYLOAD_TOO_LARGE.value(),
+                "Payload Too Large",
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+    }
+
+    /**
+     * Handles writes rejected by a database constraint.
+     *
+     * <p>For example a rating that refers to a row deleted concurrently. Returns a
+     * 409 without the SQL error, which stays in the log.</p>
+     *
+     * @param ex the exception wrapping the constraint violation
+     * @param request the HTTP request carrying the write
+     * @return standardized 409 error response object
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleDataIntegrityViolation(DataIntegrityViolationException ex,
+                                                      HttpServletRequest request) {
+        LOGGER.info("Constraint violation on {}: {}", request.getRequestURI(), ex.getMostSpecificCause().getMessage());
+        return new ErrorResponse(
+                Instant.now(),
+                HttpStatus.CONFLICT.value(),
+                "Conflict",
+                "The request conflicts with existing data.",
+                request.getRequestURI()
+        );
+    }
+
+    /**
+     * Handles requests that could not get a database connection.
+     *
+     * <p>When the cause is a saturated database, either rejected by the adaptive
+     * {@link ConcurrencyLimitingDataSource} or timed out in the pool, the request is
+     * shed with a 503 and a {@code Retry-After} header so clients back off.
+     * Any other failure is reported like {@link #handleGeneric}.</p>
+     *
+     * @param ex the exception wrapping the connection failure
+     * @param request the HTTP request being processed
+     * @return a 503 error response, or a 500 for other data access failures
+     */
+    @ExceptionHandler({DataAccessResourceFailureException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(Exception ex, HttpServletRequest request) {
+        if (!isConnectionSaturated(ex)) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(handleGeneric(ex, request));
+        }
+        LOGGER.warn("Shedding request to {}: database is saturated", request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())))
+                .body(new ErrorResponse(
+                        Instant.now(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Service Unavailable",
+                        "The database is busy. Retry the request shortly.",
+                        request.getRequestURI()
+                ));
+    }
+
     /**
      * Handles 404 (not found exceptions) by just passing it along.
      * @param ex the exception that was thrown
@@ -123,4 +229,13 @@ public class GlobalExceptionHandler {
                 request.getRequestURI()
         );
     }
+
+    private static boolean isConnectionSaturated(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
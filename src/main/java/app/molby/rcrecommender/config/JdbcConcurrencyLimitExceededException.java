@@ -0,0 +1,21 @@
+package app.molby.rcrecommender.config;
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown by {@link ConcurrencyLimitingDataSource} when a connection is requested
+ * while the adaptive limit of concurrent database callers is reached.
+ *
+ * <p>Being an {@link SQLTransientConnectionException}, it is reported like a
+ * connection pool timeout: a 503 with {@code Retry-After}.</p>
+ * @author Bob Molby
+ */
+public class JdbcConcurrencyLimitExceededException extends SQLTransientConnectionException {
+
+    /**
+     * @param limit the limit in force when the request was rejected
+     */
+    public JdbcConcurrencyLimitExceededException(int limit) {
+        super("Database is busy: " + limit + " concurrent callers already admitted");
+    }
+}
@@ -0,0 +1,72 @@
+package app.molby.rcrecommender.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts an adaptive concurrency limit in front of every repository by wrapping
+ * the Hikari pool in a {@link ConcurrencyLimitingDataSource}.
+ *
+ * <p>JPA repositories, {@code JdbcTemplate} repositories and transactions all
+ * obtain connections through the wrapped data source, so callers beyond the
+ * limit are rejected before they queue in the pool. Set
+ * {@code jdbc.limiter.enabled=false} to talk to the pool directly.</p>
+ * @author Bob Molby
+ */
+@Configuration
+@ConditionalOnProperty(name = "jdbc.limiter.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(JdbcLimiterProperties.class)
+public class JdbcLimiterConfig {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(JdbcLimiterConfig.class);
+
+    /**
+     * Wraps the Hikari pool once it is configured.
+     *
+     * @param properties limiter settings, resolved lazily so this post-processor
+     *                   can be registered early
+     * @return the post-processor
+     */
+    @Bean
+    static BeanPostProcessor jdbcConcurrencyLimiter(ObjectProvider<JdbcLimiterProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                JdbcLimiterProperties settings = properties.getObject();
+                AimdLimit limit = new AimdLimit(settings.getInitialLimit(), settings.getMinLimit(),
+                        settings.getMaxLimit(), settings.getBackoffRatio(), settings.getLatencyThreshold().toNanos());
+                LOGGER.info("Limiting data source {} (pool size {}) to between {} and {} concurrent callers",
+                        beanName, hikari.getMaximumPoolSize(), settings.getMinLimit(), settings.getMaxLimit());
+                return new ConcurrencyLimitingDataSource(hikari, limit);
+            }
+        };
+    }
+
+    /**
+     * Publishes the limiter metrics. Data sources are looked up when the registry
+     * binds, not when this bean is created, to avoid a cycle with the pool.
+     *
+     * @param dataSources the application's data sources
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder jdbcLimiterMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ConcurrencyLimitingDataSource.class::isInstance)
+                .map(ConcurrencyLimitingDataSource.class::cast)
+                .forEach(dataSource -> dataSource.bindTo(registry));
+    }
+}
@@ -0,0 +1,46 @@
+package app.molby.rcrecommender.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the adaptive JDBC concurrency limiter
+ * ({@link ConcurrencyLimitingDataSource}), bound from {@code jdbc.limiter.*}.
+ * @author Bob Molby
+ */
+@Data
+@ConfigurationProperties(prefix = "jdbc.limiter")
+public class JdbcLimiterProperties {
+
+    /**
+     * Concurrent database callers admitted at startup.
+     */
+    private int initialLimit = 10;
+
+    /**
+     * The limit never drops below this; normally the pool size.
+     */
+    private int minLimit = 3;
+
+    /**
+     * The limit never rises above this.
+     */
+    private int maxLimit = 50;
+
+    /**
+     * Factor applied to the limit when a caller waits too long or times out.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Connection waits longer than this count as congestion.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(100);
+
+    /**
+     * Value of the {@code Retry-After} header on 503 responses.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
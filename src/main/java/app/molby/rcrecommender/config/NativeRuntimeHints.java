@@ -0,0 +1,99 @@
+package app.molby.rcrecommender.config;
+
+import app.molby.rcrecommender.api.coaster.RollerCoasterDto;
+import app.molby.rcrecommender.api.coaster.RollerCoasterMapper;
+import app.molby.rcrecommender.api.country.CountryAccessDto;
+import app.molby.rcrecommender.api.country.CountryAccessMapper;
+import app.molby.rcrecommender.api.country.CountryDto;
+import app.molby.rcrecommender.api.country.CountryMapper;
+import app.molby.rcrecommender.api.leaderboard.LeaderboardEntryDto;
+import app.molby.rcrecommender.api.leaderboard.LeaderboardMapper;
+import app.molby.rcrecommender.api.rating.CoasterRatingDto;
+import app.molby.rcrecommender.api.rating.CoasterRatingMapper;
+import app.molby.rcrecommender.api.rating.CoasterRatingStatsDto;
+import app.molby.rcrecommender.api.recommender.BatchRecommendationRequest;
+import app.molby.rcrecommender.api.recommender.BatchRecommendationResponse;
+import app.molby.rcrecommender.api.recommender.CoasterRecommendation;
+import app.molby.rcrecommender.api.recommender.RecommendedCoasterDto;
+import app.molby.rcrecommender.api.recommender.UserRatingDto;
+import app.molby.rcrecommender.api.recommender.UserRecommendRequest;
+import app.molby.rcrecommender.api.shared.ErrorResponse;
+import app.molby.rcrecommender.api.shared.ValidationErrorResponse;
+import app.molby.rcrecommender.api.user.UserDto;
+import app.molby.rcrecommender.api.user.UserMapper;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterSummary;
+import app.molby.rcrecommender.domain.country.CountryAccessEntity;
+import app.molby.rcrecommender.domain.country.CountryEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRow;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
+import app.molby.rcrecommender.domain.user.UserCountryAccessRow;
+import app.molby.rcrecommender.domain.user.UserEntity;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Reachability metadata for the GraalVM native image ({@code ./gradlew nativeCompile})
+ * that Spring AOT cannot infer on its own.
+ *
+ * <p>Controller request and response bodies are covered by Spring, but several types are
+ * (de)serialized by Jackson outside of controller signatures: engine requests and
+ * {@link CoasterRecommendation} responses, precomputed recommendations and the cached and
+ * NDJSON response bodies. Entities and query projections are instantiated reflectively by
+ * Hibernate, and MapStruct's generated {@code *MapperImpl} classes are only referenced by
+ * name. Lombok accessors need no entries of their own; they are plain methods registered
+ * with their types.</p>
+ * @author Bob Molby
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    /** Types Jackson binds outside controller method signatures. */
+    static final List<Class<?>> JSON_TYPES = List.of(
+            CoasterRecommendation.class, UserRecommendRequest.class, UserRatingDto.class,
+            RecommendedCoasterDto.class, BatchRecommendationRequest.class, BatchRecommendationResponse.class,
+            RollerCoasterDto.class, CountryDto.class, CountryAccessDto.class, CoasterRatingDto.class,
+            CoasterRatingStatsDto.class, LeaderboardEntryDto.class, UserDto.class,
+            ErrorResponse.class, ValidationErrorResponse.class);
+
+    /** JPA entities and the records Hibernate instantiates for query projections. */
+    static final List<Class<?>> PERSISTENT_TYPES = List.of(
+            RollerCoasterEntity.class, CountryEntity.class, CountryAccessEntity.class,
+            CoasterRatingEntity.class, UserEntity.class,
+            RollerCoasterSummary.class, CoasterRatingRow.class, CoasterRatingValue.class,
+            CoasterRatingStats.class, UserCountryAccessRow.class);
+
+    static final List<Class<?>> MAPPERS = List.of(
+            RollerCoasterMapper.class, CountryMapper.class, CountryAccessMapper.class,
+            CoasterRatingMapper.class, LeaderboardMapper.class, UserMapper.class);
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, @Nullable ClassLoader classLoader) {
+        bindingHints.registerReflectionHints(hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+        // the any-setter is not a bean property, so binding hints leave it out
+        hints.reflection().registerType(CoasterRecommendation.class, type -> type.withMethod(
+                "addAdditionalProperty",
+                List.of(TypeReference.of(String.class), TypeReference.of(Object.class)),
+                ExecutableMode.INVOKE));
+
+        PERSISTENT_TYPES.forEach(type -> hints.reflection().registerType(type,
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS));
+
+        MAPPERS.forEach(mapper -> hints.reflection().registerType(
+                TypeReference.of(mapper.getName() + "Impl"),
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS));
+    }
+}
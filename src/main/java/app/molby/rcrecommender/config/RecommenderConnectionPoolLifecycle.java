@@ -0,0 +1,46 @@
+package app.molby.rcrecommender.config;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Closes the recommender client's pooled connections when the application context is
+ * stopped, in particular before a CRaC / SnapStart checkpoint: open sockets cannot be
+ * checkpointed, and would be dead after a restore on another host anyway. The pool
+ * reconnects on demand once restarted.
+ *
+ * <p>Runs in phase 0, so it stops after the web server has drained requests.</p>
+ * @author Bob Molby
+ */
+public class RecommenderConnectionPoolLifecycle implements SmartLifecycle {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private volatile boolean running;
+
+    public RecommenderConnectionPoolLifecycle(PoolingHttpClientConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        connectionManager.closeExpired();
+        connectionManager.closeIdle(TimeValue.ZERO_MILLISECONDS);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,80 @@
+package app.molby.rcrecommender.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pool, timeout and TLS settings for the HTTP client used to call
+ * the Python recommendation API, bound from {@code recommender.http.*}.
+ * @author Bob Molby
+ */
+@Data
+@ConfigurationProperties(prefix = "recommender.http")
+public class RecommenderHttpProperties {
+
+    /**
+     * Maximum pooled connections across all routes.
+     */
+    private int maxTotal = 50;
+
+    /**
+     * Default maximum pooled connections per route (scheme, host and port).
+     */
+    private int maxPerRoute = 20;
+
+    /**
+     * Per-route overrides of {@link #maxPerRoute}, keyed by origin,
+     * e.g. {@code https://recommender.example.com:443}.
+     */
+    private Map<String, Integer> routes = new HashMap<>();
+
+    /**
+     * Time allowed to establish the TCP connection and complete the TLS handshake.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum inactivity between two packets while reading a response.
+     */
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Time allowed for the engine to start responding after the request was sent.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Time to wait for a free pooled connection before failing the call.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    /**
+     * How long an idle connection is kept alive when the server does not send
+     * a {@code Keep-Alive} header.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Idle connections are closed after this long.
+     */
+    private Duration maxIdleTime = Duration.ofMinutes(1);
+
+    /**
+     * Pooled connections idle for longer than this are checked before reuse.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(5);
+
+    /**
+     * Number of TLS sessions cached for resumption.
+     */
+    private int tlsSessionCacheSize = 100;
+
+    /**
+     * How long a cached TLS session may be resumed.
+     */
+    private Duration tlsSessionTimeout = Duration.ofHours(1);
+}
@@ -0,0 +1,62 @@
+package app.molby.rcrecommender.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker, bulkhead and time limiter settings guarding calls to the
+ * recommendation engine, bound from {@code recommender.resilience.*}.
+ * @author Bob Molby
+ */
+@Data
+@ConfigurationProperties(prefix = "recommender.resilience")
+public class RecommenderResilienceProperties {
+
+    /**
+     * Maximum time a caller waits for the engine before the fallback is used.
+     */
+    private Duration timeout = Duration.ofSeconds(3);
+
+    /**
+     * Maximum engine calls in flight; further calls fall back immediately
+     * instead of queueing request threads.
+     */
+    private int maxConcurrentCalls = 10;
+
+    /**
+     * Number of recent calls the circuit breaker evaluates.
+     */
+    private int slidingWindowSize = 50;
+
+    /**
+     * Calls required in the window before failure rates are evaluated.
+     */
+    private int minimumNumberOfCalls = 20;
+
+    /**
+     * Percentage of failed calls that opens the circuit.
+     */
+    private float failureRateThreshold = 50;
+
+    /**
+     * Calls slower than this count as slow.
+     */
+    private Duration slowCallDuration = Duration.ofSeconds(2);
+
+    /**
+     * Percentage of slow calls that opens the circuit.
+     */
+    private float slowCallRateThreshold = 80;
+
+    /**
+     * How long the circuit stays open before trial calls are let through.
+     */
+    private Duration waitInOpenState = Duration.ofSeconds(30);
+
+    /**
+     * Trial calls permitted while half-open.
+     */
+    private int permittedCallsInHalfOpenState = 5;
+}
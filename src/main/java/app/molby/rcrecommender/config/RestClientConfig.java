@@ -1,17 +1,41 @@
 package app.molby.rcrecommender.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.routing.HttpRoute;
+import org.apache.hc.client5.http.ssl.DefaultClientTlsStrategy;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+
 /**
  * Configuration for API access via restTemplate
  * @author Bob Molby
  */
 @Configuration
+@EnableConfigurationProperties(RecommenderHttpProperties.class)
 public class RestClientConfig {
 
+    /**
+     * Bean name of the {@link RestTemplate} used to call the Python recommender.
+     */
+    public static final String RECOMMENDER_REST_TEMPLATE = "recommenderRestTemplate";
+
     /**
      * restTemplate Template for access to apis (specifically roller coaster recommendations).
      *
@@ -23,4 +47,109 @@ public class RestClientConfig {
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder.build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Rest template for the Python recommender, backed by a pooled keep-alive
+     * HTTP client so calls reuse TCP connections and TLS sessions instead of
+     * handshaking each time, with timeouts so a hung engine cannot hold
+     * request threads indefinitely.
+     *
+     * @param builder               Builds rest templates
+     * @param recommenderHttpClient the pooled client from {@link #recommenderHttpClient}
+     * @return rest template built.
+     */
+    @Bean(RECOMMENDER_REST_TEMPLATE)
+    public RestTemplate recommenderRestTemplate(RestTemplateBuilder builder, CloseableHttpClient recommenderHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(recommenderHttpClient))
+                .build();
+    }
+
+    /**
+     * Pooled HTTP client used by {@link #recommenderRestTemplate}.
+     *
+     * @param recommenderConnectionManager the connection pool
+     * @param properties                   timeout and keep-alive settings
+     * @return the HTTP client, closed with the application context
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient recommenderHttpClient(PoolingHttpClientConnectionManager recommenderConnectionManager,
+                                                     RecommenderHttpProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(timeout(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(timeout(properties.getResponseTimeout()))
+                .setConnectionKeepAlive(timeValue(properties.getKeepAlive()))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(recommenderConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(timeValue(properties.getMaxIdleTime()))
+                .build();
+    }
+
+    /**
+     * Connection pool for the recommender client. All connections share one
+     * {@link SSLContext}, whose client session cache lets reconnects resume TLS
+     * sessions with an abbreviated handshake.
+     *
+     * @param properties pool, timeout and TLS settings
+     * @return the connection manager
+     * @throws GeneralSecurityException if the default TLS context cannot be created
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager recommenderConnectionManager(RecommenderHttpProperties properties)
+            throws GeneralSecurityException {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, null, null);
+        sslContext.getClientSessionContext().setSessionCacheSize(properties.getTlsSessionCacheSize());
+        sslContext.getClientSessionContext().setSessionTimeout((int) properties.getTlsSessionTimeout().toSeconds());
+
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+                .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                .setSocketTimeout(timeout(properties.getReadTimeout()))
+                .setValidateAfterInactivity(timeValue(properties.getValidateAfterInactivity()))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setTlsSocketStrategy(new DefaultClientTlsStrategy(sslContext))
+                .setDefaultConnectionConfig(connectionConfig)
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .build();
+        properties.getRoutes().forEach((origin, max) ->
+                connectionManager.setMaxPerRoute(route(origin), max));
+        return connectionManager;
+    }
+
+    /**
+     * Drops the recommender pool's connections before a CRaC / SnapStart checkpoint.
+     *
+     * @param recommenderConnectionManager the connection pool
+     * @return the lifecycle closing the pool's connections on stop
+     */
+    @Bean
+    public RecommenderConnectionPoolLifecycle recommenderConnectionPoolLifecycle(
+            PoolingHttpClientConnectionManager recommenderConnectionManager) {
+        return new RecommenderConnectionPoolLifecycle(recommenderConnectionManager);
+    }
+
+    /**
+     * Builds the pool route for an origin such as {@code https://host:port},
+     * defaulting the port from the scheme as the client's route planner does.
+     */
+    static HttpRoute route(String origin) {
+        URI uri = URI.create(origin);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() >= 0 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
+}
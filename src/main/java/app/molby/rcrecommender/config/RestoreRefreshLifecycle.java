@@ -0,0 +1,61 @@
+package app.molby.rcrecommender.config;
+
+import app.molby.rcrecommender.api.coaster.CoasterCatalog;
+import app.molby.rcrecommender.api.leaderboard.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads the in-memory coaster catalog and leaderboards when the application context is
+ * restarted, as Spring does after restoring a CRaC / SnapStart checkpoint.
+ *
+ * <p>A snapshot may be restored long after it was taken, and the JVM's monotonic clock does
+ * not advance across the gap, so the periodic refreshes would not notice that the data is
+ * stale (on Lambda they do not run at all). The first start after boot does nothing; the
+ * catalog loads on {@code ApplicationReadyEvent} as usual. Runs in the phase just before the
+ * web server's, so the reload sees a data source that has already reopened its connections
+ * (Hikari's restore lifecycle runs in phase 0) and finishes before requests are accepted.</p>
+ * @author Bob Molby
+ */
+@Component
+@RequiredArgsConstructor
+public class RestoreRefreshLifecycle implements SmartLifecycle {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(RestoreRefreshLifecycle.class);
+
+    private final CoasterCatalog coasterCatalog;
+    private final LeaderboardService leaderboardService;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    @Override
+    public void start() {
+        if (stopped) {
+            LOGGER.info("Context restarted (e.g. restored from a checkpoint); reloading catalog and leaderboards.");
+            coasterCatalog.reload();
+            leaderboardService.refresh();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        stopped = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return WebServerApplicationContext.START_STOP_LIFECYCLE_PHASE - 1;
+    }
+}
@@ -0,0 +1,19 @@
+package app.molby.rcrecommender.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} methods, such as the periodic leaderboard refresh.
+ *
+ * <p>Set {@code scheduling.enabled=false} where no background work should run
+ * (e.g. short-lived function invocations); scheduled caches then build lazily
+ * on first use.</p>
+ * @author Bob Molby
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
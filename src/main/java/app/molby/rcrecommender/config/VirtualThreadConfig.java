@@ -0,0 +1,42 @@
+package app.molby.rcrecommender.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Support beans for the virtual-thread execution mode.
+ *
+ * <p>Setting {@code spring.threads.virtual.enabled=true} (the
+ * {@code virtual-threads} profile) makes Spring Boot run Tomcat requests,
+ * {@code @Async}/MVC async work such as NDJSON streams, and scheduled tasks on
+ * virtual threads. Recommender calls already run on virtual threads in
+ * {@code RecommendationEngineGuard}, and database access is bounded by the
+ * adaptive limiter of {@link JdbcLimiterConfig}. This configuration reports any
+ * virtual thread that pins its carrier.</p>
+ * @author Bob Molby
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+public class VirtualThreadConfig {
+
+    /**
+     * JFR-based pinning diagnostics.
+     *
+     * @param properties    the pinning threshold
+     * @param meterRegistry registry for the pinned-thread counter
+     * @return the monitor, started with the context and closed with it
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "virtual-threads.pinning-monitor-enabled", havingValue = "true",
+            matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties.getPinnedThreshold(), meterRegistry);
+    }
+}
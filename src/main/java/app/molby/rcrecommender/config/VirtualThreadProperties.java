@@ -0,0 +1,27 @@
+package app.molby.rcrecommender.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the virtual-thread execution mode, bound from {@code virtual-threads.*}.
+ * Only used when {@code spring.threads.virtual.enabled=true}.
+ * @author Bob Molby
+ */
+@Data
+@ConfigurationProperties(prefix = "virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Whether pinned virtual threads are captured through JFR, logged and
+     * counted in {@code jvm.threads.virtual.pinned}.
+     */
+    private boolean pinningMonitorEnabled = true;
+
+    /**
+     * Minimum time a virtual thread must stay pinned to its carrier to be reported.
+     */
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
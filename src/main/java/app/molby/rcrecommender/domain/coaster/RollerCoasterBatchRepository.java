@@ -0,0 +1,134 @@
+package app.molby.rcrecommender.domain.coaster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * JDBC repository for writing many {@code roller_coasters} rows at once, used by
+ * the catalog import task.
+ *
+ * <p>{@link RollerCoasterEntity} uses an identity key, which keeps Hibernate from
+ * batching inserts, so imports go out as JDBC batches of
+ * {@code coaster.import.jdbc-batch-size} statements. A coaster is identified by
+ * its name and park: rows that already exist are skipped, so re-running an
+ * import only adds new coasters. The table has no unique key on name and park
+ * (a park can have two coasters of the same name), so the check is a
+ * {@code NOT EXISTS}; each import transaction first takes a transaction-scoped
+ * advisory lock, so two imports running at once check and insert one after the
+ * other instead of both inserting the same coaster.</p>
+ * @author Bob Molby
+ */
+@Repository
+public class RollerCoasterBatchRepository {
+
+    private static final String LOCK_IMPORT = "SELECT pg_advisory_xact_lock(hashtext('roller_coasters import'))";
+
+    private static final String INSERT_IF_ABSENT = """
+            INSERT INTO roller_coasters (name, amusement_park, type, design, status, manufacturer, model,
+                                         imputed_length, imputed_height, imputed_drop, imputed_inversion_count,
+                                         imputed_speed, imputed_vertical_angle, imputed_restraints, imputed_g_force,
+                                         imputed_intensity, imputed_duration, country)
+            SELECT ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?
+            WHERE NOT EXISTS (
+                SELECT 1 FROM roller_coasters
+                WHERE name = ? AND amusement_park IS NOT DISTINCT FROM ?
+            )
+            """;
+
+    /**
+     * Only fills columns that are still missing, so a concurrent edit is never overwritten.
+     */
+    private static final String UPDATE_IMPUTED = """
+            UPDATE roller_coasters
+            SET imputed_length = COALESCE(imputed_length, ?),
+                imputed_height = COALESCE(imputed_height, ?),
+                imputed_drop = COALESCE(imputed_drop, ?),
+                imputed_inversion_count = COALESCE(imputed_inversion_count, ?),
+                imputed_speed = COALESCE(imputed_speed, ?),
+                imputed_vertical_angle = COALESCE(imputed_vertical_angle, ?),
+                imputed_restraints = COALESCE(imputed_restraints, ?),
+                imputed_g_force = COALESCE(imputed_g_force, ?),
+                imputed_intensity = COALESCE(imputed_intensity, ?),
+                imputed_duration = COALESCE(imputed_duration, ?)
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public RollerCoasterBatchRepository(JdbcTemplate jdbcTemplate,
+                                        @Value("${coaster.import.jdbc-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts the coasters whose name and park are not in the table yet. Must run
+     * inside a transaction, which holds the import lock until it ends.
+     *
+     * @param coasters the coasters to insert; IDs are ignored
+     * @return the number of rows inserted
+     */
+    public int insertAllIfAbsent(List<RollerCoasterEntity> coasters) {
+        jdbcTemplate.execute(LOCK_IMPORT);
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, coasters, batchSize, (ps, coaster) -> {
+            ps.setString(1, coaster.getName());
+            ps.setString(2, coaster.getAmusementPark());
+            ps.setString(3, coaster.getType());
+            ps.setString(4, coaster.getDesign());
+            ps.setString(5, coaster.getStatus());
+            ps.setString(6, coaster.getManufacturer());
+            ps.setString(7, coaster.getModel());
+            ps.setBigDecimal(8, coaster.getLength());
+            ps.setBigDecimal(9, coaster.getHeight());
+            ps.setBigDecimal(10, coaster.getDrop());
+            ps.setBigDecimal(11, coaster.getInversionCount());
+            ps.setBigDecimal(12, coaster.getSpeed());
+            ps.setBigDecimal(13, coaster.getVerticalAngle());
+            ps.setString(14, coaster.getRestraints());
+            ps.setBigDecimal(15, coaster.getGForce());
+            ps.setString(16, coaster.getIntensity());
+            ps.setBigDecimal(17, coaster.getDuration());
+            ps.setString(18, coaster.getCountry());
+            ps.setString(19, coaster.getName());
+            ps.setString(20, coaster.getAmusementPark());
+        });
+        return sum(counts);
+    }
+
+    /**
+     * Writes imputed statistics into columns that are still empty.
+     *
+     * @param coasters coasters carrying their ID and the values to fill in
+     * @return the number of rows updated
+     */
+    public int updateImputed(List<RollerCoasterEntity> coasters) {
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_IMPUTED, coasters, batchSize, (ps, coaster) -> {
+            ps.setBigDecimal(1, coaster.getLength());
+            ps.setBigDecimal(2, coaster.getHeight());
+            ps.setBigDecimal(3, coaster.getDrop());
+            ps.setBigDecimal(4, coaster.getInversionCount());
+            ps.setBigDecimal(5, coaster.getSpeed());
+            ps.setBigDecimal(6, coaster.getVerticalAngle());
+            ps.setString(7, coaster.getRestraints());
+            ps.setBigDecimal(8, coaster.getGForce());
+            ps.setString(9, coaster.getIntensity());
+            ps.setBigDecimal(10, coaster.getDuration());
+            ps.setLong(11, coaster.getId());
+        });
+        return sum(counts);
+    }
+
+    private static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,81 @@
+package app.molby.rcrecommender.domain.coaster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+/**
+ * JDBC repository that reads the {@code roller_coasters} table through a
+ * forward-only cursor.
+ *
+ * <p>Rows are fetched from the database {@code roller-coasters.stream.fetch-size}
+ * at a time and handed to the caller one by one, so memory use does not grow
+ * with the size of the catalog. The PostgreSQL driver only honours the fetch
+ * size inside a transaction, hence {@link Transactional}. Rows are not managed
+ * by the persistence context.</p>
+ * @author Bob Molby
+ */
+@Repository
+public class RollerCoasterCursorRepository {
+
+    private static final String SELECT_AFTER = """
+            SELECT id, name, amusement_park, type, design, status, manufacturer, model,
+                   imputed_length, imputed_height, imputed_drop, imputed_inversion_count,
+                   imputed_speed, imputed_vertical_angle, imputed_restraints, imputed_g_force,
+                   imputed_intensity, imputed_duration, country, average_rating
+            FROM roller_coasters
+            WHERE id > ?
+            ORDER BY id
+            """;
+
+    private static final RowMapper<RollerCoasterEntity> ROW_MAPPER = (rs, rowNum) -> {
+        RollerCoasterEntity coaster = new RollerCoasterEntity();
+        coaster.setId(rs.getLong("id"));
+        coaster.setName(rs.getString("name"));
+        coaster.setAmusementPark(rs.getString("amusement_park"));
+        coaster.setType(rs.getString("type"));
+        coaster.setDesign(rs.getString("design"));
+        coaster.setStatus(rs.getString("status"));
+        coaster.setManufacturer(rs.getString("manufacturer"));
+        coaster.setModel(rs.getString("model"));
+        coaster.setLength(rs.getBigDecimal("imputed_length"));
+        coaster.setHeight(rs.getBigDecimal("imputed_height"));
+        coaster.setDrop(rs.getBigDecimal("imputed_drop"));
+        coaster.setInversionCount(rs.getBigDecimal("imputed_inversion_count"));
+        coaster.setSpeed(rs.getBigDecimal("imputed_speed"));
+        coaster.setVerticalAngle(rs.getBigDecimal("imputed_vertical_angle"));
+        coaster.setRestraints(rs.getString("imputed_restraints"));
+        coaster.setGForce(rs.getBigDecimal("imputed_g_force"));
+        coaster.setIntensity(rs.getString("imputed_intensity"));
+        coaster.setDuration(rs.getBigDecimal("imputed_duration"));
+        coaster.setCountry(rs.getString("country"));
+        coaster.setAverageRating(rs.getBigDecimal("average_rating"));
+        return coaster;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RollerCoasterCursorRepository(DataSource dataSource,
+                                         @Value("${roller-coasters.stream.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Reads every coaster after a key in ID order and passes each one to the consumer.
+     *
+     * @param afterId  the ID after which to start; {@code null} starts at the beginning
+     * @param consumer receives each coaster as it is read
+     */
+    @Transactional(readOnly = true)
+    public void forEachAfter(Long afterId, Consumer<RollerCoasterEntity> consumer) {
+        jdbcTemplate.query(SELECT_AFTER,
+                rs -> { consumer.accept(ROW_MAPPER.mapRow(rs, 0)); },
+                afterId == null ? Long.MIN_VALUE : afterId);
+    }
+}
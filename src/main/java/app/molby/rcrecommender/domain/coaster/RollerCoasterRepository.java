@@ -1,10 +1,25 @@
 package app.molby.rcrecommender.domain.coaster;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 /**
  * RollerCoasterRepository Spring Data repository interface for persistence operations.
  * @author Bob Molby
  */
 public interface RollerCoasterRepository extends JpaRepository<RollerCoasterEntity, Long> {
+
+    /**
+     * Find the ranking columns of every coaster in one query, without loading entities.
+     *
+     * @return a summary per coaster
+     */
+    @Query("""
+            SELECT new app.molby.rcrecommender.domain.coaster.RollerCoasterSummary(
+                c.id, c.name, c.amusementPark, c.country, c.averageRating)
+            FROM RollerCoasterEntity c
+            """)
+    List<RollerCoasterSummary> findAllSummaries();
 }
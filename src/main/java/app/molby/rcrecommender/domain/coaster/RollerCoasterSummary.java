@@ -0,0 +1,18 @@
+package app.molby.rcrecommender.domain.coaster;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of the columns needed to rank roller coasters, selected
+ * without hydrating {@link RollerCoasterEntity} instances.
+ *
+ * @param id            the coaster ID
+ * @param name          the coaster name
+ * @param amusementPark the park the coaster is located in
+ * @param country       the country the coaster is located in
+ * @param averageRating the average user rating, or {@code null} if unrated
+ * @author Bob Molby
+ */
+public record RollerCoasterSummary(Long id, String name, String amusementPark,
+                                   String country, BigDecimal averageRating) {
+}
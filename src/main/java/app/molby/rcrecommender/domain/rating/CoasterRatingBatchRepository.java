@@ -0,0 +1,185 @@
+package app.molby.rcrecommender.domain.rating;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JDBC repository for writing many {@code user_roller_coaster_ratings} rows at once.
+ *
+ * <p>{@link CoasterRatingEntity} uses an identity key, which keeps Hibernate from
+ * batching inserts, so bulk writes bypass JPA and go out in chunks of
+ * {@code ratings.bulk.jdbc-batch-size} rows, keyed on the
+ * {@code (user_id, roller_coaster_id)} unique index
+ * (see {@code db/user_roller_coaster_ratings_unique.sql}).</p>
+ *
+ * <p>{@link #upsertAll} reports, per pair, whether it inserted a new rating or
+ * replaced one, and the replaced value. Inserts use {@code ON CONFLICT DO NOTHING},
+ * so of two concurrent uploads of the same new pair exactly one sees it as an
+ * insert; the other waits for it, then locks and updates the committed row.</p>
+ * @author Bob Molby
+ */
+@Repository
+public class CoasterRatingBatchRepository {
+
+    private static final String INSERT_ABSENT = """
+            INSERT INTO user_roller_coaster_ratings (user_id, roller_coaster_id, rating)
+            SELECT * FROM unnest(?::varchar[], ?::bigint[], ?::numeric[])
+            ON CONFLICT (user_id, roller_coaster_id) DO NOTHING
+            RETURNING user_id, roller_coaster_id
+            """;
+
+    private static final String LOCK_EXISTING = """
+            SELECT r.user_id, r.roller_coaster_id, r.rating
+            FROM user_roller_coaster_ratings r
+            JOIN unnest(?::varchar[], ?::bigint[]) AS k(user_id, roller_coaster_id)
+              ON r.user_id = k.user_id AND r.roller_coaster_id = k.roller_coaster_id
+            ORDER BY r.user_id, r.roller_coaster_id
+            FOR UPDATE OF r
+            """;
+
+    private static final String UPDATE = """
+            UPDATE user_roller_coaster_ratings SET rating = ?
+            WHERE user_id = ? AND roller_coaster_id = ?
+            """;
+
+    /** Orders writes so concurrent uploads take row locks in the same order. */
+    private static final Comparator<CoasterRatingValue> PAIR_ORDER = Comparator
+            .comparing(CoasterRatingValue::userId)
+            .thenComparingLong(CoasterRatingValue::coasterId);
+
+    private static final String SELECT_EXISTING_USERS = "SELECT id FROM app_user WHERE id = ANY(?)";
+
+    private static final RowMapper<CoasterRatingValue> ROW_MAPPER = (rs, rowNum) -> new CoasterRatingValue(
+            rs.getString("user_id"),
+            rs.getLong("roller_coaster_id"),
+            rs.getBigDecimal("rating"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public CoasterRatingBatchRepository(JdbcTemplate jdbcTemplate,
+                                        @Value("${ratings.bulk.jdbc-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts the ratings, replacing the value of any pair that is already rated.
+     * Must run inside a transaction, which keeps replaced rows locked until it ends.
+     *
+     * @param ratings the ratings to write, at most one per {@code (user, coaster)} pair
+     * @return the previous values of the pairs that were replaced; every other pair was inserted
+     */
+    public List<CoasterRatingValue> upsertAll(Collection<CoasterRatingValue> ratings) {
+        List<CoasterRatingValue> pending = new ArrayList<>(ratings);
+        pending.sort(PAIR_ORDER);
+        List<CoasterRatingValue> replaced = new ArrayList<>();
+        while (!pending.isEmpty()) {
+            Set<Pair> inserted = insertAbsent(pending);
+            List<CoasterRatingValue> conflicting = pending.stream()
+                    .filter(rating -> !inserted.contains(Pair.of(rating)))
+                    .toList();
+            List<CoasterRatingValue> existing = lockExisting(conflicting);
+            Set<Pair> existingPairs = new HashSet<>();
+            existing.forEach(rating -> existingPairs.add(Pair.of(rating)));
+            List<CoasterRatingValue> updates = conflicting.stream()
+                    .filter(rating -> existingPairs.contains(Pair.of(rating)))
+                    .toList();
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE, updates, batchSize, (ps, rating) -> {
+                    ps.setBigDecimal(1, rating.rating());
+                    ps.setString(2, rating.userId());
+                    ps.setLong(3, rating.coasterId());
+                });
+            }
+            replaced.addAll(existing);
+            // Conflicting pairs deleted before they could be locked are inserted on the next pass
+            pending = conflicting.stream()
+                    .filter(rating -> !existingPairs.contains(Pair.of(rating)))
+                    .toList();
+        }
+        return replaced;
+    }
+
+    /**
+     * Inserts the ratings whose pair is not rated yet, waiting for concurrent
+     * inserts of the same pair to commit or roll back.
+     *
+     * @return the pairs this call inserted
+     */
+    private Set<Pair> insertAbsent(List<CoasterRatingValue> ratings) {
+        Set<Pair> inserted = new HashSet<>();
+        for (int from = 0; from < ratings.size(); from += batchSize) {
+            List<CoasterRatingValue> chunk = ratings.subList(from, Math.min(from + batchSize, ratings.size()));
+            String[] userIds = chunk.stream().map(CoasterRatingValue::userId).toArray(String[]::new);
+            Long[] coasterIds = chunk.stream().map(CoasterRatingValue::coasterId).toArray(Long[]::new);
+            BigDecimal[] values = chunk.stream().map(CoasterRatingValue::rating).toArray(BigDecimal[]::new);
+            inserted.addAll(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_ABSENT);
+                ps.setArray(1, con.createArrayOf("varchar", userIds));
+                ps.setArray(2, con.createArrayOf("bigint", coasterIds));
+                ps.setArray(3, con.createArrayOf("numeric", values));
+                return ps;
+            }, (rs, rowNum) -> new Pair(rs.getString("user_id"), rs.getLong("roller_coaster_id"))));
+        }
+        return inserted;
+    }
+
+    /**
+     * Reads and row-locks the stored ratings for the given {@code (user, coaster)}
+     * pairs, so their previous values stay valid until the caller's transaction
+     * commits.
+     *
+     * @param ratings the pairs to look up; rating values are ignored
+     * @return the stored ratings of the pairs that already exist
+     */
+    private List<CoasterRatingValue> lockExisting(Collection<CoasterRatingValue> ratings) {
+        if (ratings.isEmpty()) {
+            return List.of();
+        }
+        String[] userIds = ratings.stream().map(CoasterRatingValue::userId).toArray(String[]::new);
+        Long[] coasterIds = ratings.stream().map(CoasterRatingValue::coasterId).toArray(Long[]::new);
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_EXISTING);
+            ps.setArray(1, con.createArrayOf("varchar", userIds));
+            ps.setArray(2, con.createArrayOf("bigint", coasterIds));
+            return ps;
+        }, ROW_MAPPER);
+    }
+
+    /**
+     * Filters user IDs down to those that exist, in one query.
+     *
+     * @param userIds the IDs to check
+     * @return the subset of {@code userIds} present in {@code app_user}
+     */
+    public Set<String> findExistingUserIds(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        String[] ids = userIds.toArray(String[]::new);
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_EXISTING_USERS);
+            ps.setArray(1, con.createArrayOf("varchar", ids));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+
+    private record Pair(String userId, long coasterId) {
+
+        static Pair of(CoasterRatingValue rating) {
+            return new Pair(rating.userId(), rating.coasterId());
+        }
+    }
+}
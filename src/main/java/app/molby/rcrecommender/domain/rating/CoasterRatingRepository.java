@@ -1,10 +1,120 @@
 package app.molby.rcrecommender.domain.rating;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * CoasterRatingRepository Spring Data repository interface for persistence operations.
  * @author Bob Molby
  */
 public interface CoasterRatingRepository extends JpaRepository<CoasterRatingEntity, Long> {
+
+    /**
+     * Find a rating and lock its row ({@code SELECT ... FOR UPDATE}) until the
+     * transaction ends. Updates and deletes read the old value through this, so
+     * two concurrent writes to one rating cannot both derive their
+     * {@link CoasterRatingStats} delta from the same old value.
+     *
+     * @param id the rating ID
+     * @return the locked rating, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CoasterRatingEntity> findLockedById(Long id);
+
+    /**
+     * Find a user's rating of a coaster; served by the {@code (user_id, roller_coaster_id)}
+     * unique index.
+     *
+     * @param userId    the rating user
+     * @param coasterId the rated coaster
+     * @return the rating, if the user has rated the coaster
+     */
+    Optional<CoasterRatingEntity> findByUserIdAndCoasterId(String userId, Long coasterId);
+
+    /**
+     * Find a user's ratings as {@code (coaster_id, rating)} pairs without loading
+     * any entities. Ratings without a coaster are skipped, matching
+     * {@link app.molby.rcrecommender.domain.user.UserEntity#getCoasterRatings()}.
+     *
+     * @param userId the user whose ratings are requested
+     * @return the user's ratings
+     */
+    @Query("""
+            SELECT new app.molby.rcrecommender.domain.rating.CoasterRatingValue(r.userId, r.coasterId, r.rating)
+            FROM CoasterRatingEntity r
+            WHERE r.userId = ?1 AND r.coasterId IS NOT NULL
+            """)
+    List<CoasterRatingValue> findRatingValuesByUserId(String userId);
+
+    /**
+     * Bulk variant of {@link #findRatingValuesByUserId(String)} for many users in
+     * one round trip.
+     *
+     * @param userIds the users whose ratings are requested
+     * @return the ratings of all given users
+     */
+    @Query("""
+            SELECT new app.molby.rcrecommender.domain.rating.CoasterRatingValue(r.userId, r.coasterId, r.rating)
+            FROM CoasterRatingEntity r
+            WHERE r.userId IN ?1 AND r.coasterId IS NOT NULL
+            """)
+    List<CoasterRatingValue> findRatingValuesByUserIdIn(Collection<String> userIds);
+
+    /**
+     * Seek to the ratings after an ID. Returns a {@link Slice}, so no count query
+     * is issued; callers pass a first-page {@link Pageable} sorted by ID.
+     *
+     * @param afterId  the last ID of the previous page
+     * @param pageable page size and ID sort
+     * @return the next ratings in ID order
+     */
+    Slice<CoasterRatingEntity> findByIdGreaterThan(Long afterId, Pageable pageable);
+
+    /**
+     * {@link #findByIdGreaterThan} restricted to one user; served by the
+     * {@code (user_id, id)} index.
+     */
+    Slice<CoasterRatingEntity> findByUserIdAndIdGreaterThan(String userId, Long afterId, Pageable pageable);
+
+    /**
+     * {@link #findByIdGreaterThan} restricted to one coaster; served by the
+     * {@code (roller_coaster_id, id)} index.
+     */
+    Slice<CoasterRatingEntity> findByCoasterIdAndIdGreaterThan(Long coasterId, Long afterId, Pageable pageable);
+
+    /**
+     * {@link #findByIdGreaterThan} restricted to one user's rating of one coaster.
+     */
+    Slice<CoasterRatingEntity> findByUserIdAndCoasterIdAndIdGreaterThan(String userId, Long coasterId,
+                                                                         Long afterId, Pageable pageable);
+
+    /**
+     * Seek to a user's ratings after an ID as {@link CoasterRatingRow} projections;
+     * served by the {@code (user_id, id)} index.
+     *
+     * @param userId   the user whose ratings are requested
+     * @param afterId  the last ID of the previous page
+     * @param pageable page size and ID sort
+     * @return the user's next ratings in ID order
+     */
+    Slice<CoasterRatingRow> findRowsByUserIdAndIdGreaterThan(String userId, Long afterId, Pageable pageable);
+
+    /**
+     * Seek to a coaster's ratings after an ID as {@link CoasterRatingRow} projections;
+     * served by the {@code (roller_coaster_id, id)} index.
+     *
+     * @param coasterId the coaster whose ratings are requested
+     * @param afterId   the last ID of the previous page
+     * @param pageable  page size and ID sort
+     * @return the coaster's next ratings in ID order
+     */
+    Slice<CoasterRatingRow> findRowsByCoasterIdAndIdGreaterThan(Long coasterId, Long afterId, Pageable pageable);
 }
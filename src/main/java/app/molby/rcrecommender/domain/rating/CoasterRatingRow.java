@@ -0,0 +1,16 @@
+package app.molby.rcrecommender.domain.rating;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a rating row, selected without hydrating
+ * {@link CoasterRatingEntity} instances or their owning user.
+ *
+ * @param id        the rating ID
+ * @param userId    the rating user's ID
+ * @param coasterId the rated coaster's ID
+ * @param rating    the rating value
+ * @author Bob Molby
+ */
+public record CoasterRatingRow(Long id, String userId, Long coasterId, BigDecimal rating) {
+}
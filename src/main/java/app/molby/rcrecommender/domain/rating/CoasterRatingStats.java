@@ -0,0 +1,120 @@
+package app.molby.rcrecommender.domain.rating;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running rating statistics of one coaster, as stored in {@code coaster_rating_stats}.
+ *
+ * <p>The same record doubles as a delta applied by
+ * {@link CoasterRatingStatsRepository#apply(Collection)}: a new rating adds
+ * {@code (1, r, r²)}, a deleted one subtracts it and an edited one adds
+ * {@code (0, new - old, new² - old²)}. Mean and variance are derived from the
+ * three sums on read.</p>
+ *
+ * @param coasterId        the coaster ID
+ * @param ratingCount      the number of ratings
+ * @param ratingSum        the sum of all ratings
+ * @param ratingSumSquares the sum of all squared ratings
+ * @author Bob Molby
+ */
+public record CoasterRatingStats(long coasterId, long ratingCount, BigDecimal ratingSum,
+                                 BigDecimal ratingSumSquares) {
+
+    /**
+     * Statistics of a coaster without ratings.
+     *
+     * @param coasterId the coaster ID
+     * @return zero count and sums
+     */
+    public static CoasterRatingStats empty(long coasterId) {
+        return new CoasterRatingStats(coasterId, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    /**
+     * Delta contributed by a single rating.
+     *
+     * @param coasterId the rated coaster
+     * @param rating    the rating value
+     * @return a delta of one rating
+     */
+    public static CoasterRatingStats of(long coasterId, BigDecimal rating) {
+        return new CoasterRatingStats(coasterId, 1, rating, rating.multiply(rating));
+    }
+
+    /**
+     * Delta of replacing one rating value by another on the same coaster.
+     *
+     * @param coasterId the rated coaster
+     * @param oldRating the previous rating value
+     * @param newRating the new rating value
+     * @return a delta that leaves the count unchanged
+     */
+    public static CoasterRatingStats change(long coasterId, BigDecimal oldRating, BigDecimal newRating) {
+        return of(coasterId, newRating).plus(of(coasterId, oldRating).negate());
+    }
+
+    /**
+     * Sums the deltas of many ratings into one delta per coaster.
+     *
+     * @param ratings the ratings; ratings without a coaster or value are skipped
+     * @return one delta per rated coaster
+     */
+    public static List<CoasterRatingStats> aggregate(Collection<CoasterRatingValue> ratings) {
+        Map<Long, CoasterRatingStats> byCoaster = new LinkedHashMap<>();
+        for (CoasterRatingValue value : ratings) {
+            if (value.coasterId() != null && value.rating() != null) {
+                byCoaster.merge(value.coasterId(), of(value.coasterId(), value.rating()), CoasterRatingStats::plus);
+            }
+        }
+        return List.copyOf(byCoaster.values());
+    }
+
+    /**
+     * @param other statistics of the same coaster
+     * @return the element-wise sum of both
+     */
+    public CoasterRatingStats plus(CoasterRatingStats other) {
+        return new CoasterRatingStats(coasterId, ratingCount + other.ratingCount,
+                ratingSum.add(other.ratingSum), ratingSumSquares.add(other.ratingSumSquares));
+    }
+
+    /**
+     * @return the delta that undoes this one
+     */
+    public CoasterRatingStats negate() {
+        return new CoasterRatingStats(coasterId, -ratingCount, ratingSum.negate(), ratingSumSquares.negate());
+    }
+
+    /**
+     * @return the mean rating rounded to two decimals, or {@code null} without ratings
+     */
+    public BigDecimal mean() {
+        if (ratingCount <= 0) {
+            return null;
+        }
+        return ratingSum.divide(BigDecimal.valueOf(ratingCount), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Population variance {@code (Σr² - (Σr)²/n) / n}. The sums are exact
+     * decimals, so the subtraction does not lose precision the way a running
+     * floating-point total would.
+     *
+     * @return the variance of the ratings, or {@code null} without ratings
+     */
+    public Double variance() {
+        if (ratingCount <= 0) {
+            return null;
+        }
+        BigDecimal n = BigDecimal.valueOf(ratingCount);
+        BigDecimal squaredSumOverN = ratingSum.multiply(ratingSum).divide(n, MathContext.DECIMAL64);
+        double variance = ratingSumSquares.subtract(squaredSumOverN).divide(n, MathContext.DECIMAL64).doubleValue();
+        return Math.max(variance, 0.0);
+    }
+}
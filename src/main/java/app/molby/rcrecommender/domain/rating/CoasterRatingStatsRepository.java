@@ -0,0 +1,96 @@
+package app.molby.rcrecommender.domain.rating;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC repository for the {@code coaster_rating_stats} table, which holds a
+ * running count, sum and sum of squares of the ratings of each coaster.
+ *
+ * <p>Rows are only ever changed by adding deltas in a single upsert, so
+ * concurrent rating writes on the same coaster serialize on its row instead of
+ * overwriting each other. See {@code db/coaster_rating_stats.sql} for the schema.</p>
+ * @author Bob Molby
+ */
+@Repository
+@RequiredArgsConstructor
+public class CoasterRatingStatsRepository {
+
+    private static final String APPLY = """
+            INSERT INTO coaster_rating_stats (roller_coaster_id, rating_count, rating_sum, rating_sum_squares, updated_at)
+            VALUES (?, ?, ?, ?, now())
+            ON CONFLICT (roller_coaster_id) DO UPDATE
+            SET rating_count = coaster_rating_stats.rating_count + EXCLUDED.rating_count,
+                rating_sum = coaster_rating_stats.rating_sum + EXCLUDED.rating_sum,
+                rating_sum_squares = coaster_rating_stats.rating_sum_squares + EXCLUDED.rating_sum_squares,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String SELECT = """
+            SELECT roller_coaster_id, rating_count, rating_sum, rating_sum_squares
+            FROM coaster_rating_stats
+            """;
+
+    private static final RowMapper<CoasterRatingStats> ROW_MAPPER = (rs, rowNum) -> new CoasterRatingStats(
+            rs.getLong("roller_coaster_id"),
+            rs.getLong("rating_count"),
+            rs.getBigDecimal("rating_sum"),
+            rs.getBigDecimal("rating_sum_squares"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds one delta to a coaster's statistics, creating the row if needed.
+     *
+     * @param delta the change in count, sum and sum of squares
+     */
+    public void apply(CoasterRatingStats delta) {
+        jdbcTemplate.update(APPLY, delta.coasterId(), delta.ratingCount(),
+                delta.ratingSum(), delta.ratingSumSquares());
+    }
+
+    /**
+     * Adds many deltas in one JDBC batch.
+     *
+     * @param deltas the changes, at most one per coaster
+     */
+    public void apply(Collection<CoasterRatingStats> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        for (CoasterRatingStats delta : deltas) {
+            batchArgs.add(new Object[]{delta.coasterId(), delta.ratingCount(),
+                    delta.ratingSum(), delta.ratingSumSquares()});
+        }
+        jdbcTemplate.batchUpdate(APPLY, batchArgs);
+    }
+
+    /**
+     * Finds the statistics of one coaster.
+     *
+     * @param coasterId the coaster to look up
+     * @return the statistics, if the coaster has ever been rated
+     */
+    public Optional<CoasterRatingStats> findByCoasterId(long coasterId) {
+        return jdbcTemplate.query(SELECT + " WHERE roller_coaster_id = ?", ROW_MAPPER, coasterId)
+                .stream().findFirst();
+    }
+
+    /**
+     * Reads the statistics of every rated coaster; a primary-key scan of one
+     * small row per coaster.
+     *
+     * @return all statistics rows
+     */
+    public List<CoasterRatingStats> findAll() {
+        return jdbcTemplate.query(SELECT, ROW_MAPPER);
+    }
+}
@@ -0,0 +1,15 @@
+package app.molby.rcrecommender.domain.rating;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a single rating as a {@code (roller_coaster_id, rating)}
+ * pair, selected without hydrating {@link CoasterRatingEntity} instances.
+ *
+ * @param userId    the rating user's ID
+ * @param coasterId the rated coaster's ID
+ * @param rating    the rating value
+ * @author Bob Molby
+ */
+public record CoasterRatingValue(String userId, Long coasterId, BigDecimal rating) {
+}
@@ -0,0 +1,25 @@
+package app.molby.rcrecommender.domain.recommendation;
+
+import java.time.Instant;
+
+/**
+ * Progress of a recommendation materialization job, as stored in
+ * {@code recommendation_materialization_checkpoint}.
+ *
+ * @param jobName      the job the checkpoint belongs to
+ * @param runStartedAt when the current (or last) run started
+ * @param lastUserId   the last user ID of the most recent committed chunk, or
+ *                     {@code null} if no chunk has been committed in this run
+ * @param completedAt  when the run finished, or {@code null} while it is in progress
+ * @author Bob Molby
+ */
+public record MaterializationCheckpoint(String jobName, Instant runStartedAt,
+                                        String lastUserId, Instant completedAt) {
+
+    /**
+     * @return whether the run walked every user
+     */
+    public boolean isComplete() {
+        return completedAt != null;
+    }
+}
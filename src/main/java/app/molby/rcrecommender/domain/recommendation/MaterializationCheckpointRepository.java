@@ -0,0 +1,89 @@
+package app.molby.rcrecommender.domain.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC repository for {@code recommendation_materialization_checkpoint}.
+ * See {@code db/user_recommendations.sql} for the schema.
+ * @author Bob Molby
+ */
+@Repository
+@RequiredArgsConstructor
+public class MaterializationCheckpointRepository {
+
+    private static final String SELECT = """
+            SELECT job_name, run_started_at, last_user_id, completed_at
+            FROM recommendation_materialization_checkpoint
+            WHERE job_name = ?
+            """;
+
+    private static final String START = """
+            INSERT INTO recommendation_materialization_checkpoint (job_name, run_started_at)
+            VALUES (?, ?)
+            ON CONFLICT (job_name) DO UPDATE
+            SET run_started_at = EXCLUDED.run_started_at,
+                last_user_id = NULL,
+                completed_at = NULL
+            """;
+
+    private static final String ADVANCE =
+            "UPDATE recommendation_materialization_checkpoint SET last_user_id = ? WHERE job_name = ?";
+
+    private static final String COMPLETE =
+            "UPDATE recommendation_materialization_checkpoint SET completed_at = ? WHERE job_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads a job's checkpoint.
+     *
+     * @param jobName the job name
+     * @return the checkpoint, if the job has ever run
+     */
+    public Optional<MaterializationCheckpoint> find(String jobName) {
+        List<MaterializationCheckpoint> rows = jdbcTemplate.query(SELECT, (rs, rowNum) -> new MaterializationCheckpoint(
+                rs.getString("job_name"),
+                rs.getTimestamp("run_started_at").toInstant(),
+                rs.getString("last_user_id"),
+                Optional.ofNullable(rs.getTimestamp("completed_at")).map(Timestamp::toInstant).orElse(null)
+        ), jobName);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Starts a new run from the first user, discarding any previous progress.
+     *
+     * @param jobName   the job name
+     * @param startedAt when the run started
+     */
+    public void start(String jobName, Instant startedAt) {
+        jdbcTemplate.update(START, jobName, Timestamp.from(startedAt));
+    }
+
+    /**
+     * Records that every user up to and including {@code lastUserId} has been processed.
+     *
+     * @param jobName    the job name
+     * @param lastUserId the last user ID of the committed chunk
+     */
+    public void advance(String jobName, String lastUserId) {
+        jdbcTemplate.update(ADVANCE, lastUserId, jobName);
+    }
+
+    /**
+     * Marks the current run as finished.
+     *
+     * @param jobName     the job name
+     * @param completedAt when the run finished
+     */
+    public void complete(String jobName, Instant completedAt) {
+        jdbcTemplate.update(COMPLETE, Timestamp.from(completedAt), jobName);
+    }
+}
@@ -0,0 +1,133 @@
+package app.molby.rcrecommender.domain.recommendation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC repository for the {@code user_recommendations} table, which holds
+ * precomputed recommendations as a JSON document per user.
+ *
+ * <p>The table is not mapped as a JPA entity: rows are written in bulk by the
+ * materialization task and read as a single column, so no entity state is needed.
+ * See {@code db/user_recommendations.sql} for the schema.</p>
+ * @author Bob Molby
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserRecommendationRepository {
+
+    private static final String SELECT_FRESH = """
+            SELECT recommendations
+            FROM user_recommendations
+            WHERE user_id = ?
+              AND recommendations IS NOT NULL
+              AND computed_at >= ?
+              AND (invalidated_at IS NULL OR invalidated_at < computed_at)
+            """;
+
+    /**
+     * Upserts a computed row unless the user was invalidated after the row's
+     * inputs were read, in which case the stale result is dropped.
+     */
+    private static final String UPSERT = """
+            INSERT INTO user_recommendations (user_id, recommendations, computed_at)
+            VALUES (?, CAST(? AS jsonb), ?)
+            ON CONFLICT (user_id) DO UPDATE
+            SET recommendations = EXCLUDED.recommendations,
+                computed_at = EXCLUDED.computed_at
+            WHERE user_recommendations.invalidated_at IS NULL
+               OR user_recommendations.invalidated_at < EXCLUDED.computed_at
+            """;
+
+    private static final String INVALIDATE = """
+            INSERT INTO user_recommendations (user_id, invalidated_at)
+            VALUES (?, ?)
+            ON CONFLICT (user_id) DO UPDATE
+            SET invalidated_at = EXCLUDED.invalidated_at
+            """;
+
+    private static final String INVALIDATE_MANY = """
+            INSERT INTO user_recommendations (user_id, invalidated_at)
+            SELECT user_id, ? FROM unnest(?::varchar[]) AS u(user_id)
+            ON CONFLICT (user_id) DO UPDATE
+            SET invalidated_at = EXCLUDED.invalidated_at
+            """;
+
+    private static final String INVALIDATE_ALL = "UPDATE user_recommendations SET invalidated_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Finds a user's precomputed recommendations if they are still fresh.
+     *
+     * @param userId        the user to look up
+     * @param computedAfter oldest acceptable computation time
+     * @return the recommendations as a JSON array, if a fresh row exists
+     */
+    public Optional<String> findFresh(String userId, Instant computedAfter) {
+        List<String> rows = jdbcTemplate.queryForList(SELECT_FRESH, String.class,
+                userId, Timestamp.from(computedAfter));
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Stores precomputed recommendations for many users in one JDBC batch.
+     *
+     * @param recommendationsByUser JSON array of recommendations keyed by user ID
+     * @param computedAt            when the inputs for these results were read
+     */
+    public void saveAll(Map<String, String> recommendationsByUser, Instant computedAt) {
+        Timestamp computed = Timestamp.from(computedAt);
+        List<Object[]> batchArgs = new ArrayList<>(recommendationsByUser.size());
+        recommendationsByUser.forEach((userId, json) -> batchArgs.add(new Object[]{userId, json, computed}));
+        jdbcTemplate.batchUpdate(UPSERT, batchArgs);
+    }
+
+    /**
+     * Marks a user's precomputed recommendations as stale.
+     *
+     * @param userId the user whose inputs changed
+     * @param at     when the inputs changed
+     */
+    public void invalidate(String userId, Instant at) {
+        jdbcTemplate.update(INVALIDATE, userId, Timestamp.from(at));
+    }
+
+    /**
+     * Marks many users' precomputed recommendations as stale in one statement.
+     *
+     * @param userIds the users whose inputs changed
+     * @param at      when the inputs changed
+     */
+    public void invalidate(Collection<String> userIds, Instant at) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String[] ids = userIds.toArray(String[]::new);
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INVALIDATE_MANY);
+            ps.setTimestamp(1, Timestamp.from(at));
+            ps.setArray(2, con.createArrayOf("varchar", ids));
+            return ps;
+        });
+    }
+
+    /**
+     * Marks every user's precomputed recommendations as stale.
+     *
+     * @param at when the inputs changed
+     */
+    public void invalidateAll(Instant at) {
+        jdbcTemplate.update(INVALIDATE_ALL, Timestamp.from(at));
+    }
+}
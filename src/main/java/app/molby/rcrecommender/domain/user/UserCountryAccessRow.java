@@ -0,0 +1,15 @@
+package app.molby.rcrecommender.domain.user;
+
+/**
+ * Read-only projection pairing a user's home country with one country it gives
+ * access to, as returned by {@link UserRepository#findCountryAccessByUserId(String)}
+ * and {@link UserRepository#findCountryAccessByUserIdIn(java.util.Collection)}.
+ *
+ * @param userId            the user's ID
+ * @param country           the user's home country
+ * @param accessibleCountry an accessible country, or {@code null} when the home
+ *                          country has no access rules
+ * @author Bob Molby
+ */
+public record UserCountryAccessRow(String userId, String country, String accessibleCountry) {
+}
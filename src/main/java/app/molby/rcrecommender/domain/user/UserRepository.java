@@ -1,10 +1,63 @@
 package app.molby.rcrecommender.domain.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * UserRepository Spring Data repository interface for persistence operations.
  * @author Bob Molby
  */
 public interface UserRepository extends JpaRepository<UserEntity, String> {
+
+    /**
+     * Find a user's home country together with every country it gives access to,
+     * in a single query and without loading any entities.
+     *
+     * <p>Returns one row per accessible country, or a single row with a
+     * {@code null} accessible country when the home country has no access rules.</p>
+     *
+     * @param userId the user to look up
+     * @return the user's country access rows; empty when the user does not exist
+     */
+    @Query("""
+            SELECT new app.molby.rcrecommender.domain.user.UserCountryAccessRow(u.id, u.country, ac.countryName)
+            FROM UserEntity u
+            LEFT JOIN CountryEntity sc ON sc.countryName = u.country
+            LEFT JOIN CountryAccessEntity ca ON ca.sourceCountry = sc
+            LEFT JOIN ca.accessibleCountry ac
+            WHERE u.id = ?1
+            """)
+    List<UserCountryAccessRow> findCountryAccessByUserId(String userId);
+
+    /**
+     * Bulk variant of {@link #findCountryAccessByUserId(String)} for many users
+     * in one round trip.
+     *
+     * @param userIds the users to look up
+     * @return country access rows for every user that exists; unknown IDs have no rows
+     */
+    @Query("""
+            SELECT new app.molby.rcrecommender.domain.user.UserCountryAccessRow(u.id, u.country, ac.countryName)
+            FROM UserEntity u
+            LEFT JOIN CountryEntity sc ON sc.countryName = u.country
+            LEFT JOIN CountryAccessEntity ca ON ca.sourceCountry = sc
+            LEFT JOIN ca.accessibleCountry ac
+            WHERE u.id IN ?1
+            """)
+    List<UserCountryAccessRow> findCountryAccessByUserIdIn(Collection<String> userIds);
+
+    /**
+     * Keyset page of user IDs: the IDs strictly after {@code afterId} in ascending
+     * order. Pass an empty string for the first page.
+     *
+     * @param afterId  the last ID of the previous page
+     * @param pageable page size; the page number must be 0
+     * @return the next user IDs
+     */
+    @Query("SELECT u.id FROM UserEntity u WHERE u.id > ?1 ORDER BY u.id")
+    List<String> findIdsAfter(String afterId, Pageable pageable);
 }
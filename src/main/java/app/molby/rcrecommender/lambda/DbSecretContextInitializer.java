@@ -0,0 +1,44 @@
+package app.molby.rcrecommender.lambda;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * Adds a pending {@link DbSecretPropertySource} to the application's environment, ranked
+ * just below system properties.
+ *
+ * <p>The Lambda container handler builds the {@code SpringApplication} itself, so this
+ * initializer is wired in through Boot's {@code context.initializer.classes} property by
+ * {@link #register(DbSecretPropertySource)}.</p>
+ * @author Bob Molby
+ */
+public class DbSecretContextInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static volatile DbSecretPropertySource pending;
+
+    /**
+     * Registers the secret for the application context about to be started in this JVM.
+     *
+     * @param propertySource the secret being fetched
+     */
+    public static void register(DbSecretPropertySource propertySource) {
+        pending = propertySource;
+        System.setProperty("context.initializer.classes", DbSecretContextInitializer.class.getName());
+    }
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        DbSecretPropertySource propertySource = pending;
+        if (propertySource == null) {
+            return;
+        }
+        MutablePropertySources sources = context.getEnvironment().getPropertySources();
+        if (sources.contains(StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME)) {
+            sources.addAfter(StandardEnvironment.SYSTEM_PROPERTIES_PROPERTY_SOURCE_NAME, propertySource);
+        } else {
+            sources.addFirst(propertySource);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package app.molby.rcrecommender.lambda;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Loads the database settings secret (a JSON object of Spring property names to values),
+ * caching it in a file so a Lambda sandbox that re-initializes within the TTL skips the
+ * Secrets Manager call.
+ *
+ * <p>The cache file lives under the sandbox's private {@code /tmp}, is readable by the
+ * function's user only and is named after the secret ARN, so a changed ARN never reads a
+ * stale entry. An unreadable or expired cache falls back to fetching the secret.</p>
+ * @author Bob Molby
+ */
+public class DbSecretLoader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> PROPERTIES = new TypeReference<>() {};
+
+    private final String secretArn;
+    private final Path cacheFile;
+    private final Duration ttl;
+    private final Function<String, String> fetcher;
+    private final Clock clock;
+
+    /**
+     * @param secretArn the ARN of the secret to load
+     * @param cacheDir  the directory holding the cache file
+     * @param ttl       how long a cached secret is used; zero disables the cache
+     * @param fetcher   fetches the secret string for an ARN from Secrets Manager
+     * @param clock     the clock deciding cache expiry
+     */
+    public DbSecretLoader(String secretArn, Path cacheDir, Duration ttl,
+                          Function<String, String> fetcher, Clock clock) {
+        this.secretArn = secretArn;
+        this.cacheFile = cacheDir.resolve("db-secret-" + fingerprint(secretArn) + ".json");
+        this.ttl = ttl;
+        this.fetcher = fetcher;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the secret's properties, from the cache when fresh and otherwise from
+     * Secrets Manager (refreshing the cache).
+     *
+     * @return the property names and values held in the secret
+     * @throws IllegalStateException if the secret cannot be fetched or is not a JSON object
+     */
+    public Map<String, String> load() {
+        String json = readCache();
+        if (json != null) {
+            System.out.println("DB secret loaded from " + cacheFile);
+        } else {
+            json = fetcher.apply(secretArn);
+            writeCache(json);
+        }
+        try {
+            return MAPPER.readValue(json, PROPERTIES);
+        } catch (IOException e) {
+            throw new IllegalStateException("Secret is not a JSON object of properties: " + secretArn, e);
+        }
+    }
+
+    private String readCache() {
+        if (ttl.isZero() || !Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try {
+            Instant written = Files.getLastModifiedTime(cacheFile).toInstant();
+            if (written.plus(ttl).isBefore(clock.instant())) {
+                return null;
+            }
+            return Files.readString(cacheFile);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeCache(String json) {
+        if (ttl.isZero()) {
+            return;
+        }
+        try {
+            Path tmp = Files.createTempFile(cacheFile.getParent(), "db-secret", ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+            Files.writeString(tmp, json);
+            try {
+                Files.move(tmp, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            // caching is an optimization only
+            System.err.println("Could not cache DB secret in " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    private static String fingerprint(String secretArn) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(secretArn.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package app.molby.rcrecommender.lambda;
+
+import org.springframework.core.env.PropertySource;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Exposes the database settings secret while it is still being fetched, so the Spring
+ * context can be built in parallel with the Secrets Manager call.
+ *
+ * <p>Until the fetch completes, lookups of {@code spring.datasource.*} properties wait for
+ * it and all other lookups report no value; the secret should therefore only hold
+ * datasource settings. Once the fetch completes every property in the secret resolves.</p>
+ * @author Bob Molby
+ */
+public class DbSecretPropertySource extends PropertySource<CompletableFuture<Map<String, String>>> {
+
+    public static final String NAME = "dbSecret";
+
+    private static final String DATASOURCE_PREFIX = "spring.datasource.";
+
+    public DbSecretPropertySource(CompletableFuture<Map<String, String>> secret) {
+        super(NAME, secret);
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        CompletableFuture<Map<String, String>> secret = getSource();
+        if (!secret.isDone() && !name.startsWith(DATASOURCE_PREFIX)) {
+            return null;
+        }
+        return await().get(name);
+    }
+
+    /**
+     * Waits for the secret to be fetched.
+     *
+     * @return the properties held in the secret
+     * @throws IllegalStateException if the secret could not be loaded
+     */
+    public Map<String, String> await() {
+        try {
+            return getSource().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to load the DB secret", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package app.molby.rcrecommender.task;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterBatchRepository;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterCursorRepository;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.task.configuration.EnableTask;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spring Cloud Task that imports roller coasters from a CSV file.
+ *
+ * <p>The file named by {@code coaster.import.file} is stream-parsed by
+ * {@link CoasterCsvReader} and written in chunks of {@code coaster.import.chunk-size}
+ * rows, one transaction and one JDBC batch per chunk; coasters already present
+ * (same name and park) are skipped. A second pass then loads the catalog and fills
+ * every missing {@code imputed_*} column with {@link CoasterImputer}, using the
+ * {@code coaster.import.neighbours} nearest coasters, and writes the filled values
+ * back in batches.</p>
+ *
+ * <p>Running instances pick up the new coasters on their next catalog refresh
+ * ({@code coaster.catalog.refresh-interval-ms}).</p>
+ *
+ * <p>Runs only with {@code coaster.import.enabled=true}, normally through the
+ * {@code import-catalog} profile:
+ * {@code java -jar app.jar --spring.profiles.active=import-catalog --coaster.import.file=coasters.csv}.</p>
+ * @author Bob Molby
+ */
+@Component
+@EnableTask
+@ConditionalOnProperty(name = "coaster.import.enabled", havingValue = "true")
+public class CoasterCatalogImportTask implements ApplicationRunner {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(CoasterCatalogImportTask.class);
+
+    private final RollerCoasterBatchRepository batchRepository;
+    private final RollerCoasterCursorRepository cursorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String file;
+    private final int chunkSize;
+    private final int neighbours;
+
+    public CoasterCatalogImportTask(RollerCoasterBatchRepository batchRepository,
+                                    RollerCoasterCursorRepository cursorRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${coaster.import.file}") String file,
+                                    @Value("${coaster.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${coaster.import.neighbours:5}") int neighbours) {
+        this.batchRepository = batchRepository;
+        this.cursorRepository = cursorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.file = file;
+        this.chunkSize = chunkSize;
+        this.neighbours = neighbours;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long[] inserted = {0};
+        CoasterCsvReader.Result read;
+        try (Reader reader = Files.newBufferedReader(Path.of(file))) {
+            read = CoasterCsvReader.read(reader, chunkSize, chunk ->
+                    inserted[0] += transactionTemplate.execute(status -> batchRepository.insertAllIfAbsent(chunk)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot import coasters from " + file, e);
+        }
+        LOGGER.info("Read {} coasters from {} ({} skipped as invalid), inserted {} new ones",
+                read.rows(), file, read.skipped(), inserted[0]);
+
+        int imputed = imputeMissing();
+        LOGGER.info("Imputed missing statistics of {} coasters; import finished in {} ms",
+                imputed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Fills the missing statistics of every coaster in the catalog, not only the
+     * imported ones, since new coasters are also new neighbours.
+     *
+     * @return the number of coasters updated
+     */
+    private int imputeMissing() {
+        List<RollerCoasterEntity> catalog = new ArrayList<>();
+        cursorRepository.forEachAfter(null, catalog::add);
+        List<RollerCoasterEntity> changed = new CoasterImputer(neighbours).impute(catalog);
+
+        int updated = 0;
+        for (int from = 0; from < changed.size(); from += chunkSize) {
+            List<RollerCoasterEntity> chunk = changed.subList(from, Math.min(from + chunkSize, changed.size()));
+            updated += transactionTemplate.execute(status -> batchRepository.updateImputed(chunk));
+        }
+        return updated;
+    }
+}
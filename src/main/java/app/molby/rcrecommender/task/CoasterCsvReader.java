@@ -0,0 +1,154 @@
+package app.molby.rcrecommender.task;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams roller coasters out of a CSV file with a header row.
+ *
+ * <p>Rows are parsed one at a time and handed on in chunks, so memory use is
+ * bounded by the chunk size rather than the file size. Header names are matched
+ * ignoring case, spaces, underscores and an {@code imputed} prefix, so
+ * {@code amusement_park}, {@code Amusement Park} and {@code amusementPark} are
+ * all accepted, as are the {@code roller_coasters} column names. Unknown columns
+ * are ignored. Blank cells are read as missing; rows without a name or with
+ * unparseable numbers are skipped and logged.</p>
+ * @author Bob Molby
+ */
+public final class CoasterCsvReader {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(CoasterCsvReader.class);
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    private static final CsvSchema SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private CoasterCsvReader() {
+    }
+
+    /**
+     * Counts of a completed read.
+     *
+     * @param rows    rows handed to the consumer
+     * @param skipped rows rejected as invalid
+     */
+    public record Result(long rows, long skipped) {
+    }
+
+    /**
+     * Reads every row and passes them on in chunks of {@code chunkSize}; the last
+     * chunk may be smaller.
+     *
+     * @param reader    the CSV source; not closed
+     * @param chunkSize coasters per chunk
+     * @param consumer  receives each chunk; the list is not reused
+     * @return how many rows were read and skipped
+     * @throws IOException if the source cannot be read or is not valid CSV
+     */
+    public static Result read(Reader reader, int chunkSize, Consumer<List<RollerCoasterEntity>> consumer)
+            throws IOException {
+        Map<String, String> normalizedHeaders = new HashMap<>();
+        List<RollerCoasterEntity> chunk = new ArrayList<>(chunkSize);
+        long rows = 0;
+        long skipped = 0;
+
+        MappingIterator<Map<String, String>> iterator = CSV_MAPPER.readerForMapOf(String.class)
+                .with(SCHEMA)
+                .readValues(reader);
+        while (iterator.hasNextValue()) {
+            Map<String, String> row = iterator.nextValue();
+            Map<String, String> cells = new HashMap<>(row.size());
+            row.forEach((header, value) -> cells.put(
+                    normalizedHeaders.computeIfAbsent(header, CoasterCsvReader::normalize), value));
+            try {
+                RollerCoasterEntity coaster = toCoaster(cells);
+                if (coaster == null) {
+                    skipped++;
+                    LOGGER.warn("Skipping CSV line {}: no name", iterator.getCurrentLocation().getLineNr());
+                    continue;
+                }
+                chunk.add(coaster);
+            } catch (NumberFormatException e) {
+                skipped++;
+                LOGGER.warn("Skipping CSV line {}: {}", iterator.getCurrentLocation().getLineNr(), e.getMessage());
+                continue;
+            }
+            rows++;
+            if (chunk.size() == chunkSize) {
+                consumer.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            consumer.accept(chunk);
+        }
+        return new Result(rows, skipped);
+    }
+
+    private static RollerCoasterEntity toCoaster(Map<String, String> cells) {
+        String name = text(cells, "name");
+        if (name == null) {
+            return null;
+        }
+        RollerCoasterEntity coaster = new RollerCoasterEntity();
+        coaster.setName(name);
+        coaster.setAmusementPark(text(cells, "amusementpark"));
+        coaster.setType(text(cells, "type"));
+        coaster.setDesign(text(cells, "design"));
+        coaster.setStatus(text(cells, "status"));
+        coaster.setManufacturer(text(cells, "manufacturer"));
+        coaster.setModel(text(cells, "model"));
+        coaster.setLength(number(cells, "length"));
+        coaster.setHeight(number(cells, "height"));
+        coaster.setDrop(number(cells, "drop"));
+        coaster.setInversionCount(number(cells, "inversioncount"));
+        coaster.setSpeed(number(cells, "speed"));
+        coaster.setVerticalAngle(number(cells, "verticalangle"));
+        coaster.setRestraints(text(cells, "restraints"));
+        coaster.setGForce(number(cells, "gforce"));
+        coaster.setIntensity(text(cells, "intensity"));
+        coaster.setDuration(number(cells, "duration"));
+        coaster.setCountry(text(cells, "country"));
+        return coaster;
+    }
+
+    private static String text(Map<String, String> cells, String column) {
+        String value = cells.get(column);
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static BigDecimal number(Map<String, String> cells, String column) {
+        String value = text(cells, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("invalid " + column + " '" + value + "'");
+        }
+    }
+
+    static String normalize(String header) {
+        String key = header.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        return key.startsWith("imputed") ? key.substring("imputed".length()) : key;
+    }
+}
@@ -0,0 +1,272 @@
+package app.molby.rcrecommender.task;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Fills missing {@code imputed_*} statistics of roller coasters from their
+ * nearest neighbours in the catalog.
+ *
+ * <p>Coasters are compared on the numeric statistics both of them have, each
+ * standardised by the catalog's standard deviation, plus a unit penalty for
+ * each differing type, design or manufacturer. The distance is averaged over
+ * the features compared, so coasters sharing few statistics are not favoured.
+ * A missing numeric value becomes the mean of the {@code k} nearest coasters that
+ * have it; a missing restraint or intensity becomes their most common value.</p>
+ *
+ * <p>Neighbours are searched by brute force, one coaster per task in parallel.
+ * Only values present before the pass are used, so the result does not depend
+ * on the order in which coasters are processed.</p>
+ * @author Bob Molby
+ */
+public final class CoasterImputer {
+
+    private record NumericColumn(Function<RollerCoasterEntity, BigDecimal> getter,
+                                 BiConsumer<RollerCoasterEntity, BigDecimal> setter, int scale) {
+    }
+
+    private record TextColumn(Function<RollerCoasterEntity, String> getter,
+                              BiConsumer<RollerCoasterEntity, String> setter) {
+    }
+
+    private static final List<NumericColumn> NUMERIC_COLUMNS = List.of(
+            new NumericColumn(RollerCoasterEntity::getLength, RollerCoasterEntity::setLength, 2),
+            new NumericColumn(RollerCoasterEntity::getHeight, RollerCoasterEntity::setHeight, 2),
+            new NumericColumn(RollerCoasterEntity::getDrop, RollerCoasterEntity::setDrop, 2),
+            new NumericColumn(RollerCoasterEntity::getInversionCount, RollerCoasterEntity::setInversionCount, 0),
+            new NumericColumn(RollerCoasterEntity::getSpeed, RollerCoasterEntity::setSpeed, 2),
+            new NumericColumn(RollerCoasterEntity::getVerticalAngle, RollerCoasterEntity::setVerticalAngle, 2),
+            new NumericColumn(RollerCoasterEntity::getGForce, RollerCoasterEntity::setGForce, 2),
+            new NumericColumn(RollerCoasterEntity::getDuration, RollerCoasterEntity::setDuration, 2)
+    );
+
+    private static final List<TextColumn> TEXT_COLUMNS = List.of(
+            new TextColumn(RollerCoasterEntity::getRestraints, RollerCoasterEntity::setRestraints),
+            new TextColumn(RollerCoasterEntity::getIntensity, RollerCoasterEntity::setIntensity)
+    );
+
+    /**
+     * Categorical columns that only contribute to the distance.
+     */
+    private static final List<Function<RollerCoasterEntity, String>> MATCH_COLUMNS = List.of(
+            RollerCoasterEntity::getType,
+            RollerCoasterEntity::getDesign,
+            RollerCoasterEntity::getManufacturer
+    );
+
+    private final int k;
+
+    /**
+     * @param k number of neighbours each missing value is derived from
+     */
+    public CoasterImputer(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        this.k = k;
+    }
+
+    /**
+     * Imputes every missing value in the catalog. Coasters are updated in place.
+     *
+     * @param coasters the whole catalog, which also serves as the neighbour pool
+     * @return the coasters that had at least one value filled in
+     */
+    public List<RollerCoasterEntity> impute(List<RollerCoasterEntity> coasters) {
+        int n = coasters.size();
+        double[][] numeric = new double[NUMERIC_COLUMNS.size()][n];
+        double[] std = new double[NUMERIC_COLUMNS.size()];
+        for (int f = 0; f < NUMERIC_COLUMNS.size(); f++) {
+            Function<RollerCoasterEntity, BigDecimal> getter = NUMERIC_COLUMNS.get(f).getter();
+            double sum = 0;
+            double sumSq = 0;
+            int count = 0;
+            for (int i = 0; i < n; i++) {
+                BigDecimal value = getter.apply(coasters.get(i));
+                numeric[f][i] = value == null ? Double.NaN : value.doubleValue();
+                if (value != null) {
+                    sum += numeric[f][i];
+                    sumSq += numeric[f][i] * numeric[f][i];
+                    count++;
+                }
+            }
+            double variance = count == 0 ? 0 : sumSq / count - (sum / count) * (sum / count);
+            std[f] = variance > 0 ? Math.sqrt(variance) : 1.0;
+        }
+        String[][] text = columns(coasters, TEXT_COLUMNS.stream().map(TextColumn::getter).toList());
+        String[][] match = columns(coasters, MATCH_COLUMNS);
+
+        int[] targets = IntStream.range(0, n)
+                .filter(i -> hasMissing(numeric, text, i))
+                .toArray();
+        Snapshot snapshot = new Snapshot(numeric, std, text, match);
+
+        // Computed against the untouched snapshot first, applied afterwards
+        Object[][] filled = new Object[targets.length][];
+        IntStream.range(0, targets.length).parallel()
+                .forEach(t -> filled[t] = fill(snapshot, targets[t]));
+
+        List<RollerCoasterEntity> changed = new ArrayList<>();
+        for (int t = 0; t < targets.length; t++) {
+            if (apply(coasters.get(targets[t]), filled[t])) {
+                changed.add(coasters.get(targets[t]));
+            }
+        }
+        return changed;
+    }
+
+    private record Snapshot(double[][] numeric, double[] std, String[][] text, String[][] match) {
+    }
+
+    /**
+     * Finds the neighbours of one coaster and derives each of its missing values.
+     *
+     * @return per column (numeric first, then text) the imputed value, or {@code null}
+     */
+    private Object[] fill(Snapshot s, int target) {
+        int n = s.numeric()[0].length;
+        double[] distance = new double[n];
+        for (int i = 0; i < n; i++) {
+            distance[i] = i == target ? Double.NaN : distance(s, target, i);
+        }
+
+        Object[] values = new Object[NUMERIC_COLUMNS.size() + TEXT_COLUMNS.size()];
+        for (int f = 0; f < NUMERIC_COLUMNS.size(); f++) {
+            double[] column = s.numeric()[f];
+            if (!Double.isNaN(column[target])) {
+                continue;
+            }
+            int[] neighbours = nearest(distance, i -> !Double.isNaN(column[i]));
+            if (neighbours.length > 0) {
+                double sum = 0;
+                for (int i : neighbours) {
+                    sum += column[i];
+                }
+                values[f] = BigDecimal.valueOf(sum / neighbours.length)
+                        .setScale(NUMERIC_COLUMNS.get(f).scale(), RoundingMode.HALF_UP);
+            }
+        }
+        for (int c = 0; c < TEXT_COLUMNS.size(); c++) {
+            String[] column = s.text()[c];
+            if (column[target] != null) {
+                continue;
+            }
+            int[] neighbours = nearest(distance, i -> column[i] != null);
+            values[NUMERIC_COLUMNS.size() + c] = mostCommon(column, neighbours);
+        }
+        return values;
+    }
+
+    private static double distance(Snapshot s, int a, int b) {
+        double total = 0;
+        int compared = 0;
+        for (int f = 0; f < s.numeric().length; f++) {
+            double x = s.numeric()[f][a];
+            double y = s.numeric()[f][b];
+            if (!Double.isNaN(x) && !Double.isNaN(y)) {
+                double z = (x - y) / s.std()[f];
+                total += z * z;
+                compared++;
+            }
+        }
+        for (String[] column : s.match()) {
+            if (column[a] != null && column[b] != null) {
+                total += column[a].equals(column[b]) ? 0 : 1;
+                compared++;
+            }
+        }
+        return compared == 0 ? Double.NaN : total / compared;
+    }
+
+    /**
+     * Indexes of the {@code k} closest coasters accepted by the filter, nearest first.
+     */
+    private int[] nearest(double[] distance, IntPredicate eligible) {
+        // max-heap on distance, so the farthest of the current k is evicted first
+        PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1,
+                (x, y) -> Double.compare(distance[y], distance[x]));
+        for (int i = 0; i < distance.length; i++) {
+            if (Double.isNaN(distance[i]) || !eligible.test(i)) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(i);
+            } else if (distance[i] < distance[heap.peek()]) {
+                heap.poll();
+                heap.add(i);
+            }
+        }
+        int[] result = new int[heap.size()];
+        for (int j = result.length - 1; j >= 0; j--) {
+            result[j] = heap.poll();
+        }
+        return result;
+    }
+
+    /**
+     * Majority vote among the neighbours; ties go to the value of the nearer coaster.
+     */
+    private static String mostCommon(String[] column, int[] neighbours) {
+        Map<String, Integer> votes = new HashMap<>();
+        String best = null;
+        int bestVotes = 0;
+        for (int i : neighbours) {
+            int count = votes.merge(column[i], 1, Integer::sum);
+            if (count > bestVotes) {
+                best = column[i];
+                bestVotes = count;
+            }
+        }
+        return best;
+    }
+
+    private static boolean apply(RollerCoasterEntity coaster, Object[] values) {
+        boolean changed = false;
+        for (int f = 0; f < NUMERIC_COLUMNS.size(); f++) {
+            if (values[f] != null) {
+                NUMERIC_COLUMNS.get(f).setter().accept(coaster, (BigDecimal) values[f]);
+                changed = true;
+            }
+        }
+        for (int c = 0; c < TEXT_COLUMNS.size(); c++) {
+            Object value = values[NUMERIC_COLUMNS.size() + c];
+            if (value != null) {
+                TEXT_COLUMNS.get(c).setter().accept(coaster, (String) value);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean hasMissing(double[][] numeric, String[][] text, int i) {
+        for (double[] column : numeric) {
+            if (Double.isNaN(column[i])) {
+                return true;
+            }
+        }
+        for (String[] column : text) {
+            if (column[i] == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[][] columns(List<RollerCoasterEntity> coasters,
+                                      List<Function<RollerCoasterEntity, String>> getters) {
+        String[][] columns = new String[getters.size()][coasters.size()];
+        for (int c = 0; c < getters.size(); c++) {
+            for (int i = 0; i < coasters.size(); i++) {
+                columns[c][i] = getters.get(c).apply(coasters.get(i));
+            }
+        }
+        return columns;
+    }
+}
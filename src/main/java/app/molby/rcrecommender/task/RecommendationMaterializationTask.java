@@ -0,0 +1,119 @@
+package app.molby.rcrecommender.task;
+
+import app.molby.rcrecommender.api.recommender.BatchRecommendationResponse;
+import app.molby.rcrecommender.api.recommender.PrecomputedRecommendations;
+import app.molby.rcrecommender.api.recommender.RecommendationService;
+import app.molby.rcrecommender.domain.recommendation.MaterializationCheckpoint;
+import app.molby.rcrecommender.domain.recommendation.MaterializationCheckpointRepository;
+import app.molby.rcrecommender.domain.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.task.configuration.EnableTask;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Spring Cloud Task that precomputes recommendations for every user.
+ *
+ * <p>Users are walked in keyset-paged chunks of {@code recommender.materialize.chunk-size}
+ * IDs. Each chunk is computed with {@link RecommendationService#computeRecommendationsForUsers(List)},
+ * which loads inputs in bulk and calls the engine in parallel, and its results are
+ * written to {@code user_recommendations} in one JDBC batch. The chunk's last user ID
+ * is checkpointed in the same transaction, so a failed run resumes after the last
+ * committed chunk instead of starting over.</p>
+ *
+ * <p>Runs only with {@code recommender.materialize.enabled=true}, normally through
+ * the {@code materialize} profile:
+ * {@code java -jar app.jar --spring.profiles.active=materialize}.</p>
+ * @author Bob Molby
+ */
+@Component
+@EnableTask
+@ConditionalOnProperty(name = "recommender.materialize.enabled", havingValue = "true")
+public class RecommendationMaterializationTask implements ApplicationRunner {
+
+    public static Logger LOGGER = LoggerFactory.getLogger(RecommendationMaterializationTask.class);
+
+    static final String JOB_NAME = "user-recommendations";
+
+    private final UserRepository userRepository;
+    private final RecommendationService recommendationService;
+    private final PrecomputedRecommendations precomputedRecommendations;
+    private final MaterializationCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public RecommendationMaterializationTask(UserRepository userRepository,
+                                             RecommendationService recommendationService,
+                                             PrecomputedRecommendations precomputedRecommendations,
+                                             MaterializationCheckpointRepository checkpointRepository,
+                                             TransactionTemplate transactionTemplate,
+                                             @Value("${recommender.materialize.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.recommendationService = recommendationService;
+        this.precomputedRecommendations = precomputedRecommendations;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String afterId = resumePoint();
+        long users = 0;
+        long failed = 0;
+
+        while (true) {
+            List<String> userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            // Taken before the inputs are read, so invalidations during the chunk win
+            Instant computedAt = Instant.now();
+            BatchRecommendationResponse chunk = recommendationService.computeRecommendationsForUsers(userIds);
+            String lastUserId = userIds.getLast();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                precomputedRecommendations.saveAll(chunk.getRecommendations(), computedAt);
+                checkpointRepository.advance(JOB_NAME, lastUserId);
+            });
+
+            users += chunk.getRecommendations().size();
+            failed += chunk.getFailedUserIds().size();
+            if (!chunk.getFailedUserIds().isEmpty()) {
+                LOGGER.warn("Could not compute recommendations for {} users in chunk ending at {}",
+                        chunk.getFailedUserIds().size(), lastUserId);
+            }
+            afterId = lastUserId;
+        }
+
+        checkpointRepository.complete(JOB_NAME, Instant.now());
+        LOGGER.info("Materialized recommendations for {} users ({} failed)", users, failed);
+    }
+
+    /**
+     * Returns the user ID to continue after: the last committed chunk of an
+     * unfinished run, or the start of a new run.
+     */
+    private String resumePoint() {
+        MaterializationCheckpoint checkpoint = checkpointRepository.find(JOB_NAME)
+                .filter(c -> !c.isComplete())
+                .orElse(null);
+        if (checkpoint == null) {
+            checkpointRepository.start(JOB_NAME, Instant.now());
+            LOGGER.info("Starting recommendation materialization");
+            return "";
+        }
+        LOGGER.info("Resuming recommendation materialization started at {} after user {}",
+                checkpoint.runStartedAt(), checkpoint.lastUserId());
+        return checkpoint.lastUserId() == null ? "" : checkpoint.lastUserId();
+    }
+}
@@ -0,0 +1,21 @@
+-- Running rating statistics per coaster, maintained incrementally by every
+-- rating write (CoasterRatingService and user deletes), so means and variances
+-- are read from one row instead of aggregating user_roller_coaster_ratings.
+--
+-- Sums are kept as NUMERIC so repeated increments and decrements stay exact.
+CREATE TABLE IF NOT EXISTS coaster_rating_stats (
+    roller_coaster_id  BIGINT PRIMARY KEY REFERENCES roller_coasters (id) ON DELETE CASCADE,
+    rating_count       BIGINT  NOT NULL DEFAULT 0,
+    rating_sum         NUMERIC NOT NULL DEFAULT 0,
+    rating_sum_squares NUMERIC NOT NULL DEFAULT 0,
+    updated_at         TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- One-time backfill from the existing ratings; run before deploying the
+-- version that maintains the table, while rating writes are paused.
+INSERT INTO coaster_rating_stats (roller_coaster_id, rating_count, rating_sum, rating_sum_squares)
+SELECT roller_coaster_id, COUNT(*), SUM(rating), SUM(rating * rating)
+FROM user_roller_coaster_ratings
+WHERE roller_coaster_id IS NOT NULL
+GROUP BY roller_coaster_id
+ON CONFLICT (roller_coaster_id) DO NOTHING;
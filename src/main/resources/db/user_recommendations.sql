@@ -0,0 +1,23 @@
+-- Precomputed recommendations written by the nightly materialization task
+-- (profile "materialize") and served by GET /api/recommendations/{userId}.
+--
+-- A row is fresh when it has recommendations, was computed within
+-- recommender.precomputed.max-age, and was not invalidated after it was computed.
+-- Writes to a user's ratings or home country, country renames and deletes, and
+-- country access changes set invalidated_at.
+CREATE TABLE IF NOT EXISTS user_recommendations (
+    user_id         VARCHAR(255) PRIMARY KEY,
+    recommendations JSONB,
+    computed_at     TIMESTAMPTZ,
+    invalidated_at  TIMESTAMPTZ
+);
+
+-- One row per materialization job. last_user_id is the keyset position of the
+-- last chunk committed, so a failed run resumes after it. completed_at is set
+-- once the run has walked every user; the next run then starts from the top.
+CREATE TABLE IF NOT EXISTS recommendation_materialization_checkpoint (
+    job_name       VARCHAR(100) PRIMARY KEY,
+    run_started_at TIMESTAMPTZ NOT NULL,
+    last_user_id   VARCHAR(255),
+    completed_at   TIMESTAMPTZ
+);
@@ -0,0 +1,7 @@
+-- Keyset pagination of GET /ratings?limit=..., optionally filtered by user or
+-- coaster: each filter seeks on (filter column, id) and reads rows in id order.
+-- The unfiltered walk uses the primary key.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_user_roller_coaster_ratings_user_id_id
+    ON user_roller_coaster_ratings (user_id, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ix_user_roller_coaster_ratings_coaster_id_id
+    ON user_roller_coaster_ratings (roller_coaster_id, id);
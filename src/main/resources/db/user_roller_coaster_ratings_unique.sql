@@ -0,0 +1,5 @@
+-- One rating per user and coaster. POST /ratings and POST /ratings/bulk upsert on
+-- this key with ON CONFLICT (user_id, roller_coaster_id), which requires a unique index.
+-- Remove any duplicate pairs (and rebuild coaster_rating_stats) before creating it.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_roller_coaster_ratings_user_coaster
+    ON user_roller_coaster_ratings (user_id, roller_coaster_id);
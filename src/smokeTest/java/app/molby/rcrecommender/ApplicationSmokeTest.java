@@ -0,0 +1,160 @@
+package app.molby.rcrecommender;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Black-box smoke tests against a running instance, primarily the GraalVM native binary
+ * (native/smoke-test.sh), where missing reachability metadata only shows up at runtime:
+ * entities loaded through Hibernate, Lombok DTOs and MapStruct mappers on every response,
+ * Jackson on cached, NDJSON and error bodies.
+ *
+ * <p>Targets {@code smokeTest.baseUrl} (default {@code http://localhost:8080}) and expects
+ * a database with the coaster catalog loaded. The only data written is a throwaway user,
+ * deleted again.</p>
+ * @author Bob Molby
+ */
+class ApplicationSmokeTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private static String baseUrl;
+    private static JsonNode firstCoaster;
+
+    @BeforeAll
+    static void findCatalog() throws Exception {
+        baseUrl = System.getProperty("smokeTest.baseUrl", "http://localhost:8080");
+        JsonNode coasters = json(get("/coasters?limit=5", "application/json"));
+        firstCoaster = coasters.isEmpty() ? null : coasters.get(0);
+    }
+
+    @Test
+    void readiness_ShouldBeUp() throws Exception {
+        HttpResponse<String> response = get("/actuator/health/readiness", "application/json");
+
+        assertEquals(200, response.statusCode());
+        assertEquals("UP", json(response).path("status").asText());
+    }
+
+    @Test
+    void coasters_ShouldReturnPageOfMappedCoasters() throws Exception {
+        HttpResponse<String> response = get("/coasters?limit=5", "application/json");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("ETag").isPresent());
+        JsonNode coasters = json(response);
+        assertTrue(coasters.size() <= 5);
+        coasters.forEach(coaster -> {
+            assertTrue(coaster.path("id").isNumber());
+            assertFalse(coaster.path("name").asText().isBlank());
+        });
+    }
+
+    @Test
+    void coasterById_ShouldMatchPage() throws Exception {
+        assumeTrue(firstCoaster != null, "no coasters loaded");
+        long id = firstCoaster.path("id").asLong();
+
+        JsonNode coaster = json(get("/coasters/" + id, "application/json"));
+
+        assertEquals(id, coaster.path("id").asLong());
+        assertEquals(firstCoaster.path("name").asText(), coaster.path("name").asText());
+    }
+
+    @Test
+    void similarCoasters_ShouldReturnRecommendations() throws Exception {
+        assumeTrue(firstCoaster != null, "no coasters loaded");
+
+        HttpResponse<String> response = get("/coasters/" + firstCoaster.path("id").asLong() + "/similar?k=3",
+                "application/json");
+
+        assertEquals(200, response.statusCode());
+        json(response).forEach(similar -> assertTrue(similar.path("coasterId").isNumber()));
+    }
+
+    @Test
+    void coasterStream_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        HttpResponse<String> response = get("/coasters", "application/x-ndjson");
+
+        assertEquals(200, response.statusCode());
+        for (String line : response.body().lines().limit(50).toList()) {
+            assertTrue(MAPPER.readTree(line).path("id").isNumber());
+        }
+    }
+
+    @Test
+    void countries_ShouldReturnCountries() throws Exception {
+        HttpResponse<String> response = get("/countries", "application/json");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(json(response).isArray());
+    }
+
+    @Test
+    void unknownCoaster_ShouldReturnErrorBody() throws Exception {
+        HttpResponse<String> response = get("/coasters/-1", "application/json");
+
+        assertEquals(404, response.statusCode());
+        JsonNode error = json(response);
+        assertEquals(404, error.path("status").asInt());
+        assertFalse(error.path("message").asText().isBlank());
+    }
+
+    @Test
+    void userLifecycle_ShouldPersistRecommendAndDelete() throws Exception {
+        String userId = "smoke-" + UUID.randomUUID();
+        String body = MAPPER.writeValueAsString(MAPPER.createObjectNode()
+                .put("id", userId)
+                .put("emailAddress", "smoke@example.com")
+                .put("firstName", "Smoke")
+                .put("lastName", "Test")
+                .put("country", "United States"));
+        try {
+            HttpResponse<String> created = send(HttpRequest.newBuilder(uri("/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            assertEquals(201, created.statusCode(), created.body());
+
+            JsonNode user = json(get("/users/" + userId, "application/json"));
+            assertEquals("Smoke", user.path("firstName").asText());
+
+            HttpResponse<String> recommendations = get("/api/recommendations/" + userId, "application/json");
+            assertEquals(200, recommendations.statusCode(), recommendations.body());
+            assertTrue(json(recommendations).isArray());
+        } finally {
+            send(HttpRequest.newBuilder(uri("/users/" + userId)).DELETE());
+        }
+        assertEquals(404, get("/users/" + userId, "application/json").statusCode());
+    }
+
+    private static HttpResponse<String> get(String path, String accept) throws Exception {
+        return send(HttpRequest.newBuilder(uri(path)).header("Accept", accept).GET());
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return CLIENT.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static JsonNode json(HttpResponse<String> response) throws Exception {
+        return MAPPER.readTree(response.body());
+    }
+}
@@ -0,0 +1,189 @@
+package app.molby.rcrecommender.api.coaster;
+
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterCursorRepository;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CoasterCatalog}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CoasterCatalogTest {
+
+    @Mock
+    private RollerCoasterCursorRepository rollerCoasterCursorRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CoasterCatalog catalog;
+
+    private final List<RollerCoasterEntity> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 2000; id++) {
+            rows.add(buildCoaster(id * 10, "Coaster " + id));
+        }
+        rows.get(0).setAverageRating(new BigDecimal("4.80"));
+        rows.get(0).setHeight(null);
+        lenient().doAnswer(invocation -> {
+            Consumer<RollerCoasterEntity> consumer = invocation.getArgument(1);
+            rows.forEach(consumer);
+            return null;
+        }).when(rollerCoasterCursorRepository).forEachAfter(isNull(), any());
+    }
+
+    @Test
+    void findById_shouldLoadOnce_andRebuildEntityFromColumns() {
+        RollerCoasterEntity coaster = catalog.findById(10L).orElseThrow();
+
+        assertThat(coaster.getName()).isEqualTo("Coaster 1");
+        assertThat(coaster.getAmusementPark()).isEqualTo("Cedar Point");
+        assertThat(coaster.getAverageRating()).isEqualTo(new BigDecimal("4.80"));
+        assertThat(coaster.getHeight()).isNull();
+        assertThat(coaster.getLength()).isEqualByComparingTo("6595.5");
+        assertThat(catalog.findById(15L)).isEmpty();
+        assertThat(catalog.size()).isEqualTo(2000);
+
+        verify(rollerCoasterCursorRepository, times(1)).forEachAfter(isNull(), any());
+    }
+
+    @Test
+    void contains_shouldCheckIdColumn() {
+        assertThat(catalog.contains(10L)).isTrue();
+        assertThat(catalog.contains(15L)).isFalse();
+    }
+
+    @Test
+    void snapshot_shouldInternCategoricalColumns() {
+        RollerCoasterEntity first = catalog.findById(10L).orElseThrow();
+        RollerCoasterEntity second = catalog.findById(20L).orElseThrow();
+
+        assertThat(first.getCountry()).isSameAs(second.getCountry());
+        assertThat(first.getManufacturer()).isSameAs(second.getManufacturer());
+    }
+
+    @Test
+    void findAfter_shouldSeekPastId_inIdOrder() {
+        List<RollerCoasterEntity> page = catalog.findAfter(15L, 3);
+
+        assertThat(page).extracting(RollerCoasterEntity::getId).containsExactly(20L, 30L, 40L);
+        assertThat(catalog.findAfter(20_000L, 3)).isEmpty();
+        assertThat(catalog.findAfter(null, 1)).extracting(RollerCoasterEntity::getId).containsExactly(10L);
+    }
+
+    @Test
+    void forEachAfter_shouldVisitRemainingCoasters() {
+        List<Long> ids = new ArrayList<>();
+
+        catalog.forEachAfter(19_970L, coaster -> ids.add(coaster.getId()));
+
+        assertThat(ids).containsExactly(19_980L, 19_990L, 20_000L);
+    }
+
+    @Test
+    void events_shouldSwapSnapshotCopyOnWrite() {
+        catalog.size();
+
+        catalog.onCreated(new RollerCoasterCreatedEvent(buildCoaster(15L, "Inserted")));
+        catalog.onDeleted(new RollerCoasterDeletedEvent(20L));
+
+        assertThat(catalog.findById(15L)).map(RollerCoasterEntity::getName).contains("Inserted");
+        assertThat(catalog.findById(20L)).isEmpty();
+        assertThat(catalog.findAfter(null, 3)).extracting(RollerCoasterEntity::getId)
+                .containsExactly(10L, 15L, 30L);
+        assertThat(catalog.size()).isEqualTo(2000);
+        verify(eventPublisher, times(3)).publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COASTERS));
+    }
+
+    @Test
+    void findById_shouldKeepDecimalScale() {
+        rows.get(1).setLength(new BigDecimal("6595.00"));
+        rows.get(1).setAverageRating(new BigDecimal("4.10"));
+
+        RollerCoasterEntity coaster = catalog.findById(20L).orElseThrow();
+
+        assertThat(coaster.getLength()).isEqualTo(new BigDecimal("6595.00"));
+        assertThat(coaster.getHeight()).isEqualTo(new BigDecimal("310"));
+        assertThat(coaster.getAverageRating()).isEqualTo(new BigDecimal("4.10"));
+    }
+
+    @Test
+    void reload_shouldNotDropCoasterCreatedDuringLoad() {
+        catalog.size();
+        RollerCoasterEntity created = buildCoaster(15L, "Created during reload");
+        AtomicBoolean fired = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Consumer<RollerCoasterEntity> consumer = invocation.getArgument(1);
+            List<RollerCoasterEntity> committed = new ArrayList<>(rows);
+            committed.forEach(consumer);
+            if (fired.compareAndSet(false, true)) {
+                // committed after the cursor passed its position, announced before the load ends
+                rows.add(1, created);
+                catalog.onCreated(new RollerCoasterCreatedEvent(created));
+            }
+            return null;
+        }).when(rollerCoasterCursorRepository).forEachAfter(isNull(), any());
+
+        catalog.reload();
+
+        assertThat(catalog.findById(15L)).map(RollerCoasterEntity::getName).contains("Created during reload");
+        assertThat(catalog.size()).isEqualTo(2001);
+        verify(rollerCoasterCursorRepository, times(3)).forEachAfter(isNull(), any());
+    }
+
+    @Test
+    void reload_shouldPublishReloadedEvent_onlyWhenRowsChanged() {
+        catalog.size();
+        clearInvocations(eventPublisher);
+
+        catalog.reload();
+
+        verifyNoInteractions(eventPublisher);
+
+        rows.get(1).setLength(new BigDecimal("6595.50"));
+        catalog.reload();
+
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COASTERS));
+        verify(eventPublisher).publishEvent(new CoasterCatalogReloadedEvent());
+    }
+
+    @Test
+    void onCreated_shouldBeIgnored_beforeFirstLoad() {
+        catalog.onCreated(new RollerCoasterCreatedEvent(buildCoaster(15L, "Inserted")));
+
+        verifyNoInteractions(rollerCoasterCursorRepository);
+    }
+
+    private RollerCoasterEntity buildCoaster(Long id, String name) {
+        RollerCoasterEntity entity = new RollerCoasterEntity();
+        entity.setId(id);
+        entity.setName(name);
+        entity.setAmusementPark(new String("Cedar Point"));
+        entity.setManufacturer(new String("Intamin"));
+        entity.setCountry(new String("United States"));
+        entity.setLength(new BigDecimal("6595.5"));
+        entity.setHeight(new BigDecimal("310"));
+        return entity;
+    }
+}
@@ -0,0 +1,113 @@
+package app.molby.rcrecommender.api.coaster;
+
+import app.molby.rcrecommender.api.recommender.RecommendedCoasterDto;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CoasterSimilarityIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CoasterSimilarityIndexTest {
+
+    @Mock
+    private RollerCoasterRepository rollerCoasterRepository;
+
+    @InjectMocks
+    private CoasterSimilarityIndex index;
+
+    private final List<RollerCoasterEntity> catalog = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "efSearch", 32);
+        ReflectionTestUtils.setField(index, "rebuildDeletedRatio", 0.5);
+        catalog.add(coaster(1L, "Steel", 300, "United States"));
+        catalog.add(coaster(2L, "Steel", 290, "United States"));
+        catalog.add(coaster(3L, "Steel", 280, "Canada"));
+        catalog.add(coaster(4L, "Wood", 60, "United States"));
+    }
+
+    @Test
+    void findSimilar_excludesSelf_andOrdersBySimilarity() {
+        given(rollerCoasterRepository.findAll()).willReturn(catalog);
+
+        List<RecommendedCoasterDto> result = index.findSimilar(catalog.getFirst(), 3, null);
+
+        assertThat(result).extracting(RecommendedCoasterDto::getCoasterId).containsExactly(2L, 3L, 4L);
+        assertThat(result.getFirst().getScore()).isGreaterThan(result.get(2).getScore());
+    }
+
+    @Test
+    void findSimilar_filtersByCountry() {
+        given(rollerCoasterRepository.findAll()).willReturn(catalog);
+
+        List<RecommendedCoasterDto> result = index.findSimilar(catalog.getFirst(), 3, "canada");
+
+        assertThat(result).extracting(RecommendedCoasterDto::getCoasterId).containsExactly(3L);
+    }
+
+    @Test
+    void events_updateBuiltIndexIncrementally() {
+        given(rollerCoasterRepository.findAll()).willReturn(catalog);
+        index.findSimilar(catalog.getFirst(), 1, null);
+
+        index.onCreated(new RollerCoasterCreatedEvent(coaster(5L, "Steel", 300, "United States")));
+        index.onDeleted(new RollerCoasterDeletedEvent(2L));
+
+        List<RecommendedCoasterDto> result = index.findSimilar(catalog.getFirst(), 1, null);
+
+        assertThat(result).extracting(RecommendedCoasterDto::getCoasterId).containsExactly(5L);
+        verify(rollerCoasterRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onDeleted_schedulesRebuild_whenTooManyNodesAreDeleted() {
+        given(rollerCoasterRepository.findAll()).willReturn(catalog);
+        index.findSimilar(catalog.getFirst(), 1, null);
+
+        index.onDeleted(new RollerCoasterDeletedEvent(2L));
+        index.onDeleted(new RollerCoasterDeletedEvent(3L));
+        index.onDeleted(new RollerCoasterDeletedEvent(4L));
+        index.findSimilar(catalog.getFirst(), 1, null);
+
+        verify(rollerCoasterRepository, times(2)).findAll();
+    }
+
+    @Test
+    void onCatalogReloaded_rebuildsIndexOnNextQuery() {
+        given(rollerCoasterRepository.findAll()).willReturn(catalog);
+        index.findSimilar(catalog.getFirst(), 1, null);
+
+        index.onCatalogReloaded(new CoasterCatalogReloadedEvent());
+        index.findSimilar(catalog.getFirst(), 1, null);
+
+        verify(rollerCoasterRepository, times(2)).findAll();
+    }
+
+    // --- helper --------------------------------------------------------------
+
+    private RollerCoasterEntity coaster(Long id, String type, int height, String country) {
+        RollerCoasterEntity entity = new RollerCoasterEntity();
+        entity.setId(id);
+        entity.setType(type);
+        entity.setHeight(BigDecimal.valueOf(height));
+        entity.setCountry(country);
+        return entity;
+    }
+}
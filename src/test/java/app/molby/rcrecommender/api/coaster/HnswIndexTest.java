@@ -0,0 +1,120 @@
+package app.molby.rcrecommender.api.coaster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HnswIndex}.
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSION = 12;
+
+    @Test
+    void search_onEmptyIndex_returnsNothing() {
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50, 1L);
+
+        assertTrue(index.search(unit(new Random(1)), 5, 20, null).isEmpty());
+    }
+
+    @Test
+    void search_findsExactMatchFirst_withHighRecall() {
+        Random random = new Random(11);
+        float[][] vectors = vectors(random, 1_000);
+        HnswIndex index = build(vectors);
+
+        int hits = 0;
+        for (int q = 0; q < 50; q++) {
+            int target = random.nextInt(vectors.length);
+            List<HnswIndex.Match> result = index.search(vectors[target], 10, 64, null);
+
+            assertEquals(target, result.getFirst().label());
+            assertEquals(1.0, result.getFirst().similarity(), 1e-5);
+            Set<Long> truth = bruteForce(vectors, vectors[target], 10);
+            hits += (int) result.stream().filter(m -> truth.contains(m.label())).count();
+        }
+        assertTrue(hits / 500.0 > 0.9, "recall too low: " + hits / 500.0);
+    }
+
+    @Test
+    void remove_excludesDeletedNodesFromResults() {
+        float[][] vectors = vectors(new Random(5), 200);
+        HnswIndex index = build(vectors);
+
+        assertTrue(index.remove(3));
+        assertFalse(index.remove(3));
+
+        List<HnswIndex.Match> result = index.search(vectors[3], 20, 64, null);
+        assertTrue(result.stream().noneMatch(m -> m.label() == 3));
+        assertEquals(199, index.size());
+        assertEquals(1, index.deletedCount());
+        assertNull(index.vector(3));
+    }
+
+    @Test
+    void search_appliesFilter() {
+        float[][] vectors = vectors(new Random(9), 300);
+        HnswIndex index = build(vectors);
+
+        List<HnswIndex.Match> result = index.search(vectors[0], 10, 64, label -> label % 10 == 0);
+
+        assertEquals(10, result.size());
+        assertTrue(result.stream().allMatch(m -> m.label() % 10 == 0));
+    }
+
+    // --- helpers -------------------------------------------------------------
+
+    private HnswIndex build(float[][] vectors) {
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 64, 42L);
+        for (int i = 0; i < vectors.length; i++) {
+            index.insert(i, vectors[i]);
+        }
+        return index;
+    }
+
+    private Set<Long> bruteForce(float[][] vectors, float[] query, int k) {
+        return IntStream.range(0, vectors.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> -dot(vectors[i], query)))
+                .limit(k)
+                .map(Integer::longValue)
+                .collect(Collectors.toSet());
+    }
+
+    private float[][] vectors(Random random, int count) {
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            vectors[i] = unit(random);
+        }
+        return vectors;
+    }
+
+    private float[] unit(Random random) {
+        float[] vector = new float[DIMENSION];
+        double norm = 0;
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+
+    private double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -1,37 +1,68 @@
 package app.molby.rcrecommender.api.coaster;
 
+import app.molby.rcrecommender.api.recommender.RecommendedCoasterDto;
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
 import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import app.molby.rcrecommender.api.shared.CachedJsonResponses;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(RollerCoasterController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(CachedJsonResponses.class)
 class RollerCoasterControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CachedJsonResponses cachedJsonResponses;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clearResponseCache() {
+        cachedJsonResponses.invalidate(CatalogChangedEvent.COASTERS);
+    }
+
     @MockBean
     private RollerCoasterService coasterService;
 
@@ -134,7 +165,6 @@ class RollerCoasterControllerTest {
         RollerCoasterDto dto1 = new RollerCoasterDto();
         dto1.setId(101L);
         dto1.setName("Millennium Force");
-
         RollerCoasterDto dto2 = new RollerCoasterDto();
         dto2.setId(102L);
         dto2.setName("GateKeeper");
@@ -146,6 +176,7 @@ class RollerCoasterControllerTest {
         // Act & Assert
         mockMvc.perform(get("/coasters"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(101)))
                 .andExpect(jsonPath("$[0].name", is("Millennium Force")))
@@ -157,6 +188,162 @@ class RollerCoasterControllerTest {
         verify(coasterMapper).toRollerCoasterDto(entity2);
     }
 
+    @Test
+    @DisplayName("GET /coasters?limit returns a page of coasters with a next link")
+    void findPage_returnsPageOfCoasters() throws Exception {
+        // Arrange
+        RollerCoasterEntity entity1 = new RollerCoasterEntity();
+        entity1.setId(101L);
+        RollerCoasterEntity entity2 = new RollerCoasterEntity();
+        entity2.setId(102L);
+
+        RollerCoasterDto dto1 = new RollerCoasterDto();
+        dto1.setId(101L);
+        dto1.setName("Millennium Force");
+
+        RollerCoasterDto dto2 = new RollerCoasterDto();
+        dto2.setId(102L);
+        dto2.setName("GateKeeper");
+
+        String next = KeysetCursor.encode(102L);
+        given(coasterService.findPage(null, 2)).willReturn(new KeysetPage<>(List.of(entity1, entity2), next));
+        given(coasterMapper.toRollerCoasterDto(entity1)).willReturn(dto1);
+        given(coasterMapper.toRollerCoasterDto(entity2)).willReturn(dto2);
+
+        // Act & Assert
+        mockMvc.perform(get("/coasters").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + next)))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("limit=2")))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(101)))
+                .andExpect(jsonPath("$[0].name", is("Millennium Force")))
+                .andExpect(jsonPath("$[1].id", is(102)))
+                .andExpect(jsonPath("$[1].name", is("GateKeeper")));
+
+        verify(coasterService).findPage(null, 2);
+        verify(coasterMapper).toRollerCoasterDto(entity1);
+        verify(coasterMapper).toRollerCoasterDto(entity2);
+    }
+
+    @Test
+    @DisplayName("GET /coasters?limit builds the cached next link from the path, after and limit only")
+    void findPage_nextLinkIsIndependentOfRequester() throws Exception {
+        RollerCoasterEntity entity = new RollerCoasterEntity();
+        entity.setId(101L);
+        RollerCoasterDto dto = new RollerCoasterDto();
+        dto.setId(101L);
+        String next = KeysetCursor.encode(101L);
+        given(coasterService.findPage(null, 1)).willReturn(new KeysetPage<>(List.of(entity), next));
+        given(coasterMapper.toRollerCoasterDto(entity)).willReturn(dto);
+        String expected = "</coasters?after=" + next + "&limit=1>; rel=\"next\"";
+
+        mockMvc.perform(get("/coasters").param("limit", "1").param("debug", "true")
+                        .header("X-Forwarded-Host", "first.example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, expected));
+        mockMvc.perform(get("/coasters").param("limit", "1")
+                        .header("X-Forwarded-Host", "second.example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, expected));
+
+        verify(coasterService).findPage(null, 1);
+    }
+
+    @Test
+    @DisplayName("GET /coasters?limit omits the next link on the last page")
+    void findPage_lastPageHasNoNextLink() throws Exception {
+        String cursor = KeysetCursor.encode(102L);
+        given(coasterService.findPage(cursor, 100)).willReturn(new KeysetPage<>(List.of(), null));
+
+        mockMvc.perform(get("/coasters").param("after", cursor).param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("GET /coasters with Accept: application/x-ndjson streams one coaster per line")
+    void streamAll_writesNdjson() throws Exception {
+        RollerCoasterEntity entity1 = new RollerCoasterEntity();
+        entity1.setId(101L);
+        RollerCoasterEntity entity2 = new RollerCoasterEntity();
+        entity2.setId(102L);
+
+        RollerCoasterDto dto1 = new RollerCoasterDto();
+        dto1.setId(101L);
+        RollerCoasterDto dto2 = new RollerCoasterDto();
+        dto2.setId(102L);
+
+        given(coasterMapper.toRollerCoasterDto(entity1)).willReturn(dto1);
+        given(coasterMapper.toRollerCoasterDto(entity2)).willReturn(dto2);
+        willAnswer(invocation -> {
+            Consumer<RollerCoasterEntity> consumer = invocation.getArgument(1);
+            consumer.accept(entity1);
+            consumer.accept(entity2);
+            return null;
+        }).given(coasterService).streamAll(eq(100L), any());
+
+        MvcResult started = mockMvc.perform(get("/coasters")
+                        .param("after", KeysetCursor.encode(100L))
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(dto1) + "\n"
+                + objectMapper.writeValueAsString(dto2) + "\n", body);
+    }
+
+    @Test
+    @DisplayName("GET /coasters rejects malformed cursors with 400")
+    void streamAll_rejectsMalformedCursor() throws Exception {
+        mockMvc.perform(get("/coasters")
+                        .param("after", "not a cursor!")
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(coasterService);
+    }
+
+    @Test
+    @DisplayName("GET /coasters/{id}/similar returns similar coasters")
+    void findSimilar_returnsSimilarCoasters() throws Exception {
+        long id = 101L;
+
+        given(coasterService.findSimilar(id, 2, "Canada")).willReturn(List.of(
+                new RecommendedCoasterDto(102L, 0.97),
+                new RecommendedCoasterDto(240L, 0.91)));
+
+        mockMvc.perform(get("/coasters/{id}/similar", id)
+                        .param("k", "2")
+                        .param("country", "Canada"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].coasterId", is(102)))
+                .andExpect(jsonPath("$[1].coasterId", is(240)));
+
+        verify(coasterService).findSimilar(id, 2, "Canada");
+    }
+
+    @Test
+    @DisplayName("GET /coasters/{id}/similar defaults k to 10")
+    void findSimilar_defaultsK() throws Exception {
+        long id = 101L;
+
+        given(coasterService.findSimilar(id, 10, null)).willReturn(List.of());
+
+        mockMvc.perform(get("/coasters/{id}/similar", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(coasterService).findSimilar(id, 10, null);
+    }
+
     @Test
     @DisplayName("DELETE /coasters/{id} deletes a coaster and returns 204")
     void deleteCoaster_returnsNoContent() throws Exception {
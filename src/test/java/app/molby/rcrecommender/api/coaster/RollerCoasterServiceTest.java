@@ -1,5 +1,9 @@
 package app.molby.rcrecommender.api.coaster;
 
+import app.molby.rcrecommender.api.recommender.RecommendedCoasterDto;
+import app.molby.rcrecommender.api.shared.InvalidCursorException;
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
 import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
 import app.molby.rcrecommender.domain.coaster.RollerCoasterRepository;
 import org.junit.jupiter.api.Test;
@@ -8,8 +12,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +31,15 @@ class RollerCoasterServiceTest {
     @Mock
     private RollerCoasterRepository rollerCoasterRepository;
 
+    @Mock
+    private CoasterCatalog coasterCatalog;
+
+    @Mock
+    private CoasterSimilarityIndex similarityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RollerCoasterService service;
 
@@ -39,6 +54,7 @@ class RollerCoasterServiceTest {
 
         assertThat(result).isEqualTo(saved);
         verify(rollerCoasterRepository).save(toSave);
+        verify(eventPublisher).publishEvent(new RollerCoasterCreatedEvent(saved));
         verifyNoMoreInteractions(rollerCoasterRepository);
     }
 
@@ -46,40 +62,84 @@ class RollerCoasterServiceTest {
     void findById_shouldReturnEntity_whenFound() {
         Long id = 101L;
         RollerCoasterEntity entity = buildCoaster(id, "Millennium Force");
-        given(rollerCoasterRepository.findById(id)).willReturn(Optional.of(entity));
+        given(coasterCatalog.findById(id)).willReturn(Optional.of(entity));
 
         RollerCoasterEntity result = service.findById(id);
 
         assertThat(result).isEqualTo(entity);
-        verify(rollerCoasterRepository).findById(id);
-        verifyNoMoreInteractions(rollerCoasterRepository);
+        verify(coasterCatalog).findById(id);
+        verifyNoInteractions(rollerCoasterRepository);
     }
 
     @Test
     void findById_shouldThrowRollerCoasterNotFoundException_whenNotFound() {
         Long id = 999L;
-        given(rollerCoasterRepository.findById(id)).willReturn(Optional.empty());
+        given(coasterCatalog.findById(id)).willReturn(Optional.empty());
 
         RollerCoasterNotFoundException ex =
                 assertThrows(RollerCoasterNotFoundException.class, () -> service.findById(id));
 
         assertThat(ex.getMessage()).contains("Roller coaster", String.valueOf(id));
-        verify(rollerCoasterRepository).findById(id);
-        verifyNoMoreInteractions(rollerCoasterRepository);
+        verify(coasterCatalog).findById(id);
+        verifyNoInteractions(rollerCoasterRepository);
     }
 
     @Test
-    void findAll_shouldReturnAllEntitiesFromRepository() {
+    void findPage_shouldReturnFirstPage_withCursorForNextPage() {
         RollerCoasterEntity c1 = buildCoaster(101L, "Millennium Force");
         RollerCoasterEntity c2 = buildCoaster(102L, "GateKeeper");
+        RollerCoasterEntity c3 = buildCoaster(103L, "Maverick");
 
-        given(rollerCoasterRepository.findAll()).willReturn(List.of(c1, c2));
+        given(coasterCatalog.findAfter(null, 3)).willReturn(List.of(c1, c2, c3));
 
-        List<RollerCoasterEntity> result = service.findAll();
+        KeysetPage<RollerCoasterEntity> result = service.findPage(null, 2);
 
-        assertThat(result).containsExactly(c1, c2);
-        verify(rollerCoasterRepository).findAll();
-        verifyNoMoreInteractions(rollerCoasterRepository);
+        assertThat(result.items()).containsExactly(c1, c2);
+        assertThat(KeysetCursor.decodeLong(result.nextCursor())).isEqualTo(102L);
+        verifyNoInteractions(rollerCoasterRepository);
+    }
+
+    @Test
+    void findPage_shouldSeekPastCursor_andEndWithoutCursor() {
+        RollerCoasterEntity c3 = buildCoaster(103L, "Maverick");
+
+        given(coasterCatalog.findAfter(102L, 3)).willReturn(List.of(c3));
+
+        KeysetPage<RollerCoasterEntity> result = service.findPage(KeysetCursor.encode(102L), 2);
+
+        assertThat(result.items()).containsExactly(c3);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    void findPage_shouldClampLimit() {
+        given(coasterCatalog.findAfter(null, RollerCoasterService.MAX_PAGE_SIZE + 1)).willReturn(List.of());
+
+        assertThat(service.findPage(null, 50_000).items()).isEmpty();
+    }
+
+    @Test
+    void findPage_shouldRejectMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> service.findPage("not a cursor!", 10));
+        verifyNoInteractions(coasterCatalog);
+    }
+
+    @Test
+    void findAll_shouldReturnWholeCatalog() {
+        RollerCoasterEntity c1 = new RollerCoasterEntity();
+        RollerCoasterEntity c2 = new RollerCoasterEntity();
+        when(coasterCatalog.findAfter(null, Integer.MAX_VALUE)).thenReturn(List.of(c1, c2));
+
+        assertThat(service.findAll()).containsExactly(c1, c2);
+    }
+
+    @Test
+    void streamAll_shouldDelegateToCatalog() {
+        Consumer<RollerCoasterEntity> consumer = coaster -> { };
+
+        service.streamAll(102L, consumer);
+
+        verify(coasterCatalog).forEachAfter(102L, consumer);
     }
 
     @Test
@@ -91,6 +151,7 @@ class RollerCoasterServiceTest {
 
         verify(rollerCoasterRepository).existsById(id);
         verify(rollerCoasterRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(new RollerCoasterDeletedEvent(id));
         verifyNoMoreInteractions(rollerCoasterRepository);
     }
 
@@ -106,6 +167,31 @@ class RollerCoasterServiceTest {
 
         verify(rollerCoasterRepository).existsById(id);
         verifyNoMoreInteractions(rollerCoasterRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void findSimilar_shouldClampK_andDelegateToIndex() {
+        Long id = 101L;
+        RollerCoasterEntity entity = buildCoaster(id, "Millennium Force");
+        List<RecommendedCoasterDto> similar = List.of(new RecommendedCoasterDto(102L, 0.9));
+        given(coasterCatalog.findById(id)).willReturn(Optional.of(entity));
+        given(similarityIndex.findSimilar(entity, 100, "Canada")).willReturn(similar);
+
+        List<RecommendedCoasterDto> result = service.findSimilar(id, 500, "Canada");
+
+        assertThat(result).isEqualTo(similar);
+        verify(similarityIndex).findSimilar(entity, 100, "Canada");
+    }
+
+    @Test
+    void findSimilar_shouldThrowRollerCoasterNotFoundException_whenNotFound() {
+        Long id = 999L;
+        given(coasterCatalog.findById(id)).willReturn(Optional.empty());
+
+        assertThrows(RollerCoasterNotFoundException.class, () -> service.findSimilar(id, 10, null));
+
+        verifyNoInteractions(similarityIndex);
     }
 
     // --- helper --------------------------------------------------------------
@@ -1,12 +1,16 @@
 package app.molby.rcrecommender.api.country;
 
 import app.molby.rcrecommender.domain.country.CountryAccessEntity;
+import app.molby.rcrecommender.api.shared.CachedJsonResponses;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -18,11 +22,20 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(CountryAccessController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(CachedJsonResponses.class)
 class CountryAccessControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CachedJsonResponses cachedJsonResponses;
+
+    @BeforeEach
+    void clearResponseCache() {
+        cachedJsonResponses.invalidate(CatalogChangedEvent.COUNTRY_ACCESS);
+    }
+
     @MockBean
     private CountryAccessService service;
 
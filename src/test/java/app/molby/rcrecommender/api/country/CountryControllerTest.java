@@ -1,12 +1,16 @@
 package app.molby.rcrecommender.api.country;
 
 import app.molby.rcrecommender.domain.country.CountryEntity;
+import app.molby.rcrecommender.api.shared.CachedJsonResponses;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -18,11 +22,20 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(CountryController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(CachedJsonResponses.class)
 class CountryControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CachedJsonResponses cachedJsonResponses;
+
+    @BeforeEach
+    void clearResponseCache() {
+        cachedJsonResponses.invalidate(CatalogChangedEvent.COUNTRIES);
+    }
+
     @MockBean
     private CountryService service;
 
@@ -120,6 +133,29 @@ class CountryControllerTest {
         verify(mapper).toCountryDto(e2);
     }
 
+    @Test
+    void getAll_servesCachedBytes_andAnswersIfNoneMatchWith304() throws Exception {
+        CountryEntity e1 = buildEntity(1L, "United States");
+        when(service.getAll()).thenReturn(List.of(e1));
+        when(mapper.toCountryDto(e1)).thenReturn(buildDto(1L, "United States"));
+
+        String etag = mockMvc.perform(get("/countries"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/countries").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().bytes(new byte[0]));
+
+        mockMvc.perform(get("/countries").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+
+        verify(service, times(1)).getAll();
+    }
+
     // TODO FIX TEST
     // @Test
     void update_returnsUpdatedCountry() throws Exception {
@@ -1,5 +1,7 @@
 package app.molby.rcrecommender.api.country;
 
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
 import app.molby.rcrecommender.domain.country.CountryEntity;
 import app.molby.rcrecommender.domain.country.CountryRepository;
 import org.junit.jupiter.api.Test;
@@ -7,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +26,9 @@ class CountryServiceTest {
     @Mock
     private CountryRepository countryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CountryService subject;
 
@@ -43,6 +49,9 @@ class CountryServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(countryRepository).save(input);
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COUNTRIES));
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COUNTRY_ACCESS));
+        verify(eventPublisher, never()).publishEvent(RecommendationInputsChangedEvent.allUsers());
     }
 
     // -------------------------------------------------------------------------
@@ -120,6 +129,7 @@ class CountryServiceTest {
         assertEquals(id, result.getId());
         verify(countryRepository).existsById(id);
         verify(countryRepository).save(updated);
+        verify(eventPublisher).publishEvent(RecommendationInputsChangedEvent.allUsers());
     }
 
     @Test
@@ -149,6 +159,8 @@ class CountryServiceTest {
 
         verify(countryRepository).existsById(id);
         verify(countryRepository).deleteById(id);
+        verify(eventPublisher).publishEvent(RecommendationInputsChangedEvent.allUsers());
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(CatalogChangedEvent.COUNTRIES));
     }
 
     @Test
@@ -0,0 +1,87 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LeaderboardController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class LeaderboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LeaderboardService leaderboardService;
+
+    @MockBean
+    private LeaderboardMapper leaderboardMapper;
+
+    @Test
+    @DisplayName("GET /leaderboards/{country} returns ranked coasters")
+    void findByCountry_returnsRankedEntries() throws Exception {
+        LeaderboardEntry first = new LeaderboardEntry(
+                101L, "Millennium Force", "Cedar Point", "United States", new BigDecimal("4.80"), 1250L);
+        LeaderboardEntry second = new LeaderboardEntry(
+                102L, "Fury 325", "Carowinds", "United States", new BigDecimal("4.75"), 980L);
+
+        LeaderboardEntryDto dto1 = new LeaderboardEntryDto();
+        dto1.setRank(1);
+        dto1.setCoasterId(101L);
+        LeaderboardEntryDto dto2 = new LeaderboardEntryDto();
+        dto2.setRank(2);
+        dto2.setCoasterId(102L);
+
+        given(leaderboardService.top("United States", LeaderboardMetric.COUNT, 2)).willReturn(List.of(first, second));
+        given(leaderboardMapper.toLeaderboardEntryDto(first, 1)).willReturn(dto1);
+        given(leaderboardMapper.toLeaderboardEntryDto(second, 2)).willReturn(dto2);
+
+        mockMvc.perform(get("/leaderboards/{country}", "United States")
+                        .param("by", "COUNT")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].rank", is(1)))
+                .andExpect(jsonPath("$[0].coasterId", is(101)))
+                .andExpect(jsonPath("$[1].rank", is(2)));
+
+        verify(leaderboardService).top("United States", LeaderboardMetric.COUNT, 2);
+    }
+
+    @Test
+    @DisplayName("GET /leaderboards/{country} defaults to top 10 by rating")
+    void findByCountry_usesDefaults() throws Exception {
+        given(leaderboardService.top("Canada", LeaderboardMetric.RATING, 10)).willReturn(List.of());
+
+        mockMvc.perform(get("/leaderboards/{country}", "Canada"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(leaderboardService).top("Canada", LeaderboardMetric.RATING, 10);
+    }
+
+    @Test
+    @DisplayName("GET /leaderboards/{country} returns 404 for unknown countries")
+    void findByCountry_returnsNotFound() throws Exception {
+        given(leaderboardService.top("Atlantis", LeaderboardMetric.RATING, 10))
+                .willThrow(new LeaderboardNotFoundException("Atlantis"));
+
+        mockMvc.perform(get("/leaderboards/{country}", "Atlantis"))
+                .andExpect(status().isNotFound());
+    }
+}
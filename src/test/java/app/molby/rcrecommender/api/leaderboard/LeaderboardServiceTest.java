@@ -0,0 +1,111 @@
+package app.molby.rcrecommender.api.leaderboard;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterRepository;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterSummary;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderboardServiceTest {
+
+    @Mock
+    private RollerCoasterRepository rollerCoasterRepository;
+
+    @Mock
+    private CoasterRatingStatsRepository ratingStatsRepository;
+
+    @InjectMocks
+    private LeaderboardService subject;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(subject, "size", 2);
+        when(rollerCoasterRepository.findAllSummaries()).thenReturn(List.of(
+                new RollerCoasterSummary(1L, "Millennium Force", "Cedar Point", "United States", new BigDecimal("4.80")),
+                new RollerCoasterSummary(2L, "Fury 325", "Carowinds", "United States", new BigDecimal("4.75")),
+                new RollerCoasterSummary(3L, "Iron Gwazi", "Busch Gardens", "United States", new BigDecimal("4.90")),
+                new RollerCoasterSummary(4L, "New Coaster", "Cedar Point", "United States", null),
+                new RollerCoasterSummary(5L, "Behemoth", "Canada's Wonderland", "Canada", new BigDecimal("4.60"))));
+        when(ratingStatsRepository.findAll()).thenReturn(List.of(
+                stats(1L, 500L, "2400"),
+                stats(2L, 300L, "1425"),
+                stats(3L, 100L, "490"),
+                stats(5L, 50L, "230")));
+    }
+
+    @Test
+    void top_ranksByRating_andKeepsOnlyConfiguredSize() {
+        List<LeaderboardEntry> result = subject.top("united states", LeaderboardMetric.RATING, 10);
+
+        assertEquals(List.of(3L, 1L), result.stream().map(LeaderboardEntry::coasterId).toList());
+        assertEquals(100L, result.get(0).ratingCount());
+    }
+
+    @Test
+    void top_ranksByRatingCount() {
+        List<LeaderboardEntry> result = subject.top("United States", LeaderboardMetric.COUNT, 1);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).coasterId());
+    }
+
+    @Test
+    void top_throwsNotFound_forUnknownCountry() {
+        assertThrows(LeaderboardNotFoundException.class,
+                () -> subject.top("Atlantis", LeaderboardMetric.RATING, 10));
+    }
+
+    @Test
+    void topRatedIn_mergesCountries_skipsExcludedAndUnknown() {
+        List<LeaderboardEntry> result =
+                subject.topRatedIn(List.of("Canada", "United States", "Atlantis"), Set.of(3L), 5);
+
+        assertEquals(List.of(1L, 5L), result.stream().map(LeaderboardEntry::coasterId).toList());
+    }
+
+    @Test
+    void reads_areServedFromSnapshot_untilRefreshed() {
+        subject.top("Canada", LeaderboardMetric.RATING, 10);
+        subject.topRatedIn(List.of("Canada"), Set.of(), 10);
+
+        verify(rollerCoasterRepository, times(1)).findAllSummaries();
+
+        subject.refresh();
+
+        verify(rollerCoasterRepository, times(2)).findAllSummaries();
+        verify(ratingStatsRepository, times(2)).findAll();
+    }
+
+    @Test
+    void refresh_prefersLiveMean_overOfflineAverage() {
+        when(ratingStatsRepository.findAll()).thenReturn(List.of(
+                stats(1L, 500L, "2400"),
+                stats(2L, 4L, "19.90"),
+                stats(4L, 0L, "0")));
+
+        subject.refresh();
+        List<LeaderboardEntry> result = subject.top("United States", LeaderboardMetric.RATING, 10);
+
+        assertEquals(List.of(2L, 3L), result.stream().map(LeaderboardEntry::coasterId).toList());
+        assertEquals(new BigDecimal("4.98"), result.get(0).averageRating());
+        assertEquals(0L, result.get(1).ratingCount());
+    }
+
+    private static CoasterRatingStats stats(long coasterId, long count, String sum) {
+        return new CoasterRatingStats(coasterId, count, new BigDecimal(sum), BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,163 @@
+package app.molby.rcrecommender.api.rating;
+
+import app.molby.rcrecommender.api.coaster.CoasterCatalog;
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
+import app.molby.rcrecommender.domain.rating.CoasterRatingBatchRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStatsRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CoasterRatingBulkService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CoasterRatingBulkServiceTest {
+
+    @Mock
+    private CoasterRatingBatchRepository batchRepository;
+
+    @Mock
+    private CoasterRatingStatsRepository ratingStatsRepository;
+
+    @Mock
+    private CoasterCatalog coasterCatalog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CoasterRatingBulkService subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new CoasterRatingBulkService(batchRepository, ratingStatsRepository, coasterCatalog,
+                eventPublisher, 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertAll_writesValidRatings_reportsInvalidOnes_andAppliesStatsDeltas() {
+        when(batchRepository.findExistingUserIds(Set.of("fred", "barney", "nobody")))
+                .thenReturn(Set.of("fred", "barney"));
+        when(coasterCatalog.contains(anyLong())).thenAnswer(invocation -> invocation.<Long>getArgument(0) != 999L);
+        when(batchRepository.upsertAll(any())).thenReturn(List.of(
+                new CoasterRatingValue("fred", 101L, new BigDecimal("3.00"))));
+
+        BulkRatingResponse result = subject.upsertAll(List.of(
+                rating("fred", 101L, "4.5"),
+                rating("barney", 101L, "5"),
+                rating("barney", 999L, "4"),
+                rating("nobody", 101L, "4"),
+                rating("fred", 102L, "6"),
+                rating("fred", 102L, "2.00")));
+
+        assertEquals(6, result.getReceived());
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        assertEquals(List.of(2, 3, 4), result.getRejected().stream().map(BulkRatingError::getIndex).toList());
+        assertEquals("Unknown roller coaster 999.", result.getRejected().get(0).getMessage());
+
+        ArgumentCaptor<Collection<CoasterRatingValue>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(batchRepository).upsertAll(written.capture());
+        assertEquals(List.of(
+                new CoasterRatingValue("fred", 101L, new BigDecimal("4.50")),
+                new CoasterRatingValue("barney", 101L, new BigDecimal("5.00")),
+                new CoasterRatingValue("fred", 102L, new BigDecimal("2.00"))), new ArrayList<>(written.getValue()));
+
+        ArgumentCaptor<Collection<CoasterRatingStats>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(ratingStatsRepository).apply(deltas.capture());
+        CoasterRatingStats coaster101 = deltas.getValue().stream()
+                .filter(delta -> delta.coasterId() == 101L).findFirst().orElseThrow();
+        assertEquals(1L, coaster101.ratingCount());
+        assertEquals(0, new BigDecimal("6.50").compareTo(coaster101.ratingSum()));
+
+        verify(eventPublisher).publishEvent(RecommendationInputsChangedEvent.forUsers(Set.of("fred", "barney")));
+        verify(eventPublisher, never()).publishEvent(RecommendationInputsChangedEvent.allUsers());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertAll_countsPairInsertedByConcurrentUploadAsReplacement() {
+        when(batchRepository.findExistingUserIds(Set.of("fred"))).thenReturn(Set.of("fred"));
+        when(coasterCatalog.contains(101L)).thenReturn(true);
+        // another upload inserted the pair first; the repository reports its value as replaced
+        when(batchRepository.upsertAll(any())).thenReturn(List.of(
+                new CoasterRatingValue("fred", 101L, new BigDecimal("4.00"))));
+
+        BulkRatingResponse result = subject.upsertAll(List.of(rating("fred", 101L, "5")));
+
+        assertEquals(0, result.getInserted());
+        assertEquals(1, result.getUpdated());
+        ArgumentCaptor<Collection<CoasterRatingStats>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(ratingStatsRepository).apply(deltas.capture());
+        CoasterRatingStats delta = deltas.getValue().iterator().next();
+        assertEquals(0L, delta.ratingCount());
+        assertEquals(0, BigDecimal.ONE.compareTo(delta.ratingSum()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertAll_validatesRatingsAfterRoundingToStoredScale() {
+        when(batchRepository.findExistingUserIds(Set.of("fred"))).thenReturn(Set.of("fred"));
+        when(coasterCatalog.contains(anyLong())).thenReturn(true);
+
+        BulkRatingResponse result = subject.upsertAll(List.of(
+                rating("fred", 101L, "0.004"),
+                rating("fred", 102L, "5.004"),
+                rating("fred", 103L, "5.005")));
+
+        assertEquals(List.of(0, 2), result.getRejected().stream().map(BulkRatingError::getIndex).toList());
+        assertEquals(1, result.getInserted());
+        ArgumentCaptor<Collection<CoasterRatingValue>> written = ArgumentCaptor.forClass(Collection.class);
+        verify(batchRepository).upsertAll(written.capture());
+        assertEquals(List.of(new CoasterRatingValue("fred", 102L, new BigDecimal("5.00"))),
+                new ArrayList<>(written.getValue()));
+    }
+
+    @Test
+    void upsertAll_withoutValidRatings_writesNothing() {
+        BulkRatingResponse result = subject.upsertAll(List.of(rating(" ", 101L, "4")));
+
+        assertEquals(1, result.getRejected().size());
+        assertEquals("User ID cannot be blank.", result.getRejected().get(0).getMessage());
+        verify(batchRepository, never()).upsertAll(any());
+        verifyNoInteractions(ratingStatsRepository, eventPublisher);
+    }
+
+    @Test
+    void upsertAll_rejectsOversizedUploads() {
+        List<CoasterRatingEntity> ratings = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            ratings.add(rating("fred", (long) i, "4"));
+        }
+
+        assertThrows(BulkRatingLimitExceededException.class, () -> subject.upsertAll(ratings));
+        verifyNoInteractions(batchRepository);
+    }
+
+    private static CoasterRatingEntity rating(String userId, Long coasterId, String value) {
+        CoasterRatingEntity entity = new CoasterRatingEntity();
+        entity.setUserId(userId);
+        entity.setCoasterId(coasterId);
+        entity.setRating(new BigDecimal(value));
+        return entity;
+    }
+}
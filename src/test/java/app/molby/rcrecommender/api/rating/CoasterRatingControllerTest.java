@@ -1,5 +1,7 @@
 package app.molby.rcrecommender.api.rating;
 
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
 import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -7,13 +9,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.util.List;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
@@ -21,6 +28,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +45,9 @@ class CoasterRatingControllerTest {
     @MockBean
     private CoasterRatingService ratingService;
 
+    @MockBean
+    private CoasterRatingBulkService bulkService;
+
     @MockBean
     private CoasterRatingMapper mapper;
 
@@ -85,6 +96,33 @@ class CoasterRatingControllerTest {
         verify(mapper).toDto(saved);
     }
 
+    @Test
+    @DisplayName("POST /ratings rejected by a database constraint returns 409 without SQL details")
+    void createRating_constraintViolation_returnsConflict() throws Exception {
+        String requestJson = """
+            {
+              "id": 0,
+              "userId": "fred_flinstone",
+              "coasterId": 102,
+              "rating": 4.5
+            }
+            """;
+
+        CoasterRatingEntity toSave = new CoasterRatingEntity();
+        given(mapper.toEntity(any(CoasterRatingDto.class))).willReturn(toSave);
+        given(ratingService.create(toSave)).willThrow(new DataIntegrityViolationException(
+                "insert or update on table \"user_roller_coaster_ratings\" violates foreign key constraint"));
+
+        mockMvc.perform(
+                        post("/ratings")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(requestJson)
+                )
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status", is(409)))
+                .andExpect(jsonPath("$.message", not(containsString("foreign key"))));
+    }
+
     @Test
     @DisplayName("GET /ratings/{id} returns a rating when found")
     void getById_returnsRating() throws Exception {
@@ -220,4 +258,100 @@ class CoasterRatingControllerTest {
 
         verify(ratingService).delete(id);
     }
+
+    @Test
+    @DisplayName("POST /ratings/bulk upserts the ratings and reports rejected ones")
+    void createBulk_returnsSummary() throws Exception {
+        String requestJson = """
+            [
+              { "userId": "fred_flinstone", "coasterId": 102, "rating": 4.5 },
+              { "userId": "barney_rubble", "coasterId": 999, "rating": 3.0 }
+            ]
+            """;
+
+        given(mapper.toEntity(any(CoasterRatingDto.class))).willAnswer(invocation -> {
+            CoasterRatingDto dto = invocation.getArgument(0);
+            CoasterRatingEntity entity = new CoasterRatingEntity();
+            entity.setUserId(dto.getUserId());
+            entity.setCoasterId(dto.getCoasterId());
+            entity.setRating(dto.getRating());
+            return entity;
+        });
+        given(bulkService.upsertAll(any())).willReturn(new BulkRatingResponse(2, 1, 0,
+                List.of(new BulkRatingError(1, "Unknown roller coaster 999."))));
+
+        mockMvc.perform(
+                        post("/ratings/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(requestJson)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(2)))
+                .andExpect(jsonPath("$.inserted", is(1)))
+                .andExpect(jsonPath("$.rejected", hasSize(1)))
+                .andExpect(jsonPath("$.rejected[0].index", is(1)));
+
+        verify(bulkService).upsertAll(argThat(ratings -> ratings.size() == 2
+                && userId2.equals(ratings.get(1).getUserId())));
+    }
+
+    @Test
+    @DisplayName("POST /ratings/bulk returns 413 when the upload is too large")
+    void createBulk_tooLarge_returns413() throws Exception {
+        given(bulkService.upsertAll(any())).willThrow(new BulkRatingLimitExceededException(2, 1));
+
+        mockMvc.perform(
+                        post("/ratings/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[{}, {}]")
+                )
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    @DisplayName("GET /ratings?limit= returns a keyset page with a next link")
+    void findPage_returnsRatingsWithNextLink() throws Exception {
+        CoasterRatingEntity entity1 = new CoasterRatingEntity();
+        entity1.setId(2001L);
+        CoasterRatingEntity entity2 = new CoasterRatingEntity();
+        entity2.setId(2002L);
+
+        CoasterRatingDto dto1 = new CoasterRatingDto();
+        dto1.setId(2001L);
+        dto1.setUserId(userId1);
+        CoasterRatingDto dto2 = new CoasterRatingDto();
+        dto2.setId(2002L);
+        dto2.setUserId(userId1);
+
+        String next = KeysetCursor.encode(2002L);
+        given(ratingService.findPage(null, 2, userId1, null))
+                .willReturn(new KeysetPage<>(List.of(entity1, entity2), next));
+        given(mapper.toDto(entity1)).willReturn(dto1);
+        given(mapper.toDto(entity2)).willReturn(dto2);
+
+        mockMvc.perform(get("/ratings").param("limit", "2").param("userId", userId1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + next)))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("userId=" + userId1)))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(2001)))
+                .andExpect(jsonPath("$[1].id", is(2002)));
+
+        verify(ratingService).findPage(null, 2, userId1, null);
+    }
+
+    @Test
+    @DisplayName("GET /ratings?limit= omits the next link on the last page")
+    void findPage_lastPageHasNoNextLink() throws Exception {
+        String cursor = KeysetCursor.encode(2002L);
+        given(ratingService.findPage(cursor, 100, null, 102L)).willReturn(new KeysetPage<>(List.of(), null));
+
+        mockMvc.perform(get("/ratings")
+                        .param("after", cursor)
+                        .param("limit", "100")
+                        .param("coasterId", "102"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
 }
@@ -0,0 +1,139 @@
+package app.molby.rcrecommender.api.rating;
+
+import app.molby.rcrecommender.api.coaster.RollerCoasterNotFoundException;
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
+import app.molby.rcrecommender.api.user.UserNotFoundException;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CoasterRatingLookupController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class CoasterRatingLookupControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private CoasterRatingService ratingService;
+
+    @MockBean
+    private CoasterRatingMapper mapper;
+
+    @Test
+    @DisplayName("GET /users/{id}/ratings returns a page of the user's ratings with a next link")
+    void findByUser_returnsPageWithNextLink() throws Exception {
+        CoasterRatingRow row1 = new CoasterRatingRow(2001L, "superman", 102L, new BigDecimal("4.50"));
+        CoasterRatingRow row2 = new CoasterRatingRow(2417L, "superman", 240L, new BigDecimal("3.00"));
+        String next = KeysetCursor.encode(2417L);
+        given(ratingService.findPageByUser("superman", null, 2)).willReturn(new KeysetPage<>(List.of(row1, row2), next));
+        given(mapper.toDto(row1)).willReturn(new CoasterRatingDto(2001L, "superman", 102L, new BigDecimal("4.50")));
+        given(mapper.toDto(row2)).willReturn(new CoasterRatingDto(2417L, "superman", 240L, new BigDecimal("3.00")));
+
+        mockMvc.perform(get("/users/{id}/ratings", "superman").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + next)))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].coasterId", is(102)))
+                .andExpect(jsonPath("$[1].coasterId", is(240)));
+    }
+
+    @Test
+    @DisplayName("GET /users/{id}/ratings returns 404 for an unknown user")
+    void findByUser_unknownUser_returns404() throws Exception {
+        given(ratingService.findPageByUser("nobody", null, 100)).willThrow(new UserNotFoundException("nobody"));
+
+        mockMvc.perform(get("/users/{id}/ratings", "nobody"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /coasters/{id}/ratings omits the next link on the last page")
+    void findByCoaster_lastPageHasNoNextLink() throws Exception {
+        CoasterRatingRow row = new CoasterRatingRow(2002L, "batman", 102L, new BigDecimal("3.50"));
+        given(ratingService.findPageByCoaster(102L, null, 100)).willReturn(new KeysetPage<>(List.of(row), null));
+        given(mapper.toDto(row)).willReturn(new CoasterRatingDto(2002L, "batman", 102L, new BigDecimal("3.50")));
+
+        mockMvc.perform(get("/coasters/{id}/ratings", 102L))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].userId", is("batman")));
+    }
+
+    @Test
+    @DisplayName("GET /coasters/{id}/ratings with Accept: application/x-ndjson streams one rating per line")
+    void streamByCoaster_writesNdjson() throws Exception {
+        CoasterRatingRow row1 = new CoasterRatingRow(2001L, "superman", 102L, new BigDecimal("4.50"));
+        CoasterRatingRow row2 = new CoasterRatingRow(2002L, "batman", 102L, new BigDecimal("3.50"));
+        CoasterRatingDto dto1 = new CoasterRatingDto(2001L, "superman", 102L, new BigDecimal("4.50"));
+        CoasterRatingDto dto2 = new CoasterRatingDto(2002L, "batman", 102L, new BigDecimal("3.50"));
+        given(mapper.toDto(row1)).willReturn(dto1);
+        given(mapper.toDto(row2)).willReturn(dto2);
+        willAnswer(invocation -> {
+            Consumer<CoasterRatingRow> consumer = invocation.getArgument(2);
+            consumer.accept(row1);
+            consumer.accept(row2);
+            return null;
+        }).given(ratingService).streamByCoaster(eq(102L), eq(null), any());
+
+        MvcResult started = mockMvc.perform(get("/coasters/{id}/ratings", 102L)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(dto1) + "\n"
+                + objectMapper.writeValueAsString(dto2) + "\n", body);
+        verify(ratingService).requireCoaster(102L);
+    }
+
+    @Test
+    @DisplayName("GET /coasters/{id}/ratings stream returns 404 for an unknown coaster before streaming")
+    void streamByCoaster_unknownCoaster_returns404() throws Exception {
+        willThrow(new RollerCoasterNotFoundException(999L)).given(ratingService).requireCoaster(999L);
+
+        mockMvc.perform(get("/coasters/{id}/ratings", 999L)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+}
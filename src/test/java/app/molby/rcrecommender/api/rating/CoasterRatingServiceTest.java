@@ -1,15 +1,43 @@
 package app.molby.rcrecommender.api.rating;
 
+import app.molby.rcrecommender.api.coaster.CoasterCatalog;
+import app.molby.rcrecommender.api.coaster.RollerCoasterNotFoundException;
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
+import app.molby.rcrecommender.api.shared.InvalidCursorException;
+import app.molby.rcrecommender.api.shared.KeysetCursor;
+import app.molby.rcrecommender.api.shared.KeysetPage;
+import app.molby.rcrecommender.api.user.UserNotFoundException;
+import app.molby.rcrecommender.domain.rating.CoasterRatingBatchRepository;
 import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
 import app.molby.rcrecommender.domain.rating.CoasterRatingRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRow;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStatsRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
+import app.molby.rcrecommender.domain.user.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,6 +51,21 @@ class CoasterRatingServiceTest {
     @Mock
     private CoasterRatingRepository coasterRatingRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CoasterRatingStatsRepository ratingStatsRepository;
+
+    @Mock
+    private CoasterRatingBatchRepository batchRepository;
+
+    @Mock
+    private CoasterCatalog coasterCatalog;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CoasterRatingService subject;
 
@@ -31,18 +74,55 @@ class CoasterRatingServiceTest {
     // -------------------------------------------------------------------------
 
     @Test
-    void create_ShouldSaveAndReturnEntity() {
+    void create_ShouldUpsertAndReturnStoredEntity() {
         CoasterRatingEntity input = new CoasterRatingEntity();
-        CoasterRatingEntity saved = new CoasterRatingEntity();
-        saved.setId(1L);
+        input.setUserId("user-1");
+        input.setCoasterId(102L);
+        input.setRating(new BigDecimal("4.5"));
+        CoasterRatingEntity stored = rating(1L, "4.50");
 
-        when(coasterRatingRepository.save(input)).thenReturn(saved);
+        when(batchRepository.upsertAll(List.of(new CoasterRatingValue("user-1", 102L, new BigDecimal("4.5")))))
+                .thenReturn(List.of());
+        when(coasterRatingRepository.findByUserIdAndCoasterId("user-1", 102L)).thenReturn(Optional.of(stored));
+
+        CoasterRatingEntity result = subject.create(input);
+
+        assertSame(stored, result);
+        verify(coasterRatingRepository, never()).save(any());
+        verify(ratingStatsRepository).apply(
+                new CoasterRatingStats(102L, 1, new BigDecimal("4.50"), new BigDecimal("20.2500")));
+        verify(eventPublisher).publishEvent(new RecommendationInputsChangedEvent("user-1"));
+    }
+
+    @Test
+    void create_WhenAlreadyRated_ShouldReplaceRatingAndApplyChange() {
+        CoasterRatingEntity input = new CoasterRatingEntity();
+        input.setUserId("user-1");
+        input.setCoasterId(102L);
+        input.setRating(new BigDecimal("4.50"));
+
+        when(batchRepository.upsertAll(any())).thenReturn(
+                List.of(new CoasterRatingValue("user-1", 102L, new BigDecimal("4.00"))));
+        when(coasterRatingRepository.findByUserIdAndCoasterId("user-1", 102L))
+                .thenReturn(Optional.of(rating(1L, "4.50")));
 
         CoasterRatingEntity result = subject.create(input);
 
-        assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(coasterRatingRepository).save(input);
+        verify(ratingStatsRepository).apply(
+                new CoasterRatingStats(102L, 0, new BigDecimal("0.50"), new BigDecimal("4.2500")));
+    }
+
+    @Test
+    void create_WithoutCoaster_ShouldNotTouchStats() {
+        CoasterRatingEntity input = new CoasterRatingEntity();
+        input.setUserId("user-1");
+
+        when(coasterRatingRepository.save(input)).thenReturn(input);
+
+        subject.create(input);
+
+        verifyNoInteractions(ratingStatsRepository);
     }
 
     // -------------------------------------------------------------------------
@@ -101,6 +181,148 @@ class CoasterRatingServiceTest {
 //        verify(coasterRatingRepository).findAll();
     }
 
+    // -------------------------------------------------------------------------
+    // KEYSET PAGE
+    // -------------------------------------------------------------------------
+
+    @Test
+    void findPage_FirstPage_ShouldSeekFromStart_AndReturnNextCursor() {
+        CoasterRatingEntity r1 = new CoasterRatingEntity();
+        r1.setId(1L);
+        CoasterRatingEntity r2 = new CoasterRatingEntity();
+        r2.setId(2L);
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by("id"));
+        when(coasterRatingRepository.findByIdGreaterThan(Long.MIN_VALUE, pageable))
+                .thenReturn(new SliceImpl<>(List.of(r1, r2), pageable, true));
+
+        KeysetPage<CoasterRatingEntity> result = subject.findPage(null, 2, null, null);
+
+        assertEquals(List.of(r1, r2), result.items());
+        assertEquals(2L, KeysetCursor.decodeLong(result.nextCursor()));
+    }
+
+    @Test
+    void findPage_LastPage_ShouldHaveNoNextCursor() {
+        CoasterRatingEntity r3 = new CoasterRatingEntity();
+        r3.setId(3L);
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by("id"));
+        when(coasterRatingRepository.findByIdGreaterThan(2L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(r3), pageable, false));
+
+        KeysetPage<CoasterRatingEntity> result = subject.findPage(KeysetCursor.encode(2L), 2, null, null);
+
+        assertEquals(List.of(r3), result.items());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void findPage_WithFilters_ShouldUseMatchingQuery_AndClampLimit() {
+        PageRequest pageable = PageRequest.of(0, CoasterRatingService.MAX_PAGE_SIZE, Sort.by("id"));
+        when(coasterRatingRepository.findByUserIdAndIdGreaterThan("superman", 7L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(coasterRatingRepository.findByCoasterIdAndIdGreaterThan(102L, 7L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        when(coasterRatingRepository.findByUserIdAndCoasterIdAndIdGreaterThan("superman", 102L, 7L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        String cursor = KeysetCursor.encode(7L);
+        subject.findPage(cursor, 50_000, "superman", null);
+        subject.findPage(cursor, 50_000, null, 102L);
+        subject.findPage(cursor, 50_000, "superman", 102L);
+
+        verify(coasterRatingRepository).findByUserIdAndIdGreaterThan("superman", 7L, pageable);
+        verify(coasterRatingRepository).findByCoasterIdAndIdGreaterThan(102L, 7L, pageable);
+        verify(coasterRatingRepository).findByUserIdAndCoasterIdAndIdGreaterThan("superman", 102L, 7L, pageable);
+        verify(coasterRatingRepository, never()).findByIdGreaterThan(any(), any());
+    }
+
+    @Test
+    void findPage_MalformedCursor_ShouldThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class, () -> subject.findPage("not a cursor!", 10, null, null));
+        verifyNoInteractions(coasterRatingRepository);
+    }
+
+    // -------------------------------------------------------------------------
+    // BY USER / BY COASTER
+    // -------------------------------------------------------------------------
+
+    @Test
+    void findPageByUser_WhenUserExists_ShouldReturnRowsWithNextCursor() {
+        CoasterRatingRow r1 = new CoasterRatingRow(11L, "superman", 102L, new BigDecimal("4.50"));
+        CoasterRatingRow r2 = new CoasterRatingRow(17L, "superman", 240L, new BigDecimal("3.00"));
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by("id"));
+        when(userRepository.existsById("superman")).thenReturn(true);
+        when(coasterRatingRepository.findRowsByUserIdAndIdGreaterThan("superman", Long.MIN_VALUE, pageable))
+                .thenReturn(new SliceImpl<>(List.of(r1, r2), pageable, true));
+
+        KeysetPage<CoasterRatingRow> result = subject.findPageByUser("superman", null, 2);
+
+        assertEquals(List.of(r1, r2), result.items());
+        assertEquals(17L, KeysetCursor.decodeLong(result.nextCursor()));
+    }
+
+    @Test
+    void findPageByUser_WhenUserMissing_ShouldThrowUserNotFoundException() {
+        when(userRepository.existsById("nobody")).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> subject.findPageByUser("nobody", null, 10));
+        verifyNoInteractions(coasterRatingRepository);
+    }
+
+    @Test
+    void findPageByCoaster_ShouldSeekPastCursor_AndEndWithoutCursor() {
+        CoasterRatingRow r3 = new CoasterRatingRow(30L, "batman", 102L, new BigDecimal("5.00"));
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("id"));
+        when(coasterCatalog.contains(102L)).thenReturn(true);
+        when(coasterRatingRepository.findRowsByCoasterIdAndIdGreaterThan(102L, 17L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(r3), pageable, false));
+
+        KeysetPage<CoasterRatingRow> result = subject.findPageByCoaster(102L, KeysetCursor.encode(17L), 10);
+
+        assertEquals(List.of(r3), result.items());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void findPageByCoaster_WhenCoasterMissing_ShouldThrowRollerCoasterNotFoundException() {
+        when(coasterCatalog.contains(999L)).thenReturn(false);
+
+        assertThrows(RollerCoasterNotFoundException.class, () -> subject.findPageByCoaster(999L, null, 10));
+        verifyNoInteractions(coasterRatingRepository);
+    }
+
+    @Test
+    void streamByUser_ShouldReadKeysetPagesUntilLastPage() {
+        ReflectionTestUtils.setField(subject, "streamPageSize", 2);
+        CoasterRatingRow r1 = new CoasterRatingRow(18L, "superman", 102L, new BigDecimal("4.50"));
+        CoasterRatingRow r2 = new CoasterRatingRow(25L, "superman", 240L, new BigDecimal("3.00"));
+        CoasterRatingRow r3 = new CoasterRatingRow(31L, "superman", 301L, new BigDecimal("5.00"));
+        PageRequest pageable = PageRequest.of(0, 2, Sort.by("id"));
+        when(coasterRatingRepository.findRowsByUserIdAndIdGreaterThan("superman", 17L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(r1, r2), pageable, true));
+        when(coasterRatingRepository.findRowsByUserIdAndIdGreaterThan("superman", 25L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(r3), pageable, false));
+        List<CoasterRatingRow> streamed = new ArrayList<>();
+
+        subject.streamByUser("superman", 17L, streamed::add);
+
+        assertEquals(List.of(r1, r2, r3), streamed);
+        verify(coasterRatingRepository, times(2)).findRowsByUserIdAndIdGreaterThan(eq("superman"), anyLong(), eq(pageable));
+    }
+
+    @Test
+    void streamByCoaster_WhenNoRatings_ShouldReadOnePageFromTheStart() {
+        PageRequest pageable = PageRequest.of(0, 1000, Sort.by("id"));
+        when(coasterRatingRepository.findRowsByCoasterIdAndIdGreaterThan(102L, Long.MIN_VALUE, pageable))
+                .thenReturn(new SliceImpl<>(List.of(), pageable, false));
+        List<CoasterRatingRow> streamed = new ArrayList<>();
+
+        subject.streamByCoaster(102L, null, streamed::add);
+
+        assertTrue(streamed.isEmpty());
+        verify(coasterRatingRepository).findRowsByCoasterIdAndIdGreaterThan(102L, Long.MIN_VALUE, pageable);
+    }
+
     // -------------------------------------------------------------------------
     // UPDATE
     // -------------------------------------------------------------------------
@@ -108,12 +330,20 @@ class CoasterRatingServiceTest {
     @Test
     void update_WhenExists_ShouldSaveAndReturnUpdatedEntity() {
         Long id = 5L;
+        CoasterRatingEntity existing = new CoasterRatingEntity();
+        existing.setId(id);
+        existing.setUserId("user-1");
+        existing.setCoasterId(102L);
+        existing.setRating(new BigDecimal("4.00"));
         CoasterRatingEntity updated = new CoasterRatingEntity();
+        updated.setRating(new BigDecimal("4.50"));
 
-        when(coasterRatingRepository.existsById(id)).thenReturn(true);
+        when(coasterRatingRepository.findLockedById(id)).thenReturn(Optional.of(existing));
         when(coasterRatingRepository.save(updated)).thenAnswer(invocation -> {
             CoasterRatingEntity arg = invocation.getArgument(0);
             arg.setId(id);
+            // the managed entity takes on the merged state
+            existing.setRating(arg.getRating());
             return arg;
         });
 
@@ -121,8 +351,11 @@ class CoasterRatingServiceTest {
 
         assertNotNull(result);
         assertEquals(id, result.getId());
-        verify(coasterRatingRepository).existsById(id);
+        verify(coasterRatingRepository).findById(id);
         verify(coasterRatingRepository).save(updated);
+        verify(ratingStatsRepository).apply(
+                new CoasterRatingStats(102L, 0, new BigDecimal("0.50"), new BigDecimal("4.2500")));
+        verify(eventPublisher).publishEvent(new RecommendationInputsChangedEvent("user-1"));
     }
 
     @Test
@@ -130,14 +363,15 @@ class CoasterRatingServiceTest {
         Long id = 100L;
         CoasterRatingEntity updated = new CoasterRatingEntity();
 
-        when(coasterRatingRepository.existsById(id)).thenReturn(false);
+        when(coasterRatingRepository.findLockedById(id)).thenReturn(Optional.empty());
 
         CoasterRatingNotFoundException ex =
                 assertThrows(CoasterRatingNotFoundException.class, () -> subject.update(id, updated));
 
         assertTrue(ex.getMessage().contains(id.toString()));
-        verify(coasterRatingRepository).existsById(id);
+        verify(coasterRatingRepository).findById(id);
         verify(coasterRatingRepository, never()).save(any());
+        verifyNoInteractions(ratingStatsRepository, eventPublisher);
     }
 
     // -------------------------------------------------------------------------
@@ -147,26 +381,179 @@ class CoasterRatingServiceTest {
     @Test
     void delete_WhenExists_ShouldDeleteEntity() {
         Long id = 8L;
+        CoasterRatingEntity existing = new CoasterRatingEntity();
+        existing.setId(id);
+        existing.setUserId("user-1");
+        existing.setCoasterId(102L);
+        existing.setRating(new BigDecimal("4.00"));
 
-        when(coasterRatingRepository.existsById(id)).thenReturn(true);
+        when(coasterRatingRepository.findLockedById(id)).thenReturn(Optional.of(existing));
 
         subject.delete(id);
 
-        verify(coasterRatingRepository).existsById(id);
+        verify(coasterRatingRepository).findById(id);
         verify(coasterRatingRepository).deleteById(id);
+        verify(ratingStatsRepository).apply(
+                new CoasterRatingStats(102L, -1, new BigDecimal("-4.00"), new BigDecimal("-16.0000")));
+        verify(eventPublisher).publishEvent(new RecommendationInputsChangedEvent("user-1"));
     }
 
     @Test
     void delete_WhenMissing_ShouldThrowCoasterRatingNotFoundException() {
         Long id = 999L;
 
-        when(coasterRatingRepository.existsById(id)).thenReturn(false);
+        when(coasterRatingRepository.findLockedById(id)).thenReturn(Optional.empty());
 
         CoasterRatingNotFoundException ex =
                 assertThrows(CoasterRatingNotFoundException.class, () -> subject.delete(id));
 
         assertTrue(ex.getMessage().contains(id.toString()));
-        verify(coasterRatingRepository).existsById(id);
+        verify(coasterRatingRepository).findById(id);
         verify(coasterRatingRepository, never()).deleteById(any());
     }
+
+    @Test
+    void update_WhenConcurrent_ShouldKeepStatsInStepWithStoredRating() throws Exception {
+        LockedRating row = new LockedRating(new BigDecimal("4.00"));
+        CoasterRatingEntity first = new CoasterRatingEntity();
+        first.setRating(new BigDecimal("4.50"));
+        CoasterRatingEntity second = new CoasterRatingEntity();
+        second.setRating(new BigDecimal("5.00"));
+
+        List<Throwable> failures = concurrently(() -> subject.update(7L, first), () -> subject.update(7L, second));
+
+        assertEquals(List.of(), failures);
+        BigDecimal stored = row.rating.get();
+        assertEquals(CoasterRatingStats.of(102L, stored), row.stats.get());
+    }
+
+    @Test
+    void delete_WhenConcurrent_ShouldSubtractRatingOnce() throws Exception {
+        LockedRating row = new LockedRating(new BigDecimal("4.00"));
+
+        List<Throwable> failures = concurrently(() -> subject.delete(7L), () -> subject.delete(7L));
+
+        assertEquals(1, failures.size());
+        assertInstanceOf(CoasterRatingNotFoundException.class, failures.getFirst());
+        assertNull(row.rating.get());
+        assertEquals(0, row.stats.get().ratingCount());
+        assertEquals(0, row.stats.get().ratingSum().signum());
+        assertEquals(0, row.stats.get().ratingSumSquares().signum());
+    }
+
+    // -------------------------------------------------------------------------
+    // STATS
+    // -------------------------------------------------------------------------
+
+    @Test
+    void findStats_WhenRated_ShouldReturnStoredStats() {
+        CoasterRatingStats stats = new CoasterRatingStats(102L, 2, new BigDecimal("9.00"), new BigDecimal("40.50"));
+        when(coasterCatalog.contains(102L)).thenReturn(true);
+        when(ratingStatsRepository.findByCoasterId(102L)).thenReturn(Optional.of(stats));
+
+        assertEquals(stats, subject.findStats(102L));
+    }
+
+    @Test
+    void findStats_WhenNeverRated_ShouldReturnEmptyStats() {
+        when(coasterCatalog.contains(102L)).thenReturn(true);
+        when(ratingStatsRepository.findByCoasterId(102L)).thenReturn(Optional.empty());
+
+        CoasterRatingStats result = subject.findStats(102L);
+
+        assertEquals(0L, result.ratingCount());
+        assertNull(result.mean());
+    }
+
+    @Test
+    void findStats_WhenCoasterMissing_ShouldThrowRollerCoasterNotFoundException() {
+        when(coasterCatalog.contains(999L)).thenReturn(false);
+
+        assertThrows(RollerCoasterNotFoundException.class, () -> subject.findStats(999L));
+        verifyNoInteractions(ratingStatsRepository);
+    }
+
+    // --- helper --------------------------------------------------------------
+
+    private static CoasterRatingEntity rating(Long id, String value) {
+        CoasterRatingEntity entity = new CoasterRatingEntity();
+        entity.setId(id);
+        entity.setUserId("user-1");
+        entity.setCoasterId(102L);
+        entity.setRating(new BigDecimal(value));
+        return entity;
+    }
+
+    /**
+     * Rating 7 of user-1 on coaster 102 together with the coaster's stats row. The
+     * mocked repositories lock the rating on {@code findLockedById} and release it
+     * once the stats delta is applied, like a row lock held to the end of the
+     * transaction.
+     */
+    private final class LockedRating {
+
+        private final Semaphore rowLock = new Semaphore(1);
+        private final AtomicReference<BigDecimal> rating;
+        private final AtomicReference<CoasterRatingStats> stats;
+
+        LockedRating(BigDecimal initial) {
+            rating = new AtomicReference<>(initial);
+            stats = new AtomicReference<>(CoasterRatingStats.of(102L, initial));
+            when(coasterRatingRepository.findLockedById(7L)).thenAnswer(invocation -> {
+                rowLock.acquire();
+                BigDecimal current = rating.get();
+                if (current == null) {
+                    rowLock.release();
+                    return Optional.empty();
+                }
+                CoasterRatingEntity entity = new CoasterRatingEntity();
+                entity.setId(7L);
+                entity.setUserId("user-1");
+                entity.setCoasterId(102L);
+                entity.setRating(current);
+                return Optional.of(entity);
+            });
+            lenient().when(coasterRatingRepository.save(any())).thenAnswer(invocation -> {
+                CoasterRatingEntity saved = invocation.getArgument(0);
+                rating.set(saved.getRating());
+                return saved;
+            });
+            lenient().doAnswer(invocation -> {
+                rating.set(null);
+                return null;
+            }).when(coasterRatingRepository).deleteById(7L);
+            doAnswer(invocation -> {
+                stats.accumulateAndGet(invocation.getArgument(0), CoasterRatingStats::plus);
+                rowLock.release();
+                return null;
+            }).when(ratingStatsRepository).apply(any(CoasterRatingStats.class));
+        }
+    }
+
+    private static List<Throwable> concurrently(Runnable first, Runnable second) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : List.of(first, second)) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+            return failures;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
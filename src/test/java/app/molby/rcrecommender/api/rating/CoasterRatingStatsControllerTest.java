@@ -0,0 +1,58 @@
+package app.molby.rcrecommender.api.rating;
+
+import app.molby.rcrecommender.api.coaster.RollerCoasterNotFoundException;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CoasterRatingStatsController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class CoasterRatingStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CoasterRatingService ratingService;
+
+    @MockBean
+    private CoasterRatingMapper mapper;
+
+    @Test
+    @DisplayName("GET /coasters/{id}/rating-stats returns the coaster's rating statistics")
+    void findStats_returnsStats() throws Exception {
+        CoasterRatingStats stats = new CoasterRatingStats(101L, 2, new BigDecimal("9.00"), new BigDecimal("40.50"));
+        given(ratingService.findStats(101L)).willReturn(stats);
+        given(mapper.toStatsDto(stats)).willReturn(
+                new CoasterRatingStatsDto(101L, 2L, new BigDecimal("4.50"), 0.0, 0.0));
+
+        mockMvc.perform(get("/coasters/{id}/rating-stats", 101L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.coasterId", is(101)))
+                .andExpect(jsonPath("$.ratingCount", is(2)))
+                .andExpect(jsonPath("$.averageRating", is(4.50)))
+                .andExpect(jsonPath("$.variance", is(0.0)));
+    }
+
+    @Test
+    @DisplayName("GET /coasters/{id}/rating-stats returns 404 for unknown coasters")
+    void findStats_returnsNotFound() throws Exception {
+        given(ratingService.findStats(999L)).willThrow(new RollerCoasterNotFoundException(999L));
+
+        mockMvc.perform(get("/coasters/{id}/rating-stats", 999L))
+                .andExpect(status().isNotFound());
+    }
+}
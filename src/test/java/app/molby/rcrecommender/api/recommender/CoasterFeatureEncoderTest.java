@@ -0,0 +1,66 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CoasterFeatureEncoder}.
+ */
+class CoasterFeatureEncoderTest {
+
+    @Test
+    void fit_addsOneHotColumnPerDistinctCategory() {
+        CoasterFeatureEncoder encoder = CoasterFeatureEncoder.fit(List.of(
+                coaster(100, "Steel", "Intamin"),
+                coaster(200, " steel ", "B&M"),
+                coaster(300, "Wood", null)));
+
+        // 8 numeric + 2 types + 2 manufacturers
+        assertEquals(12, encoder.dimension());
+    }
+
+    @Test
+    void encode_producesUnitVector_andIgnoresUnknownCategories() {
+        CoasterFeatureEncoder encoder = CoasterFeatureEncoder.fit(List.of(
+                coaster(100, "Steel", null),
+                coaster(300, "Wood", null)));
+
+        float[] known = encoder.encode(coaster(300, "Wood", null));
+        float[] unknown = encoder.encode(coaster(300, "Hybrid", null));
+
+        assertEquals(1.0, norm(known), 1e-6);
+        assertEquals(1.0, norm(unknown), 1e-6);
+        assertEquals(1f, unknown[1], 1e-6f);
+        assertTrue(known[1] < 1f);
+    }
+
+    @Test
+    void encode_returnsZeroVector_whenNothingIsKnown() {
+        CoasterFeatureEncoder encoder = CoasterFeatureEncoder.fit(List.of(coaster(100, "Steel", null)));
+
+        float[] vector = encoder.encode(new RollerCoasterEntity());
+
+        assertEquals(0.0, norm(vector));
+    }
+
+    private double norm(float[] vector) {
+        double sum = 0;
+        for (float v : vector) {
+            sum += v * v;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private RollerCoasterEntity coaster(int height, String type, String manufacturer) {
+        RollerCoasterEntity entity = new RollerCoasterEntity();
+        entity.setHeight(BigDecimal.valueOf(height));
+        entity.setType(type);
+        entity.setManufacturer(manufacturer);
+        return entity;
+    }
+}
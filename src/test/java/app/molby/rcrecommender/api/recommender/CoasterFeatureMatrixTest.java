@@ -0,0 +1,69 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CoasterFeatureMatrix}.
+ */
+class CoasterFeatureMatrixTest {
+
+    @Test
+    void build_skipsCoastersWithoutId_andIndexesRows() {
+        RollerCoasterEntity noId = coaster(null, 10, "Steel");
+        CoasterFeatureMatrix matrix = CoasterFeatureMatrix.build(
+                List.of(coaster(5L, 100, "Steel"), noId, coaster(6L, 200, "Wood")));
+
+        assertEquals(2, matrix.size());
+        assertEquals(0, matrix.rowOf(5L));
+        assertEquals(1, matrix.rowOf(6L));
+        assertEquals(-1, matrix.rowOf(7L));
+        assertEquals(6L, matrix.coasterId(1));
+    }
+
+    @Test
+    void score_returnsCosineSimilarityOfUnitRows() {
+        CoasterFeatureMatrix matrix = CoasterFeatureMatrix.build(
+                List.of(coaster(1L, 100, null), coaster(2L, 300, null)));
+
+        float[] profile = new float[matrix.dimension()];
+        matrix.accumulate(0, 1f, profile);
+        float[] scores = new float[matrix.size()];
+        matrix.score(profile, scores);
+
+        assertEquals(1.0, scores[0], 1e-6);
+        assertEquals(-1.0, scores[1], 1e-6);
+    }
+
+    @Test
+    void score_matchesBetweenScalarAndPreferredKernels() {
+        List<RollerCoasterEntity> catalog = List.of(
+                coaster(1L, 100, "Steel"), coaster(2L, 300, "Wood"), coaster(3L, 205, "Steel"),
+                coaster(4L, 50, "Hybrid"), coaster(5L, 410, "Steel"));
+        CoasterFeatureMatrix scalar = CoasterFeatureMatrix.build(catalog, new ScalarFeatureKernel());
+        CoasterFeatureMatrix preferred = CoasterFeatureMatrix.build(catalog, FeatureKernel.preferred());
+
+        float[] profile = new float[scalar.dimension()];
+        scalar.accumulate(2, 1f, profile);
+        float[] expected = new float[scalar.size()];
+        float[] actual = new float[preferred.size()];
+        scalar.score(profile, expected);
+        preferred.score(profile, actual);
+
+        assertArrayEquals(expected, actual, 1e-5f);
+        assertEquals(1.0, expected[2], 1e-6);
+    }
+
+    private RollerCoasterEntity coaster(Long id, int height, String type) {
+        RollerCoasterEntity entity = new RollerCoasterEntity();
+        entity.setId(id);
+        entity.setHeight(BigDecimal.valueOf(height));
+        entity.setType(type);
+        return entity;
+    }
+}
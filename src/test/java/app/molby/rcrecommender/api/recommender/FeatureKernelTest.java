@@ -0,0 +1,63 @@
+package app.molby.rcrecommender.api.recommender;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link FeatureKernel} implementations.
+ */
+class FeatureKernelTest {
+
+    private final FeatureKernel scalar = new ScalarFeatureKernel();
+    private final FeatureKernel preferred = FeatureKernel.preferred();
+
+    @Test
+    void preferred_isNeverNull() {
+        assertNotNull(preferred);
+    }
+
+    @Test
+    void preferred_loadsVectorKernel_whenModuleIsPresent() {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+        assertEquals(vectorModule, !(preferred instanceof ScalarFeatureKernel));
+    }
+
+    @Test
+    void axpy_matchesScalar_forLengthsAroundVectorWidth() {
+        Random random = new Random(42);
+        for (int length = 0; length < 70; length++) {
+            float[] x = randomArray(random, length + 3);
+            float[] expected = randomArray(random, length);
+            float[] actual = expected.clone();
+
+            scalar.axpy(0.75f, x, 3, expected, length);
+            preferred.axpy(0.75f, x, 3, actual, length);
+
+            assertArrayEquals(expected, actual, 1e-5f, "length " + length);
+        }
+    }
+
+    @Test
+    void dot_matchesScalar_forLengthsAroundVectorWidth() {
+        Random random = new Random(7);
+        for (int length = 0; length < 70; length++) {
+            float[] a = randomArray(random, length + 1);
+            float[] b = randomArray(random, length + 2);
+
+            assertEquals(scalar.dot(a, 1, b, 2, length), preferred.dot(a, 1, b, 2, length), 1e-4f,
+                    "length " + length);
+        }
+    }
+
+    private float[] randomArray(Random random, int length) {
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextFloat() * 2 - 1;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,169 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.api.coaster.CoasterCatalog;
+import app.molby.rcrecommender.api.shared.CatalogChangedEvent;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link LocalRecommendationEngine}.
+ */
+@ExtendWith(MockitoExtension.class)
+class LocalRecommendationEngineTest {
+
+    @Mock
+    private CoasterCatalog coasterCatalog;
+
+    @InjectMocks
+    private LocalRecommendationEngine subject;
+
+    @Test
+    void recommend_ranksSimilarCoastersFirst_andExcludesRatedCoasters() {
+        when(coasterCatalog.findAfter(isNull(), anyInt())).thenReturn(catalog());
+
+        UserRecommendRequest request = new UserRecommendRequest(
+                List.of("United States"), List.of(new UserRatingDto(1, 5.0)), 2);
+
+        List<CoasterRecommendation> result = subject.recommend(request);
+
+        assertEquals(2, result.size());
+        assertEquals(2, result.get(0).getCoasterId());
+        assertEquals(3, result.get(1).getCoasterId());
+        assertEquals("Big One Jr", result.get(0).getAdditionalProperties().get("name"));
+        assertTrue(result.stream().noneMatch(r -> r.getCoasterId() == 1));
+    }
+
+    @Test
+    void recommend_filtersByAccessibleCountries() {
+        when(coasterCatalog.findAfter(isNull(), anyInt())).thenReturn(catalog());
+
+        UserRecommendRequest request = new UserRecommendRequest(
+                List.of("Canada"), List.of(new UserRatingDto(1, 5.0)), 10);
+
+        List<CoasterRecommendation> result = subject.recommend(request);
+
+        assertEquals(1, result.size());
+        assertEquals(4, result.getFirst().getCoasterId());
+    }
+
+    @Test
+    void recommend_returnsEmptyList_whenNoRatedCoasterIsKnown() {
+        when(coasterCatalog.findAfter(isNull(), anyInt())).thenReturn(catalog());
+
+        UserRecommendRequest request = new UserRecommendRequest(
+                null, List.of(new UserRatingDto(999, 4.0)), 10);
+
+        assertTrue(subject.recommend(request).isEmpty());
+    }
+
+    @Test
+    void recommend_reusesFeatureMatrixUntilRefreshed() {
+        when(coasterCatalog.findAfter(isNull(), anyInt())).thenReturn(catalog());
+        UserRecommendRequest request = new UserRecommendRequest(
+                null, List.of(new UserRatingDto(1, 4.0)), 3);
+
+        subject.recommend(request);
+        subject.recommend(request);
+        verify(coasterCatalog, times(1)).findAfter(isNull(), anyInt());
+
+        subject.refresh();
+        subject.recommend(request);
+        verify(coasterCatalog, times(2)).findAfter(isNull(), anyInt());
+    }
+
+    @Test
+    void recommend_rebuildsFeatureMatrix_afterCoasterCatalogChanges() {
+        when(coasterCatalog.findAfter(isNull(), anyInt())).thenReturn(catalog());
+        UserRecommendRequest request = new UserRecommendRequest(
+                null, List.of(new UserRatingDto(1, 4.0)), 3);
+
+        subject.recommend(request);
+        subject.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.COUNTRIES));
+        subject.recommend(request);
+        verify(coasterCatalog, times(1)).findAfter(isNull(), anyInt());
+
+        subject.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.COASTERS));
+        subject.recommend(request);
+
+        verify(coasterCatalog, times(2)).findAfter(isNull(), anyInt());
+    }
+
+    @Test
+    void recommend_doesNotCacheMatrix_whenRefreshedDuringBuild() {
+        when(coasterCatalog.findAfter(isNull(), anyInt()))
+                .thenAnswer(invocation -> {
+                    subject.refresh();
+                    return catalog();
+                })
+                .thenReturn(catalog());
+        UserRecommendRequest request = new UserRecommendRequest(
+                null, List.of(new UserRatingDto(1, 4.0)), 3);
+
+        assertFalse(subject.recommend(request).isEmpty());
+        subject.recommend(request);
+        subject.recommend(request);
+
+        verify(coasterCatalog, times(2)).findAfter(isNull(), anyInt());
+    }
+
+    @Test
+    void recommend_buildsFeatureMatrixOnce_forConcurrentMisses() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(coasterCatalog.findAfter(isNull(), anyInt())).thenAnswer(invocation -> {
+            building.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return catalog();
+        });
+        UserRecommendRequest request = new UserRecommendRequest(
+                null, List.of(new UserRatingDto(1, 4.0)), 3);
+
+        CompletableFuture<List<CoasterRecommendation>> first =
+                CompletableFuture.supplyAsync(() -> subject.recommend(request));
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<CoasterRecommendation>> second =
+                CompletableFuture.supplyAsync(() -> subject.recommend(request));
+        release.countDown();
+
+        assertEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        verify(coasterCatalog, times(1)).findAfter(isNull(), anyInt());
+    }
+
+    // --- helper --------------------------------------------------------------
+
+    private List<RollerCoasterEntity> catalog() {
+        return List.of(
+                coaster(1L, "Big One", "United States", 300, 90, 0),
+                coaster(2L, "Big One Jr", "United States", 280, 85, 0),
+                coaster(3L, "Middle", "United States", 150, 60, 3),
+                coaster(4L, "Kiddie Loop", "Canada", 40, 25, 6)
+        );
+    }
+
+    private RollerCoasterEntity coaster(Long id, String name, String country,
+                                        int height, int speed, int inversions) {
+        RollerCoasterEntity entity = new RollerCoasterEntity();
+        entity.setId(id);
+        entity.setName(name);
+        entity.setCountry(country);
+        entity.setHeight(BigDecimal.valueOf(height));
+        entity.setSpeed(BigDecimal.valueOf(speed));
+        entity.setInversionCount(BigDecimal.valueOf(inversions));
+        return entity;
+    }
+}
@@ -0,0 +1,54 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.api.leaderboard.LeaderboardEntry;
+import app.molby.rcrecommender.api.leaderboard.LeaderboardService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PopularityRecommenderTest {
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @InjectMocks
+    private PopularityRecommender subject;
+
+    @Test
+    void recommend_returnsTopRatedCoastersInCountries_excludingRatedOnes() {
+        LeaderboardEntry coaster = new LeaderboardEntry(
+                5L, "Behemoth", "Canada's Wonderland", "Canada", new BigDecimal("4.60"), 120L);
+
+        UserRecommendRequest request = new UserRecommendRequest(
+                List.of("Canada", "United States"), List.of(new UserRatingDto(1, 4.5), new UserRatingDto(2, 3.0)), 3);
+        when(leaderboardService.topRatedIn(List.of("Canada", "United States"), Set.of(1L, 2L), 3))
+                .thenReturn(List.of(coaster));
+
+        List<CoasterRecommendation> result = subject.recommend(request);
+
+        assertEquals(1, result.size());
+        assertEquals(5, result.get(0).getCoasterId());
+        assertEquals("Behemoth", result.get(0).getAdditionalProperties().get("name"));
+        assertEquals(4.6, (Double) result.get(0).getAdditionalProperties().get("score"), 1e-9);
+        assertEquals(PopularityRecommender.REASON, result.get(0).getAdditionalProperties().get("reason"));
+    }
+
+    @Test
+    void recommend_handlesRequestsWithoutRatings() {
+        UserRecommendRequest request = new UserRecommendRequest(List.of("Japan"), List.of(), null);
+        when(leaderboardService.topRatedIn(List.of("Japan"), Set.of(), PopularityRecommender.DEFAULT_TOP_K))
+                .thenReturn(List.of());
+
+        assertTrue(subject.recommend(request).isEmpty());
+    }
+}
@@ -0,0 +1,94 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.domain.recommendation.UserRecommendationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PrecomputedRecommendationsTest {
+
+    @Mock
+    private UserRecommendationRepository userRecommendationRepository;
+
+    private PrecomputedRecommendations subject;
+
+    @BeforeEach
+    void setUp() {
+        subject = new PrecomputedRecommendations(userRecommendationRepository, new ObjectMapper(), Duration.ofHours(26));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveAll_thenFindFresh_roundTripsRecommendations() {
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(42);
+        rec.addAdditionalProperty("name", "Millennium Force");
+        Instant computedAt = Instant.now();
+
+        subject.saveAll(Map.of("user-1", List.of(rec)), computedAt);
+
+        ArgumentCaptor<Map<String, String>> json = ArgumentCaptor.forClass(Map.class);
+        verify(userRecommendationRepository).saveAll(json.capture(), eq(computedAt));
+
+        when(userRecommendationRepository.findFresh(eq("user-1"), any(Instant.class)))
+                .thenReturn(Optional.of(json.getValue().get("user-1")));
+
+        List<CoasterRecommendation> found = subject.findFresh("user-1").orElseThrow();
+        assertEquals(1, found.size());
+        assertEquals(42, found.get(0).getCoasterId());
+        assertEquals("Millennium Force", found.get(0).getAdditionalProperties().get("name"));
+    }
+
+    @Test
+    void findFresh_asksForRowsYoungerThanMaxAge() {
+        when(userRecommendationRepository.findFresh(eq("user-1"), any(Instant.class))).thenReturn(Optional.empty());
+
+        assertTrue(subject.findFresh("user-1").isEmpty());
+
+        ArgumentCaptor<Instant> computedAfter = ArgumentCaptor.forClass(Instant.class);
+        verify(userRecommendationRepository).findFresh(eq("user-1"), computedAfter.capture());
+        Duration age = Duration.between(computedAfter.getValue(), Instant.now());
+        assertTrue(age.compareTo(Duration.ofHours(26)) >= 0 && age.compareTo(Duration.ofHours(27)) < 0);
+    }
+
+    @Test
+    void findFresh_ignoresUnreadableRows() {
+        when(userRecommendationRepository.findFresh(eq("user-1"), any(Instant.class))).thenReturn(Optional.of("{not json"));
+
+        assertTrue(subject.findFresh("user-1").isEmpty());
+    }
+
+    @Test
+    void inputsChanged_invalidatesOneOrAllUsers() {
+        subject.onInputsChanged(new RecommendationInputsChangedEvent("user-1"));
+        subject.onInputsChanged(RecommendationInputsChangedEvent.allUsers());
+
+        verify(userRecommendationRepository).invalidate(eq("user-1"), any(Instant.class));
+        verify(userRecommendationRepository).invalidateAll(any(Instant.class));
+    }
+
+    @Test
+    void inputsChanged_invalidatesExactlyTheNamedUsers_inOneStatement() {
+        subject.onInputsChanged(RecommendationInputsChangedEvent.forUsers(List.of("user-1", "user-2")));
+
+        verify(userRecommendationRepository).invalidate(eq(Set.of("user-1", "user-2")), any(Instant.class));
+        verify(userRecommendationRepository, never()).invalidateAll(any(Instant.class));
+    }
+}
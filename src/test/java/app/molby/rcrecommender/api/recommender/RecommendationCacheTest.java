@@ -0,0 +1,168 @@
+package app.molby.rcrecommender.api.recommender;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private RecommendationCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RecommendationCache(100, Duration.ofMinutes(1), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private List<CoasterRecommendation> load(String userId) {
+        loads.incrementAndGet();
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(userId.length());
+        return List.of(rec);
+    }
+
+    @Test
+    void get_loadsOnceAndServesRepeatCallsFromCache() {
+        List<CoasterRecommendation> first = cache.get("user-1", this::load);
+        List<CoasterRecommendation> second = cache.get("user-1", this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_dropsOnlyThatUsersEntry() {
+        cache.get("user-1", this::load);
+        cache.get("user-2", this::load);
+
+        cache.onInputsChanged(new RecommendationInputsChangedEvent("user-1"));
+        cache.get("user-1", this::load);
+        cache.get("user-2", this::load);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void usersEvent_dropsOnlyTheNamedUsers() {
+        cache.get("user-1", this::load);
+        cache.get("user-2", this::load);
+        cache.get("user-3", this::load);
+
+        cache.onInputsChanged(RecommendationInputsChangedEvent.forUsers(List.of("user-1", "user-2")));
+        cache.get("user-1", this::load);
+        cache.get("user-2", this::load);
+        cache.get("user-3", this::load);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void allUsersEvent_dropsEveryEntry() {
+        cache.get("user-1", this::load);
+        cache.get("user-2", this::load);
+
+        cache.onInputsChanged(RecommendationInputsChangedEvent.allUsers());
+        cache.get("user-1", this::load);
+        cache.get("user-2", this::load);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void readRacingUncommittedRatingWrite_isNotServedAfterCommit() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(TransactionalEventListenerFactory.class);
+            context.registerBean(RecommendationCache.class, () -> cache);
+            context.refresh();
+            cache.get("user-1", id -> recommendation(1));
+
+            // the rating write publishes inside its transaction ...
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                context.publishEvent(new RecommendationInputsChangedEvent("user-1"));
+
+                // ... while another request misses and still sees the old ratings
+                List<CoasterRecommendation> during = CompletableFuture
+                        .supplyAsync(() -> cache.get("user-1", id -> recommendation(1)))
+                        .join();
+                assertEquals(1, during.getFirst().getCoasterId());
+
+                TransactionSynchronizationUtils.triggerAfterCommit();
+                TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+
+            List<CoasterRecommendation> after = cache.get("user-1", id -> recommendation(2));
+            assertEquals(2, after.getFirst().getCoasterId());
+        }
+    }
+
+    @Test
+    void getAll_loadsOnlyMissingUsers_andSkipsUsersTheLoaderLeavesOut() {
+        cache.get("user-1", this::load);
+
+        Map<String, List<CoasterRecommendation>> result = cache.getAll(
+                List.of("user-1", "user-2", "ghost"),
+                missing -> {
+                    assertEquals(Set.of("user-2", "ghost"), missing);
+                    Map<String, List<CoasterRecommendation>> loaded = new HashMap<>();
+                    loaded.put("user-2", load("user-2"));
+                    return loaded;
+                });
+
+        assertEquals(Set.of("user-1", "user-2"), result.keySet());
+        assertEquals(2, loads.get());
+        assertSame(result.get("user-2"), cache.get("user-2", this::load));
+    }
+
+    @Test
+    void loaderExceptions_propagateAndAreNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get("user-1", id -> {
+            throw new IllegalStateException("engine unavailable");
+        }));
+
+        cache.get("user-1", this::load);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void hitsAndMisses_areExportedAsMetrics() {
+        cache.get("user-1", this::load);
+        cache.get("user-1", this::load);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", RecommendationCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", RecommendationCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+        assertNotNull(meterRegistry.get("cache.evictions")
+                .tag("cache", RecommendationCache.CACHE_NAME).functionCounter());
+    }
+
+    private List<CoasterRecommendation> recommendation(int coasterId) {
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(coasterId);
+        return List.of(rec);
+    }
+}
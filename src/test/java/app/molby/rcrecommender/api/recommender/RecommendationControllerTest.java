@@ -9,11 +9,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
+import java.util.Map;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -65,4 +68,45 @@ class RecommendationControllerTest {
         // Verify service interaction
         verify(recommendationService).getRecommendationsForUser(userId);
     }
+
+    @Test
+    @DisplayName("POST /api/recommendations/batch returns recommendations per user")
+    void findRecommendationsBatch_returnsRecommendationsPerUser() throws Exception {
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(1);
+
+        given(recommendationService.getRecommendationsForUsers(List.of("jean_luc_picard", "no_such_user")))
+                .willReturn(new BatchRecommendationResponse(
+                        Map.of("jean_luc_picard", List.of(rec)),
+                        List.of("no_such_user"),
+                        List.of()));
+
+        mockMvc.perform(
+                        post("/api/recommendations/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        { "userIds": ["jean_luc_picard", "no_such_user"] }
+                                        """)
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recommendations.jean_luc_picard", hasSize(1)))
+                .andExpect(jsonPath("$.recommendations.jean_luc_picard[0].coaster_id", is(1)))
+                .andExpect(jsonPath("$.unknownUserIds[0]", is("no_such_user")))
+                .andExpect(jsonPath("$.failedUserIds", hasSize(0)));
+
+        verify(recommendationService).getRecommendationsForUsers(List.of("jean_luc_picard", "no_such_user"));
+    }
+
+    @Test
+    @DisplayName("POST /api/recommendations/batch rejects an empty user list")
+    void findRecommendationsBatch_rejectsEmptyList() throws Exception {
+        mockMvc.perform(
+                        post("/api/recommendations/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{ \"userIds\": [] }")
+                )
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(recommendationService);
+    }
 }
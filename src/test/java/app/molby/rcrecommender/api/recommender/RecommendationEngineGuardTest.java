@@ -0,0 +1,112 @@
+package app.molby.rcrecommender.api.recommender;
+
+import app.molby.rcrecommender.config.RecommenderResilienceProperties;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RecommendationEngineGuardTest {
+
+    private final RecommendationEngine engine = mock(RecommendationEngine.class);
+    private final UserRecommendRequest request = new UserRecommendRequest(
+            List.of("Canada"), List.of(new UserRatingDto(1, 4.5)), 5);
+    private RecommendationEngineGuard subject;
+
+    @AfterEach
+    void tearDown() {
+        subject.destroy();
+    }
+
+    private static RecommenderResilienceProperties properties() {
+        RecommenderResilienceProperties properties = new RecommenderResilienceProperties();
+        properties.setTimeout(Duration.ofMillis(200));
+        properties.setMaxConcurrentCalls(1);
+        properties.setSlidingWindowSize(4);
+        properties.setMinimumNumberOfCalls(4);
+        properties.setWaitInOpenState(Duration.ofMinutes(1));
+        return properties;
+    }
+
+    @Test
+    void recommend_returnsEngineResults() {
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(7);
+        when(engine.recommend(request)).thenReturn(List.of(rec));
+        subject = new RecommendationEngineGuard(engine, properties());
+
+        assertEquals(List.of(rec), subject.recommend(request));
+    }
+
+    @Test
+    void recommend_timesOut_whenEngineHangs() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(engine.recommend(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        subject = new RecommendationEngineGuard(engine, properties());
+
+        long start = System.nanoTime();
+        RecommendationEngineUnavailableException ex =
+                assertThrows(RecommendationEngineUnavailableException.class, () -> subject.recommend(request));
+        release.countDown();
+
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+        assertSame(request, ex.getRequest());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+    }
+
+    @Test
+    void recommend_rejectsImmediately_whenBulkheadIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(engine.recommend(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        RecommenderResilienceProperties properties = properties();
+        properties.setTimeout(Duration.ofSeconds(5));
+        subject = new RecommendationEngineGuard(engine, properties);
+
+        CompletableFuture<List<CoasterRecommendation>> first = CompletableFuture.supplyAsync(() -> subject.recommend(request));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        RecommendationEngineUnavailableException ex =
+                assertThrows(RecommendationEngineUnavailableException.class, () -> subject.recommend(request));
+        assertInstanceOf(BulkheadFullException.class, ex.getCause());
+
+        release.countDown();
+        assertEquals(List.of(), first.get(5, TimeUnit.SECONDS));
+        verify(engine, times(1)).recommend(any());
+    }
+
+    @Test
+    void recommend_opensCircuit_afterRepeatedFailures() {
+        when(engine.recommend(any())).thenThrow(new IllegalStateException("engine down"));
+        subject = new RecommendationEngineGuard(engine, properties());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RecommendationEngineUnavailableException.class, () -> subject.recommend(request));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, subject.state());
+
+        RecommendationEngineUnavailableException ex =
+                assertThrows(RecommendationEngineUnavailableException.class, () -> subject.recommend(request));
+        assertInstanceOf(CallNotPermittedException.class, ex.getCause());
+        verify(engine, times(4)).recommend(any());
+    }
+}
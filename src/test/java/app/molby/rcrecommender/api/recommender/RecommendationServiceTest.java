@@ -1,20 +1,22 @@
 package app.molby.rcrecommender.api.recommender;
 
-import app.molby.rcrecommender.domain.rating.CoasterRatingEntity;
-import app.molby.rcrecommender.domain.user.UserEntity;
+import app.molby.rcrecommender.api.user.UserNotFoundException;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
+import app.molby.rcrecommender.domain.user.UserCountryAccessRow;
 import app.molby.rcrecommender.domain.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,7 +30,20 @@ public class RecommendationServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private RestTemplate restTemplate;
+    private CoasterRatingRepository coasterRatingRepository;
+
+    @Mock
+    private RecommendationEngineGuard recommendationEngineGuard;
+
+    @Mock
+    private PopularityRecommender popularityRecommender;
+
+    @Mock
+    private PrecomputedRecommendations precomputedRecommendations;
+
+    @Spy
+    private RecommendationCache recommendationCache =
+            new RecommendationCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
 
     @InjectMocks
     private RecommendationService subject;
@@ -39,56 +54,58 @@ public class RecommendationServiceTest {
     }
 
     @Test
-    void getRecommendationsForUser_returnsEmptyList_whenUserHasNoRatings() {
+    void getRecommendationsForUser_throwsUserNotFound_whenUserDoesNotExist() {
+        String userId = "missing-user";
+        when(userRepository.findCountryAccessByUserId(userId)).thenReturn(List.of());
+
+        assertThrows(UserNotFoundException.class, () -> subject.getRecommendationsForUser(userId));
+
+        verifyNoInteractions(coasterRatingRepository, recommendationEngineGuard);
+    }
+
+    @Test
+    void getRecommendationsForUser_returnsPopularCoasters_whenUserHasNoRatings() {
         String userId = "user-1";
-        UserEntity user = mock(UserEntity.class);
 
-        when(user.getCoasterRatings()).thenReturn(Collections.emptySet());
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.findCountryAccessByUserId(userId))
+                .thenReturn(List.of(new UserCountryAccessRow(userId, "Canada", "United States")));
+        when(coasterRatingRepository.findRatingValuesByUserId(userId)).thenReturn(List.of());
+        CoasterRecommendation popular = new CoasterRecommendation();
+        popular.setCoasterId(5);
+        when(popularityRecommender.recommend(any(UserRecommendRequest.class))).thenReturn(List.of(popular));
 
         List<CoasterRecommendation> result = subject.getRecommendationsForUser(userId);
 
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertEquals(List.of(popular), result);
 
-        verify(userRepository).findById(userId);
-        verifyNoInteractions(restTemplate);
+        ArgumentCaptor<UserRecommendRequest> captor = ArgumentCaptor.forClass(UserRecommendRequest.class);
+        verify(popularityRecommender).recommend(captor.capture());
+        assertEquals(List.of("Canada", "United States"), captor.getValue().getCountries());
+        assertTrue(captor.getValue().getRatings().isEmpty());
+        verifyNoInteractions(recommendationEngineGuard);
     }
 
     @Test
-    void getRecommendationsForUser_buildsRequest_callsRecommenderAndReturnsResults() {
+    void getRecommendationsForUser_buildsRequest_callsEngineAndReturnsResults() {
         String userId = "jean_luc_picard";
 
-        UserEntity user = mock(UserEntity.class);
-        CoasterRatingEntity rating1 = mock(CoasterRatingEntity.class);
-        CoasterRatingEntity rating2 = mock(CoasterRatingEntity.class);
-
-        when(rating1.getCoasterId()).thenReturn(42L);
-        when(rating1.getRating()).thenReturn(new BigDecimal("4.5"));
-        when(rating2.getCoasterId()).thenReturn(7L);
-        when(rating2.getRating()).thenReturn(new BigDecimal("3.0"));
-
-        Set<CoasterRatingEntity> ratings = new HashSet<>(Arrays.asList(rating1, rating2));
-        when(user.getCoasterRatings()).thenReturn(ratings);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.findCountryAccessByUserId(userId)).thenReturn(List.of(
+                new UserCountryAccessRow(userId, "United States", "Canada"),
+                new UserCountryAccessRow(userId, "United States", "Mexico")));
+        when(coasterRatingRepository.findRatingValuesByUserId(userId)).thenReturn(List.of(
+                new CoasterRatingValue(userId, 42L, new BigDecimal("4.5")),
+                new CoasterRatingValue(userId, 7L, new BigDecimal("3.0"))));
 
         CoasterRecommendation rec1 = new CoasterRecommendation();
         rec1.setCoasterId(42);
         CoasterRecommendation rec2 = new CoasterRecommendation();
         rec2.setCoasterId(7);
 
-        CoasterRecommendation[] body = new CoasterRecommendation[]{rec1, rec2};
-        ResponseEntity<CoasterRecommendation[]> response =
-                new ResponseEntity<>(body, HttpStatus.OK);
-
         ArgumentCaptor<UserRecommendRequest> requestCaptor =
                 ArgumentCaptor.forClass(UserRecommendRequest.class);
 
-        when(restTemplate.postForEntity(
-                anyString(),
-                any(UserRecommendRequest.class),
-                eq(CoasterRecommendation[].class))
-        ).thenReturn(response);
+        when(recommendationEngineGuard.recommend(any(UserRecommendRequest.class)))
+                .thenReturn(List.of(rec1, rec2));
 
         // Ensure defaultTopK has a deterministic value
         ReflectionTestUtils.setField(subject, "defaultTopK", 5);
@@ -100,56 +117,191 @@ public class RecommendationServiceTest {
         assertEquals(42, result.get(0).getCoasterId());
         assertEquals(7, result.get(1).getCoasterId());
 
-        verify(userRepository).findById(userId);
-        verify(restTemplate).postForEntity(
-                anyString(),
-                requestCaptor.capture(),
-                eq(CoasterRecommendation[].class)
-        );
-        verifyNoMoreInteractions(userRepository, restTemplate);
+        verify(userRepository).findCountryAccessByUserId(userId);
+        verify(coasterRatingRepository).findRatingValuesByUserId(userId);
+        verify(recommendationEngineGuard).recommend(requestCaptor.capture());
+        verifyNoMoreInteractions(userRepository, coasterRatingRepository, recommendationEngineGuard);
 
         UserRecommendRequest sentRequest = requestCaptor.getValue();
         assertNotNull(sentRequest);
-        assertEquals(1, sentRequest.getCountries().size());
-        assertEquals("United States", sentRequest.getCountries().getFirst());
+        assertEquals(List.of("United States", "Canada", "Mexico"), sentRequest.getCountries());
         assertEquals(2, sentRequest.getRatings().size());
+        assertEquals(42, sentRequest.getRatings().get(0).getCoasterId());
+        assertEquals(4.5, sentRequest.getRatings().get(0).getRating().doubleValue());
         assertEquals(5, sentRequest.getTopK());
     }
 
     @Test
-    void getRecommendationsForUser_returnsEmptyList_whenRecommenderResponseBodyIsNull() {
-        String userId = "user-2";
+    void buildUserRecommendRequest_usesHomeCountryOnly_whenNoAccessRules() {
+        String userId = "user-4";
 
-        UserEntity user = mock(UserEntity.class);
-        CoasterRatingEntity rating = mock(CoasterRatingEntity.class);
+        UserRecommendRequest request = subject.buildUserRecommendRequest(
+                List.of(new UserCountryAccessRow(userId, "Japan", null)),
+                List.of(new CoasterRatingValue(userId, 10L, new BigDecimal("4.0"))));
 
-        when(rating.getCoasterId()).thenReturn(10L);
-        when(rating.getRating()).thenReturn(new BigDecimal("4.0"));
-
-        Set<CoasterRatingEntity> ratings = Set.of(rating);
-        when(user.getCoasterRatings()).thenReturn(ratings);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        assertEquals(List.of("Japan"), request.getCountries());
+        assertEquals(1, request.getRatings().size());
+    }
 
-        ResponseEntity<CoasterRecommendation[]> response =
-                new ResponseEntity<>(null, HttpStatus.OK);
+    @Test
+    void getRecommendationsForUser_returnsEmptyList_whenEngineReturnsNothing() {
+        String userId = "user-2";
 
-        when(restTemplate.postForEntity(
-                anyString(),
-                any(UserRecommendRequest.class),
-                eq(CoasterRecommendation[].class))
-        ).thenReturn(response);
+        when(userRepository.findCountryAccessByUserId(userId))
+                .thenReturn(List.of(new UserCountryAccessRow(userId, "Canada", null)));
+        when(coasterRatingRepository.findRatingValuesByUserId(userId))
+                .thenReturn(List.of(new CoasterRatingValue(userId, 10L, new BigDecimal("4.0"))));
+        when(recommendationEngineGuard.recommend(any(UserRecommendRequest.class)))
+                .thenReturn(Collections.emptyList());
 
         List<CoasterRecommendation> result = subject.getRecommendationsForUser(userId);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(userRepository).findById(userId);
-        verify(restTemplate).postForEntity(
-                anyString(),
-                any(UserRecommendRequest.class),
-                eq(CoasterRecommendation[].class)
-        );
-        verifyNoMoreInteractions(userRepository, restTemplate);
+        verify(recommendationEngineGuard).recommend(any(UserRecommendRequest.class));
+        verifyNoMoreInteractions(recommendationEngineGuard);
+    }
+
+    @Test
+    void getRecommendationsForUser_servesRepeatCallsFromCache_untilInvalidated() {
+        String userId = "user-3";
+
+        when(userRepository.findCountryAccessByUserId(userId))
+                .thenReturn(List.of(new UserCountryAccessRow(userId, "Canada", null)));
+        when(coasterRatingRepository.findRatingValuesByUserId(userId))
+                .thenReturn(List.of(new CoasterRatingValue(userId, 10L, new BigDecimal("4.0"))));
+
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(42);
+        when(recommendationEngineGuard.recommend(any(UserRecommendRequest.class))).thenReturn(List.of(rec));
+
+        List<CoasterRecommendation> first = subject.getRecommendationsForUser(userId);
+        List<CoasterRecommendation> second = subject.getRecommendationsForUser(userId);
+
+        assertEquals(first, second);
+        verify(recommendationEngineGuard, times(1)).recommend(any(UserRecommendRequest.class));
+
+        recommendationCache.onInputsChanged(new RecommendationInputsChangedEvent(userId));
+        subject.getRecommendationsForUser(userId);
+
+        verify(recommendationEngineGuard, times(2)).recommend(any(UserRecommendRequest.class));
+    }
+
+    @Test
+    void getRecommendationsForUsers_loadsInBulk_andReportsUnknownAndFailedUsers() {
+        String withRatings = "user-a";
+        String withoutRatings = "user-b";
+        String failing = "user-c";
+        String unknown = "user-d";
+        List<String> userIds = List.of(withRatings, withoutRatings, failing, unknown, withRatings);
+
+        when(userRepository.findCountryAccessByUserIdIn(anyCollection())).thenReturn(List.of(
+                new UserCountryAccessRow(withRatings, "Canada", null),
+                new UserCountryAccessRow(withoutRatings, "Japan", null),
+                new UserCountryAccessRow(failing, "Germany", "France")));
+        when(coasterRatingRepository.findRatingValuesByUserIdIn(anyCollection())).thenReturn(List.of(
+                new CoasterRatingValue(withRatings, 10L, new BigDecimal("4.0")),
+                new CoasterRatingValue(failing, 11L, new BigDecimal("2.0"))));
+
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(42);
+        when(recommendationEngineGuard.recommend(any(UserRecommendRequest.class))).thenAnswer(invocation -> {
+            UserRecommendRequest request = invocation.getArgument(0);
+            if (request.getCountries().contains("Germany")) {
+                throw new IllegalStateException("engine unavailable");
+            }
+            return List.of(rec);
+        });
+        CoasterRecommendation popular = new CoasterRecommendation();
+        popular.setCoasterId(7);
+        when(popularityRecommender.recommend(any(UserRecommendRequest.class))).thenReturn(List.of(popular));
+
+        BatchRecommendationResponse response = subject.getRecommendationsForUsers(userIds);
+
+        assertEquals(List.of(withRatings, withoutRatings), List.copyOf(response.getRecommendations().keySet()));
+        assertEquals(List.of(rec), response.getRecommendations().get(withRatings));
+        assertEquals(List.of(popular), response.getRecommendations().get(withoutRatings));
+        assertEquals(List.of(unknown), response.getUnknownUserIds());
+        assertEquals(List.of(failing), response.getFailedUserIds());
+
+        verify(userRepository, times(1)).findCountryAccessByUserIdIn(anyCollection());
+        verify(coasterRatingRepository, times(1)).findRatingValuesByUserIdIn(anyCollection());
+        verify(recommendationEngineGuard, times(2)).recommend(any(UserRecommendRequest.class));
+        verify(userRepository, never()).findCountryAccessByUserId(anyString());
+    }
+
+    @Test
+    void getRecommendationsForUsers_servesCachedUsersWithoutQuerying() {
+        String userId = "user-e";
+
+        when(userRepository.findCountryAccessByUserId(userId))
+                .thenReturn(List.of(new UserCountryAccessRow(userId, "Canada", null)));
+        when(coasterRatingRepository.findRatingValuesByUserId(userId))
+                .thenReturn(List.of(new CoasterRatingValue(userId, 10L, new BigDecimal("4.0"))));
+        when(recommendationEngineGuard.recommend(any(UserRecommendRequest.class))).thenReturn(List.of());
+
+        subject.getRecommendationsForUser(userId);
+        BatchRecommendationResponse response = subject.getRecommendationsForUsers(List.of(userId));
+
+        assertTrue(response.getRecommendations().containsKey(userId));
+        verify(userRepository, never()).findCountryAccessByUserIdIn(anyCollection());
+        verify(recommendationEngineGuard, times(1)).recommend(any(UserRecommendRequest.class));
+    }
+
+    @Test
+    void getRecommendationsForUser_servesFreshPrecomputedResults_withoutQueryingInputs() {
+        String userId = "user-f";
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(42);
+
+        when(precomputedRecommendations.findFresh(userId)).thenReturn(Optional.of(List.of(rec)));
+
+        List<CoasterRecommendation> result = subject.getRecommendationsForUser(userId);
+
+        assertEquals(List.of(rec), result);
+        verifyNoInteractions(userRepository, coasterRatingRepository, recommendationEngineGuard);
+    }
+
+    @Test
+    void computeRecommendationsForUsers_bypassesCache() {
+        String userId = "user-g";
+
+        when(userRepository.findCountryAccessByUserIdIn(anyCollection()))
+                .thenReturn(List.of(new UserCountryAccessRow(userId, "Canada", null)));
+        when(coasterRatingRepository.findRatingValuesByUserIdIn(anyCollection()))
+                .thenReturn(List.of(new CoasterRatingValue(userId, 10L, new BigDecimal("4.0"))));
+        when(recommendationEngineGuard.recommend(any(UserRecommendRequest.class))).thenReturn(List.of());
+
+        subject.computeRecommendationsForUsers(List.of(userId));
+        subject.computeRecommendationsForUsers(List.of(userId));
+
+        verify(recommendationEngineGuard, times(2)).recommend(any(UserRecommendRequest.class));
+        verifyNoInteractions(precomputedRecommendations);
+    }
+
+    @Test
+    void getRecommendationsForUser_fallsBackToPopularCoasters_withoutCachingThem() {
+        String userId = "user-h";
+
+        when(userRepository.findCountryAccessByUserId(userId))
+                .thenReturn(List.of(new UserCountryAccessRow(userId, "Canada", null)));
+        when(coasterRatingRepository.findRatingValuesByUserId(userId))
+                .thenReturn(List.of(new CoasterRatingValue(userId, 10L, new BigDecimal("4.0"))));
+        when(recommendationEngineGuard.recommend(any(UserRecommendRequest.class))).thenAnswer(invocation -> {
+            throw new RecommendationEngineUnavailableException(invocation.getArgument(0), new IllegalStateException("open"));
+        });
+
+        CoasterRecommendation popular = new CoasterRecommendation();
+        popular.setCoasterId(99);
+        when(popularityRecommender.recommend(any(UserRecommendRequest.class))).thenReturn(List.of(popular));
+
+        assertEquals(List.of(popular), subject.getRecommendationsForUser(userId));
+        assertEquals(List.of(popular), subject.getRecommendationsForUser(userId));
+
+        ArgumentCaptor<UserRecommendRequest> fallbackRequest = ArgumentCaptor.forClass(UserRecommendRequest.class);
+        verify(popularityRecommender, times(2)).recommend(fallbackRequest.capture());
+        assertEquals(List.of("Canada"), fallbackRequest.getValue().getCountries());
+        verify(recommendationEngineGuard, times(2)).recommend(any(UserRecommendRequest.class));
     }
 }
@@ -0,0 +1,65 @@
+package app.molby.rcrecommender.api.recommender;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link RemoteRecommendationEngine}.
+ */
+@ExtendWith(MockitoExtension.class)
+class RemoteRecommendationEngineTest {
+
+    private static final String URL = "http://recommender.local/recommend";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @InjectMocks
+    private RemoteRecommendationEngine subject;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(subject, "recommenderApiUrl", URL);
+    }
+
+    @Test
+    void recommend_postsRequestAndReturnsBody() {
+        UserRecommendRequest request = new UserRecommendRequest(
+                List.of("Canada"), List.of(new UserRatingDto(1, 4.5)), 5);
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(9);
+
+        when(restTemplate.postForEntity(URL, request, CoasterRecommendation[].class))
+                .thenReturn(new ResponseEntity<>(new CoasterRecommendation[]{rec}, HttpStatus.OK));
+
+        List<CoasterRecommendation> result = subject.recommend(request);
+
+        assertEquals(1, result.size());
+        assertEquals(9, result.getFirst().getCoasterId());
+        verify(restTemplate).postForEntity(eq(URL), eq(request), eq(CoasterRecommendation[].class));
+    }
+
+    @Test
+    void recommend_returnsEmptyList_whenBodyIsNull() {
+        UserRecommendRequest request = new UserRecommendRequest();
+
+        when(restTemplate.postForEntity(URL, request, CoasterRecommendation[].class))
+                .thenReturn(new ResponseEntity<>(null, HttpStatus.OK));
+
+        assertTrue(subject.recommend(request).isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package app.molby.rcrecommender.api.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link CachedJsonResponses}.
+ */
+class CachedJsonResponsesTest {
+
+    private final CachedJsonResponses subject = new CachedJsonResponses(new ObjectMapper(), 100,
+            Duration.ofMinutes(1), new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private final Supplier<ResponseEntity<?>> producer = () -> {
+        renders.incrementAndGet();
+        return ResponseEntity.ok().header(HttpHeaders.LINK, "<next>").body(List.of("Canada", "Japan"));
+    };
+
+    @Test
+    void respond_ShouldRenderOnce_AndServeJsonWithStrongEtag() {
+        ResponseEntity<byte[]> first = subject.respond("countries", null, producer, new MockHttpServletRequest());
+        ResponseEntity<byte[]> second = subject.respond("countries", null, producer, new MockHttpServletRequest());
+
+        assertEquals(1, renders.get());
+        assertEquals("[\"Canada\",\"Japan\"]", new String(first.getBody()));
+        assertSame(first.getBody(), second.getBody());
+        assertTrue(first.getHeaders().getETag().startsWith("\""));
+        assertEquals("<next>", first.getHeaders().getFirst(HttpHeaders.LINK));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, first.getHeaders().getFirst(HttpHeaders.VARY));
+    }
+
+    @Test
+    void respond_ShouldServeGzipVariant_WhenAccepted() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8");
+
+        ResponseEntity<byte[]> response = subject.respond("countries", null, producer, request);
+        ResponseEntity<byte[]> plain = subject.respond("countries", null, producer, new MockHttpServletRequest());
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(plain.getHeaders().getETag(), response.getHeaders().getETag());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            assertEquals("[\"Canada\",\"Japan\"]", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    void respond_ShouldAnswer304_WhenIfNoneMatchMatches() {
+        String etag = subject.respond("countries", null, producer, new MockHttpServletRequest())
+                .getHeaders().getETag();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+
+        ResponseEntity<byte[]> response = subject.respond("countries", null, producer, request);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(etag, response.getHeaders().getETag());
+    }
+
+    @Test
+    void invalidate_ShouldRerender_ButKeepEtagWhenContentIsUnchanged() {
+        ResponseEntity<byte[]> before = subject.respond("countries", null, producer, new MockHttpServletRequest());
+        subject.respond("coasters", "null|100", producer, new MockHttpServletRequest());
+
+        subject.onCatalogChanged(new CatalogChangedEvent("countries"));
+        ResponseEntity<byte[]> after = subject.respond("countries", null, producer, new MockHttpServletRequest());
+        subject.respond("coasters", "null|100", producer, new MockHttpServletRequest());
+
+        assertEquals(3, renders.get());
+        assertEquals(before.getHeaders().getETag(), after.getHeaders().getETag());
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourQualityZero() {
+        assertTrue(CachedJsonResponses.acceptsGzip("gzip, deflate"));
+        assertFalse(CachedJsonResponses.acceptsGzip("gzip;q=0"));
+        assertFalse(CachedJsonResponses.acceptsGzip("identity"));
+        assertFalse(CachedJsonResponses.acceptsGzip(null));
+    }
+}
@@ -1,12 +1,19 @@
 package app.molby.rcrecommender.api.shared;
 
+import app.molby.rcrecommender.api.rating.BulkRatingLimitExceededException;
 import app.molby.rcrecommender.config.GlobalExceptionHandler;
+import app.molby.rcrecommender.config.JdbcConcurrencyLimitExceededException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -75,6 +82,98 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getTimestamp());
     }
 
+    // ---------------------------------------------------------
+    // 400 - InvalidCursorException
+    // ---------------------------------------------------------
+    @Test
+    void handleInvalidCursor_ShouldReturnErrorResponseWith400() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        when(request.getRequestURI()).thenReturn("/coasters");
+
+        InvalidCursorException ex = new InvalidCursorException("???");
+
+        ErrorResponse response = handler.handleInvalidCursor(ex, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), response.getStatus());
+        assertEquals("Bad Request", response.getError());
+        assertEquals(ex.getMessage(), response.getMessage());
+        assertEquals("/coasters", response.getPath());
+    }
+
+    // ---------------------------------------------------------
+    // 413 - BulkRatingLimitExceededException
+    // ---------------------------------------------------------
+    @Test
+    void handleBulkLimitExceeded_ShouldReturnErrorResponseWith413() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        when(request.getRequestURI()).thenReturn("/ratings/bulk");
+
+        BulkRatingLimitExceededException ex = new BulkRatingLimitExceededException(60000, 50000);
+
+        ErrorResponse response = handler.handleBulkLimitExceeded(ex, request);
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), response.getStatus());
+        assertEquals("Payload Too Large", response.getError());
+        assertEquals(ex.getMessage(), response.getMessage());
+        assertEquals("/ratings/bulk", response.getPath());
+    }
+
+    // ---------------------------------------------------------
+    // 409 - DataIntegrityViolationException
+    // ---------------------------------------------------------
+    @Test
+    void handleDataIntegrityViolation_ShouldReturn409WithoutSqlDetails() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        when(request.getRequestURI()).thenReturn("/ratings");
+
+        DataIntegrityViolationException ex = new DataIntegrityViolationException(
+                "could not execute statement; SQL [insert into user_roller_coaster_ratings ...]");
+
+        ErrorResponse response = handler.handleDataIntegrityViolation(ex, request);
+
+        assertEquals(HttpStatus.CONFLICT.value(), response.getStatus());
+        assertEquals("Conflict", response.getError());
+        assertFalse(response.getMessage().contains("SQL"));
+        assertEquals("/ratings", response.getPath());
+    }
+
+    // ---------------------------------------------------------
+    // 503 - saturated database
+    // ---------------------------------------------------------
+    @Test
+    void handleDatabaseUnavailable_WhenLimiterRejects_ShouldReturn503WithRetryAfter() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        when(request.getRequestURI()).thenReturn("/ratings");
+
+        Exception ex = new CannotCreateTransactionException("Could not open JPA EntityManager",
+                new JdbcConcurrencyLimitExceededException(3));
+
+        ResponseEntity<ErrorResponse> response = handler.handleDatabaseUnavailable(ex, request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getBody().getStatus());
+        assertEquals("/ratings", response.getBody().getPath());
+    }
+
+    @Test
+    void handleDatabaseUnavailable_WhenNotSaturated_ShouldReturn500() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        when(request.getRequestURI()).thenReturn("/ratings");
+
+        Exception ex = new DataAccessResourceFailureException("Connection refused");
+
+        ResponseEntity<ErrorResponse> response = handler.handleDatabaseUnavailable(ex, request);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
     // ---------------------------------------------------------
     // 500 - Generic Exception
     // ---------------------------------------------------------
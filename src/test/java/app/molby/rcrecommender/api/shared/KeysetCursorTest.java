@@ -0,0 +1,40 @@
+package app.molby.rcrecommender.api.shared;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link KeysetCursor}.
+ */
+class KeysetCursorTest {
+
+    @Test
+    void encode_ShouldRoundTripNumericKeys() {
+        String cursor = KeysetCursor.encode(102L);
+
+        assertNotEquals("102", cursor);
+        assertEquals(102L, KeysetCursor.decodeLong(cursor));
+    }
+
+    @Test
+    void encode_ShouldRoundTripTextKeys_AndBeUrlSafe() {
+        String cursor = KeysetCursor.encode("jean_luc_picard?/+");
+
+        assertFalse(cursor.contains("/") || cursor.contains("+") || cursor.contains("="));
+        assertEquals("jean_luc_picard?/+", KeysetCursor.decode(cursor));
+    }
+
+    @Test
+    void decode_ShouldReturnNull_WhenNoCursorGiven() {
+        assertNull(KeysetCursor.decodeLong(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void decode_ShouldRejectMalformedCursors() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not base64!"));
+        assertThrows(InvalidCursorException.class,
+                () -> KeysetCursor.decodeLong(KeysetCursor.encode("abc")));
+    }
+}
@@ -0,0 +1,38 @@
+package app.molby.rcrecommender.api.shared;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link NdjsonStreams}.
+ */
+class NdjsonStreamsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_ShouldWriteOneValuePerLine_WithoutRootSeparator() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        NdjsonStreams.of(objectMapper, Map.class, line -> List.of(Map.of("id", 1), Map.of("id", 2), Map.of("id", 3))
+                .forEach(line)).writeTo(out);
+
+        assertEquals("{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void of_ShouldWriteNothing_WhenSourceIsEmpty() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        NdjsonStreams.of(objectMapper, Map.class, line -> { }).writeTo(out);
+
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+}
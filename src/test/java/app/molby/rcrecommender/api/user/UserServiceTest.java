@@ -1,6 +1,11 @@
 package app.molby.rcrecommender.api.user;
 
+import app.molby.rcrecommender.api.recommender.RecommendationInputsChangedEvent;
 import app.molby.rcrecommender.api.user.UserNotFoundException;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStats;
+import app.molby.rcrecommender.domain.rating.CoasterRatingStatsRepository;
+import app.molby.rcrecommender.domain.rating.CoasterRatingValue;
 import app.molby.rcrecommender.domain.user.UserEntity;
 import app.molby.rcrecommender.domain.user.UserRepository;
 import org.junit.jupiter.api.Test;
@@ -9,7 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +30,15 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CoasterRatingRepository coasterRatingRepository;
+
+    @Mock
+    private CoasterRatingStatsRepository ratingStatsRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService subject;
 
@@ -121,6 +137,28 @@ public class UserServiceTest {
         verify(userRepository).findById(id);
         verify(userRepository).save(existing);
         verifyNoMoreInteractions(userRepository);
+        verify(eventPublisher).publishEvent(new RecommendationInputsChangedEvent(id));
+    }
+
+    @Test
+    void update_shouldNotPublishEvent_whenCountryIsUnchanged() {
+        String id = "user-1";
+
+        UserEntity existing = new UserEntity();
+        existing.setId(id);
+        existing.setCountry("US");
+
+        UserEntity updated = new UserEntity();
+        updated.setFirstName("New");
+        updated.setCountry("US");
+
+        given(userRepository.findById(id)).willReturn(Optional.of(existing));
+        given(userRepository.save(existing)).willReturn(existing);
+
+        subject.update(id, updated);
+
+        assertEquals("New", existing.getFirstName());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -142,12 +180,19 @@ public class UserServiceTest {
         String id = "user-1";
 
         given(userRepository.existsById(id)).willReturn(true);
+        given(coasterRatingRepository.findRatingValuesByUserId(id)).willReturn(List.of(
+                new CoasterRatingValue(id, 101L, new BigDecimal("4.00")),
+                new CoasterRatingValue(id, 102L, new BigDecimal("3.00"))));
 
         subject.delete(id);
 
         verify(userRepository).existsById(id);
         verify(userRepository).deleteById(id);
         verifyNoMoreInteractions(userRepository);
+        verify(ratingStatsRepository).apply(List.of(
+                new CoasterRatingStats(101L, -1, new BigDecimal("-4.00"), new BigDecimal("-16.0000")),
+                new CoasterRatingStats(102L, -1, new BigDecimal("-3.00"), new BigDecimal("-9.0000"))));
+        verify(eventPublisher).publishEvent(new RecommendationInputsChangedEvent(id));
     }
 
     @Test
@@ -162,5 +207,6 @@ public class UserServiceTest {
         assertTrue(ex.getMessage().contains(id));
         verify(userRepository).existsById(id);
         verifyNoMoreInteractions(userRepository);
+        verifyNoInteractions(ratingStatsRepository);
     }
 }
\ No newline at end of file
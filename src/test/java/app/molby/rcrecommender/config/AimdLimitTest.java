@@ -0,0 +1,56 @@
+package app.molby.rcrecommender.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimitTest {
+
+    private static final long THRESHOLD = 100;
+
+    @Test
+    void onSample_WhenFastAndBusy_ShouldIncreaseByOneUpToMax() {
+        AimdLimit limit = new AimdLimit(10, 3, 11, 0.9, THRESHOLD);
+
+        limit.onSample(50, 8);
+        assertEquals(11, limit.get());
+
+        limit.onSample(50, 9);
+        assertEquals(11, limit.get());
+    }
+
+    @Test
+    void onSample_WhenFastButMostlyIdle_ShouldKeepLimit() {
+        AimdLimit limit = new AimdLimit(10, 3, 50, 0.9, THRESHOLD);
+
+        limit.onSample(50, 2);
+
+        assertEquals(10, limit.get());
+    }
+
+    @Test
+    void onSample_WhenSlow_ShouldDecreaseMultiplicatively() {
+        AimdLimit limit = new AimdLimit(20, 3, 50, 0.5, THRESHOLD);
+
+        limit.onSample(500, 20);
+
+        assertEquals(10, limit.get());
+    }
+
+    @Test
+    void onDropped_ShouldNotGoBelowMin() {
+        AimdLimit limit = new AimdLimit(4, 3, 50, 0.5, THRESHOLD);
+
+        limit.onDropped();
+        limit.onDropped();
+
+        assertEquals(3, limit.get());
+    }
+
+    @Test
+    void constructor_ShouldClampInitialLimitAndRejectBadSettings() {
+        assertEquals(50, new AimdLimit(500, 3, 50, 0.9, THRESHOLD).get());
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimit(10, 0, 50, 0.9, THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> new AimdLimit(10, 3, 50, 1.0, THRESHOLD));
+    }
+}
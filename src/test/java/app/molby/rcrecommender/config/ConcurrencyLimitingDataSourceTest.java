@@ -0,0 +1,97 @@
+package app.molby.rcrecommender.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitingDataSourceTest {
+
+    private static final long THRESHOLD = TimeUnit.SECONDS.toNanos(10);
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    void getConnection_WhenLimitReached_ShouldRejectImmediately() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(target, new AimdLimit(1, 1, 1, 0.5, THRESHOLD));
+
+        Connection first = dataSource.getConnection();
+
+        assertThrows(JdbcConcurrencyLimitExceededException.class, dataSource::getConnection);
+        verify(target, times(1)).getConnection();
+        assertEquals(1, dataSource.getInFlight());
+
+        first.close();
+        assertEquals(0, dataSource.getInFlight());
+        assertNotNull(dataSource.getConnection());
+        verify(connection).close();
+    }
+
+    @Test
+    void getConnection_WhenPoolTimesOut_ShouldShrinkLimitAndReleaseCaller() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool timeout"));
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(target, new AimdLimit(10, 3, 50, 0.5, THRESHOLD));
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        assertEquals(5, dataSource.getLimit());
+        assertEquals(0, dataSource.getInFlight());
+    }
+
+    @Test
+    void getConnection_WhenTargetFailsOtherwise_ShouldKeepLimit() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("bad credentials"));
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(target, new AimdLimit(10, 3, 50, 0.5, THRESHOLD));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(10, dataSource.getLimit());
+        assertEquals(0, dataSource.getInFlight());
+    }
+
+    @Test
+    void close_Twice_ShouldReleaseOnce() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(target, new AimdLimit(2, 1, 2, 0.5, THRESHOLD));
+
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.getInFlight());
+    }
+
+    @Test
+    void connection_ShouldDelegateAndExposeTarget() throws SQLException {
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        ConcurrencyLimitingDataSource dataSource =
+                new ConcurrencyLimitingDataSource(target, new AimdLimit(1, 1, 1, 0.5, THRESHOLD));
+
+        Connection limited = dataSource.getConnection();
+
+        assertTrue(limited.getAutoCommit());
+        assertSame(connection, ((ConnectionProxy) limited).getTargetConnection());
+    }
+}
@@ -0,0 +1,55 @@
+package app.molby.rcrecommender.config;
+
+import app.molby.rcrecommender.api.coaster.RollerCoasterMapper;
+import app.molby.rcrecommender.api.recommender.CoasterRecommendation;
+import app.molby.rcrecommender.api.recommender.UserRecommendRequest;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import app.molby.rcrecommender.domain.rating.CoasterRatingRow;
+import app.molby.rcrecommender.domain.user.UserEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void registerHints() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_ShouldCoverJacksonBindingOfEngineTypes() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(CoasterRecommendation.class, "setCoasterId").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(UserRecommendRequest.class, "getRatings").test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldCoverAnySetterOfCoasterRecommendation() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(CoasterRecommendation.class, "addAdditionalProperty").test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldCoverEntitiesAndProjections() {
+        for (Class<?> type : new Class<?>[] {RollerCoasterEntity.class, UserEntity.class, CoasterRatingRow.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                    .test(hints), type.getName());
+        }
+    }
+
+    @Test
+    void registerHints_ShouldCoverGeneratedMapperImplementations() {
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of(RollerCoasterMapper.class.getName() + "Impl"))
+                .withMemberCategories(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+    }
+}
@@ -0,0 +1,33 @@
+package app.molby.rcrecommender.config;
+
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecommenderConnectionPoolLifecycleTest {
+
+    private final PoolingHttpClientConnectionManager connectionManager = mock(PoolingHttpClientConnectionManager.class);
+    private final RecommenderConnectionPoolLifecycle lifecycle = new RecommenderConnectionPoolLifecycle(connectionManager);
+
+    @Test
+    void stop_ShouldCloseAllPooledConnections() {
+        lifecycle.start();
+
+        lifecycle.stop();
+
+        assertFalse(lifecycle.isRunning());
+        verify(connectionManager).closeExpired();
+        verify(connectionManager).closeIdle(TimeValue.ZERO_MILLISECONDS);
+    }
+
+    @Test
+    void start_ShouldLeaveThePoolAlone() {
+        lifecycle.start();
+
+        assertTrue(lifecycle.isRunning());
+        verifyNoInteractions(connectionManager);
+    }
+}
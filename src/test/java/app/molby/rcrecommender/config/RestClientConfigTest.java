@@ -1,13 +1,19 @@
 package app.molby.rcrecommender.config;
 
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.routing.HttpRoute;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -36,4 +42,43 @@ class RestClientConfigTest {
         assertNotNull(result);
         assertSame(restTemplate, result);
     }
+
+    @Test
+    void recommenderConnectionManager_appliesPoolSizesAndRouteOverrides() throws Exception {
+        RecommenderHttpProperties properties = new RecommenderHttpProperties();
+        properties.setMaxTotal(40);
+        properties.setMaxPerRoute(10);
+        properties.setRoutes(Map.of("https://recommender.example.com", 25));
+
+        try (PoolingHttpClientConnectionManager manager = config.recommenderConnectionManager(properties)) {
+            assertEquals(40, manager.getMaxTotal());
+            assertEquals(10, manager.getDefaultMaxPerRoute());
+            assertEquals(25, manager.getMaxPerRoute(RestClientConfig.route("https://recommender.example.com:443")));
+            assertEquals(10, manager.getMaxPerRoute(RestClientConfig.route("http://other.example.com")));
+        }
+    }
+
+    @Test
+    void route_defaultsPortFromScheme() {
+        HttpRoute https = RestClientConfig.route("https://recommender.example.com");
+        HttpRoute http = RestClientConfig.route("http://recommender.example.com");
+
+        assertEquals(443, https.getTargetHost().getPort());
+        assertTrue(https.isSecure());
+        assertEquals(80, http.getTargetHost().getPort());
+        assertFalse(http.isSecure());
+    }
+
+    @Test
+    void recommenderRestTemplate_usesPooledHttpClient() throws Exception {
+        RecommenderHttpProperties properties = new RecommenderHttpProperties();
+
+        try (PoolingHttpClientConnectionManager manager = config.recommenderConnectionManager(properties);
+             CloseableHttpClient httpClient = config.recommenderHttpClient(manager, properties)) {
+            RestTemplate result = config.recommenderRestTemplate(new RestTemplateBuilder(), httpClient);
+
+            assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, result.getRequestFactory());
+            assertSame(httpClient, ((HttpComponentsClientHttpRequestFactory) result.getRequestFactory()).getHttpClient());
+        }
+    }
 }
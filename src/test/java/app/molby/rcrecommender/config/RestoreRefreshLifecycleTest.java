@@ -0,0 +1,56 @@
+package app.molby.rcrecommender.config;
+
+import app.molby.rcrecommender.api.coaster.CoasterCatalog;
+import app.molby.rcrecommender.api.leaderboard.LeaderboardService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RestoreRefreshLifecycleTest {
+
+    @Mock
+    private CoasterCatalog coasterCatalog;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @InjectMocks
+    private RestoreRefreshLifecycle lifecycle;
+
+    @Test
+    void start_WhenFirstStarted_ShouldNotReload() {
+        lifecycle.start();
+
+        assertTrue(lifecycle.isRunning());
+        verifyNoInteractions(coasterCatalog, leaderboardService);
+    }
+
+    @Test
+    void start_WhenRestartedAfterStop_ShouldReloadCatalogAndLeaderboards() {
+        lifecycle.start();
+        lifecycle.stop();
+        assertFalse(lifecycle.isRunning());
+
+        lifecycle.start();
+
+        verify(coasterCatalog).reload();
+        verify(leaderboardService).refresh();
+        assertTrue(lifecycle.isRunning());
+    }
+
+    @Test
+    void getPhase_ShouldStartAfterDataSourceAndBeforeWebServer() {
+        int hikariRestorePhase = 0;
+
+        assertTrue(lifecycle.getPhase() > hikariRestorePhase);
+        assertTrue(lifecycle.getPhase() < WebServerApplicationContext.START_STOP_LIFECYCLE_PHASE);
+        assertTrue(lifecycle.getPhase() < WebServerApplicationContext.GRACEFUL_SHUTDOWN_PHASE);
+    }
+}
@@ -0,0 +1,51 @@
+package app.molby.rcrecommender.domain.rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoasterRatingStatsTest {
+
+    @Test
+    void meanAndVariance_areDerivedFromSums() {
+        CoasterRatingStats stats = CoasterRatingStats.of(1L, new BigDecimal("4.00"))
+                .plus(CoasterRatingStats.of(1L, new BigDecimal("5.00")))
+                .plus(CoasterRatingStats.of(1L, new BigDecimal("3.00")));
+
+        assertEquals(3L, stats.ratingCount());
+        assertEquals(new BigDecimal("4.00"), stats.mean());
+        assertEquals(2.0 / 3.0, stats.variance(), 1e-12);
+    }
+
+    @Test
+    void change_keepsCount_andRemovingEveryRatingLeavesNoMean() {
+        CoasterRatingStats stats = CoasterRatingStats.of(1L, new BigDecimal("2.00"))
+                .plus(CoasterRatingStats.change(1L, new BigDecimal("2.00"), new BigDecimal("4.50")));
+
+        assertEquals(1L, stats.ratingCount());
+        assertEquals(new BigDecimal("4.50"), stats.mean());
+        assertEquals(0.0, stats.variance());
+
+        CoasterRatingStats removed = stats.plus(CoasterRatingStats.of(1L, new BigDecimal("4.50")).negate());
+
+        assertEquals(0L, removed.ratingCount());
+        assertNull(removed.mean());
+        assertNull(removed.variance());
+    }
+
+    @Test
+    void aggregate_sumsPerCoaster_andSkipsRatingsWithoutCoaster() {
+        List<CoasterRatingStats> result = CoasterRatingStats.aggregate(List.of(
+                new CoasterRatingValue("u", 1L, new BigDecimal("4.00")),
+                new CoasterRatingValue("u", 2L, new BigDecimal("3.00")),
+                new CoasterRatingValue("v", 1L, new BigDecimal("2.00")),
+                new CoasterRatingValue("v", null, new BigDecimal("5.00"))));
+
+        assertEquals(2, result.size());
+        assertEquals(new CoasterRatingStats(1L, 2, new BigDecimal("6.00"), new BigDecimal("20.0000")), result.get(0));
+        assertEquals(2L, result.get(1).coasterId());
+    }
+}
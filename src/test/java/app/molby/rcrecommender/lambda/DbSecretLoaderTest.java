@@ -0,0 +1,102 @@
+package app.molby.rcrecommender.lambda;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSecretLoaderTest {
+
+    private static final String ARN = "arn:aws:secretsmanager:us-east-2:123456789012:secret:db";
+    private static final String SECRET = "{\"spring.datasource.url\":\"jdbc:postgresql://db/rc\"}";
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path cacheDir;
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final Function<String, String> fetcher = arn -> {
+        fetches.incrementAndGet();
+        return SECRET;
+    };
+
+    @Test
+    void load_WhenNotCached_ShouldFetchAndCache() throws Exception {
+        DbSecretLoader loader = loader(ARN, Duration.ofMinutes(5), NOW);
+
+        Map<String, String> props = loader.load();
+
+        assertEquals("jdbc:postgresql://db/rc", props.get("spring.datasource.url"));
+        assertEquals(1, fetches.get());
+        try (var files = Files.list(cacheDir)) {
+            assertEquals(1, files.filter(f -> f.toString().endsWith(".json")).count());
+        }
+    }
+
+    @Test
+    void load_WhenCachedWithinTtl_ShouldSkipFetch() {
+        loader(ARN, Duration.ofMinutes(5), NOW).load();
+
+        Map<String, String> props = loader(ARN, Duration.ofMinutes(5), NOW.plusSeconds(60)).load();
+
+        assertEquals("jdbc:postgresql://db/rc", props.get("spring.datasource.url"));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void load_WhenCacheExpired_ShouldFetchAgain() throws Exception {
+        loader(ARN, Duration.ofMinutes(5), NOW).load();
+        try (var files = Files.list(cacheDir)) {
+            for (Path file : files.toList()) {
+                Files.setLastModifiedTime(file, FileTime.from(NOW));
+            }
+        }
+
+        loader(ARN, Duration.ofMinutes(5), NOW.plus(Duration.ofMinutes(6))).load();
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void load_WhenArnChanges_ShouldNotReuseCache() {
+        loader(ARN, Duration.ofMinutes(5), NOW).load();
+
+        loader(ARN + "-other", Duration.ofMinutes(5), NOW).load();
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void load_WhenTtlIsZero_ShouldAlwaysFetch() throws Exception {
+        loader(ARN, Duration.ZERO, NOW).load();
+        loader(ARN, Duration.ZERO, NOW).load();
+
+        assertEquals(2, fetches.get());
+        try (var files = Files.list(cacheDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void load_WhenSecretIsNotJsonObject_ShouldThrow() {
+        DbSecretLoader loader = new DbSecretLoader(ARN, cacheDir, Duration.ZERO, arn -> "not json",
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThrows(IllegalStateException.class, loader::load);
+    }
+
+    private DbSecretLoader loader(String arn, Duration ttl, Instant now) {
+        return new DbSecretLoader(arn, cacheDir, ttl, fetcher, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,54 @@
+package app.molby.rcrecommender.lambda;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DbSecretPropertySourceTest {
+
+    private static final Map<String, String> SECRET = Map.of(
+            "spring.datasource.url", "jdbc:postgresql://db/rc",
+            "recommender.api.url", "http://recommender");
+
+    @Test
+    void getProperty_WhenPendingAndNotDatasource_ShouldNotWait() {
+        DbSecretPropertySource source = new DbSecretPropertySource(new CompletableFuture<>());
+
+        assertNull(source.getProperty("recommender.api.url"));
+    }
+
+    @Test
+    void getProperty_WhenPendingAndDatasource_ShouldWaitForSecret() throws Exception {
+        CompletableFuture<Map<String, String>> secret = new CompletableFuture<>();
+        DbSecretPropertySource source = new DbSecretPropertySource(secret);
+
+        CompletableFuture<Object> lookup = CompletableFuture.supplyAsync(
+                () -> source.getProperty("spring.datasource.url"));
+        assertFalse(lookup.isDone());
+
+        secret.complete(SECRET);
+        assertEquals("jdbc:postgresql://db/rc", lookup.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getProperty_WhenLoaded_ShouldResolveAllProperties() {
+        DbSecretPropertySource source = new DbSecretPropertySource(CompletableFuture.completedFuture(SECRET));
+
+        assertEquals("http://recommender", source.getProperty("recommender.api.url"));
+        assertNull(source.getProperty("spring.datasource.username"));
+    }
+
+    @Test
+    void await_WhenFetchFailed_ShouldThrow() {
+        DbSecretPropertySource source = new DbSecretPropertySource(
+                CompletableFuture.failedFuture(new IllegalStateException("denied")));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> source.getProperty("spring.datasource.url"));
+        assertEquals("denied", ex.getCause().getMessage());
+    }
+}
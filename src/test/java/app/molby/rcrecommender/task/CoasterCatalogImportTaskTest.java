@@ -0,0 +1,109 @@
+package app.molby.rcrecommender.task;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterBatchRepository;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterCursorRepository;
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoasterCatalogImportTaskTest {
+
+    @Mock
+    private RollerCoasterBatchRepository batchRepository;
+
+    @Mock
+    private RollerCoasterCursorRepository cursorRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void run_insertsChunks_thenImputesMissingValues() throws Exception {
+        Path file = tempDir.resolve("coasters.csv");
+        Files.writeString(file, """
+                name,amusement_park,speed
+                A,Park,50
+                B,Park,60
+                C,Park,
+                """);
+        when(batchRepository.insertAllIfAbsent(any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        RollerCoasterEntity complete = stored(1L, "80");
+        RollerCoasterEntity missing = stored(2L, null);
+        doAnswer(invocation -> {
+            Consumer<RollerCoasterEntity> consumer = invocation.getArgument(1);
+            consumer.accept(complete);
+            consumer.accept(missing);
+            return null;
+        }).when(cursorRepository).forEachAfter(isNull(), any());
+        when(batchRepository.updateImputed(any())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        new CoasterCatalogImportTask(batchRepository, cursorRepository, transactionTemplate,
+                file.toString(), 2, 5).run(null);
+
+        ArgumentCaptor<List<RollerCoasterEntity>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(2)).insertAllIfAbsent(chunks.capture());
+        assertEquals(List.of(2, 1), chunks.getAllValues().stream().map(List::size).toList());
+
+        ArgumentCaptor<List<RollerCoasterEntity>> imputed = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).updateImputed(imputed.capture());
+        assertEquals(List.of(missing), imputed.getValue());
+        assertEquals(new BigDecimal("80.00"), missing.getSpeed());
+    }
+
+    @Test
+    void run_failsWhenFileIsMissing() {
+        CoasterCatalogImportTask task = new CoasterCatalogImportTask(batchRepository, cursorRepository,
+                transactionTemplate, tempDir.resolve("missing.csv").toString(), 2, 5);
+
+        assertThrows(UncheckedIOException.class, () -> task.run(null));
+        verifyNoInteractions(batchRepository, cursorRepository);
+    }
+
+    private static RollerCoasterEntity stored(Long id, String speed) {
+        RollerCoasterEntity coaster = new RollerCoasterEntity();
+        coaster.setId(id);
+        coaster.setHeight(BigDecimal.TEN);
+        coaster.setSpeed(speed == null ? null : new BigDecimal(speed));
+        coaster.setLength(BigDecimal.ONE);
+        coaster.setDrop(BigDecimal.ONE);
+        coaster.setInversionCount(BigDecimal.ONE);
+        coaster.setVerticalAngle(BigDecimal.ONE);
+        coaster.setGForce(BigDecimal.ONE);
+        coaster.setDuration(BigDecimal.ONE);
+        coaster.setRestraints("Lap Bar");
+        coaster.setIntensity("Thrill");
+        return coaster;
+    }
+}
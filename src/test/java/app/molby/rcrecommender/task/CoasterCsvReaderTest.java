@@ -0,0 +1,68 @@
+package app.molby.rcrecommender.task;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoasterCsvReaderTest {
+
+    @Test
+    void read_mapsHeadersLeniently_andEmitsChunks() throws Exception {
+        String csv = """
+                Name,Amusement Park,imputed_height,inversionCount,Restraints,Country,Unknown
+                Millennium Force,Cedar Point,310,0,Lap Bar,United States,x
+                Fury 325,Carowinds,,0,,United States,y
+                Behemoth,Canada's Wonderland,230,,Lap Bar,Canada,z
+                """;
+        List<List<RollerCoasterEntity>> chunks = new ArrayList<>();
+
+        CoasterCsvReader.Result result = CoasterCsvReader.read(new StringReader(csv), 2, chunks::add);
+
+        assertEquals(3, result.rows());
+        assertEquals(0, result.skipped());
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+
+        RollerCoasterEntity first = chunks.get(0).get(0);
+        assertEquals("Millennium Force", first.getName());
+        assertEquals("Cedar Point", first.getAmusementPark());
+        assertEquals(new BigDecimal("310"), first.getHeight());
+        assertEquals(BigDecimal.ZERO, first.getInversionCount());
+        assertEquals("Lap Bar", first.getRestraints());
+        assertEquals("United States", first.getCountry());
+
+        RollerCoasterEntity second = chunks.get(0).get(1);
+        assertNull(second.getHeight());
+        assertNull(second.getRestraints());
+    }
+
+    @Test
+    void read_skipsRowsWithoutName_orWithInvalidNumbers() throws Exception {
+        String csv = """
+                name,speed
+                ,80
+                Maverick,fast
+                Steel Vengeance,74
+                """;
+        List<RollerCoasterEntity> coasters = new ArrayList<>();
+
+        CoasterCsvReader.Result result = CoasterCsvReader.read(new StringReader(csv), 10, coasters::addAll);
+
+        assertEquals(1, result.rows());
+        assertEquals(2, result.skipped());
+        assertEquals("Steel Vengeance", coasters.get(0).getName());
+        assertEquals(new BigDecimal("74"), coasters.get(0).getSpeed());
+    }
+
+    @Test
+    void normalize_ignoresCaseSeparatorsAndImputedPrefix() {
+        assertEquals("gforce", CoasterCsvReader.normalize("imputed_g_force"));
+        assertEquals("amusementpark", CoasterCsvReader.normalize("Amusement Park"));
+        assertEquals("verticalangle", CoasterCsvReader.normalize("verticalAngle"));
+    }
+}
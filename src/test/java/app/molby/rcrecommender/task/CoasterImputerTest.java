@@ -0,0 +1,81 @@
+package app.molby.rcrecommender.task;
+
+import app.molby.rcrecommender.domain.coaster.RollerCoasterEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoasterImputerTest {
+
+    @Test
+    void impute_fillsNumericValuesWithMeanOfNearestNeighbours() {
+        RollerCoasterEntity tallA = coaster("200", "60", "Lap Bar", "Steel");
+        RollerCoasterEntity tallB = coaster("210", "70", "Lap Bar", "Steel");
+        RollerCoasterEntity small = coaster("30", "5", "Harness", "Wood");
+        RollerCoasterEntity target = coaster("205", null, null, "Steel");
+
+        List<RollerCoasterEntity> changed = new CoasterImputer(2)
+                .impute(List.of(tallA, tallB, small, target));
+
+        assertEquals(List.of(target), changed);
+        assertEquals(new BigDecimal("65.00"), target.getSpeed());
+        assertEquals("Lap Bar", target.getRestraints());
+    }
+
+    @Test
+    void impute_usesOnlyOriginalValues_andLeavesCompleteCoastersAlone() {
+        RollerCoasterEntity donor = coaster("100", "50", "Lap Bar", "Steel");
+        RollerCoasterEntity first = coaster("100", null, null, "Steel");
+        RollerCoasterEntity second = coaster("100", null, null, "Steel");
+
+        List<RollerCoasterEntity> changed = new CoasterImputer(3).impute(List.of(donor, first, second));
+
+        assertEquals(2, changed.size());
+        // each target only sees the donor, never the other target's imputed value
+        assertEquals(new BigDecimal("50.00"), first.getSpeed());
+        assertEquals(new BigDecimal("50.00"), second.getSpeed());
+        assertEquals(new BigDecimal("50"), donor.getSpeed());
+    }
+
+    @Test
+    void impute_roundsInversionCountToWholeNumbers() {
+        RollerCoasterEntity a = coaster("100", "50", "Lap Bar", "Steel");
+        a.setInversionCount(new BigDecimal("1"));
+        RollerCoasterEntity b = coaster("100", "50", "Lap Bar", "Steel");
+        b.setInversionCount(new BigDecimal("2"));
+        RollerCoasterEntity target = coaster("100", "50", "Lap Bar", "Steel");
+        target.setInversionCount(null);
+
+        new CoasterImputer(2).impute(List.of(a, b, target));
+
+        assertEquals(new BigDecimal("2"), target.getInversionCount());
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new CoasterImputer(0));
+    }
+
+    /**
+     * Builds a coaster whose remaining statistics are set, so only the given
+     * ones can be missing.
+     */
+    private static RollerCoasterEntity coaster(String height, String speed, String restraints, String type) {
+        RollerCoasterEntity coaster = new RollerCoasterEntity();
+        coaster.setType(type);
+        coaster.setHeight(new BigDecimal(height));
+        coaster.setSpeed(speed == null ? null : new BigDecimal(speed));
+        coaster.setRestraints(restraints);
+        coaster.setLength(BigDecimal.ONE);
+        coaster.setDrop(BigDecimal.ONE);
+        coaster.setInversionCount(BigDecimal.ONE);
+        coaster.setVerticalAngle(BigDecimal.ONE);
+        coaster.setGForce(BigDecimal.ONE);
+        coaster.setIntensity("Thrill");
+        coaster.setDuration(BigDecimal.ONE);
+        return coaster;
+    }
+}
@@ -0,0 +1,136 @@
+package app.molby.rcrecommender.task;
+
+import app.molby.rcrecommender.api.recommender.BatchRecommendationResponse;
+import app.molby.rcrecommender.api.recommender.CoasterRecommendation;
+import app.molby.rcrecommender.api.recommender.PrecomputedRecommendations;
+import app.molby.rcrecommender.api.recommender.RecommendationService;
+import app.molby.rcrecommender.domain.recommendation.MaterializationCheckpoint;
+import app.molby.rcrecommender.domain.recommendation.MaterializationCheckpointRepository;
+import app.molby.rcrecommender.domain.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationMaterializationTaskTest {
+
+    private static final String JOB = RecommendationMaterializationTask.JOB_NAME;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RecommendationService recommendationService;
+
+    @Mock
+    private PrecomputedRecommendations precomputedRecommendations;
+
+    @Mock
+    private MaterializationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private RecommendationMaterializationTask subject;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        subject = new RecommendationMaterializationTask(userRepository, recommendationService,
+                precomputedRecommendations, checkpointRepository, transactionTemplate, 2);
+    }
+
+    private static BatchRecommendationResponse response(List<String> userIds) {
+        CoasterRecommendation rec = new CoasterRecommendation();
+        rec.setCoasterId(1);
+        Map<String, List<CoasterRecommendation>> recommendations = new LinkedHashMap<>();
+        userIds.forEach(id -> recommendations.put(id, List.of(rec)));
+        return new BatchRecommendationResponse(recommendations, List.of(), List.of());
+    }
+
+    @Test
+    void run_walksAllUsersInChunks_andCheckpointsEachChunk() {
+        when(checkpointRepository.find(JOB)).thenReturn(Optional.empty());
+        when(userRepository.findIdsAfter("", PageRequest.of(0, 2))).thenReturn(List.of("a", "b"));
+        when(userRepository.findIdsAfter("b", PageRequest.of(0, 2))).thenReturn(List.of("c"));
+        when(userRepository.findIdsAfter("c", PageRequest.of(0, 2))).thenReturn(List.of());
+        when(recommendationService.computeRecommendationsForUsers(List.of("a", "b"))).thenReturn(response(List.of("a", "b")));
+        when(recommendationService.computeRecommendationsForUsers(List.of("c"))).thenReturn(response(List.of("c")));
+
+        subject.run(null);
+
+        InOrder inOrder = inOrder(checkpointRepository, precomputedRecommendations);
+        inOrder.verify(checkpointRepository).start(eq(JOB), any(Instant.class));
+        inOrder.verify(precomputedRecommendations).saveAll(eq(response(List.of("a", "b")).getRecommendations()), any(Instant.class));
+        inOrder.verify(checkpointRepository).advance(JOB, "b");
+        inOrder.verify(precomputedRecommendations).saveAll(eq(response(List.of("c")).getRecommendations()), any(Instant.class));
+        inOrder.verify(checkpointRepository).advance(JOB, "c");
+        inOrder.verify(checkpointRepository).complete(eq(JOB), any(Instant.class));
+    }
+
+    @Test
+    void run_resumesAfterLastCommittedChunk_ofUnfinishedRun() {
+        when(checkpointRepository.find(JOB)).thenReturn(Optional.of(
+                new MaterializationCheckpoint(JOB, Instant.now(), "b", null)));
+        when(userRepository.findIdsAfter("b", PageRequest.of(0, 2))).thenReturn(List.of("c"));
+        when(userRepository.findIdsAfter("c", PageRequest.of(0, 2))).thenReturn(List.of());
+        when(recommendationService.computeRecommendationsForUsers(List.of("c"))).thenReturn(response(List.of("c")));
+
+        subject.run(null);
+
+        verify(checkpointRepository, never()).start(any(), any());
+        verify(recommendationService, never()).computeRecommendationsForUsers(List.of("a", "b"));
+        verify(checkpointRepository).advance(JOB, "c");
+        verify(checkpointRepository).complete(eq(JOB), any(Instant.class));
+    }
+
+    @Test
+    void run_startsOver_whenPreviousRunCompleted() {
+        when(checkpointRepository.find(JOB)).thenReturn(Optional.of(
+                new MaterializationCheckpoint(JOB, Instant.now(), "z", Instant.now())));
+        when(userRepository.findIdsAfter("", PageRequest.of(0, 2))).thenReturn(List.of());
+
+        subject.run(null);
+
+        verify(checkpointRepository).start(eq(JOB), any(Instant.class));
+        verify(checkpointRepository).complete(eq(JOB), any(Instant.class));
+    }
+
+    @Test
+    void run_leavesCheckpointAtLastCommittedChunk_whenAChunkFails() {
+        when(checkpointRepository.find(JOB)).thenReturn(Optional.empty());
+        when(userRepository.findIdsAfter("", PageRequest.of(0, 2))).thenReturn(List.of("a", "b"));
+        when(userRepository.findIdsAfter("b", PageRequest.of(0, 2))).thenReturn(List.of("c", "d"));
+        when(recommendationService.computeRecommendationsForUsers(List.of("a", "b"))).thenReturn(response(List.of("a", "b")));
+        when(recommendationService.computeRecommendationsForUsers(List.of("c", "d")))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThrows(IllegalStateException.class, () -> subject.run(null));
+
+        verify(checkpointRepository).advance(JOB, "b");
+        verify(checkpointRepository, never()).advance(JOB, "d");
+        verify(checkpointRepository, never()).complete(any(), any());
+    }
+}
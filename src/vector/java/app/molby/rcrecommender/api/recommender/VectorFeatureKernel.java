@@ -0,0 +1,57 @@
+package app.molby.rcrecommender.api.recommender;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD {@link FeatureKernel} built on the incubating {@code jdk.incubator.vector} API.
+ *
+ * <p>Lives in its own {@code vector} source set, the only one compiled against
+ * the incubator module, and is loaded reflectively by
+ * {@link FeatureKernel#preferred()} after it has confirmed the module is
+ * present, so it never fails on JVMs started without
+ * {@code --add-modules jdk.incubator.vector}.</p>
+ * @author Bob Molby
+ */
+final class VectorFeatureKernel implements FeatureKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public String toString() {
+        return "SIMD feature kernel (" + SPECIES.length() + " float lanes)";
+    }
+
+    @Override
+    public void axpy(float a, float[] x, int xOffset, float[] y, int length) {
+        FloatVector scale = FloatVector.broadcast(SPECIES, a);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector vx = FloatVector.fromArray(SPECIES, x, xOffset + i);
+            FloatVector vy = FloatVector.fromArray(SPECIES, y, i);
+            vx.fma(scale, vy).intoArray(y, i);
+        }
+        for (; i < length; i++) {
+            y[i] += a * x[xOffset + i];
+        }
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int i = 0;
+        int bound = SPECIES.loopBound(length);
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector va = FloatVector.fromArray(SPECIES, a, aOffset + i);
+            FloatVector vb = FloatVector.fromArray(SPECIES, b, bOffset + i);
+            acc = va.fma(vb, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+}